@@ -1,9 +1,14 @@
 package com.peerly;
 
+import com.peerly.config.NativeImageHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeImageHints.class)
 public class PeerlyApplication {
 
     public static void main(String[] args) {
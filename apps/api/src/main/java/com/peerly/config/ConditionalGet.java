@@ -0,0 +1,33 @@
+package com.peerly.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response is derived only from the listed tables.
+ * Such responses carry a weak ETag built from the tables' version fingerprints, and a
+ * request whose If-None-Match still matches is answered 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+    
+    /**
+     * Tables the response is built from (ResourceVersionService table constants)
+     */
+    String[] tables();
+    
+    /**
+     * Seconds a client may reuse the response without revalidating; 0 always revalidates
+     */
+    int maxAgeSeconds() default 0;
+    
+    /**
+     * Keep the serialized body (and a gzipped copy) for as long as the ETag stays the same, so
+     * repeated requests skip the handler, its queries and Jackson; only for handlers whose
+     * response depends on nothing but the path, the query string and the listed tables
+     */
+    boolean cacheBody() default false;
+}
@@ -0,0 +1,110 @@
+package com.peerly.config;
+
+import com.peerly.service.ResourceVersionService;
+import com.peerly.service.SerializedResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Adds ETag and Cache-Control to @ConditionalGet handlers and short-circuits matching If-None-Match.
+ * The ETag is computed from table fingerprints before the handler runs, so a 304 costs no
+ * service query. ETags are weak because the body may be served gzip-compressed.
+ * For cacheBody handlers a body cached under the same ETag is written here as well, and on a
+ * miss the request is tagged so SerializedResponseAdvice can cache what the handler returns.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    
+    static final String CACHE_KEY_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".cacheKey";
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+    static final String STAMP_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".stamp";
+    
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+    
+    @Autowired
+    private SerializedResponseCache responseCache;
+    
+    // Present only when replica routing is enabled
+    @Autowired
+    private ObjectProvider<ReplicaConsistency> replicaConsistency;
+    
+    @Value("${peerly.http.etag.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${peerly.http.response-cache.enabled:true}")
+    private boolean responseCacheEnabled;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled || !HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+        
+        StringBuilder versions = new StringBuilder();
+        for (String table : conditionalGet.tables()) {
+            versions.append(table).append('=').append(resourceVersionService.fingerprint(table)).append(';');
+        }
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, conditionalGet.maxAgeSeconds() > 0
+                ? "max-age=" + conditionalGet.maxAgeSeconds() + ", must-revalidate"
+                : "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return false;
+        }
+        
+        if (responseCacheEnabled && conditionalGet.cacheBody()) {
+            String key = request.getQueryString() == null
+                    ? request.getRequestURI()
+                    : request.getRequestURI() + "?" + request.getQueryString();
+            SerializedResponseCache.Entry cached = responseCache.get(key, etag);
+            if (cached != null) {
+                responseCache.write(cached, request, response);
+                return false;
+            }
+            request.setAttribute(CACHE_KEY_ATTRIBUTE, key);
+            request.setAttribute(ETAG_ATTRIBUTE, etag);
+            request.setAttribute(STAMP_ATTRIBUTE, responseCache.stamp(conditionalGet.tables()));
+            // The body will be cached under this ETag, so it must not come from a lagging replica
+            replicaConsistency.ifAvailable(ReplicaConsistency::requirePrimary);
+        }
+        return true;
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // Weak comparison: W/ prefixes are ignored
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.peerly.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the client's read-your-writes token (header, or the cookie set after its last write)
+ * to the request thread for the routing DataSource.
+ */
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+    
+    private final ReplicaConsistency consistency;
+    
+    public ConsistencyTokenFilter(ReplicaConsistency consistency) {
+        this.consistency = consistency;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(ReplicaConsistency.HEADER);
+        if (token == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (ReplicaConsistency.COOKIE.equals(cookie.getName())) {
+                    token = cookie.getValue();
+                }
+            }
+        }
+        consistency.beginRequest(ReplicaConsistency.parseLsn(token), response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            consistency.endRequest();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.peerly.config;
+
+import com.peerly.service.AdaptiveConcurrencyLimiter;
+import com.peerly.service.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiting and load shedding in front of the controllers.
+ * Every client gets a token bucket for all requests. Endpoints listed as expensive (unbounded
+ * lists, LIKE searches) also get a per-client, per-endpoint bucket and share an adaptive
+ * concurrency limit. Exhausted buckets answer 429, a full concurrency limit answers 503,
+ * both with Retry-After, before the request can take a database connection.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    
+    // Paths of the @GetMapping(params = "ids") handlers; "ids" anywhere else is just another parameter
+    private static final Set<String> BATCH_LOOKUP_PATHS = Set.of("/api/users", "/api/sessions", "/api/subjects");
+    
+    @Autowired
+    private TokenBucketRateLimiter rateLimiter;
+    
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${peerly.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+    
+    @Value("${peerly.rate-limit.client.capacity:100}")
+    private int clientCapacity;
+    
+    @Value("${peerly.rate-limit.client.refill-per-second:20}")
+    private double clientRefillPerSecond;
+    
+    @Value("${peerly.rate-limit.expensive.capacity:10}")
+    private int expensiveCapacity;
+    
+    @Value("${peerly.rate-limit.expensive.refill-per-second:1}")
+    private double expensiveRefillPerSecond;
+    
+    // "[METHOD ]pattern" entries, patterns relative to the context path
+    @Value("${peerly.rate-limit.expensive.endpoints:}")
+    private List<String> expensiveEndpoints;
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    
+    private TokenBucketRateLimiter.Limit clientLimit;
+    
+    private TokenBucketRateLimiter.Limit expensiveLimit;
+    
+    @PostConstruct
+    void init() {
+        clientLimit = new TokenBucketRateLimiter.Limit(clientCapacity, clientRefillPerSecond);
+        expensiveLimit = new TokenBucketRateLimiter.Limit(expensiveCapacity, expensiveRefillPerSecond);
+        for (String entry : expensiveEndpoints) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("\\s+", 2);
+            endpoints.add(parts.length == 2 ? new Endpoint(parts[0].toUpperCase(), parts[1]) : new Endpoint(null, parts[0]));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientId(request);
+        long wait = rateLimiter.tryAcquire("client:" + client, clientLimit);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "client");
+            return;
+        }
+    
+        Endpoint endpoint = match(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+    
+        wait = rateLimiter.tryAcquire("endpoint:" + endpoint.pattern() + ":" + client, expensiveLimit);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "endpoint");
+            return;
+        }
+    
+        int admitted = concurrencyLimiter.tryAcquire();
+        if (admitted < 0) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "concurrency");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            concurrencyLimiter.release(admitted, System.nanoTime() - start, failed);
+        }
+    }
+    
+    private Endpoint match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (HttpMethod.GET.matches(request.getMethod()) && BATCH_LOOKUP_PATHS.contains(path)
+                && request.getParameter("ids") != null) {
+            // Batch lookups by ID are bounded by peerly.batch.max-ids, unlike the list endpoints they share a path with
+            return null;
+        }
+        for (Endpoint endpoint : endpoints) {
+            if ((endpoint.method() == null || endpoint.method().equals(request.getMethod()))
+                    && pathMatcher.match(endpoint.pattern(), path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+    
+    private String clientId(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String scope) throws IOException {
+        meterRegistry.counter("peerly.ratelimit.rejections", "scope", scope).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Too many requests, retry after " + retryAfterSeconds + " seconds"
+                : "Server is busy, retry after " + retryAfterSeconds + " seconds");
+    }
+    
+    private record Endpoint(String method, String pattern) {
+    }
+}
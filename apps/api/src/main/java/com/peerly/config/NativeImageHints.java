@@ -0,0 +1,20 @@
+package com.peerly.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resource hints for the native image that Spring AOT cannot infer:
+ * the JCache provider and Ehcache configuration are only named in Hibernate properties.
+ */
+public class NativeImageHints implements RuntimeHintsRegistrar {
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("ehcache.xml");
+        hints.reflection().registerType(TypeReference.of("org.ehcache.jsr107.EhcacheCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
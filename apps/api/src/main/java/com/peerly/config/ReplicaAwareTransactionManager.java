@@ -0,0 +1,46 @@
+package com.peerly.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import javax.sql.DataSource;
+
+/**
+ * JPA transaction manager that records the primary's WAL position after each read-write commit,
+ * which becomes the read-your-writes token for the client that made the write.
+ */
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaAwareTransactionManager.class);
+    
+    private final JdbcTemplate primaryJdbcTemplate;
+    
+    private final ReplicaConsistency consistency;
+    
+    public ReplicaAwareTransactionManager(EntityManagerFactory entityManagerFactory, DataSource primaryDataSource,
+                                          ReplicaConsistency consistency) {
+        super(entityManagerFactory);
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.consistency = consistency;
+    }
+    
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        super.doCommit(status);
+        if (status.isReadOnly()) {
+            return;
+        }
+        try {
+            String lsn = primaryJdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+            consistency.writeCommitted(ReplicaConsistency.parseLsn(lsn));
+        } catch (DataAccessException e) {
+            // The write is committed; only the token is missing, so the client may briefly read stale data
+            log.warn("Could not read the WAL position after commit: {}", e.getMessage());
+        }
+    }
+}
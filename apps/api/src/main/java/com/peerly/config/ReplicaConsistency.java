@@ -0,0 +1,220 @@
+package com.peerly.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes bookkeeping for replica routing, based on PostgreSQL WAL positions (LSNs).
+ * After a write commits, the primary's current LSN becomes the client's consistency token
+ * (response header and cookie); later reads from that client may use the replica only once
+ * it has replayed past the token. Work outside a request (schedulers, event listeners)
+ * is held to the newest LSN this instance has committed instead. Work a request hands to
+ * another thread must carry the request's requirement along: capture() it on the request
+ * thread and run the task under callWith(). Loads whose results are cached beyond the request
+ * must read from the primary (requirePrimary() or onPrimary()), or a lagging replica's
+ * data would be served for the whole cache lifetime.
+ */
+public class ReplicaConsistency {
+    
+    public static final String HEADER = "X-Consistency-Token";
+    public static final String COOKIE = "peerly-consistency";
+    
+    private final ThreadLocal<RequestState> request = new ThreadLocal<>();
+    
+    private final AtomicLong lastCommittedLsn = new AtomicLong();
+    
+    private final Duration tokenTtl;
+    
+    private volatile long replayedLsn;
+    
+    private volatile boolean replicaAvailable;
+    
+    public ReplicaConsistency(Duration tokenTtl) {
+        this.tokenTtl = tokenTtl;
+    }
+    
+    /**
+     * Bind the client's token to the current request thread
+     * @param token LSN the client has written up to, or 0 if none
+     * @param response Response that receives the updated token after writes
+     */
+    public void beginRequest(long token, HttpServletResponse response) {
+        request.set(new RequestState(token, false, response));
+    }
+    
+    public void endRequest() {
+        request.remove();
+    }
+    
+    /**
+     * Record a committed write so later reads by the same client (and this instance) see it
+     * @param lsn Primary WAL position after the commit
+     */
+    public void writeCommitted(long lsn) {
+        lastCommittedLsn.accumulateAndGet(lsn, Math::max);
+        RequestState state = request.get();
+        if (state == null) {
+            return;
+        }
+        state.requiredLsn = Math.max(state.requiredLsn, lsn);
+        if (state.response != null && !state.response.isCommitted()) {
+            String token = formatLsn(state.requiredLsn);
+            state.response.setHeader(HEADER, token);
+            Cookie cookie = new Cookie(COOKIE, token);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) tokenTtl.toSeconds());
+            state.response.addCookie(cookie);
+        }
+    }
+    
+    /**
+     * Send every read of the current request to the primary, for responses that are cached
+     * beyond the request (a lagging replica would otherwise be cached under a current ETag)
+     */
+    public void requirePrimary() {
+        RequestState state = request.get();
+        if (state != null) {
+            state.primaryOnly = true;
+        }
+    }
+    
+    /**
+     * Read requirement of the current thread, to hand to work that runs on another thread
+     * @return The request's token and primary-only flag, or this instance's last commit outside a request
+     */
+    public Requirement capture() {
+        RequestState state = request.get();
+        if (state == null) {
+            return new Requirement(lastCommittedLsn.get(), false);
+        }
+        return new Requirement(state.requiredLsn, state.primaryOnly);
+    }
+    
+    /**
+     * Run work on the current thread under a requirement captured elsewhere.
+     * Writes it commits raise lastCommittedLsn but do not reach the original response.
+     * @param requirement Requirement from capture()
+     * @param work Work to run
+     * @return Result of the work
+     */
+    public <T> T callWith(Requirement requirement, Supplier<T> work) {
+        RequestState previous = request.get();
+        request.set(new RequestState(requirement.lsn(), requirement.primaryOnly(), null));
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+    
+    /**
+     * Run work with every read on the primary, inside or outside a request; for loads whose
+     * result is cached beyond the current request
+     * @param work Work to run
+     * @return Result of the work
+     */
+    public <T> T onPrimary(Supplier<T> work) {
+        RequestState state = request.get();
+        if (state == null) {
+            return callWith(new Requirement(lastCommittedLsn.get(), true), work);
+        }
+        boolean wasPrimaryOnly = state.primaryOnly;
+        state.primaryOnly = true;
+        try {
+            return work.get();
+        } finally {
+            state.primaryOnly = wasPrimaryOnly;
+        }
+    }
+    
+    /**
+     * Whether a read on the current thread may go to the replica
+     */
+    public boolean replicaCanServe() {
+        if (!replicaAvailable) {
+            return false;
+        }
+        RequestState state = request.get();
+        if (state != null && state.primaryOnly) {
+            return false;
+        }
+        long required = state != null ? state.requiredLsn : lastCommittedLsn.get();
+        return replayedLsn >= required;
+    }
+    
+    private void restore(RequestState previous) {
+        if (previous == null) {
+            request.remove();
+        } else {
+            request.set(previous);
+        }
+    }
+    
+    void replicaStatus(boolean available, long replayedLsn) {
+        this.replayedLsn = replayedLsn;
+        this.replicaAvailable = available;
+    }
+    
+    long getReplayedLsn() {
+        return replayedLsn;
+    }
+    
+    /**
+     * Parse a PostgreSQL LSN ("16/B374D848") or a token produced by formatLsn
+     * @return Position as an unsigned 64-bit number, or 0 if the value is not an LSN
+     */
+    public static long parseLsn(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int slash = value.indexOf('/');
+        try {
+            if (slash < 0) {
+                return Long.parseUnsignedLong(value.trim(), 16);
+            }
+            return (Long.parseLong(value.substring(0, slash).trim(), 16) << 32)
+                    | Long.parseLong(value.substring(slash + 1).trim(), 16);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    public static String formatLsn(long lsn) {
+        return Long.toHexString(lsn);
+    }
+    
+    /**
+     * What a read needs from the replica: replayed past lsn, or not used at all when primaryOnly
+     */
+    public record Requirement(long lsn, boolean primaryOnly) {
+    
+        /**
+         * Whether the read needs more than any replica within the lag limit: a token, or the primary
+         */
+        public boolean constrained() {
+            return lsn > 0 || primaryOnly;
+        }
+    
+        public Requirement withPrimary() {
+            return new Requirement(lsn, true);
+        }
+    }
+    
+    private static final class RequestState {
+    
+        private long requiredLsn;
+        private boolean primaryOnly;
+        private final HttpServletResponse response; // Null for work running under callWith
+    
+        private RequestState(long requiredLsn, boolean primaryOnly, HttpServletResponse response) {
+            this.requiredLsn = requiredLsn;
+            this.primaryOnly = primaryOnly;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.peerly.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read replica wiring, enabled with peerly.datasource.replica.enabled.
+ * Read-only transactions (@Transactional(readOnly = true), read-only TransactionTemplates)
+ * run on the replica while it is within the lag limit and has caught up with the caller's
+ * last write; everything else runs on the primary configured under spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "peerly.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("peerly.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${peerly.datasource.replica.url}") String url,
+                                              @Value("${peerly.datasource.replica.username}") String username,
+                                              @Value("${peerly.datasource.replica.password}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaConsistency replicaConsistency(@Value("${peerly.datasource.replica.token-ttl:PT1M}") Duration tokenTtl) {
+        return new ReplicaConsistency(tokenTtl);
+    }
+    
+    /**
+     * The routing decision has to wait until the first statement, after the transaction
+     * manager has marked the transaction read-only, hence the lazy proxy
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaConsistency consistency, MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, consistency, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         @Qualifier("primaryDataSource") DataSource primary,
+                                                         ReplicaConsistency consistency) {
+        return new ReplicaAwareTransactionManager(entityManagerFactory, primary, consistency);
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaConsistency consistency, MeterRegistry meterRegistry,
+                                               @Value("${peerly.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                               @Value("${peerly.datasource.replica.simulated-lag:PT0S}") Duration simulatedLag) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, consistency, maxLag, simulatedLag);
+        Gauge.builder("peerly.datasource.replica.lag", monitor, ReplicaLagMonitor::getReplayDelaySeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ConsistencyTokenFilter> consistencyTokenFilter(ReplicaConsistency consistency) {
+        FilterRegistrationBean<ConsistencyTokenFilter> registration =
+                new FilterRegistrationBean<>(new ConsistencyTokenFilter(consistency));
+        // After load shedding, before anything that can touch the database
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
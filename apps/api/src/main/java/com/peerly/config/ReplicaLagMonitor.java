@@ -0,0 +1,101 @@
+package com.peerly.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Polls the replica's replay position and publishes it to ReplicaConsistency.
+ * The replica is taken out of rotation when it cannot be reached or has fallen further
+ * behind than the configured maximum lag. Pointed at a server that is not in recovery
+ * (e.g. the primary itself) it reports that server's current position, delayed by the
+ * simulated lag, which stands in for a lagging replica in local testing.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private static final String STATUS_SQL =
+            "SELECT CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() ELSE pg_current_wal_lsn() END::text, " +
+            "CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    
+    private final JdbcTemplate replicaJdbcTemplate;
+    
+    private final ReplicaConsistency consistency;
+    
+    private final Duration maxLag;
+    
+    private final Duration simulatedLag;
+    
+    // (observed at millis, lsn) samples, used only to simulate lag
+    private final Deque<long[]> samples = new ArrayDeque<>();
+    
+    private volatile double replayDelaySeconds;
+    
+    private boolean available;
+    
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaConsistency consistency, Duration maxLag, Duration simulatedLag) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.consistency = consistency;
+        this.maxLag = maxLag;
+        this.simulatedLag = simulatedLag;
+    }
+    
+    @Scheduled(fixedDelayString = "${peerly.datasource.replica.poll-interval-ms:200}")
+    public void poll() {
+        long lsn;
+        double delay;
+        try {
+            Object[] status = replicaJdbcTemplate.queryForObject(STATUS_SQL,
+                    (rs, i) -> new Object[]{rs.getString(1), rs.getDouble(2)});
+            lsn = ReplicaConsistency.parseLsn((String) status[0]);
+            delay = (Double) status[1];
+        } catch (DataAccessException e) {
+            if (available) {
+                log.warn("Replica unavailable, routing all reads to the primary: {}", e.getMessage());
+            }
+            available = false;
+            consistency.replicaStatus(false, consistency.getReplayedLsn());
+            return;
+        }
+        
+        if (!simulatedLag.isZero()) {
+            long now = System.currentTimeMillis();
+            samples.addLast(new long[]{now, lsn});
+            long visibleBefore = now - simulatedLag.toMillis();
+            long[] visible = null;
+            while (!samples.isEmpty() && samples.peekFirst()[0] <= visibleBefore) {
+                visible = samples.pollFirst();
+            }
+            if (visible == null) {
+                // Not enough history yet: nothing is visible on the simulated replica
+                lsn = consistency.getReplayedLsn();
+            } else {
+                samples.addFirst(visible);
+                lsn = visible[1];
+            }
+            delay = simulatedLag.toMillis() / 1000.0;
+        }
+        
+        boolean nowAvailable = delay <= maxLag.toSeconds();
+        if (nowAvailable != available) {
+            log.info(nowAvailable ? "Replica in rotation" : "Replica lag {}s over limit, routing all reads to the primary", delay);
+        }
+        available = nowAvailable;
+        replayDelaySeconds = delay;
+        consistency.replicaStatus(nowAvailable, lsn);
+    }
+    
+    public double getReplayDelaySeconds() {
+        return replayDelaySeconds;
+    }
+}
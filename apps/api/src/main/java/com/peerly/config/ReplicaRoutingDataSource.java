@@ -0,0 +1,53 @@
+package com.peerly.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * The lookup happens when a connection is actually fetched, so this must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction's read-only flag is only visible once the
+ * transaction has begun.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    
+    private final ReplicaConsistency consistency;
+    
+    private final Counter primaryReads;
+    
+    private final Counter replicaReads;
+    
+    private final Counter writes;
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaConsistency consistency, MeterRegistry meterRegistry) {
+        this.consistency = consistency;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        primaryReads = meterRegistry.counter("peerly.datasource.routing", "target", PRIMARY, "access", "read");
+        replicaReads = meterRegistry.counter("peerly.datasource.routing", "target", REPLICA, "access", "read");
+        writes = meterRegistry.counter("peerly.datasource.routing", "target", PRIMARY, "access", "write");
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        if (consistency.replicaCanServe()) {
+            replicaReads.increment();
+            return REPLICA;
+        }
+        // Replica is behind this client's last write (or unavailable)
+        primaryReads.increment();
+        return PRIMARY;
+    }
+}
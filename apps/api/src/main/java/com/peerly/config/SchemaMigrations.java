@@ -0,0 +1,79 @@
+package com.peerly.config;
+
+import com.peerly.entity.Session;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Schema changes Hibernate's ddl-auto=update cannot make to an existing database, such as
+ * widening an enum column's check constraint or adding a unique index over rows that may
+ * already hold duplicates.
+ * Runs wherever Hibernate updates the schema (development, scripts/api/migrate-schema.sh),
+ * right after that update; every migration is idempotent and runs on each start.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.hibernate.ddl-auto", havingValue = "update")
+public class SchemaMigrations {
+    
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+    
+    // Hibernate updates the schema while this is built, so migrations always run after it
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    void migrate() {
+        for (Map.Entry<String, String> migration : migrations().entrySet()) {
+            jdbcTemplate.execute(migration.getValue());
+            log.debug("Applied schema migration {}", migration.getKey());
+        }
+    }
+    
+    private Map<String, String> migrations() {
+        Map<String, String> migrations = new LinkedHashMap<>();
+        // Redelivered outbox events may have left duplicate notifications behind
+        migrations.put("notifications-event-user-unique",
+                "DO $$ BEGIN " +
+                "IF to_regclass('idx_notifications_event_user') IS NULL THEN " +
+                "  DELETE FROM notifications n USING notifications d " +
+                "    WHERE n.source_event_id = d.source_event_id AND n.user_id = d.user_id AND n.id > d.id; " +
+                "  CREATE UNIQUE INDEX idx_notifications_event_user ON notifications (source_event_id, user_id); " +
+                "END IF; " +
+                "END $$");
+        // Hibernate writes check (status in (...)) when it creates a table and never updates it
+        migrations.put("sessions-status-check", statusCheck("sessions", Session.SessionStatus.values()));
+        migrations.put("session-history-status-check", statusCheck("session_history", Session.SessionStatus.values()));
+        return migrations;
+    }
+    
+    // Recreate <table>_status_check unless it already allows every value
+    private static String statusCheck(String table, Enum<?>[] values) {
+        String constraint = table + "_status_check";
+        StringJoiner allowed = new StringJoiner(", ");
+        StringJoiner covered = new StringJoiner(" AND ");
+        for (Enum<?> value : values) {
+            allowed.add("'" + value.name() + "'");
+            covered.add("pg_get_constraintdef(oid) LIKE '%''" + value.name() + "''%'");
+        }
+        return "DO $$ BEGIN " +
+                "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = '" + table + "'::regclass " +
+                "  AND conname = '" + constraint + "' AND " + covered + ") THEN " +
+                "  ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + constraint + ", " +
+                "    ADD CONSTRAINT " + constraint + " CHECK (status IN (" + allowed + ")); " +
+                "END IF; " +
+                "END $$";
+    }
+}
@@ -0,0 +1,86 @@
+package com.peerly.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.service.SerializedResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Completes a response-cache miss for @ConditionalGet(cacheBody = true) handlers: the returned
+ * body is serialized once, cached, and written directly; returning null tells Spring MVC that
+ * there is nothing left for the message converter to write.
+ */
+@ControllerAdvice
+public class SerializedResponseAdvice implements ResponseBodyAdvice<Object> {
+    
+    @Autowired
+    private SerializedResponseCache responseCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Present only when replica routing is enabled
+    @Autowired
+    private ObjectProvider<ReplicaConsistency> replicaConsistency;
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        ConditionalGet conditionalGet = returnType.getMethodAnnotation(ConditionalGet.class);
+        return conditionalGet != null && conditionalGet.cacheBody()
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        HttpServletResponse httpResponse = servletResponse.getServletResponse();
+        String key = (String) httpRequest.getAttribute(ConditionalGetInterceptor.CACHE_KEY_ATTRIBUTE);
+        if (key == null || httpResponse.getStatus() != HttpStatus.OK.value()) {
+            return body;
+        }
+        ReplicaConsistency consistency = replicaConsistency.getIfAvailable();
+        if (consistency != null && !consistency.capture().primaryOnly()) {
+            // Only cache a body whose reads were held to the primary; otherwise serve it uncached
+            return body;
+        }
+        
+        ConditionalGet conditionalGet = returnType.getMethodAnnotation(ConditionalGet.class);
+        try {
+            SerializedResponseCache.Entry entry = responseCache.put(key,
+                    (String) httpRequest.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE),
+                    conditionalGet.tables(),
+                    (Long) httpRequest.getAttribute(ConditionalGetInterceptor.STAMP_ATTRIBUTE),
+                    objectMapper.writeValueAsBytes(body));
+            responseCache.write(entry, httpRequest, httpResponse);
+        } catch (JsonProcessingException e) {
+            // Let the converter fail the same way it would have without the cache
+            return body;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+}
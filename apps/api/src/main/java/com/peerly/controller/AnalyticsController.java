@@ -0,0 +1,44 @@
+package com.peerly.controller;
+
+import com.peerly.dto.AnalyticsQuery;
+import com.peerly.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /**
+     * List the analytics datasets with their dimensions and metrics
+     * @return Datasets of the current snapshot
+     */
+    @GetMapping("/datasets")
+    public ResponseEntity<?> getDatasets() {
+        return analyticsService.describe()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Analytics snapshot is not ready yet"));
+    }
+
+    /**
+     * Run a group-by/filter aggregation, e.g. sessions per subject per week
+     * @param query Dataset, groupBy, filters, from/to and metrics
+     * @return One row per group
+     */
+    @PostMapping("/query")
+    public ResponseEntity<?> query(@RequestBody AnalyticsQuery query) {
+        try {
+            return analyticsService.query(query)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Analytics snapshot is not ready yet"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to run analytics query: " + e.getMessage());
+        }
+    }
+}
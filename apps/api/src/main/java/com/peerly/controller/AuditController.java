@@ -0,0 +1,71 @@
+package com.peerly.controller;
+
+import com.peerly.dto.AuditLogPage;
+import com.peerly.service.AuditLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditController {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    /**
+     * Get a page of audit entries for every entity of a type
+     * @param entityType USER, REVIEW or SESSION
+     * @param from Start of the period (inclusive), omitted for no lower bound
+     * @param to End of the period (exclusive), omitted for no upper bound
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param limit Page size
+     * @return Entries newest first and the next cursor
+     */
+    @GetMapping("/{entityType}")
+    public ResponseEntity<?> getTypeLog(@PathVariable String entityType,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return getLog(entityType, null, from, to, cursor, limit);
+    }
+
+    /**
+     * Get a page of audit entries for one entity
+     * @param entityType USER, REVIEW or SESSION
+     * @param entityId Entity ID
+     * @param from Start of the period (inclusive), omitted for no lower bound
+     * @param to End of the period (exclusive), omitted for no upper bound
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param limit Page size
+     * @return Entries newest first and the next cursor
+     */
+    @GetMapping("/{entityType}/{entityId}")
+    public ResponseEntity<?> getEntityLog(@PathVariable String entityType,
+                                          @PathVariable Long entityId,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(required = false) Long cursor,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        return getLog(entityType, entityId, from, to, cursor, limit);
+    }
+
+    private ResponseEntity<?> getLog(String entityType, Long entityId, LocalDateTime from, LocalDateTime to,
+                                     Long cursor, int limit) {
+        try {
+            AuditLogPage page = auditLogService.getLog(entityType.toUpperCase(), entityId, from, to, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to load audit log: " + e.getMessage());
+        }
+    }
+}
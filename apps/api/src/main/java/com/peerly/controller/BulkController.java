@@ -0,0 +1,130 @@
+package com.peerly.controller;
+
+import com.peerly.dto.BulkImportResult;
+import com.peerly.service.BulkExportService;
+import com.peerly.service.BulkImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+
+@RestController
+@RequestMapping("/api/bulk")
+@CrossOrigin(origins = "*")
+public class BulkController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private BulkExportService bulkExportService;
+
+    /**
+     * Import users from a CSV (text/csv, header row) or NDJSON (application/x-ndjson) body
+     * @param request Streamed request body
+     * @return Import summary with per-row errors
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importUsers(HttpServletRequest request) {
+        try (InputStream input = request.getInputStream()) {
+            BulkImportResult result = bulkImportService.importUsers(input, isCsv(request));
+            return ResponseEntity.ok(result);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to import users: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Import subjects from a CSV or NDJSON body
+     * @param request Streamed request body
+     * @return Import summary with per-row errors
+     */
+    @PostMapping(value = "/subjects/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importSubjects(HttpServletRequest request) {
+        try (InputStream input = request.getInputStream()) {
+            BulkImportResult result = bulkImportService.importSubjects(input, isCsv(request));
+            return ResponseEntity.ok(result);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to import subjects: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Import subtopics from a CSV or NDJSON body; the subject column holds the subject name
+     * @param request Streamed request body
+     * @return Import summary with per-row errors
+     */
+    @PostMapping(value = "/subtopics/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importSubtopics(HttpServletRequest request) {
+        try (InputStream input = request.getInputStream()) {
+            BulkImportResult result = bulkImportService.importSubtopics(input, isCsv(request));
+            return ResponseEntity.ok(result);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to import subtopics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Export all users
+     * @param format csv or ndjson
+     * @return Streamed export
+     */
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        return export("users", format, bulkExportService::exportUsers);
+    }
+
+    /**
+     * Export all subjects
+     * @param format csv or ndjson
+     * @return Streamed export
+     */
+    @GetMapping("/subjects/export")
+    public ResponseEntity<StreamingResponseBody> exportSubjects(@RequestParam(defaultValue = "csv") String format) {
+        return export("subjects", format, bulkExportService::exportSubjects);
+    }
+
+    /**
+     * Export all subtopics
+     * @param format csv or ndjson
+     * @return Streamed export
+     */
+    @GetMapping("/subtopics/export")
+    public ResponseEntity<StreamingResponseBody> exportSubtopics(@RequestParam(defaultValue = "csv") String format) {
+        return export("subtopics", format, bulkExportService::exportSubtopics);
+    }
+
+    /**
+     * Export all sessions, including session history
+     * @param format csv or ndjson
+     * @return Streamed export
+     */
+    @GetMapping("/sessions/export")
+    public ResponseEntity<StreamingResponseBody> exportSessions(@RequestParam(defaultValue = "csv") String format) {
+        return export("sessions", format, bulkExportService::exportSessions);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, String format, BiConsumer<OutputStream, Boolean> exporter) {
+        boolean csv = !"ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = output -> exporter.accept(output, csv);
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
+    private boolean isCsv(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || !contentType.startsWith("application/x-ndjson");
+    }
+}
@@ -0,0 +1,37 @@
+package com.peerly.controller;
+
+import com.peerly.dto.DomainEvent;
+import com.peerly.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Replay domain events after a cursor
+     * @param after Last event ID already processed by the caller (0 for the full history)
+     * @param aggregateType Optional aggregate type filter, e.g. SESSION
+     * @param limit Maximum number of events to return
+     * @return Events in replay order; pass the last ID as the next cursor
+     */
+    @GetMapping
+    public ResponseEntity<?> replayEvents(@RequestParam(defaultValue = "0") Long after,
+                                          @RequestParam(required = false) String aggregateType,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<DomainEvent> events = outboxService.replay(after, aggregateType, limit);
+            return ResponseEntity.ok(events);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to replay events: " + e.getMessage());
+        }
+    }
+}
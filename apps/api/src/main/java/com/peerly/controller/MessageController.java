@@ -1,12 +1,15 @@
 package com.peerly.controller;
 
+import com.peerly.dto.ConversationPage;
 import com.peerly.entity.Message;
 import com.peerly.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -56,10 +59,22 @@ public class MessageController {
      * Get conversation between two users
      * @param user1Id First user ID
      * @param user2Id Second user ID
-     * @return List of messages in chronological order
+     * @param before Optional cursor; returns a page of messages older than this, including archived history
+     * @param beforeId Optional nextCursorId sent with nextCursor as "before"
+     * @param limit Optional page size; enables paging from the latest message
+     * @return List of recent messages in chronological order, or a page with the next cursor when paging
      */
     @GetMapping("/conversation")
-    public ResponseEntity<List<Message>> getConversation(@RequestParam Long user1Id, @RequestParam Long user2Id) {
+    public ResponseEntity<?> getConversation(@RequestParam Long user1Id, @RequestParam Long user2Id,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                                             @RequestParam(required = false) Long beforeId,
+                                             @RequestParam(required = false) Integer limit) {
+        if (before != null || limit != null) {
+            ConversationPage page = messageService.getConversation(user1Id, user2Id, before, beforeId,
+                    limit == null ? 50 : limit);
+            return ResponseEntity.ok(page);
+        }
         List<Message> conversation = messageService.getConversation(user1Id, user2Id);
         return ResponseEntity.ok(conversation);
     }
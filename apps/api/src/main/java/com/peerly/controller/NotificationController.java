@@ -0,0 +1,71 @@
+package com.peerly.controller;
+
+import com.peerly.dto.NotificationFeed;
+import com.peerly.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "*")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    /**
+     * Get a page of a user's notifications
+     * @param userId User ID
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param limit Page size
+     * @return Notifications, next cursor and unread count
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<NotificationFeed> getNotifications(@PathVariable Long userId,
+                                                             @RequestParam(required = false) Long cursor,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        NotificationFeed feed = notificationService.getFeed(userId, cursor, limit);
+        return ResponseEntity.ok(feed);
+    }
+
+    /**
+     * Get the unread notification count for a user
+     * @param userId User ID
+     * @return Unread count
+     */
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<Map<String, Object>> getUnreadCount(@PathVariable Long userId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("unreadCount", notificationService.getUnreadCount(userId));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mark a notification as read
+     * @param notificationId Notification ID
+     * @param userId Owner of the notification
+     * @return Success message
+     */
+    @PutMapping("/{notificationId}/read")
+    public ResponseEntity<?> markAsRead(@PathVariable Long notificationId, @RequestParam Long userId) {
+        notificationService.markAsRead(notificationId, userId);
+        return ResponseEntity.ok().body("Notification marked as read");
+    }
+
+    /**
+     * Mark all of a user's notifications as read
+     * @param userId User ID
+     * @return Number of notifications marked
+     */
+    @PutMapping("/user/{userId}/read-all")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@PathVariable Long userId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", notificationService.markAllAsRead(userId));
+        return ResponseEntity.ok(response);
+    }
+}
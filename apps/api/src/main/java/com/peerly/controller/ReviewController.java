@@ -1,6 +1,9 @@
 package com.peerly.controller;
 
+import com.peerly.config.ConditionalGet;
 import com.peerly.entity.Review;
+import com.peerly.service.ConcurrentUpdateException;
+import com.peerly.service.ResourceVersionService;
 import com.peerly.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,6 +28,7 @@ public class ReviewController {
      * @param id Review ID
      * @return Review details
      */
+    @ConditionalGet(tables = {ResourceVersionService.REVIEWS, ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/{id}")
     public ResponseEntity<?> getReviewById(@PathVariable Long id) {
         return reviewService.getReviewById(id)
@@ -37,6 +41,7 @@ public class ReviewController {
      * @param tutorId Tutor ID
      * @return List of reviews for the tutor
      */
+    @ConditionalGet(tables = {ResourceVersionService.REVIEWS, ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS}, cacheBody = true)
     @GetMapping("/tutor/{tutorId}")
     public ResponseEntity<List<Review>> getReviewsForTutor(@PathVariable Long tutorId) {
         List<Review> reviews = reviewService.getReviewsForTutor(tutorId);
@@ -48,6 +53,7 @@ public class ReviewController {
      * @param studentId Student ID
      * @return List of reviews by the student
      */
+    @ConditionalGet(tables = {ResourceVersionService.REVIEWS, ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<Review>> getReviewsByStudent(@PathVariable Long studentId) {
         List<Review> reviews = reviewService.getReviewsByStudent(studentId);
@@ -61,6 +67,7 @@ public class ReviewController {
      * @param tutorId Tutor ID
      * @return Rating statistics (average rating, review count)
      */
+    @ConditionalGet(tables = {ResourceVersionService.REVIEWS})
     @GetMapping("/tutor/{tutorId}/stats")
     public ResponseEntity<Map<String, Object>> getTutorRatingStats(@PathVariable Long tutorId) {
         Double averageRating = reviewService.getAverageRatingForTutor(tutorId);
@@ -102,6 +109,8 @@ public class ReviewController {
         try {
             Review updatedReview = reviewService.updateReview(id, reviewDetails);
             return ResponseEntity.ok(updatedReview);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to update review: " + e.getMessage());
         }
@@ -117,6 +126,8 @@ public class ReviewController {
         try {
             reviewService.deleteReview(id);
             return ResponseEntity.ok().body("Review deleted successfully");
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to delete review: " + e.getMessage());
         }
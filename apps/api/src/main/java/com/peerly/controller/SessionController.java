@@ -1,13 +1,18 @@
 package com.peerly.controller;
 
 import com.peerly.dto.SessionBookingRequest;
+import com.peerly.dto.SessionSummary;
 import com.peerly.entity.Session;
+import com.peerly.service.BatchLookupService;
+import com.peerly.service.ConcurrentUpdateException;
+import com.peerly.service.IdempotencyService;
 import com.peerly.service.SessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -18,19 +23,31 @@ public class SessionController {
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BatchLookupService batchLookupService;
+
     /**
      * Book a new session
      * @param request Session booking request
+     * @param idempotencyKey Optional key that makes client retries replay the original booking
      * @return Booked session details
      */
     @PostMapping("/book")
-    public ResponseEntity<?> bookSession(@RequestBody SessionBookingRequest request) {
-        try {
-            Session bookedSession = sessionService.bookSession(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(bookedSession);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body("Booking failed: " + e.getMessage());
-        }
+    public ResponseEntity<?> bookSession(@RequestBody SessionBookingRequest request,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("sessions.book", idempotencyKey, request.toString(), () -> {
+            try {
+                Session bookedSession = sessionService.bookSession(request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(bookedSession);
+            } catch (ConcurrentUpdateException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Booking failed: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -45,6 +62,8 @@ public class SessionController {
         try {
             Session acceptedSession = sessionService.acceptSessionRequest(sessionId, tutorId);
             return ResponseEntity.ok(acceptedSession);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to accept session: " + e.getMessage());
         }
@@ -62,11 +81,32 @@ public class SessionController {
         try {
             Session rejectedSession = sessionService.rejectSessionRequest(sessionId, tutorId);
             return ResponseEntity.ok(rejectedSession);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to reject session: " + e.getMessage());
         }
     }
 
+    /**
+     * Cancel a pending or confirmed session before it starts (for students)
+     * @param sessionId Session ID to cancel
+     * @param studentId Student ID for validation
+     * @return Updated session with CANCELLED status
+     */
+    @PutMapping("/{sessionId}/cancel")
+    public ResponseEntity<?> cancelSession(@PathVariable Long sessionId,
+                                           @RequestParam Long studentId) {
+        try {
+            Session cancelledSession = sessionService.cancelSession(sessionId, studentId);
+            return ResponseEntity.ok(cancelledSession);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to cancel session: " + e.getMessage());
+        }
+    }
+
     /**
      * Get pending sessions for a tutor (sessions awaiting response)
      * @param tutorId Tutor's ID
@@ -82,6 +122,36 @@ public class SessionController {
         }
     }
 
+    /**
+     * Get archived sessions of a tutor for a range of months
+     * @param tutorId Tutor's ID
+     * @param from First month, e.g. 2025-01
+     * @param to Last month, e.g. 2025-06
+     * @return Archived sessions, newest first
+     */
+    @GetMapping("/tutor/{tutorId}/history")
+    public ResponseEntity<List<Session>> getTutorSessionHistory(@PathVariable Long tutorId,
+                                                                @RequestParam YearMonth from,
+                                                                @RequestParam YearMonth to) {
+        List<Session> sessions = sessionService.getSessionHistoryByTutorId(tutorId, from, to);
+        return ResponseEntity.ok(sessions);
+    }
+
+    /**
+     * Get archived sessions of a student for a range of months
+     * @param studentId Student's ID
+     * @param from First month, e.g. 2025-01
+     * @param to Last month, e.g. 2025-06
+     * @return Archived sessions, newest first
+     */
+    @GetMapping("/student/{studentId}/history")
+    public ResponseEntity<List<Session>> getStudentSessionHistory(@PathVariable Long studentId,
+                                                                  @RequestParam YearMonth from,
+                                                                  @RequestParam YearMonth to) {
+        List<Session> sessions = sessionService.getSessionHistoryByStudentId(studentId, from, to);
+        return ResponseEntity.ok(sessions);
+    }
+
     /**
      * Get all sessions
      * @return List of all sessions
@@ -92,6 +162,21 @@ public class SessionController {
         return ResponseEntity.ok(sessions);
     }
 
+    /**
+     * Get sessions by IDs
+     * @param ids Session IDs
+     * @return Live or archived sessions found, in request order
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getSessionsByIds(@RequestParam List<Long> ids) {
+        try {
+            List<SessionSummary> sessions = batchLookupService.getSessions(ids);
+            return ResponseEntity.ok(sessions);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to get sessions: " + e.getMessage());
+        }
+    }
+
 
 
     /**
@@ -1,7 +1,12 @@
 package com.peerly.controller;
 
+import com.peerly.config.ConditionalGet;
+import com.peerly.dto.SubjectSummary;
 import com.peerly.entity.Subject;
 import com.peerly.entity.Subtopic;
+import com.peerly.service.BatchLookupService;
+import com.peerly.service.ConcurrentUpdateException;
+import com.peerly.service.ResourceVersionService;
 import com.peerly.service.SubjectService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,21 +23,42 @@ public class SubjectController {
     @Autowired
     private SubjectService subjectService;
 
+    @Autowired
+    private BatchLookupService batchLookupService;
+
     /**
      * Get all active subjects
      * @return List of active subjects
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS, ResourceVersionService.USERS}, cacheBody = true)
     @GetMapping
     public ResponseEntity<List<Subject>> getAllActiveSubjects() {
         List<Subject> subjects = subjectService.getAllActiveSubjects();
         return ResponseEntity.ok(subjects);
     }
 
+    /**
+     * Get subjects by IDs
+     * @param ids Subject IDs
+     * @return Subjects found, in request order
+     */
+    @ConditionalGet(tables = {ResourceVersionService.SUBJECTS}, maxAgeSeconds = 60)
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getSubjectsByIds(@RequestParam List<Long> ids) {
+        try {
+            List<SubjectSummary> subjects = batchLookupService.getSubjects(ids);
+            return ResponseEntity.ok(subjects);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to get subjects: " + e.getMessage());
+        }
+    }
+
     /**
      * Get subject by ID
      * @param id Subject ID
      * @return Subject details
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS, ResourceVersionService.USERS})
     @GetMapping("/{id}")
     public ResponseEntity<?> getSubjectById(@PathVariable Long id) {
         return subjectService.getSubjectById(id)
@@ -45,6 +71,7 @@ public class SubjectController {
      * @param name Search term for subject name
      * @return List of matching subjects
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS, ResourceVersionService.USERS})
     @GetMapping("/search")
     public ResponseEntity<List<Subject>> searchSubjects(@RequestParam String name) {
         List<Subject> subjects = subjectService.searchSubjectsByName(name);
@@ -56,6 +83,7 @@ public class SubjectController {
      * @param tutorId Tutor ID
      * @return List of subjects taught by the tutor
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS, ResourceVersionService.USERS})
     @GetMapping("/tutor/{tutorId}")
     public ResponseEntity<List<Subject>> getSubjectsByTutorId(@PathVariable Long tutorId) {
         List<Subject> subjects = subjectService.getSubjectsByTutorId(tutorId);
@@ -67,6 +95,7 @@ public class SubjectController {
      * @param subjectId Subject ID
      * @return List of subtopics
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBTOPICS}, maxAgeSeconds = 60)
     @GetMapping("/{subjectId}/subtopics")
     public ResponseEntity<List<Subtopic>> getSubtopicsBySubjectId(@PathVariable Long subjectId) {
         List<Subtopic> subtopics = subjectService.getSubtopicsBySubjectId(subjectId);
@@ -99,6 +128,8 @@ public class SubjectController {
         try {
             Subject updatedSubject = subjectService.updateSubject(id, subjectDetails);
             return ResponseEntity.ok(updatedSubject);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to update subject: " + e.getMessage());
         }
@@ -1,6 +1,9 @@
 package com.peerly.controller;
 
+import com.peerly.config.ConditionalGet;
 import com.peerly.entity.Subtopic;
+import com.peerly.service.ConcurrentUpdateException;
+import com.peerly.service.ResourceVersionService;
 import com.peerly.service.SubtopicService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -21,6 +24,7 @@ public class SubtopicController {
      * Get all active subtopics
      * @return List of active subtopics
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBTOPICS}, maxAgeSeconds = 60)
     @GetMapping
     public ResponseEntity<List<Subtopic>> getAllActiveSubtopics() {
         List<Subtopic> subtopics = subtopicService.getAllActiveSubtopics();
@@ -32,6 +36,7 @@ public class SubtopicController {
      * @param id Subtopic ID
      * @return Subtopic details
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBTOPICS}, maxAgeSeconds = 60)
     @GetMapping("/{id}")
     public ResponseEntity<?> getSubtopicById(@PathVariable Long id) {
         return subtopicService.getSubtopicById(id)
@@ -44,6 +49,7 @@ public class SubtopicController {
      * @param name Search term for subtopic name
      * @return List of matching subtopics
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBTOPICS}, maxAgeSeconds = 60)
     @GetMapping("/search")
     public ResponseEntity<List<Subtopic>> searchSubtopics(@RequestParam String name) {
         List<Subtopic> subtopics = subtopicService.searchSubtopicsByName(name);
@@ -55,6 +61,7 @@ public class SubtopicController {
      * @param subjectId Subject ID
      * @return List of subtopics for the subject
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBTOPICS}, maxAgeSeconds = 60)
     @GetMapping("/subject/{subjectId}")
     public ResponseEntity<List<Subtopic>> getSubtopicsBySubjectId(@PathVariable Long subjectId) {
         List<Subtopic> subtopics = subtopicService.getSubtopicsBySubjectId(subjectId);
@@ -66,6 +73,7 @@ public class SubtopicController {
      * @param tutorId Tutor ID
      * @return List of subtopics available to the tutor
      */
+    @ConditionalGet(tables = {ResourceVersionService.SUBTOPICS, ResourceVersionService.SUBJECTS, ResourceVersionService.USERS})
     @GetMapping("/tutor/{tutorId}")
     public ResponseEntity<List<Subtopic>> getSubtopicsByTutorId(@PathVariable Long tutorId) {
         List<Subtopic> subtopics = subtopicService.getSubtopicsByTutorId(tutorId);
@@ -98,6 +106,8 @@ public class SubtopicController {
         try {
             Subtopic updatedSubtopic = subtopicService.updateSubtopic(id, subtopicDetails);
             return ResponseEntity.ok(updatedSubtopic);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to update subtopic: " + e.getMessage());
         }
@@ -1,12 +1,33 @@
 package com.peerly.controller;
 
+import com.peerly.config.ConditionalGet;
+import com.peerly.dto.TeachingStats;
+import com.peerly.dto.TutorBrowseResult;
+import com.peerly.dto.TutorRecommendation;
+import com.peerly.dto.TutorSearchCriteria;
+import com.peerly.dto.TutorSearchResult;
+import com.peerly.dto.UserSummary;
+import com.peerly.entity.TutorStatsBucket;
 import com.peerly.entity.User;
+import com.peerly.service.BatchLookupService;
+import com.peerly.service.ConcurrentUpdateException;
+import com.peerly.service.DashboardService;
+import com.peerly.service.IdempotencyService;
+import com.peerly.service.RecommendationService;
+import com.peerly.service.ResourceVersionService;
+import com.peerly.service.SupercoinEscrowService;
+import com.peerly.service.TeachingStatsService;
+import com.peerly.service.TutorDirectory;
+import com.peerly.service.TutorProfileService;
 import com.peerly.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -19,21 +40,63 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TutorProfileService tutorProfileService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private TutorDirectory tutorDirectory;
+
+    @Autowired
+    private BatchLookupService batchLookupService;
+
+    @Autowired
+    private SupercoinEscrowService escrowService;
+
+    @Autowired
+    private TeachingStatsService teachingStatsService;
+
     /**
      * Get all active users
      * @return List of active users
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping
     public ResponseEntity<List<User>> getAllActiveUsers() {
         List<User> users = userService.getAllActiveUsers();
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get users by IDs
+     * @param ids User IDs
+     * @return Users found, in request order
+     */
+    @ConditionalGet(tables = {ResourceVersionService.USERS})
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getUsersByIds(@RequestParam List<Long> ids) {
+        try {
+            List<UserSummary> users = batchLookupService.getUsers(ids);
+            return ResponseEntity.ok(users);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to get users: " + e.getMessage());
+        }
+    }
+
     /**
      * Get user by ID
      * @param id User ID
      * @return User details
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
@@ -41,11 +104,88 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get the composed profile of a user: details, subjects, subtopics, rating stats,
+     * recent reviews and session summary in a single response
+     * @param id User ID
+     * @return Profile aggregate
+     */
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
+        try {
+            return tutorProfileService.getProfile(id)
+                    .map(profile -> ResponseEntity.ok().body(profile))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to load profile: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the dashboard snapshot of a user: balance, unread counts, upcoming sessions
+     * and requests waiting for an answer
+     * @param id User ID
+     * @return Dashboard snapshot
+     */
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<?> getUserDashboard(@PathVariable Long id) {
+        try {
+            return dashboardService.getDashboard(id)
+                    .map(dashboard -> ResponseEntity.ok().body(dashboard))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to load dashboard: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a tutor's teaching statistics per day, week or month
+     * @param id Tutor's user ID
+     * @param granularity DAY, WEEK or MONTH
+     * @param from First day of the range, defaults to 12 buckets before to
+     * @param to Last day of the range, defaults to today
+     * @return Hours taught, sessions completed, cancellation rate and supercoins earned per bucket
+     */
+    @GetMapping("/{id}/teaching-stats")
+    public ResponseEntity<?> getTeachingStats(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "MONTH") TutorStatsBucket.Granularity granularity,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from != null ? from : switch (granularity) {
+            case DAY -> end.minusDays(11);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.minusMonths(11);
+        };
+        try {
+            TeachingStats stats = teachingStatsService.getStats(id, granularity, start, end);
+            return ResponseEntity.ok(stats);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to load teaching stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get recommended tutors for a student
+     * @param id Student's user ID
+     * @param limit Maximum number of recommendations
+     * @return Recommended tutors, best match first
+     */
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<List<TutorRecommendation>> getRecommendedTutors(@PathVariable Long id,
+                                                                          @RequestParam(defaultValue = "10") int limit) {
+        List<TutorRecommendation> recommendations = recommendationService.getRecommendations(id, limit);
+        return ResponseEntity.ok(recommendations);
+    }
+
     /**
      * Get user by email
      * @param email User email
      * @return User details
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/email/{email}")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email) {
         return userService.getUserByEmail(email)
@@ -57,6 +197,7 @@ public class UserController {
      * Get all active tutors
      * @return List of active tutors
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS}, cacheBody = true)
     @GetMapping("/tutors")
     public ResponseEntity<List<User>> getAllActiveTutors() {
         List<User> tutors = userService.getAllActiveTutors();
@@ -67,6 +208,7 @@ public class UserController {
      * Get all active students
      * @return List of active students
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/students")
     public ResponseEntity<List<User>> getAllActiveStudents() {
         List<User> students = userService.getAllActiveStudents();
@@ -78,6 +220,7 @@ public class UserController {
      * @param name Search term for user name
      * @return List of matching users
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/search")
     public ResponseEntity<List<User>> searchUsers(@RequestParam String name) {
         List<User> users = userService.searchUsersByName(name);
@@ -89,16 +232,103 @@ public class UserController {
      * @param subject Subject name
      * @return List of tutors teaching the subject
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/tutors/subject")
     public ResponseEntity<List<User>> getTutorsBySubject(@RequestParam String subject) {
         List<User> tutors = userService.getTutorsBySubject(subject);
         return ResponseEntity.ok(tutors);
     }
 
+    /**
+     * Search the tutor directory
+     * @param subjectIds Subjects the tutor must teach (all of them)
+     * @param minRate Minimum hourly rate
+     * @param maxRate Maximum hourly rate
+     * @param minRating Minimum average rating
+     * @param minExperience Minimum years of experience
+     * @param multipleSubjects Only tutors teaching more than one subject
+     * @param activeOnly Only active tutors
+     * @param sort Sort order: rating, rate or experience
+     * @param limit Maximum number of tutors returned
+     * @return Matching tutors and the total number of matches
+     */
+    @GetMapping("/tutors/directory")
+    public ResponseEntity<TutorSearchResult> searchTutorDirectory(@RequestParam(required = false) List<Long> subjectIds,
+                                                                  @RequestParam(required = false) Double minRate,
+                                                                  @RequestParam(required = false) Double maxRate,
+                                                                  @RequestParam(required = false) Double minRating,
+                                                                  @RequestParam(required = false) Integer minExperience,
+                                                                  @RequestParam(defaultValue = "false") boolean multipleSubjects,
+                                                                  @RequestParam(defaultValue = "true") boolean activeOnly,
+                                                                  @RequestParam(defaultValue = TutorSearchCriteria.SORT_RATING) String sort,
+                                                                  @RequestParam(defaultValue = "50") int limit) {
+        TutorSearchCriteria criteria = new TutorSearchCriteria();
+        criteria.setSubjectIds(subjectIds);
+        criteria.setMinRate(minRate);
+        criteria.setMaxRate(maxRate);
+        criteria.setMinRating(minRating);
+        criteria.setMinExperience(minExperience);
+        criteria.setMultipleSubjects(multipleSubjects);
+        criteria.setActiveOnly(activeOnly);
+        criteria.setSort(sort);
+        criteria.setLimit(limit);
+        return ResponseEntity.ok(tutorDirectory.search(criteria));
+    }
+
+    /**
+     * Browse tutors with facet counts
+     * @param subjectIds Subjects the tutor must teach (all of them)
+     * @param subtopicIds Subtopics the tutor must teach (all of them)
+     * @param minRate Minimum hourly rate
+     * @param maxRate Maximum hourly rate
+     * @param minExperience Minimum years of experience
+     * @param maxExperience Maximum years of experience
+     * @param minRating Minimum average rating
+     * @param activeOnly Only tutors available for booking
+     * @param availableAt Only tutors with no pending or confirmed session overlapping this time
+     * @param durationMinutes Length of the slot checked by availableAt
+     * @param sort Sort order: rating, rate or experience
+     * @param page Page number, starting at 0
+     * @param size Page size
+     * @return One page of matching tutors and the counts per subject, subtopic, rate band, experience band, rating band and availability
+     */
+    @GetMapping("/tutors/browse")
+    public ResponseEntity<TutorBrowseResult> browseTutors(@RequestParam(required = false) List<Long> subjectIds,
+                                                          @RequestParam(required = false) List<Long> subtopicIds,
+                                                          @RequestParam(required = false) Double minRate,
+                                                          @RequestParam(required = false) Double maxRate,
+                                                          @RequestParam(required = false) Integer minExperience,
+                                                          @RequestParam(required = false) Integer maxExperience,
+                                                          @RequestParam(required = false) Double minRating,
+                                                          @RequestParam(defaultValue = "true") boolean activeOnly,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availableAt,
+                                                          @RequestParam(defaultValue = "60") int durationMinutes,
+                                                          @RequestParam(defaultValue = TutorSearchCriteria.SORT_RATING) String sort,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        TutorSearchCriteria criteria = new TutorSearchCriteria();
+        criteria.setSubjectIds(subjectIds);
+        criteria.setSubtopicIds(subtopicIds);
+        criteria.setMinRate(minRate);
+        criteria.setMaxRate(maxRate);
+        criteria.setMinExperience(minExperience);
+        criteria.setMaxExperience(maxExperience);
+        criteria.setMinRating(minRating);
+        criteria.setActiveOnly(activeOnly);
+        criteria.setAvailableAt(availableAt);
+        criteria.setDurationMinutes(durationMinutes);
+        criteria.setSort(sort);
+        criteria.setPage(page);
+        criteria.setLimit(size);
+        return ResponseEntity.ok(tutorDirectory.browse(criteria));
+    }
+
     /**
      * Get tutors ordered by experience
      * @return List of tutors ordered by experience years
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/tutors/by-experience")
     public ResponseEntity<List<User>> getTutorsOrderedByExperience() {
         List<User> tutors = userService.getTutorsOrderedByExperience();
@@ -110,6 +340,7 @@ public class UserController {
      * @param grade Student grade
      * @return List of students in the grade
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/students/grade/{grade}")
     public ResponseEntity<List<User>> getStudentsByGrade(@PathVariable String grade) {
         List<User> students = userService.getStudentsByGrade(grade);
@@ -121,6 +352,7 @@ public class UserController {
      * @param minSupercoins Minimum supercoins threshold
      * @return List of users with supercoins above threshold
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS})
     @GetMapping("/supercoins")
     public ResponseEntity<List<User>> getUsersWithSupercoinsAbove(@RequestParam Long minSupercoins) {
         List<User> users = userService.getUsersWithSupercoinsAbove(minSupercoins);
@@ -131,6 +363,7 @@ public class UserController {
      * Get users who have given reviews
      * @return List of users with reviews given
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS, ResourceVersionService.REVIEWS})
     @GetMapping("/with-reviews-given")
     public ResponseEntity<List<User>> getUsersWithReviewsGiven() {
         List<User> users = userService.getUsersWithReviewsGiven();
@@ -141,6 +374,7 @@ public class UserController {
      * Get users who have received reviews
      * @return List of users with reviews received
      */
+    @ConditionalGet(tables = {ResourceVersionService.USERS, ResourceVersionService.SUBJECTS, ResourceVersionService.SUBTOPICS, ResourceVersionService.REVIEWS})
     @GetMapping("/with-reviews-received")
     public ResponseEntity<List<User>> getUsersWithReviewsReceived() {
         List<User> users = userService.getUsersWithReviewsReceived();
@@ -173,6 +407,8 @@ public class UserController {
         try {
             User updatedUser = userService.updateUser(id, userDetails);
             return ResponseEntity.ok(updatedUser);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to update user: " + e.getMessage());
         }
@@ -189,11 +425,33 @@ public class UserController {
         try {
             User updatedUser = userService.creditSupercoins(id, amount);
             return ResponseEntity.ok(updatedUser);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to credit supercoins: " + e.getMessage());
         }
     }
 
+    /**
+     * Get a user's supercoin balance split into held and available
+     * @param id User ID
+     * @return Balance, supercoins held for booked sessions and supercoins available to spend
+     */
+    @GetMapping("/{id}/supercoins/available")
+    public ResponseEntity<?> getAvailableSupercoins(@PathVariable Long id) {
+        return userService.getUserById(id)
+                .map(user -> {
+                    long held = escrowService.getHeld(user.getId());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("userId", user.getId());
+                    response.put("balance", user.getSupercoins());
+                    response.put("held", held);
+                    response.put("available", user.getSupercoins() - held);
+                    return ResponseEntity.ok().body(response);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Debit supercoins from a user
      * @param id User ID
@@ -205,6 +463,8 @@ public class UserController {
         try {
             User updatedUser = userService.debitSupercoins(id, amount);
             return ResponseEntity.ok(updatedUser);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to debit supercoins: " + e.getMessage());
         }
@@ -215,22 +475,29 @@ public class UserController {
      * @param fromUserId Source user ID
      * @param toUserId Destination user ID
      * @param amount Amount to transfer
+     * @param idempotencyKey Optional key that makes client retries replay the original transfer
      * @return Transfer result
      */
     @PostMapping("/supercoins/transfer")
     public ResponseEntity<?> transferSupercoins(@RequestParam Long fromUserId, 
                                               @RequestParam Long toUserId, 
-                                              @RequestParam Long amount) {
-        try {
-            User[] result = userService.transferSupercoins(fromUserId, toUserId, amount);
-            Map<String, Object> response = new HashMap<>();
-            response.put("fromUser", result[0]);
-            response.put("toUser", result[1]);
-            response.put("transferredAmount", amount);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body("Failed to transfer supercoins: " + e.getMessage());
-        }
+                                              @RequestParam Long amount,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String signature = fromUserId + ">" + toUserId + ":" + amount;
+        return idempotencyService.execute("users.supercoins.transfer", idempotencyKey, signature, () -> {
+            try {
+                User[] result = userService.transferSupercoins(fromUserId, toUserId, amount);
+                Map<String, Object> response = new HashMap<>();
+                response.put("fromUser", result[0]);
+                response.put("toUser", result[1]);
+                response.put("transferredAmount", amount);
+                return ResponseEntity.ok(response);
+            } catch (ConcurrentUpdateException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Failed to transfer supercoins: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -243,6 +510,8 @@ public class UserController {
         try {
             User deactivatedUser = userService.deactivateUser(id);
             return ResponseEntity.ok(deactivatedUser);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to deactivate user: " + e.getMessage());
         }
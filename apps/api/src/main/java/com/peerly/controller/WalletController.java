@@ -0,0 +1,86 @@
+package com.peerly.controller;
+
+import com.peerly.dto.WalletHistoryPage;
+import com.peerly.entity.WalletStatement;
+import com.peerly.entity.WalletTransaction;
+import com.peerly.service.WalletLedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/wallet")
+@CrossOrigin(origins = "*")
+public class WalletController {
+
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
+    /**
+     * Get a page of a user's wallet history with running balances
+     * @param userId User ID
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param type Transaction types to include, omitted for all
+     * @param from Start of the period (inclusive), omitted for no lower bound
+     * @param to End of the period (exclusive), omitted for no upper bound
+     * @param limit Page size
+     * @return Transactions newest first and the next cursor
+     */
+    @GetMapping("/user/{userId}/transactions")
+    public ResponseEntity<?> getTransactions(@PathVariable Long userId,
+                                             @RequestParam(required = false) Long cursor,
+                                             @RequestParam(required = false) List<WalletTransaction.TransactionType> type,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        try {
+            WalletHistoryPage page = walletLedgerService.getHistory(userId, cursor, type, from, to, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Failed to load wallet history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a user's balance at a past instant
+     * @param userId User ID
+     * @param at Instant
+     * @return Balance at that instant
+     */
+    @GetMapping("/user/{userId}/balance")
+    public ResponseEntity<?> getBalanceAt(@PathVariable Long userId,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return walletLedgerService.getBalanceAt(userId, at)
+                .map(balance -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("userId", userId);
+                    response.put("at", at);
+                    response.put("balance", balance);
+                    return ResponseEntity.ok().body(response);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get a user's monthly statements
+     * @param userId User ID
+     * @param from First month, e.g. 2025-01
+     * @param to Last month, e.g. 2025-06
+     * @return Statements, newest first
+     */
+    @GetMapping("/user/{userId}/statements")
+    public ResponseEntity<List<WalletStatement>> getStatements(@PathVariable Long userId,
+                                                               @RequestParam YearMonth from,
+                                                               @RequestParam YearMonth to) {
+        return ResponseEntity.ok(walletLedgerService.getStatements(userId, from, to));
+    }
+}
@@ -0,0 +1,28 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group-by/filter aggregation over one analytics dataset, e.g.
+ * {"dataset": "sessions", "groupBy": ["subject", "week"], "metrics": ["count"]}.
+ * GET /api/analytics/datasets lists the dimensions and metrics of each dataset.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsQuery {
+    
+    private String dataset; // sessions, reviews, users or userSubjects
+    private List<String> groupBy; // Dimensions; empty for a single total row
+    private List<String> metrics; // Defaults to count
+    private Map<String, List<String>> filters; // Dimension -> labels to keep
+    private LocalDate from; // Inclusive, datasets with a date only
+    private LocalDate to; // Inclusive, datasets with a date only
+    private Integer limit; // Maximum groups returned
+}
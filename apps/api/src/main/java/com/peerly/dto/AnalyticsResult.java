@@ -0,0 +1,23 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsResult {
+    
+    private String dataset;
+    private List<Map<String, Object>> rows; // One per group: dimension labels and metric values, ordered by group
+    private long groupCount;
+    private boolean truncated; // More groups than the limit
+    private long rowsScanned;
+    private long elapsedMillis;
+    private LocalDateTime snapshotTakenAt;
+}
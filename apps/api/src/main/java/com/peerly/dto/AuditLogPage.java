@@ -0,0 +1,17 @@
+package com.peerly.dto;
+
+import com.peerly.entity.AuditLogEntry;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPage {
+    
+    private List<AuditLogEntry> items; // Newest first
+    private Long nextCursor; // Null when there are no older entries
+}
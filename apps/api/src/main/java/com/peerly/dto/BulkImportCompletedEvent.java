@@ -0,0 +1,23 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Published after a bulk import wrote rows with JDBC, bypassing the JPA entity events.
+ * Re-published on other instances like {@link EntityChangedEvent}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportCompletedEvent {
+    
+    private String entityType; // One of the EntityChangedEvent entity types
+    private long imported;
+    private boolean remote; // Imported on another instance and received through the broker
+    
+    public BulkImportCompletedEvent(String entityType, long imported) {
+        this(entityType, imported, false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.peerly.dto;
+
+import com.peerly.entity.Message;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationPage {
+    
+    private List<Message> messages; // Chronological order
+    private LocalDateTime nextCursor; // Pass as "before" to load older messages; null at the start of the conversation
+    private Long nextCursorId; // Pass as "beforeId" with nextCursor, so messages sharing its timestamp are not skipped
+}
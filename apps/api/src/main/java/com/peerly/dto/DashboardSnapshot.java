@@ -0,0 +1,49 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-user dashboard served from the snapshot store and kept current by domain events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSnapshot {
+    
+    private Long userId;
+    private Long supercoins;
+    private long unreadMessages;
+    private long unreadNotifications; // Filled in when served
+    private int pendingRequests; // Session requests waiting for this user's answer as tutor
+    private List<UpcomingSession> upcomingSessions = new ArrayList<>(); // Soonest first
+    private long version; // Bumped on every incremental update
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Copy with its own session list, so stored snapshots are never mutated in place
+     */
+    public DashboardSnapshot copy() {
+        return new DashboardSnapshot(userId, supercoins, unreadMessages, unreadNotifications, pendingRequests,
+                new ArrayList<>(upcomingSessions), version, updatedAt);
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpcomingSession {
+        private Long sessionId;
+        private String role; // TUTOR or STUDENT: this user's side of the session
+        private Long counterpartId;
+        private String counterpartName;
+        private LocalDateTime sessionDateTime;
+        private Integer durationMinutes;
+        private String subject;
+        private String status;
+    }
+}
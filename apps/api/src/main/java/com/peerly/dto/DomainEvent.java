@@ -0,0 +1,52 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Event delivered by the outbox relay to in-process listeners (directly or through the
+ * broker) and to replaying consumers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainEvent {
+    
+    // Aggregate types
+    public static final String SESSION = "SESSION";
+    public static final String MESSAGE = "MESSAGE";
+    
+    // Session lifecycle
+    public static final String SESSION_BOOKED = "SESSION_BOOKED";
+    public static final String SESSION_ACCEPTED = "SESSION_ACCEPTED";
+    public static final String SESSION_REJECTED = "SESSION_REJECTED";
+    public static final String SESSION_CANCELLED = "SESSION_CANCELLED";
+    public static final String SESSION_COMPLETED = "SESSION_COMPLETED";
+    public static final String SESSION_EXPIRED = "SESSION_EXPIRED";
+    public static final String SESSION_SETTLED = "SESSION_SETTLED";
+    
+    // Messaging
+    public static final String MESSAGE_SENT = "MESSAGE_SENT";
+    public static final String MESSAGE_READ = "MESSAGE_READ";
+    
+    private Long id;
+    private String aggregateType;
+    private Long aggregateId;
+    private String eventType;
+    private Map<String, Object> payload;
+    private LocalDateTime createdAt;
+    
+    public Long getLong(String field) {
+        Object value = payload == null ? null : payload.get(field);
+        return value == null ? null : ((Number) value).longValue();
+    }
+    
+    public String getString(String field) {
+        Object value = payload == null ? null : payload.get(field);
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Notification that a catalog, user or review row was written through JPA.
+ * Used to invalidate read-side caches; not persisted. Published in-process on the writing
+ * instance and, with the Redis broker enabled, re-published on every other instance by
+ * RedisEntityChangeBroadcaster with remote set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityChangedEvent {
+    
+    // Entity types
+    public static final String USER = "USER";
+    public static final String REVIEW = "REVIEW";
+    public static final String SUBJECT = "SUBJECT";
+    public static final String SUBTOPIC = "SUBTOPIC";
+    
+    private String entityType;
+    private Long entityId;
+    private Long ownerId; // Reviewee for reviews, subject for subtopics, the user itself for users
+    private boolean remote; // Committed on another instance and received through the broker
+    
+    public EntityChangedEvent(String entityType, Long entityId, Long ownerId) {
+        this(entityType, entityId, ownerId, false);
+    }
+}
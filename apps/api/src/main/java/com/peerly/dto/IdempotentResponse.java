@@ -0,0 +1,15 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentResponse {
+    
+    private int status;
+    private String fingerprint; // Hash of the original request, used to detect key reuse
+    private byte[] body; // Serialized JSON body of the original response
+}
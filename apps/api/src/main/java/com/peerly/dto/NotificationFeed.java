@@ -0,0 +1,18 @@
+package com.peerly.dto;
+
+import com.peerly.entity.Notification;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFeed {
+    
+    private List<Notification> items;
+    private Long nextCursor; // Null when there are no older notifications
+    private long unreadCount;
+}
@@ -0,0 +1,27 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A live or archived session with its participants' names, returned by the batch lookup endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSummary {
+    
+    private Long id;
+    private Long tutorId;
+    private String tutorName;
+    private Long studentId;
+    private String studentName;
+    private LocalDateTime sessionDateTime;
+    private Integer durationMinutes;
+    private String subject;
+    private String status;
+    private Long supercoinsAmount;
+}
@@ -0,0 +1,19 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * A subject without its subtopics or tutors, returned by the batch lookup endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectSummary {
+    
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean isActive;
+}
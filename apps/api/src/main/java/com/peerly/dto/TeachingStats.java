@@ -0,0 +1,37 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Teaching statistics of a tutor per day, week or month, read from the tutor_stats rollups.
+ * Buckets without any session are omitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeachingStats {
+    
+    private Long tutorId;
+    private String granularity; // DAY, WEEK or MONTH
+    private LocalDate from;
+    private LocalDate to;
+    private List<Bucket> buckets; // Oldest first
+    private Bucket totals; // Sum over the returned buckets; bucketStart is null
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private LocalDate bucketStart;
+        private long sessionsCompleted;
+        private long sessionsCancelled;
+        private double hoursTaught;
+        private long supercoinsEarned;
+        private double cancellationRate; // Cancelled / (completed + cancelled), 0 when there were none
+    }
+}
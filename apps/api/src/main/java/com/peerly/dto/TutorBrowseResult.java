@@ -0,0 +1,41 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a faceted tutor browse plus the counts for every facet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorBrowseResult {
+    
+    public static final String FACET_SUBJECT = "subject";
+    public static final String FACET_SUBTOPIC = "subtopic";
+    public static final String FACET_HOURLY_RATE = "hourlyRate";
+    public static final String FACET_EXPERIENCE = "experience";
+    public static final String FACET_RATING = "rating";
+    public static final String FACET_AVAILABILITY = "availability";
+    
+    private long total; // Matches across all pages
+    private int page;
+    private int size;
+    private List<TutorSummary> tutors;
+    
+    // Facet name -> values; range and availability counts ignore that facet's own filter
+    private Map<String, List<FacetCount>> facets;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private String label;
+        private long count;
+    }
+}
@@ -0,0 +1,81 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composed view behind the profile and teaching pages, assembled in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorProfile {
+    
+    private Long id;
+    private String name;
+    private String bio;
+    private String role;
+    private Double hourlyRate;
+    private Integer experienceYears;
+    private Boolean isActive;
+    private LocalDateTime memberSince;
+    
+    private List<SubjectSummary> subjects;
+    private List<SubtopicSummary> subtopics;
+    
+    private Double averageRating;
+    private Long reviewCount;
+    private List<ReviewSummary> recentReviews;
+    
+    private Map<String, Long> sessionCounts; // Per status, live and history combined
+    private List<SessionSummary> upcomingSessions;
+    
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubjectSummary {
+        private Long id;
+        private String name;
+        private String description;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubtopicSummary {
+        private Long id;
+        private Long subjectId;
+        private String name;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReviewSummary {
+        private Long id;
+        private Long reviewerId;
+        private String reviewerName;
+        private Integer rating;
+        private String comment;
+        private String subject;
+        private LocalDateTime createdAt;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SessionSummary {
+        private Long id;
+        private LocalDateTime sessionDateTime;
+        private Integer durationMinutes;
+        private String subject;
+        private String status;
+    }
+}
@@ -0,0 +1,17 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorRecommendation {
+    
+    private Long tutorId;
+    private String name;
+    private Double hourlyRate;
+    private Integer experienceYears;
+    private double score; // 0 for popularity fallbacks
+}
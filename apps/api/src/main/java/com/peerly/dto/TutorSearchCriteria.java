@@ -0,0 +1,36 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters for a tutor directory search; null fields are not applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorSearchCriteria {
+    
+    public static final String SORT_RATING = "rating";
+    public static final String SORT_RATE = "rate";
+    public static final String SORT_EXPERIENCE = "experience";
+    
+    private List<Long> subjectIds; // Tutor must teach all of them
+    private List<Long> subtopicIds; // Tutor must teach the subject of each of them
+    private Double minRate;
+    private Double maxRate;
+    private Double minRating;
+    private Integer minExperience;
+    private Integer maxExperience;
+    private boolean multipleSubjects;
+    private boolean activeOnly = true;
+    private LocalDateTime availableAt; // No pending or confirmed session overlapping this slot
+    private int durationMinutes = 60;
+    private String sort = SORT_RATING;
+    private int page;
+    private int limit = 50;
+}
@@ -0,0 +1,16 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorSearchResult {
+    
+    private long total; // Matches before the limit was applied
+    private List<TutorSummary> tutors;
+}
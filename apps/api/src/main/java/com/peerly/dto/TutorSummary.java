@@ -0,0 +1,26 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tutor row served from the in-memory tutor directory, without loading the User entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorSummary {
+    
+    private Long id;
+    private String name;
+    private String role;
+    private Double hourlyRate;
+    private Integer experienceYears;
+    private Double averageRating; // Null when the tutor has no reviews
+    private int reviewCount;
+    private Boolean isActive;
+    private List<Long> subjectIds;
+}
@@ -0,0 +1,22 @@
+package com.peerly.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Public fields of a user, returned by the batch lookup endpoint to resolve names in lists.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    
+    private Long id;
+    private String name;
+    private String role;
+    private String grade;
+    private Double hourlyRate;
+    private Integer experienceYears;
+    private Boolean isActive;
+}
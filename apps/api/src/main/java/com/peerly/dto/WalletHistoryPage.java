@@ -0,0 +1,17 @@
+package com.peerly.dto;
+
+import com.peerly.entity.WalletTransaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletHistoryPage {
+    
+    private List<WalletTransaction> items; // Newest first, each with its running balance
+    private Long nextCursor; // Null when there are no older transactions
+}
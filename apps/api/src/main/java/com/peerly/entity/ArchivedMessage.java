@@ -0,0 +1,37 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "messages_archive", indexes = {
+    @Index(name = "idx_messages_archive_pair", columnList = "senderId, receiverId, timestamp"),
+    @Index(name = "idx_messages_archive_receiver", columnList = "receiverId, timestamp")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedMessage {
+    
+    @Id
+    private Long id; // Same ID the message had in the hot table
+    
+    @Column(nullable = false)
+    private Long senderId;
+    
+    @Column(nullable = false)
+    private Long receiverId;
+    
+    @Column(nullable = false)
+    private byte[] content; // GZIP-compressed UTF-8 content
+    
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+    
+    @Column(nullable = false)
+    private boolean isRead;
+}
@@ -0,0 +1,162 @@
+package com.peerly.entity;
+
+import com.peerly.dto.DomainEvent;
+import com.peerly.dto.EntityChangedEvent;
+import com.peerly.service.AuditLogService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Hibernate post-commit listener that captures before/after values of audited fields and
+ * hands them to {@link AuditLogService}. Post-commit events fire only for transactions that
+ * committed, on the committing thread, so a rolled-back change is never audited.
+ * Changes made by bulk SQL bypass Hibernate and are recorded by their callers.
+ */
+@Component
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    
+    public static final String ACTOR_HEADER = "X-User-Id";
+    
+    // Keeps a client-supplied header within the actor column
+    private static final int MAX_CLAIMED_ACTOR_LENGTH = 64;
+    
+    private static final Map<Class<?>, Audited> AUDITED = Map.of(
+            User.class, new Audited(EntityChangedEvent.USER, Set.of("role", "supercoins", "isActive", "hourlyRate")),
+            Review.class, new Audited(EntityChangedEvent.REVIEW, Set.of("rating", "isActive")),
+            Session.class, new Audited(DomainEvent.SESSION, Set.of("status", "sessionDateTime", "supercoinsProcessed")));
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private AuditLogService auditLogService;
+    
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+    
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AUDITED.containsKey(persister.getMappedClass());
+    }
+    
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getPersister(), event.getId(), AuditLogService.Change.INSERT, null, event.getState(), null);
+    }
+    
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getPersister(), event.getId(), AuditLogService.Change.UPDATE, event.getOldState(), event.getState(),
+                event.getDirtyProperties());
+    }
+    
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getPersister(), event.getId(), AuditLogService.Change.DELETE, event.getDeletedState(), null, null);
+    }
+    
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+    
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+    
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+    
+    private void record(EntityPersister persister, Object id, String action, Object[] before, Object[] after,
+                        int[] dirty) {
+        Audited audited = AUDITED.get(persister.getMappedClass());
+        if (audited == null || !(id instanceof Long entityId)) {
+            return;
+        }
+        String[] names = persister.getPropertyNames();
+        Map<String, String[]> changes = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (!audited.fields().contains(names[i]) || (dirty != null && !contains(dirty, i))) {
+                continue;
+            }
+            String oldValue = before == null ? null : render(before[i]);
+            String newValue = after == null ? null : render(after[i]);
+            if (!Objects.equals(oldValue, newValue) || !AuditLogService.Change.UPDATE.equals(action)) {
+                changes.put(names[i], new String[]{oldValue, newValue});
+            }
+        }
+        if (changes.isEmpty()) {
+            return; // Only fields we do not audit changed
+        }
+        auditLogService.record(new AuditLogService.Change(audited.entityType(), entityId, action, changes, actor(),
+                LocalDateTime.now()));
+    }
+    
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String render(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+    
+    // The app has no authentication yet, so the X-User-Id header is only a claim any client can make:
+    // record it as unverified next to the client address, which the client cannot choose
+    private static String actor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return AuditLogService.Change.SYSTEM;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String client = request.getRemoteAddr();
+        String claimed = request.getHeader(ACTOR_HEADER);
+        if (claimed == null || claimed.isBlank()) {
+            return "client:" + client;
+        }
+        claimed = claimed.trim();
+        if (claimed.length() > MAX_CLAIMED_ACTOR_LENGTH) {
+            claimed = claimed.substring(0, MAX_CLAIMED_ACTOR_LENGTH);
+        }
+        return "unverified-user:" + claimed + "@" + client;
+    }
+    
+    private record Audited(String entityType, Set<String> fields) {
+    }
+}
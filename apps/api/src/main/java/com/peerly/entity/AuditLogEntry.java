@@ -0,0 +1,47 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audited change to a user, review or session. Append-only: rows are written in
+ * batches by AuditLogService and never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "audit_log", indexes = {
+    @Index(name = "idx_audit_log_entity_time", columnList = "entityType, entityId, changedAt"),
+    @Index(name = "idx_audit_log_time", columnList = "changedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 16)
+    private String entityType; // USER, REVIEW or SESSION
+    
+    @Column(nullable = false)
+    private Long entityId;
+    
+    @Column(nullable = false, length = 8)
+    private String action; // INSERT, UPDATE or DELETE
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String changes; // JSON: field -> [before, after]
+    
+    @Column
+    private String actor; // "unverified-user:<X-User-Id>@<client address>", "client:<client address>", or "system" for background work
+    
+    @Column(nullable = false)
+    private LocalDateTime changedAt; // Commit time of the change, not the time it was written here
+}
@@ -0,0 +1,41 @@
+package com.peerly.entity;
+
+import com.peerly.dto.EntityChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that republishes writes as {@link EntityChangedEvent}s.
+ * Hibernate obtains it from the Spring context, so it can use injected beans.
+ * Listeners should use {@code @TransactionalEventListener} so caches are only
+ * invalidated once the write has committed.
+ */
+@Component
+public class EntityChangeListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        EntityChangedEvent event = null;
+        if (entity instanceof User user) {
+            event = new EntityChangedEvent(EntityChangedEvent.USER, user.getId(), user.getId());
+        } else if (entity instanceof Review review) {
+            event = new EntityChangedEvent(EntityChangedEvent.REVIEW, review.getId(), review.getReviewee().getId());
+        } else if (entity instanceof Subject subject) {
+            event = new EntityChangedEvent(EntityChangedEvent.SUBJECT, subject.getId(), subject.getId());
+        } else if (entity instanceof Subtopic subtopic) {
+            event = new EntityChangedEvent(EntityChangedEvent.SUBTOPIC, subtopic.getId(), subtopic.getSubject().getId());
+        }
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -8,7 +8,11 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_pair", columnList = "senderId, receiverId, timestamp"),
+    @Index(name = "idx_messages_timestamp", columnList = "timestamp"),
+    @Index(name = "idx_messages_receiver_unread", columnList = "receiverId, isRead")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
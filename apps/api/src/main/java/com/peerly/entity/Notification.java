@@ -0,0 +1,53 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_id", columnList = "userId, id"),
+    @Index(name = "idx_notifications_event_user", columnList = "sourceEventId, userId", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+    
+    // Sequence ids (not IDENTITY) so NotificationService's multi-row INSERT can draw them with nextval();
+    // the sequence steps by allocationSize, so those IDs are sparse but still increasing
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long userId; // Recipient
+    
+    @Column(nullable = false)
+    private String type; // Source event type, e.g. SESSION_ACCEPTED
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(columnDefinition = "TEXT")
+    private String body;
+    
+    @Column
+    private String referenceType; // e.g. SESSION, MESSAGE
+    
+    @Column
+    private Long referenceId;
+    
+    @Column
+    private Long sourceEventId; // Outbox event that produced this notification; one per event and user
+    
+    @Column(nullable = false)
+    private boolean isRead = false;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
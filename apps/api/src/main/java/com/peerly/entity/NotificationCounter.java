@@ -0,0 +1,20 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCounter {
+    
+    @Id
+    private Long userId;
+    
+    @Column(nullable = false)
+    private Long unreadCount = 0L;
+}
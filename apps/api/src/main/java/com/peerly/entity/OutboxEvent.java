@@ -0,0 +1,49 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_published_at", columnList = "publishedAt"),
+    @Index(name = "idx_outbox_events_aggregate", columnList = "aggregateType, aggregateId"),
+    @Index(name = "idx_outbox_events_replay", columnList = "transactionId, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Also the replay cursor for consumers
+    
+    // ID of the inserting transaction; IDs commit out of order, so replay pages by (transactionId, id)
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT (pg_current_xact_id()::text::bigint)", insertable = false, updatable = false)
+    private Long transactionId;
+    
+    @Column(nullable = false)
+    private String aggregateType; // e.g. SESSION
+    
+    @Column(nullable = false)
+    private Long aggregateId;
+    
+    @Column(nullable = false)
+    private String eventType; // e.g. SESSION_BOOKED
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload; // JSON snapshot of the aggregate at the time of the event
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column
+    private LocalDateTime publishedAt; // Null until the relay has delivered it
+    
+    @Column(nullable = false)
+    private Integer attempts = 0; // Failed delivery attempts
+}
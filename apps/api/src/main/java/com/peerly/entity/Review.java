@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "reviews")
 @Data
 @NoArgsConstructor
@@ -44,6 +45,11 @@ public class Review {
     @Column
     private Boolean isActive = true;
     
+    // Optimistic lock version
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
     // Validation constraint to ensure rating is between 1 and 5
     @PrePersist
     @PreUpdate
@@ -8,7 +8,10 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+    @Index(name = "idx_sessions_tutor_status_time", columnList = "tutor_id, status, sessionDateTime"),
+    @Index(name = "idx_sessions_student_status_time", columnList = "student_id, status, sessionDateTime")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,11 +57,17 @@ public class Session {
     @Column
     private LocalDateTime updatedAt;
     
+    // Optimistic lock version
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
     public enum SessionStatus {
         PENDING,
         CONFIRMED,
         COMPLETED,
-        CANCELLED
+        CANCELLED,
+        EXPIRED // Tutor never answered before the session start time
     }
     
     @PreUpdate
@@ -0,0 +1,65 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "session_history", indexes = {
+    @Index(name = "idx_session_history_tutor", columnList = "historyMonth, tutorId"),
+    @Index(name = "idx_session_history_student", columnList = "historyMonth, studentId"),
+    // Full-history lookups without a month range, served newest first straight from the index
+    @Index(name = "idx_session_history_tutor_time", columnList = "tutorId, sessionDateTime"),
+    @Index(name = "idx_session_history_student_time", columnList = "studentId, sessionDateTime")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionHistory {
+    
+    @Id
+    private Long id; // Same ID the session had in the active table
+    
+    @Column(nullable = false)
+    private Integer historyMonth; // Partition key: year * 100 + month of sessionDateTime, e.g. 202501
+    
+    @Column(nullable = false)
+    private Long tutorId;
+    
+    @Column(nullable = false)
+    private Long studentId;
+    
+    @Column(nullable = false)
+    private LocalDateTime sessionDateTime;
+    
+    @Column(nullable = false)
+    private Integer durationMinutes;
+    
+    @Column
+    private String subject;
+    
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Session.SessionStatus status;
+    
+    @Column
+    private Long supercoinsAmount;
+    
+    @Column
+    private Boolean supercoinsProcessed;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column
+    private LocalDateTime updatedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
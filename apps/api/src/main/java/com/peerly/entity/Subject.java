@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subjects")
 @Table(name = "subjects")
 @Data
 @NoArgsConstructor
@@ -29,8 +34,14 @@ public class Subject {
     @Column
     private Boolean isActive = true;
     
+    // Optimistic lock version
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
     @OneToMany(mappedBy = "subject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subject-subtopics")
     private List<Subtopic> subtopics = new ArrayList<>();
     
     @ManyToMany(mappedBy = "subjects")
@@ -0,0 +1,62 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Supercoins reserved from a student's balance for a booked session (escrow).
+ * The balance itself only changes when the hold is captured at settlement.
+ */
+@Entity
+@Table(name = "supercoin_holds", indexes = {
+    @Index(name = "idx_supercoin_holds_session", columnList = "sessionId", unique = true),
+    @Index(name = "idx_supercoin_holds_status_expiry", columnList = "status, expiresAt"),
+    @Index(name = "idx_supercoin_holds_user_status", columnList = "userId, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupercoinHold {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long sessionId;
+    
+    @Column(nullable = false)
+    private Long userId; // Student whose supercoins are held
+    
+    @Column(nullable = false)
+    private Long amount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status = HoldStatus.HELD;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt; // A hold still HELD after this is stale and released by the sweep
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column
+    private LocalDateTime resolvedAt;
+    
+    // Optimistic lock version
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
+    public enum HoldStatus {
+        HELD,
+        CAPTURED, // Settled: the amount moved to the tutor
+        RELEASED, // Session rejected, cancelled or expired
+        EXPIRED // Never settled before expiresAt
+    }
+}
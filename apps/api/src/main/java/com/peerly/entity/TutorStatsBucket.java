@@ -0,0 +1,57 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated teaching statistics of one tutor for one day, week (starting Monday) or month,
+ * bucketed by the session's date. Maintained incrementally by TeachingStatsService and rebuilt
+ * nightly for recent buckets from sessions and session_history.
+ */
+@Entity
+@Table(name = "tutor_stats", indexes = {
+    @Index(name = "idx_tutor_stats_bucket", columnList = "tutorId, granularity, bucketStart", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorStatsBucket {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long tutorId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+    
+    @Column(nullable = false)
+    private LocalDate bucketStart;
+    
+    @Column(nullable = false)
+    private Long sessionsCompleted = 0L;
+    
+    @Column(nullable = false)
+    private Long sessionsCancelled = 0L; // Rejected by the tutor or cancelled by the student
+    
+    @Column(nullable = false)
+    private Long minutesTaught = 0L;
+    
+    @Column(nullable = false)
+    private Long supercoinsEarned = 0L; // Settled sessions only
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+}
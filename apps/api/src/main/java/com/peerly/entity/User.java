@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -60,6 +63,11 @@ public class User {
     @Column
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    // Optimistic lock version
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
     // Relationships
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
@@ -67,6 +75,9 @@ public class User {
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "subject_id")
     )
+    // Only the tutor's subject list is cached: the row itself carries the balance and active flag,
+    // which must not be served stale from another instance's writes
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-subjects")
     private List<Subject> subjects = new ArrayList<>();
     
     @OneToMany(mappedBy = "reviewer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -0,0 +1,50 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed monthly summary of a user's wallet transactions.
+ * Only months in which the user had at least one transaction get a statement.
+ */
+@Entity
+@Table(name = "wallet_statements", indexes = {
+    @Index(name = "idx_wallet_statements_user_month", columnList = "userId, statementMonth", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletStatement {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private Integer statementMonth; // year * 100 + month, e.g. 202501
+    
+    @Column(nullable = false)
+    private Long openingBalance;
+    
+    @Column(nullable = false)
+    private Long closingBalance;
+    
+    @Column(nullable = false)
+    private Long totalCredits;
+    
+    @Column(nullable = false)
+    private Long totalDebits;
+    
+    @Column(nullable = false)
+    private Integer transactionCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,55 @@
+package com.peerly.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a user's supercoin balance. Rows are append-only: a correction is a new
+ * transaction, never an update. balanceAfter is the balance once this transaction applied,
+ * so the balance at any past instant is a single index lookup.
+ */
+@Entity
+@Immutable
+@Table(name = "wallet_transactions", indexes = {
+    @Index(name = "idx_wallet_transactions_user_time", columnList = "userId, createdAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletTransaction {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Tie-breaker within createdAt and the page cursor
+    
+    @Column(nullable = false, updatable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 16)
+    private TransactionType type;
+    
+    @Column(nullable = false, updatable = false)
+    private Long amount; // Signed: positive credits the wallet, negative debits it
+    
+    @Column(nullable = false, updatable = false)
+    private Long balanceAfter;
+    
+    @Column(updatable = false)
+    private Long counterpartyId; // Other user of a transfer or session payment
+    
+    @Column(updatable = false)
+    private Long sessionId; // Session a payment or earning settles
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    public enum TransactionType {
+        CREDIT, DEBIT, TRANSFER_IN, TRANSFER_OUT, SESSION_PAYMENT, SESSION_EARNING
+    }
+}
@@ -0,0 +1,30 @@
+package com.peerly.repository;
+
+import com.peerly.entity.ArchivedMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedMessageRepository extends JpaRepository<ArchivedMessage, Long> {
+    
+    // Archived messages of a conversation before a (timestamp, id) cursor, newest first
+    @Query("SELECT m FROM ArchivedMessage m WHERE " +
+           "((m.senderId = :user1Id AND m.receiverId = :user2Id) OR (m.senderId = :user2Id AND m.receiverId = :user1Id)) " +
+           "AND (m.timestamp < :before OR (m.timestamp = :before AND m.id < :beforeId)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ArchivedMessage> findConversationBefore(@Param("user1Id") Long user1Id,
+                                                 @Param("user2Id") Long user2Id,
+                                                 @Param("before") LocalDateTime before,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Pageable pageable);
+    
+    List<ArchivedMessage> findBySenderIdOrderByTimestampDesc(Long senderId);
+    
+    List<ArchivedMessage> findByReceiverIdOrderByTimestampDesc(Long receiverId);
+}
@@ -0,0 +1,40 @@
+package com.peerly.repository;
+
+import com.peerly.entity.AuditLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditLogRepository extends JpaRepository<AuditLogEntry, Long> {
+    
+    // Changes to one entity within a period, newest first, after the (changedAt, id) of a cursor entry
+    @Query("SELECT a FROM AuditLogEntry a WHERE a.entityType = :entityType AND a.entityId = :entityId " +
+           "AND a.changedAt >= :from AND a.changedAt < :to " +
+           "AND (a.changedAt < :cursorTime OR (a.changedAt = :cursorTime AND a.id < :cursorId)) " +
+           "ORDER BY a.changedAt DESC, a.id DESC")
+    List<AuditLogEntry> findEntityPage(@Param("entityType") String entityType,
+                                       @Param("entityId") Long entityId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("cursorTime") LocalDateTime cursorTime,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+    
+    // Changes to all entities of a type within a period, newest first
+    @Query("SELECT a FROM AuditLogEntry a WHERE a.entityType = :entityType " +
+           "AND a.changedAt >= :from AND a.changedAt < :to " +
+           "AND (a.changedAt < :cursorTime OR (a.changedAt = :cursorTime AND a.id < :cursorId)) " +
+           "ORDER BY a.changedAt DESC, a.id DESC")
+    List<AuditLogEntry> findTypePage(@Param("entityType") String entityType,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("cursorTime") LocalDateTime cursorTime,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+}
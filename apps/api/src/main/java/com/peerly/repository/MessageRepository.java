@@ -1,11 +1,13 @@
 package com.peerly.repository;
 
 import com.peerly.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -16,7 +18,23 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     List<Message> findByReceiverIdAndIsReadFalse(Long receiverId);
 
+    long countByReceiverIdAndIsReadFalse(Long receiverId);
+
     List<Message> findBySenderIdOrderByTimestampDesc(Long senderId);
 
     List<Message> findByReceiverIdOrderByTimestampDesc(Long receiverId);
+
+    // Hot messages of a conversation before a (timestamp, id) cursor, newest first
+    @Query("SELECT m FROM Message m WHERE " +
+           "((m.senderId = :user1Id AND m.receiverId = :user2Id) OR (m.senderId = :user2Id AND m.receiverId = :user1Id)) " +
+           "AND (m.timestamp < :before OR (m.timestamp = :before AND m.id < :beforeId)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findConversationBefore(@Param("user1Id") Long user1Id,
+                                         @Param("user2Id") Long user2Id,
+                                         @Param("before") LocalDateTime before,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+
+    // Oldest read messages past the hot window, for the archive job; unread ones stay hot until read
+    List<Message> findByIsReadTrueAndTimestampBeforeOrderByIdAsc(LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,38 @@
+package com.peerly.repository;
+
+import com.peerly.entity.NotificationCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+    
+    // Apply a pending unread delta to a user's counter
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) VALUES (:userId, GREATEST(0, :delta)) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET unread_count = GREATEST(0, notification_counters.unread_count + :delta)",
+           nativeQuery = true)
+    int addDelta(@Param("userId") Long userId, @Param("delta") long delta);
+    
+    // Recompute every counter from the notifications table
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) " +
+                   "SELECT u.user_id, COALESCE(n.cnt, 0) FROM (SELECT DISTINCT user_id FROM notifications " +
+                   "UNION SELECT user_id FROM notification_counters) u " +
+                   "LEFT JOIN (SELECT user_id, COUNT(*) AS cnt FROM notifications WHERE is_read = false GROUP BY user_id) n " +
+                   "ON n.user_id = u.user_id " +
+                   "ON CONFLICT (user_id) DO UPDATE SET unread_count = EXCLUDED.unread_count",
+           nativeQuery = true)
+    int reconcileAll();
+}
@@ -0,0 +1,56 @@
+package com.peerly.repository;
+
+import com.peerly.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Next batch for this relay: the oldest undelivered event of each aggregate, skipping rows
+    // another relay instance has claimed so every event goes out once and in order per aggregate
+    @Query(value = "SELECT * FROM outbox_events e WHERE e.published_at IS NULL AND NOT EXISTS (" +
+            "SELECT 1 FROM outbox_events p WHERE p.published_at IS NULL AND p.aggregate_type = e.aggregate_type " +
+            "AND p.aggregate_id = e.aggregate_id AND p.id < e.id) " +
+            "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimNextBatch(@Param("limit") int limit);
+    
+    @Query("SELECT e.transactionId FROM OutboxEvent e WHERE e.id = :id")
+    Optional<Long> findTransactionIdById(@Param("id") Long id);
+    
+    // Replay: events after a consumer's (transactionId, id) cursor, limited to transactions older than every
+    // transaction still in flight, so no event can commit behind a cursor that has been handed out
+    @Query(value = "SELECT * FROM outbox_events WHERE (transaction_id, id) > (:afterTransactionId, :afterId) " +
+            "AND transaction_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint " +
+            "ORDER BY transaction_id, id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findReplayPage(@Param("afterTransactionId") long afterTransactionId, @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
+    
+    // Replay: events of one aggregate type after a consumer's cursor
+    @Query(value = "SELECT * FROM outbox_events WHERE aggregate_type = :aggregateType " +
+            "AND (transaction_id, id) > (:afterTransactionId, :afterId) " +
+            "AND transaction_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint " +
+            "ORDER BY transaction_id, id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findReplayPage(@Param("aggregateType") String aggregateType,
+                                     @Param("afterTransactionId") long afterTransactionId, @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id = :id")
+    int incrementAttempts(@Param("id") Long id);
+}
@@ -2,6 +2,7 @@ package com.peerly.repository;
 
 import com.peerly.entity.Review;
 import com.peerly.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +25,10 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT COUNT(r) FROM Review r WHERE r.reviewee.id = :tutorId")
     Long countByTutorId(Long tutorId);
+    
+    // Most recent reviews of a tutor with the reviewer loaded
+    @Query("SELECT r FROM Review r JOIN FETCH r.reviewer WHERE r.reviewee.id = :tutorId ORDER BY r.createdAt DESC")
+    List<Review> findRecentByTutorId(@Param("tutorId") Long tutorId, Pageable pageable);
 
     @Query("SELECT r FROM Review r WHERE r.reviewer.id = :userId AND r.rating > :i")
     List<Review> findReviewsAboveRating(@Param("userId") Long userId, @Param("i") int i);
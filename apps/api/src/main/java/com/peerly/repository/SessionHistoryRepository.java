@@ -0,0 +1,44 @@
+package com.peerly.repository;
+
+import com.peerly.entity.SessionHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SessionHistoryRepository extends JpaRepository<SessionHistory, Long> {
+    
+    // Full history of a tutor (all partitions)
+    List<SessionHistory> findByTutorIdOrderBySessionDateTimeDesc(Long tutorId);
+    
+    // Full history of a student (all partitions)
+    List<SessionHistory> findByStudentIdOrderBySessionDateTimeDesc(Long studentId);
+    
+    // History of a tutor restricted to a range of month partitions
+    List<SessionHistory> findByTutorIdAndHistoryMonthBetweenOrderBySessionDateTimeDesc(Long tutorId, Integer fromMonth, Integer toMonth);
+    
+    // History of a student restricted to a range of month partitions
+    List<SessionHistory> findByStudentIdAndHistoryMonthBetweenOrderBySessionDateTimeDesc(Long studentId, Integer fromMonth, Integer toMonth);
+    
+    // History counts per status for a tutor: [status, count]
+    @Query("SELECT h.status, COUNT(h) FROM SessionHistory h WHERE h.tutorId = :tutorId GROUP BY h.status")
+    List<Object[]> countByTutorIdGroupByStatus(@Param("tutorId") Long tutorId);
+    
+    // Search history by subject (case-insensitive)
+    @Query("SELECT h FROM SessionHistory h WHERE LOWER(h.subject) LIKE LOWER(CONCAT('%', :subject, '%'))")
+    List<SessionHistory> findBySubjectContainingIgnoreCase(@Param("subject") String subject);
+    
+    // Search history by tutor name (case-insensitive)
+    @Query("SELECT h FROM SessionHistory h, User u WHERE u.id = h.tutorId " +
+           "AND LOWER(u.name) LIKE LOWER(CONCAT('%', :tutorName, '%'))")
+    List<SessionHistory> findByTutorNameContainingIgnoreCase(@Param("tutorName") String tutorName);
+    
+    // Search history by tutor name OR subject (case-insensitive)
+    @Query("SELECT h FROM SessionHistory h, User u WHERE u.id = h.tutorId AND (" +
+           "LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(h.subject) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    List<SessionHistory> findByTutorNameOrSubjectContainingIgnoreCase(@Param("searchTerm") String searchTerm);
+}
@@ -2,12 +2,15 @@ package com.peerly.repository;
 
 import com.peerly.entity.Session;
 import com.peerly.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -29,11 +32,12 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
     List<Session> findByStudentAndStatus(User student, Session.SessionStatus status);
     
     // Check if tutor is available at a specific time
-    @Query("SELECT COUNT(s) FROM Session s WHERE s.tutor = :tutor " +
-           "AND s.sessionDateTime <= :endTime " +
-           "AND FUNCTION('DATE_ADD', s.sessionDateTime, s.durationMinutes, 'MINUTE') >= :startTime " +
-           "AND s.status IN ('PENDING', 'CONFIRMED')")
-    Long countConflictingSessions(@Param("tutor") User tutor, 
+    @Query(value = "SELECT COUNT(*) FROM sessions s WHERE s.tutor_id = :tutorId " +
+           "AND s.status IN ('PENDING', 'CONFIRMED') " +
+           "AND s.session_date_time <= :endTime " +
+           "AND s.session_date_time + s.duration_minutes * INTERVAL '1 minute' >= :startTime",
+           nativeQuery = true)
+    Long countConflictingSessions(@Param("tutorId") Long tutorId, 
                                  @Param("startTime") LocalDateTime startTime, 
                                  @Param("endTime") LocalDateTime endTime);
     
@@ -45,6 +49,19 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
     List<Session> findUpcomingSessionsByTutor(@Param("tutor") User tutor, 
                                             @Param("now") LocalDateTime now);
     
+    // Upcoming sessions for a tutor by ID, soonest first
+    @Query("SELECT s FROM Session s WHERE s.tutor.id = :tutorId " +
+           "AND s.sessionDateTime > :now " +
+           "AND s.status IN ('PENDING', 'CONFIRMED') " +
+           "ORDER BY s.sessionDateTime ASC")
+    List<Session> findUpcomingByTutorId(@Param("tutorId") Long tutorId,
+                                        @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+    
+    // Session counts per status for a tutor: [status, count]
+    @Query("SELECT s.status, COUNT(s) FROM Session s WHERE s.tutor.id = :tutorId GROUP BY s.status")
+    List<Object[]> countByTutorIdGroupByStatus(@Param("tutorId") Long tutorId);
+    
     // Find upcoming sessions for a student
     @Query("SELECT s FROM Session s WHERE s.student = :student " +
            "AND s.sessionDateTime > :now " +
@@ -70,4 +87,43 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
     // Find sessions that need supercoin processing (completed but not processed)
     @Query("SELECT s FROM Session s WHERE s.status = 'COMPLETED' AND s.supercoinsProcessed = false")
     List<Session> findSessionsNeedingSupercoinsProcessing();
-}
\ No newline at end of file
+    
+    // Start/end times of live sessions, used to prime the lifecycle scheduler
+    @Query("SELECT s.id AS id, s.sessionDateTime AS sessionDateTime, s.durationMinutes AS durationMinutes " +
+           "FROM Session s WHERE s.status = :status")
+    List<SessionTiming> findTimingsByStatus(@Param("status") Session.SessionStatus status);
+    
+    // Pending requests whose start time has passed
+    @Query(value = "SELECT id FROM sessions WHERE status = 'PENDING' AND session_date_time <= :now",
+           nativeQuery = true)
+    List<Long> findOverduePendingIds(@Param("now") LocalDateTime now);
+    
+    // Confirmed sessions that ended before the cutoff
+    @Query(value = "SELECT id FROM sessions WHERE status = 'CONFIRMED' " +
+                   "AND session_date_time + duration_minutes * INTERVAL '1 minute' <= :cutoff",
+           nativeQuery = true)
+    List<Long> findEndedConfirmedIds(@Param("cutoff") LocalDateTime cutoff);
+    
+    // Bulk-expire pending requests; returns the IDs that actually transitioned
+    @Transactional
+    @Query(value = "UPDATE sessions SET status = 'EXPIRED', updated_at = :now, version = version + 1 " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' AND session_date_time <= :now RETURNING id",
+           nativeQuery = true)
+    List<Long> expirePendingSessions(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Bulk-complete confirmed sessions that have ended; returns the IDs that actually transitioned
+    @Transactional
+    @Query(value = "UPDATE sessions SET status = 'COMPLETED', updated_at = :now, version = version + 1 " +
+                   "WHERE id IN (:ids) AND status = 'CONFIRMED' " +
+                   "AND session_date_time + duration_minutes * INTERVAL '1 minute' <= :cutoff RETURNING id",
+           nativeQuery = true)
+    List<Long> completeEndedSessions(@Param("ids") Collection<Long> ids,
+                                     @Param("cutoff") LocalDateTime cutoff,
+                                     @Param("now") LocalDateTime now);
+    
+    interface SessionTiming {
+        Long getId();
+        LocalDateTime getSessionDateTime();
+        Integer getDurationMinutes();
+    }
+}
@@ -1,8 +1,11 @@
 package com.peerly.repository;
 
 import com.peerly.entity.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +16,8 @@ import java.util.Optional;
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
     
     // Find active subjects
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")})
     List<Subject> findByIsActiveTrue();
     
     // Find subject by name (case-insensitive)
@@ -21,7 +26,7 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     // Search subjects by name containing (case-insensitive)
     List<Subject> findByNameContainingIgnoreCaseAndIsActiveTrue(String name);
     
-    // Find subjects by tutor
+    // Find subjects by tutor (not cached: it joins users, so any user write would invalidate it)
     @Query("SELECT s FROM Subject s JOIN s.users t WHERE t.id = :tutorId AND s.isActive = true")
     List<Subject> findByTutorId(@Param("tutorId") Long tutorId);
 }
@@ -2,8 +2,11 @@ package com.peerly.repository;
 
 import com.peerly.entity.Subtopic;
 import com.peerly.entity.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,12 +17,16 @@ import java.util.Optional;
 public interface SubtopicRepository extends JpaRepository<Subtopic, Long> {
     
     // Find active subtopics
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")})
     List<Subtopic> findByIsActiveTrue();
     
     // Find subtopics by subject
     List<Subtopic> findBySubjectAndIsActiveTrue(Subject subject);
     
     // Find subtopics by subject ID
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")})
     List<Subtopic> findBySubjectIdAndIsActiveTrue(Long subjectId);
     
     // Find subtopic by name and subject (case-insensitive)
@@ -28,7 +35,7 @@ public interface SubtopicRepository extends JpaRepository<Subtopic, Long> {
     // Search subtopics by name containing (case-insensitive)
     List<Subtopic> findByNameContainingIgnoreCaseAndIsActiveTrue(String name);
     
-    // Find subtopics by tutor (through subject relationship)
+    // Find subtopics by tutor (through subject relationship; not cached, see SubjectRepository.findByTutorId)
     @Query("SELECT st FROM Subtopic st JOIN st.subject s JOIN s.users t WHERE t.id = :tutorId AND st.isActive = true")
     List<Subtopic> findByTutorId(@Param("tutorId") Long tutorId);
 }
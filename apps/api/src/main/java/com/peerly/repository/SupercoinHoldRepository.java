@@ -0,0 +1,33 @@
+package com.peerly.repository;
+
+import com.peerly.entity.SupercoinHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SupercoinHoldRepository extends JpaRepository<SupercoinHold, Long> {
+    
+    // Find the hold of a session
+    Optional<SupercoinHold> findBySessionId(Long sessionId);
+    
+    // Find the holds of several sessions in one status
+    List<SupercoinHold> findBySessionIdInAndStatus(Collection<Long> sessionIds, SupercoinHold.HoldStatus status);
+    
+    // Total of a user's holds in one status; exact for a transaction that has bumped the user's version
+    @Query("SELECT COALESCE(SUM(h.amount), 0) FROM SupercoinHold h WHERE h.userId = :userId AND h.status = :status")
+    long sumAmountByUserIdAndStatus(@Param("userId") Long userId, @Param("status") SupercoinHold.HoldStatus status);
+    
+    // All holds in one status, used to rebuild the in-memory index
+    List<SupercoinHold> findByStatus(SupercoinHold.HoldStatus status);
+    
+    // Holds in one status past their expiry
+    List<SupercoinHold> findByStatusAndExpiresAtBefore(SupercoinHold.HoldStatus status, LocalDateTime cutoff, Pageable pageable);
+}
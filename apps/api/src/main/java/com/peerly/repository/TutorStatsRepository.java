@@ -0,0 +1,43 @@
+package com.peerly.repository;
+
+import com.peerly.entity.TutorStatsBucket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TutorStatsRepository extends JpaRepository<TutorStatsBucket, Long> {
+    
+    List<TutorStatsBucket> findByTutorIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+            Long tutorId, TutorStatsBucket.Granularity granularity, LocalDate from, LocalDate to);
+    
+    // Add deltas to the day, week and month buckets of a session date in one statement
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutor_stats"))
+    @Query(value = "INSERT INTO tutor_stats (tutor_id, granularity, bucket_start, sessions_completed, sessions_cancelled, " +
+                   "  minutes_taught, supercoins_earned, updated_at) " +
+                   "SELECT :tutorId, b.granularity, b.bucket_start, :completed, :cancelled, :minutes, :earned, now() " +
+                   "FROM (VALUES ('DAY', CAST(:day AS DATE)), " +
+                   "  ('WEEK', CAST(date_trunc('week', CAST(:day AS DATE)) AS DATE)), " +
+                   "  ('MONTH', CAST(date_trunc('month', CAST(:day AS DATE)) AS DATE))) AS b(granularity, bucket_start) " +
+                   "ON CONFLICT (tutor_id, granularity, bucket_start) DO UPDATE SET " +
+                   "  sessions_completed = tutor_stats.sessions_completed + EXCLUDED.sessions_completed, " +
+                   "  sessions_cancelled = tutor_stats.sessions_cancelled + EXCLUDED.sessions_cancelled, " +
+                   "  minutes_taught = tutor_stats.minutes_taught + EXCLUDED.minutes_taught, " +
+                   "  supercoins_earned = tutor_stats.supercoins_earned + EXCLUDED.supercoins_earned, " +
+                   "  updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int addDeltas(@Param("tutorId") Long tutorId, @Param("day") LocalDate day, @Param("completed") long completed,
+                  @Param("cancelled") long cancelled, @Param("minutes") long minutes, @Param("earned") long earned);
+}
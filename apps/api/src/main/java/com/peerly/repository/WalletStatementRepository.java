@@ -0,0 +1,17 @@
+package com.peerly.repository;
+
+import com.peerly.entity.WalletStatement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WalletStatementRepository extends JpaRepository<WalletStatement, Long> {
+    
+    List<WalletStatement> findByUserIdAndStatementMonthBetweenOrderByStatementMonthDesc(Long userId, Integer from, Integer to);
+    
+    @Query("SELECT MAX(s.statementMonth) FROM WalletStatement s")
+    Integer findMaxStatementMonth();
+}
@@ -0,0 +1,45 @@
+package com.peerly.repository;
+
+import com.peerly.entity.WalletTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WalletTransactionRepository extends JpaRepository<WalletTransaction, Long> {
+    
+    // First page of a user's history within a period, newest first
+    @Query("SELECT t FROM WalletTransaction t WHERE t.userId = :userId AND t.type IN :types " +
+           "AND t.createdAt >= :from AND t.createdAt < :to ORDER BY t.createdAt DESC, t.id DESC")
+    List<WalletTransaction> findPage(@Param("userId") Long userId,
+                                     @Param("types") Collection<WalletTransaction.TransactionType> types,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+    
+    // Next page of a user's history, after the (createdAt, id) of the cursor transaction
+    @Query("SELECT t FROM WalletTransaction t WHERE t.userId = :userId AND t.type IN :types " +
+           "AND t.createdAt >= :from AND t.createdAt < :to " +
+           "AND (t.createdAt < :cursorTime OR (t.createdAt = :cursorTime AND t.id < :cursorId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<WalletTransaction> findPageAfter(@Param("userId") Long userId,
+                                          @Param("types") Collection<WalletTransaction.TransactionType> types,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+    
+    // Latest transaction at or before an instant: its balanceAfter is the balance at that instant
+    Optional<WalletTransaction> findFirstByUserIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(Long userId, LocalDateTime at);
+    
+    // First transaction on record; balance before it is balanceAfter - amount
+    Optional<WalletTransaction> findFirstByUserIdOrderByCreatedAtAscIdAsc(Long userId);
+}
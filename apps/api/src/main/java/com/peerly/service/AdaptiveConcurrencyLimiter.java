@@ -0,0 +1,101 @@
+package com.peerly.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit for the database-heavy endpoints.
+ * A request is admitted while fewer than the current limit are in flight. A fast, successful
+ * request that found the limit at least half used raises it by one; a slow or failed request
+ * lowers it by the backoff ratio (at most once per latency threshold, so one burst of slow
+ * requests counts as one signal). The limit is capped below the connection pool size so
+ * excess load is shed before callers queue on the pool.
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.concurrency.initial-limit:8}")
+    private int initialLimit;
+    
+    @Value("${peerly.concurrency.min-limit:2}")
+    private int minLimit;
+    
+    @Value("${peerly.concurrency.max-limit:16}")
+    private int maxLimit;
+    
+    @Value("${peerly.concurrency.latency-threshold:PT1S}")
+    private Duration latencyThreshold;
+    
+    @Value("${peerly.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final AtomicInteger limit = new AtomicInteger();
+    
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+    
+    private Timer latency;
+    
+    @PostConstruct
+    void init() {
+        limit.set(Math.max(minLimit, Math.min(initialLimit, maxLimit)));
+        meterRegistry.gauge("peerly.concurrency.limit", List.of(), limit);
+        meterRegistry.gauge("peerly.concurrency.inflight", List.of(), inFlight);
+        latency = meterRegistry.timer("peerly.concurrency.latency");
+    }
+    
+    /**
+     * Admit a request if the limit allows
+     * @return In-flight count when admitted (pass it to release), or -1 if the request must be shed
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+    
+    /**
+     * Release an admitted request and adjust the limit from its outcome
+     * @param admittedInFlight Value returned by tryAcquire
+     * @param latencyNanos Time the request took
+     * @param failed Whether the request failed on the server side
+     */
+    public void release(int admittedInFlight, long latencyNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    
+        long now = System.nanoTime();
+        if (failed || latencyNanos > latencyThreshold.toNanos()) {
+            long last = lastDecrease.get();
+            if (now - last >= latencyThreshold.toNanos() && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (admittedInFlight * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+    
+    public int getLimit() {
+        return limit.get();
+    }
+}
@@ -0,0 +1,474 @@
+package com.peerly.service;
+
+import com.peerly.dto.AnalyticsQuery;
+import com.peerly.dto.AnalyticsResult;
+import com.peerly.entity.Session;
+import com.peerly.entity.User;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel group-by/filter aggregation over one AnalyticsSnapshot.
+ * A query scans its dataset in fixed-size row chunks on the analytics ForkJoinPool. Each chunk
+ * aggregates into its own partial result (a flat array when the group key space is small, a
+ * hash map otherwise) and partials are merged pairwise, so no state is shared while scanning.
+ * Group keys are the dimension codes combined in mixed radix; since codes sort like their
+ * labels, groups come out ordered by label.
+ */
+public class AnalyticsEngine {
+    
+    private static final int CHUNK_ROWS = 1 << 16;
+    
+    private static final int DENSE_KEY_SPACE = 1 << 14;
+    
+    private static final String[] EXPERIENCE_BANDS = {"unknown", "0-1", "2-4", "5-9", "10+"};
+    
+    private static final int COMPLETED = Session.SessionStatus.COMPLETED.ordinal();
+    
+    private static final int CANCELLED = Session.SessionStatus.CANCELLED.ordinal();
+    
+    private final AnalyticsSnapshot snapshot;
+    
+    private final ForkJoinPool pool;
+    
+    private final int maxGroups;
+    
+    private final Map<String, Dataset> datasets = new LinkedHashMap<>();
+    
+    // Month code of every epoch day between the snapshot's first and last day
+    private final int[] monthOfDay;
+    
+    private final int firstMonth;
+    
+    public AnalyticsEngine(AnalyticsSnapshot snapshot, ForkJoinPool pool, int maxGroups) {
+        this.snapshot = snapshot;
+        this.pool = pool;
+        this.maxGroups = maxGroups;
+    
+        YearMonth first = YearMonth.from(LocalDate.ofEpochDay(snapshot.minDay));
+        this.firstMonth = first.getYear() * 12 + first.getMonthValue() - 1;
+        this.monthOfDay = new int[snapshot.maxDay - snapshot.minDay + 1];
+        LocalDate day = LocalDate.ofEpochDay(snapshot.minDay);
+        for (int i = 0; i < monthOfDay.length; i++, day = day.plusDays(1)) {
+            monthOfDay[i] = day.getYear() * 12 + day.getMonthValue() - 1 - firstMonth;
+        }
+    
+        datasets.put("sessions", sessions());
+        datasets.put("reviews", reviews());
+        datasets.put("users", users());
+        datasets.put("userSubjects", userSubjects());
+    }
+    
+    /**
+     * Run a query
+     * @param query Dataset, group-by dimensions, filters, date range and metrics
+     * @return One row per non-empty group, ordered by group
+     */
+    public AnalyticsResult execute(AnalyticsQuery query) {
+        long start = System.nanoTime();
+        Dataset dataset = datasets.get(query.getDataset());
+        if (dataset == null) {
+            throw new RuntimeException("Unknown dataset: " + query.getDataset() + ". Available: " + datasets.keySet());
+        }
+    
+        List<String> groupNames = query.getGroupBy() == null ? List.of() : query.getGroupBy();
+        Dimension[] groups = new Dimension[groupNames.size()];
+        long keySpace = 1;
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = dataset.dimension(groupNames.get(g));
+            try {
+                keySpace = Math.multiplyExact(keySpace, Math.max(1, groups[g].cardinality()));
+            } catch (ArithmeticException e) {
+                throw new RuntimeException("Too many group-by dimensions");
+            }
+        }
+    
+        List<String> metricNames = query.getMetrics() == null || query.getMetrics().isEmpty()
+                ? List.of("count") : query.getMetrics();
+        List<ToDoubleFunction<double[]>> metrics = new ArrayList<>();
+        for (String name : metricNames) {
+            ToDoubleFunction<double[]> metric = dataset.metrics().get(name);
+            if (metric == null) {
+                throw new RuntimeException("Unknown metric for " + dataset.name() + ": " + name
+                        + ". Available: " + dataset.metrics().keySet());
+            }
+            metrics.add(metric);
+        }
+    
+        List<Dimension> filterDimensions = new ArrayList<>();
+        List<boolean[]> filterKeep = new ArrayList<>();
+        if (query.getFilters() != null) {
+            for (Map.Entry<String, List<String>> filter : query.getFilters().entrySet()) {
+                Dimension dimension = dataset.dimension(filter.getKey());
+                Set<String> labels = new HashSet<>(filter.getValue());
+                boolean[] keep = new boolean[dimension.cardinality()];
+                for (int code = 0; code < keep.length; code++) {
+                    keep[code] = labels.contains(dimension.label().apply(code));
+                }
+                filterDimensions.add(dimension);
+                filterKeep.add(keep);
+            }
+        }
+    
+        if ((query.getFrom() != null || query.getTo() != null) && dataset.days() == null) {
+            throw new RuntimeException("Dataset " + dataset.name() + " has no date to filter on");
+        }
+        int fromDay = query.getFrom() == null ? Integer.MIN_VALUE : (int) query.getFrom().toEpochDay();
+        int toDay = query.getTo() == null ? Integer.MAX_VALUE : (int) query.getTo().toEpochDay();
+    
+        Scan scan = new Scan(dataset, groups, filterDimensions.toArray(new Dimension[0]),
+                filterKeep.toArray(new boolean[0][]), fromDay, toDay);
+        int width = 1 + dataset.measures().length;
+        int denseKeys = (int) keySpace;
+        Supplier<Partial> partials = keySpace <= DENSE_KEY_SPACE
+                ? () -> new DensePartial(denseKeys, width) : () -> new HashPartial(width);
+        int chunks = (dataset.rows() + CHUNK_ROWS - 1) / CHUNK_ROWS;
+    
+        Partial total;
+        try {
+            total = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> scan.run(chunk, partials.get()))
+                    .reduce(Partial::merge)
+                    .orElseGet(partials)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Analytics query interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Analytics query failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    
+        int limit = query.getLimit() == null ? maxGroups : Math.max(1, Math.min(query.getLimit(), maxGroups));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long[] groupCount = new long[1];
+        total.forEach((key, data, offset) -> {
+            groupCount[0]++;
+            if (rows.size() >= limit) {
+                return;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            String[] labels = new String[groups.length];
+            long rest = key;
+            for (int g = groups.length - 1; g >= 0; g--) {
+                int cardinality = Math.max(1, groups[g].cardinality());
+                labels[g] = groups[g].label().apply((int) (rest % cardinality));
+                rest /= cardinality;
+            }
+            for (int g = 0; g < groups.length; g++) {
+                row.put(groupNames.get(g), labels[g]);
+            }
+            double[] accumulator = new double[width];
+            System.arraycopy(data, offset, accumulator, 0, width);
+            for (int m = 0; m < metrics.size(); m++) {
+                double value = metrics.get(m).applyAsDouble(accumulator);
+                row.put(metricNames.get(m), Double.isFinite(value) ? value : null);
+            }
+            rows.add(row);
+        });
+    
+        return new AnalyticsResult(dataset.name(), rows, groupCount[0], groupCount[0] > rows.size(), dataset.rows(),
+                (System.nanoTime() - start) / 1_000_000, snapshot.getTakenAt());
+    }
+    
+    AnalyticsSnapshot snapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Describe the datasets: row counts, dimensions and metrics
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        for (Dataset dataset : datasets.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rows", dataset.rows());
+            entry.put("dimensions", dataset.dimensions().keySet());
+            entry.put("metrics", dataset.metrics().keySet());
+            entry.put("dateFilter", dataset.days() != null);
+            description.put(dataset.name(), entry);
+        }
+        return description;
+    }
+    
+    private Dataset sessions() {
+        AnalyticsSnapshot s = snapshot;
+        Map<String, Dimension> dimensions = new LinkedHashMap<>();
+        dimensions.put("subject", subject(s.sessionSubject));
+        dimensions.put("status", new Dimension(Session.SessionStatus.values().length, row -> s.sessionStatus[row],
+                code -> Session.SessionStatus.values()[code].name()));
+        dimensions.put("day", day(s.sessionDay));
+        dimensions.put("week", week(s.sessionDay));
+        dimensions.put("month", month(s.sessionDay));
+        dimensions.put("studentGrade", grade(row -> s.sessionStudent[row]));
+        dimensions.put("tutorExperienceBand", experienceBand(row -> s.sessionTutor[row]));
+    
+        IntToDoubleFunction[] measures = {
+            row -> s.sessionStatus[row] == COMPLETED ? 1 : 0,
+            row -> s.sessionStatus[row] == CANCELLED ? 1 : 0,
+            row -> s.sessionStatus[row] == COMPLETED ? s.sessionSupercoins[row] : 0,
+            row -> s.sessionStatus[row] == COMPLETED ? s.sessionDuration[row] : 0
+        };
+        Map<String, ToDoubleFunction<double[]>> metrics = new LinkedHashMap<>();
+        metrics.put("count", acc -> acc[0]);
+        metrics.put("completed", acc -> acc[1]);
+        metrics.put("cancelled", acc -> acc[2]);
+        metrics.put("cancellationRate", acc -> acc[2] / (acc[1] + acc[2])); // Cancelled / (completed + cancelled)
+        metrics.put("avgSupercoins", acc -> acc[3] / acc[1]); // Per completed session
+        metrics.put("hoursTaught", acc -> acc[4] / 60);
+        metrics.put("avgDurationMinutes", acc -> acc[4] / acc[1]);
+        return new Dataset("sessions", s.sessionCount(), s.sessionDay, dimensions, measures, metrics);
+    }
+    
+    private Dataset reviews() {
+        AnalyticsSnapshot s = snapshot;
+        Map<String, Dimension> dimensions = new LinkedHashMap<>();
+        dimensions.put("subject", subject(s.reviewSubject));
+        dimensions.put("rating", new Dimension(6, row -> s.reviewRating[row], String::valueOf));
+        dimensions.put("week", week(s.reviewDay));
+        dimensions.put("month", month(s.reviewDay));
+        dimensions.put("reviewerGrade", grade(row -> s.reviewReviewer[row]));
+        dimensions.put("revieweeExperienceBand", experienceBand(row -> s.reviewReviewee[row]));
+    
+        IntToDoubleFunction[] measures = {row -> s.reviewRating[row]};
+        Map<String, ToDoubleFunction<double[]>> metrics = new LinkedHashMap<>();
+        metrics.put("count", acc -> acc[0]);
+        metrics.put("avgRating", acc -> acc[1] / acc[0]);
+        return new Dataset("reviews", s.reviewCount(), s.reviewDay, dimensions, measures, metrics);
+    }
+    
+    private Dataset users() {
+        AnalyticsSnapshot s = snapshot;
+        Map<String, Dimension> dimensions = userDimensions(row -> row);
+        IntToDoubleFunction[] measures = {
+            row -> Float.isNaN(s.userHourlyRate[row]) ? 0 : 1,
+            row -> Float.isNaN(s.userHourlyRate[row]) ? 0 : s.userHourlyRate[row],
+            row -> s.userSupercoins[row],
+            row -> s.userExperience[row] < 0 ? 0 : 1,
+            row -> Math.max(0, s.userExperience[row])
+        };
+        Map<String, ToDoubleFunction<double[]>> metrics = new LinkedHashMap<>();
+        metrics.put("count", acc -> acc[0]);
+        metrics.put("avgHourlyRate", acc -> acc[2] / acc[1]);
+        metrics.put("avgSupercoins", acc -> acc[3] / acc[0]);
+        metrics.put("avgExperienceYears", acc -> acc[5] / acc[4]);
+        return new Dataset("users", s.userCount(), null, dimensions, measures, metrics);
+    }
+    
+    private Dataset userSubjects() {
+        AnalyticsSnapshot s = snapshot;
+        Map<String, Dimension> dimensions = new LinkedHashMap<>();
+        dimensions.put("subject", subject(s.userSubjectSubject));
+        dimensions.putAll(userDimensions(row -> s.userSubjectUser[row]));
+        IntToDoubleFunction[] measures = {
+            row -> Float.isNaN(s.userHourlyRate[s.userSubjectUser[row]]) ? 0 : 1,
+            row -> Float.isNaN(s.userHourlyRate[s.userSubjectUser[row]]) ? 0 : s.userHourlyRate[s.userSubjectUser[row]]
+        };
+        Map<String, ToDoubleFunction<double[]>> metrics = new LinkedHashMap<>();
+        metrics.put("count", acc -> acc[0]);
+        metrics.put("avgHourlyRate", acc -> acc[2] / acc[1]);
+        return new Dataset("userSubjects", s.userSubjectCount(), null, dimensions, measures, metrics);
+    }
+    
+    private Map<String, Dimension> userDimensions(IntUnaryOperator user) {
+        AnalyticsSnapshot s = snapshot;
+        Map<String, Dimension> dimensions = new LinkedHashMap<>();
+        dimensions.put("role", new Dimension(User.UserRole.values().length, row -> s.userRole[user.applyAsInt(row)],
+                code -> User.UserRole.values()[code].name()));
+        dimensions.put("grade", grade(user));
+        dimensions.put("experienceBand", experienceBand(user));
+        dimensions.put("active", new Dimension(2, row -> s.userActive[user.applyAsInt(row)] ? 1 : 0,
+                code -> code == 1 ? "true" : "false"));
+        return dimensions;
+    }
+    
+    private Dimension subject(int[] column) {
+        String[] subjects = snapshot.subjects;
+        return new Dimension(subjects.length, row -> column[row], code -> subjects[code]);
+    }
+    
+    private Dimension grade(IntUnaryOperator user) {
+        int[] grades = snapshot.userGrade;
+        String[] labels = snapshot.grades;
+        return new Dimension(labels.length, row -> grades[user.applyAsInt(row)], code -> labels[code]);
+    }
+    
+    private Dimension experienceBand(IntUnaryOperator user) {
+        short[] experience = snapshot.userExperience;
+        return new Dimension(EXPERIENCE_BANDS.length, row -> {
+            int years = experience[user.applyAsInt(row)];
+            return years < 0 ? 0 : years <= 1 ? 1 : years <= 4 ? 2 : years <= 9 ? 3 : 4;
+        }, code -> EXPERIENCE_BANDS[code]);
+    }
+    
+    private Dimension day(int[] days) {
+        int minDay = snapshot.minDay;
+        return new Dimension(snapshot.maxDay - minDay + 1, row -> days[row] - minDay,
+                code -> LocalDate.ofEpochDay(minDay + code).toString());
+    }
+    
+    // Weeks start on Monday; epoch day 0 is a Thursday
+    private Dimension week(int[] days) {
+        int firstWeek = Math.floorDiv(snapshot.minDay + 3, 7);
+        int weeks = Math.floorDiv(snapshot.maxDay + 3, 7) - firstWeek + 1;
+        return new Dimension(weeks, row -> Math.floorDiv(days[row] + 3, 7) - firstWeek,
+                code -> LocalDate.ofEpochDay((firstWeek + code) * 7L - 3).toString());
+    }
+    
+    private Dimension month(int[] days) {
+        int minDay = snapshot.minDay;
+        int[] months = monthOfDay;
+        return new Dimension(months[months.length - 1] + 1, row -> months[days[row] - minDay],
+                code -> YearMonth.of((firstMonth + code) / 12, (firstMonth + code) % 12 + 1).toString());
+    }
+    
+    private record Dimension(int cardinality, IntUnaryOperator code, IntFunction<String> label) {
+    }
+    
+    private record Dataset(String name, int rows, int[] days, Map<String, Dimension> dimensions,
+                           IntToDoubleFunction[] measures, Map<String, ToDoubleFunction<double[]>> metrics) {
+    
+        Dimension dimension(String name) {
+            Dimension dimension = dimensions.get(name);
+            if (dimension == null) {
+                throw new RuntimeException("Unknown dimension for " + this.name + ": " + name
+                        + ". Available: " + dimensions.keySet());
+            }
+            return dimension;
+        }
+    }
+    
+    private record Scan(Dataset dataset, Dimension[] groups, Dimension[] filters, boolean[][] keep,
+                        int fromDay, int toDay) {
+    
+        Partial run(int chunk, Partial partial) {
+            int[] days = dataset.days();
+            IntToDoubleFunction[] measures = dataset.measures();
+            int end = Math.min(dataset.rows(), (chunk + 1) * CHUNK_ROWS);
+            rows:
+            for (int row = chunk * CHUNK_ROWS; row < end; row++) {
+                if (days != null && (days[row] < fromDay || days[row] > toDay)) {
+                    continue;
+                }
+                for (int f = 0; f < filters.length; f++) {
+                    if (!keep[f][filters[f].code().applyAsInt(row)]) {
+                        continue rows;
+                    }
+                }
+                long key = 0;
+                for (Dimension group : groups) {
+                    key = key * Math.max(1, group.cardinality()) + group.code().applyAsInt(row);
+                }
+                partial.add(key, row, measures);
+            }
+            return partial;
+        }
+    }
+    
+    private interface Partial {
+    
+        void add(long key, int row, IntToDoubleFunction[] measures);
+    
+        Partial merge(Partial other);
+    
+        // Visits non-empty groups in key order; a group's accumulator is data[offset, offset + width)
+        void forEach(GroupVisitor visitor);
+    }
+    
+    @FunctionalInterface
+    private interface GroupVisitor {
+        void visit(long key, double[] data, int offset);
+    }
+    
+    private static final class DensePartial implements Partial {
+    
+        private final double[] data;
+        private final int width;
+    
+        DensePartial(int keys, int width) {
+            this.data = new double[keys * width];
+            this.width = width;
+        }
+    
+        @Override
+        public void add(long key, int row, IntToDoubleFunction[] measures) {
+            int base = (int) key * width;
+            data[base] += 1;
+            for (int m = 0; m < measures.length; m++) {
+                data[base + 1 + m] += measures[m].applyAsDouble(row);
+            }
+        }
+    
+        @Override
+        public Partial merge(Partial other) {
+            double[] otherData = ((DensePartial) other).data;
+            for (int i = 0; i < data.length; i++) {
+                data[i] += otherData[i];
+            }
+            return this;
+        }
+    
+        @Override
+        public void forEach(GroupVisitor visitor) {
+            for (int base = 0; base < data.length; base += width) {
+                if (data[base] > 0) {
+                    visitor.visit(base / width, data, base);
+                }
+            }
+        }
+    }
+    
+    private static final class HashPartial implements Partial {
+    
+        private final Map<Long, double[]> groups = new HashMap<>();
+        private final int width;
+    
+        HashPartial(int width) {
+            this.width = width;
+        }
+    
+        @Override
+        public void add(long key, int row, IntToDoubleFunction[] measures) {
+            double[] acc = groups.computeIfAbsent(key, k -> new double[width]);
+            acc[0] += 1;
+            for (int m = 0; m < measures.length; m++) {
+                acc[1 + m] += measures[m].applyAsDouble(row);
+            }
+        }
+    
+        @Override
+        public Partial merge(Partial other) {
+            for (Map.Entry<Long, double[]> entry : ((HashPartial) other).groups.entrySet()) {
+                double[] acc = groups.get(entry.getKey());
+                if (acc == null) {
+                    groups.put(entry.getKey(), entry.getValue());
+                } else {
+                    for (int i = 0; i < width; i++) {
+                        acc[i] += entry.getValue()[i];
+                    }
+                }
+            }
+            return this;
+        }
+    
+        @Override
+        public void forEach(GroupVisitor visitor) {
+            new TreeMap<>(groups).forEach((key, acc) -> visitor.visit(key, acc, 0));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.peerly.service;
+
+import com.peerly.dto.AnalyticsQuery;
+import com.peerly.dto.AnalyticsResult;
+import com.peerly.entity.Session;
+import com.peerly.entity.User;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Platform analytics over an in-memory columnar snapshot (AnalyticsSnapshot) that is rebuilt
+ * periodically and swapped in whole, so queries never touch the database.
+ * The snapshot is read through its own small connection pool, in one repeatable-read
+ * transaction with streaming fetches, and queries run on their own ForkJoinPool: neither
+ * competes with the request path for connections or common-pool threads. Point
+ * peerly.analytics.datasource.url at the read replica where there is one.
+ *
+ * Metrics:
+ *  peerly.analytics.snapshot.rows  - rows in the current snapshot, tagged by table
+ *  peerly.analytics.snapshot.bytes - approximate heap size of the current snapshot
+ *  peerly.analytics.snapshot.age   - seconds since the current snapshot was taken
+ *  peerly.analytics.refresh        - snapshot build time
+ *  peerly.analytics.query          - query time, tagged by dataset
+ */
+@Service
+public class AnalyticsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+    
+    private static final String USERS_SQL =
+            "SELECT id, role, grade, experience_years, hourly_rate, supercoins, is_active FROM users";
+    
+    private static final String USER_SUBJECTS_SQL =
+            "SELECT us.user_id, s.name FROM user_subjects us JOIN subjects s ON s.id = us.subject_id";
+    
+    private static final String REVIEWS_SQL =
+            "SELECT reviewer_id, reviewee_id, CAST(created_at AS DATE) AS day, rating, subject FROM reviews " +
+            "WHERE is_active = true";
+    
+    private static final String SESSIONS_SQL =
+            "SELECT tutor_id, student_id, CAST(session_date_time AS DATE) AS day, duration_minutes, subject, status, " +
+            "  supercoins_amount, supercoins_processed FROM sessions " +
+            "UNION ALL " +
+            "SELECT tutor_id, student_id, CAST(session_date_time AS DATE), duration_minutes, subject, status, " +
+            "  supercoins_amount, supercoins_processed FROM session_history";
+    
+    private final HikariDataSource dataSource;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final TransactionTemplate snapshotTransaction;
+    
+    private final ForkJoinPool pool;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.analytics.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${peerly.analytics.max-groups:10000}")
+    private int maxGroups;
+    
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    
+    private volatile AnalyticsEngine engine;
+    
+    public AnalyticsService(@Value("${peerly.analytics.datasource.url:${spring.datasource.url}}") String url,
+                            @Value("${peerly.analytics.datasource.username:${spring.datasource.username}}") String username,
+                            @Value("${peerly.analytics.datasource.password:${spring.datasource.password}}") String password,
+                            @Value("${peerly.analytics.datasource.maximum-pool-size:2}") int maximumPoolSize,
+                            @Value("${peerly.analytics.fetch-size:10000}") int fetchSize,
+                            @Value("${peerly.analytics.parallelism:0}") int parallelism) {
+        // Deliberately not a DataSource bean: it must not replace or join the application's pool
+        this.dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("analytics");
+    
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.snapshotTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @PostConstruct
+    void init() {
+        for (String table : List.of("users", "userSubjects", "reviews", "sessions")) {
+            Gauge.builder("peerly.analytics.snapshot.rows", this, service -> service.rows(table))
+                    .tag("table", table)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("peerly.analytics.snapshot.bytes", this,
+                service -> service.engine == null ? 0 : service.engine.snapshot().bytes())
+                .register(meterRegistry);
+        Gauge.builder("peerly.analytics.snapshot.age", this, service -> service.engine == null ? 0
+                        : Duration.between(service.engine.snapshot().getTakenAt(), LocalDateTime.now()).toSeconds())
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+        dataSource.close();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("analytics-bootstrap").daemon().start(this::refresh);
+        }
+    }
+    
+    /**
+     * Rebuild the snapshot and swap it in
+     */
+    @Scheduled(fixedDelayString = "${peerly.analytics.refresh-interval-ms:900000}",
+               initialDelayString = "${peerly.analytics.refresh-interval-ms:900000}")
+    public void refresh() {
+        if (!enabled || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime takenAt = LocalDateTime.now();
+            AnalyticsSnapshot snapshot = snapshotTransaction.execute(status -> load(takenAt));
+            engine = new AnalyticsEngine(snapshot, pool, maxGroups);
+            long elapsed = System.currentTimeMillis() - start;
+            meterRegistry.timer("peerly.analytics.refresh").record(elapsed, TimeUnit.MILLISECONDS);
+            log.info("Analytics snapshot: {} users, {} user subjects, {} reviews, {} sessions, ~{} KB in {} ms",
+                    snapshot.userCount(), snapshot.userSubjectCount(), snapshot.reviewCount(), snapshot.sessionCount(),
+                    snapshot.bytes() / 1024, elapsed);
+        } catch (RuntimeException e) {
+            log.error("Analytics snapshot refresh failed, keeping the previous snapshot", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+    
+    /**
+     * Run a group-by/filter aggregation against the current snapshot
+     * @param query Query
+     * @return Result, or empty if no snapshot has been built yet
+     */
+    public Optional<AnalyticsResult> query(AnalyticsQuery query) {
+        AnalyticsEngine current = engine;
+        if (current == null) {
+            return Optional.empty();
+        }
+        AnalyticsResult result = current.execute(query);
+        meterRegistry.timer("peerly.analytics.query", "dataset", result.getDataset())
+                .record(result.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        return Optional.of(result);
+    }
+    
+    /**
+     * Describe the datasets of the current snapshot
+     * @return Datasets with row counts, dimensions and metrics, or empty if no snapshot has been built yet
+     */
+    public Optional<Map<String, Object>> describe() {
+        AnalyticsEngine current = engine;
+        return current == null ? Optional.empty() : Optional.of(current.describe());
+    }
+    
+    private double rows(String table) {
+        AnalyticsEngine current = engine;
+        if (current == null) {
+            return 0;
+        }
+        AnalyticsSnapshot snapshot = current.snapshot();
+        return switch (table) {
+            case "users" -> snapshot.userCount();
+            case "userSubjects" -> snapshot.userSubjectCount();
+            case "reviews" -> snapshot.reviewCount();
+            default -> snapshot.sessionCount();
+        };
+    }
+    
+    private AnalyticsSnapshot load(LocalDateTime takenAt) {
+        AnalyticsSnapshot.Builder builder = new AnalyticsSnapshot.Builder();
+        jdbcTemplate.query(USERS_SQL, rs -> {
+            builder.addUser(rs.getLong("id"), User.UserRole.valueOf(rs.getString("role")).ordinal(),
+                    rs.getString("grade"), rs.getObject("experience_years", Integer.class),
+                    rs.getObject("hourly_rate", Double.class), rs.getLong("supercoins"), rs.getBoolean("is_active"));
+        });
+        jdbcTemplate.query(USER_SUBJECTS_SQL, rs -> {
+            builder.addUserSubject(rs.getLong("user_id"), rs.getString("name"));
+        });
+        jdbcTemplate.query(REVIEWS_SQL, rs -> {
+            builder.addReview(rs.getLong("reviewer_id"), rs.getLong("reviewee_id"),
+                    (int) rs.getDate("day").toLocalDate().toEpochDay(), rs.getInt("rating"), rs.getString("subject"));
+        });
+        jdbcTemplate.query(SESSIONS_SQL, rs -> {
+            builder.addSession(rs.getLong("tutor_id"), rs.getLong("student_id"),
+                    (int) rs.getDate("day").toLocalDate().toEpochDay(), rs.getInt("duration_minutes"),
+                    rs.getString("subject"), Session.SessionStatus.valueOf(rs.getString("status")).ordinal(),
+                    rs.getLong("supercoins_amount"), rs.getBoolean("supercoins_processed"));
+        });
+        return builder.build(takenAt);
+    }
+}
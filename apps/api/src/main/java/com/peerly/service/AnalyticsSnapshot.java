@@ -0,0 +1,316 @@
+package com.peerly.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar copy of users, user_subjects, reviews and sessions (live and archived)
+ * for the analytics engine. Every column is a primitive array indexed by row. References to
+ * users are rows of the user columns instead of IDs, dates are epoch days, enums are ordinals
+ * and subject and grade strings are dictionary codes. Dictionaries are sorted, so ordering by
+ * code is ordering by label.
+ */
+public final class AnalyticsSnapshot {
+    
+    public static final String NONE = "(none)";
+    
+    // users
+    final long[] userIds;
+    final byte[] userRole;
+    final int[] userGrade;
+    final short[] userExperience; // -1 when unknown
+    final float[] userHourlyRate; // NaN when unknown
+    final long[] userSupercoins;
+    final boolean[] userActive;
+    
+    // user_subjects
+    final int[] userSubjectUser;
+    final int[] userSubjectSubject;
+    
+    // reviews (active only)
+    final int[] reviewReviewer;
+    final int[] reviewReviewee;
+    final int[] reviewDay;
+    final byte[] reviewRating;
+    final int[] reviewSubject;
+    
+    // sessions and session_history
+    final int[] sessionTutor;
+    final int[] sessionStudent;
+    final int[] sessionDay;
+    final short[] sessionDuration;
+    final int[] sessionSubject;
+    final byte[] sessionStatus;
+    final long[] sessionSupercoins;
+    final boolean[] sessionSettled;
+    
+    final String[] subjects;
+    final String[] grades;
+    final int minDay;
+    final int maxDay;
+    final LocalDateTime takenAt;
+    
+    private AnalyticsSnapshot(Builder b, LocalDateTime takenAt) {
+        int[] subjectRemap = b.subjects.sortedRemap();
+        int[] gradeRemap = b.grades.sortedRemap();
+    
+        userIds = Arrays.copyOf(b.userIds, b.users);
+        userRole = Arrays.copyOf(b.userRole, b.users);
+        userGrade = remap(Arrays.copyOf(b.userGrade, b.users), gradeRemap);
+        userExperience = Arrays.copyOf(b.userExperience, b.users);
+        userHourlyRate = Arrays.copyOf(b.userHourlyRate, b.users);
+        userSupercoins = Arrays.copyOf(b.userSupercoins, b.users);
+        userActive = Arrays.copyOf(b.userActive, b.users);
+    
+        userSubjectUser = Arrays.copyOf(b.userSubjectUser, b.userSubjectRows);
+        userSubjectSubject = remap(Arrays.copyOf(b.userSubjectSubject, b.userSubjectRows), subjectRemap);
+    
+        reviewReviewer = Arrays.copyOf(b.reviewReviewer, b.reviews);
+        reviewReviewee = Arrays.copyOf(b.reviewReviewee, b.reviews);
+        reviewDay = Arrays.copyOf(b.reviewDay, b.reviews);
+        reviewRating = Arrays.copyOf(b.reviewRating, b.reviews);
+        reviewSubject = remap(Arrays.copyOf(b.reviewSubject, b.reviews), subjectRemap);
+    
+        sessionTutor = Arrays.copyOf(b.sessionTutor, b.sessions);
+        sessionStudent = Arrays.copyOf(b.sessionStudent, b.sessions);
+        sessionDay = Arrays.copyOf(b.sessionDay, b.sessions);
+        sessionDuration = Arrays.copyOf(b.sessionDuration, b.sessions);
+        sessionSubject = remap(Arrays.copyOf(b.sessionSubject, b.sessions), subjectRemap);
+        sessionStatus = Arrays.copyOf(b.sessionStatus, b.sessions);
+        sessionSupercoins = Arrays.copyOf(b.sessionSupercoins, b.sessions);
+        sessionSettled = Arrays.copyOf(b.sessionSettled, b.sessions);
+    
+        subjects = b.subjects.sortedValues();
+        grades = b.grades.sortedValues();
+        int today = (int) takenAt.toLocalDate().toEpochDay();
+        minDay = b.minDay == Integer.MAX_VALUE ? today : b.minDay;
+        maxDay = b.maxDay == Integer.MIN_VALUE ? today : b.maxDay;
+        this.takenAt = takenAt;
+    }
+    
+    public int userCount() {
+        return userIds.length;
+    }
+    
+    public int sessionCount() {
+        return sessionDay.length;
+    }
+    
+    public int reviewCount() {
+        return reviewDay.length;
+    }
+    
+    public int userSubjectCount() {
+        return userSubjectUser.length;
+    }
+    
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+    
+    /**
+     * Approximate heap footprint of the columns
+     */
+    public long bytes() {
+        long users = userIds.length * (8L + 1 + 4 + 2 + 4 + 8 + 1);
+        long userSubjects = userSubjectUser.length * 8L;
+        long reviews = reviewDay.length * (4L + 4 + 4 + 1 + 4);
+        long sessions = sessionDay.length * (4L + 4 + 4 + 2 + 4 + 1 + 8 + 1);
+        long dictionaries = 0;
+        for (String value : subjects) {
+            dictionaries += 40 + 2L * value.length();
+        }
+        for (String value : grades) {
+            dictionaries += 40 + 2L * value.length();
+        }
+        return users + userSubjects + reviews + sessions + dictionaries;
+    }
+    
+    private static int[] remap(int[] codes, int[] remap) {
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = remap[codes[i]];
+        }
+        return codes;
+    }
+    
+    /**
+     * Accumulates rows table by table; users must be added before the rows that reference them
+     */
+    public static final class Builder {
+    
+        private final Map<Long, Integer> userRows = new HashMap<>();
+        private final Dictionary subjects = new Dictionary();
+        private final Dictionary grades = new Dictionary();
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+    
+        private int users;
+        private long[] userIds = new long[1024];
+        private byte[] userRole = new byte[1024];
+        private int[] userGrade = new int[1024];
+        private short[] userExperience = new short[1024];
+        private float[] userHourlyRate = new float[1024];
+        private long[] userSupercoins = new long[1024];
+        private boolean[] userActive = new boolean[1024];
+    
+        private int userSubjectRows;
+        private int[] userSubjectUser = new int[1024];
+        private int[] userSubjectSubject = new int[1024];
+    
+        private int reviews;
+        private int[] reviewReviewer = new int[1024];
+        private int[] reviewReviewee = new int[1024];
+        private int[] reviewDay = new int[1024];
+        private byte[] reviewRating = new byte[1024];
+        private int[] reviewSubject = new int[1024];
+    
+        private int sessions;
+        private int[] sessionTutor = new int[1024];
+        private int[] sessionStudent = new int[1024];
+        private int[] sessionDay = new int[1024];
+        private short[] sessionDuration = new short[1024];
+        private int[] sessionSubject = new int[1024];
+        private byte[] sessionStatus = new byte[1024];
+        private long[] sessionSupercoins = new long[1024];
+        private boolean[] sessionSettled = new boolean[1024];
+    
+        public void addUser(long id, int role, String grade, Integer experienceYears, Double hourlyRate,
+                            long supercoins, boolean active) {
+            if (users == userIds.length) {
+                int capacity = users * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                userRole = Arrays.copyOf(userRole, capacity);
+                userGrade = Arrays.copyOf(userGrade, capacity);
+                userExperience = Arrays.copyOf(userExperience, capacity);
+                userHourlyRate = Arrays.copyOf(userHourlyRate, capacity);
+                userSupercoins = Arrays.copyOf(userSupercoins, capacity);
+                userActive = Arrays.copyOf(userActive, capacity);
+            }
+            userRows.put(id, users);
+            userIds[users] = id;
+            userRole[users] = (byte) role;
+            userGrade[users] = grades.encode(grade);
+            userExperience[users] = experienceYears == null ? -1 : (short) Math.min(experienceYears, Short.MAX_VALUE);
+            userHourlyRate[users] = hourlyRate == null ? Float.NaN : hourlyRate.floatValue();
+            userSupercoins[users] = supercoins;
+            userActive[users] = active;
+            users++;
+        }
+    
+        public void addUserSubject(long userId, String subject) {
+            Integer user = userRows.get(userId);
+            if (user == null) {
+                return;
+            }
+            if (userSubjectRows == userSubjectUser.length) {
+                int capacity = userSubjectRows * 2;
+                userSubjectUser = Arrays.copyOf(userSubjectUser, capacity);
+                userSubjectSubject = Arrays.copyOf(userSubjectSubject, capacity);
+            }
+            userSubjectUser[userSubjectRows] = user;
+            userSubjectSubject[userSubjectRows] = subjects.encode(subject);
+            userSubjectRows++;
+        }
+    
+        public void addReview(long reviewerId, long revieweeId, int epochDay, int rating, String subject) {
+            Integer reviewer = userRows.get(reviewerId);
+            Integer reviewee = userRows.get(revieweeId);
+            if (reviewer == null || reviewee == null) {
+                return;
+            }
+            if (reviews == reviewDay.length) {
+                int capacity = reviews * 2;
+                reviewReviewer = Arrays.copyOf(reviewReviewer, capacity);
+                reviewReviewee = Arrays.copyOf(reviewReviewee, capacity);
+                reviewDay = Arrays.copyOf(reviewDay, capacity);
+                reviewRating = Arrays.copyOf(reviewRating, capacity);
+                reviewSubject = Arrays.copyOf(reviewSubject, capacity);
+            }
+            reviewReviewer[reviews] = reviewer;
+            reviewReviewee[reviews] = reviewee;
+            reviewDay[reviews] = epochDay;
+            reviewRating[reviews] = (byte) Math.max(0, Math.min(5, rating));
+            reviewSubject[reviews] = subjects.encode(subject);
+            day(epochDay);
+            reviews++;
+        }
+    
+        public void addSession(long tutorId, long studentId, int epochDay, int durationMinutes, String subject,
+                               int status, long supercoins, boolean settled) {
+            Integer tutor = userRows.get(tutorId);
+            Integer student = userRows.get(studentId);
+            if (tutor == null || student == null) {
+                return;
+            }
+            if (sessions == sessionDay.length) {
+                int capacity = sessions * 2;
+                sessionTutor = Arrays.copyOf(sessionTutor, capacity);
+                sessionStudent = Arrays.copyOf(sessionStudent, capacity);
+                sessionDay = Arrays.copyOf(sessionDay, capacity);
+                sessionDuration = Arrays.copyOf(sessionDuration, capacity);
+                sessionSubject = Arrays.copyOf(sessionSubject, capacity);
+                sessionStatus = Arrays.copyOf(sessionStatus, capacity);
+                sessionSupercoins = Arrays.copyOf(sessionSupercoins, capacity);
+                sessionSettled = Arrays.copyOf(sessionSettled, capacity);
+            }
+            sessionTutor[sessions] = tutor;
+            sessionStudent[sessions] = student;
+            sessionDay[sessions] = epochDay;
+            sessionDuration[sessions] = (short) Math.min(durationMinutes, Short.MAX_VALUE);
+            sessionSubject[sessions] = subjects.encode(subject);
+            sessionStatus[sessions] = (byte) status;
+            sessionSupercoins[sessions] = supercoins;
+            sessionSettled[sessions] = settled;
+            day(epochDay);
+            sessions++;
+        }
+    
+        public AnalyticsSnapshot build(LocalDateTime takenAt) {
+            return new AnalyticsSnapshot(this, takenAt);
+        }
+    
+        private void day(int epochDay) {
+            minDay = Math.min(minDay, epochDay);
+            maxDay = Math.max(maxDay, epochDay);
+        }
+    }
+    
+    /**
+     * String dictionary that hands out codes in first-seen order and renumbers them by label at the end
+     */
+    private static final class Dictionary {
+    
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+    
+        int encode(String value) {
+            String key = value == null || value.isBlank() ? NONE : value.trim();
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = values.size();
+                codes.put(key, code);
+                values.add(key);
+            }
+            return code;
+        }
+    
+        String[] sortedValues() {
+            String[] sorted = values.toArray(new String[0]);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    
+        int[] sortedRemap() {
+            String[] sorted = sortedValues();
+            int[] remap = new int[values.size()];
+            for (int code = 0; code < sorted.length; code++) {
+                remap[codes.get(sorted[code])] = code;
+            }
+            return remap;
+        }
+    }
+}
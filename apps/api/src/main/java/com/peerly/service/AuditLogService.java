@@ -0,0 +1,265 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.AuditLogPage;
+import com.peerly.entity.AuditLogEntry;
+import com.peerly.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit log. Committed changes arrive from AuditEventListener on the committing
+ * thread and go into a lock-free AuditRingBuffer; one flusher thread drains it and writes
+ * audit_log rows with JDBC batch inserts, so a write request pays for building the diff and
+ * one compare-and-set, not for an extra insert.
+ * When the buffer is full a producer waits up to peerly.audit.offer-timeout-ms for the flusher
+ * (backpressure) and then drops the change; both are counted.
+ *
+ * Metrics:
+ *  peerly.audit.events      - accepted / backpressured / dropped / write_failed
+ *  peerly.audit.buffer.size - changes waiting to be written
+ *  peerly.audit.flush       - time per batch insert
+ */
+@Service
+public class AuditLogService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuditLogService.class);
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 1, 1, 0, 0);
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_log (entity_type, entity_id, action, changes, actor, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.audit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${peerly.audit.buffer-capacity:65536}")
+    private int bufferCapacity;
+    
+    @Value("${peerly.audit.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${peerly.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    
+    @Value("${peerly.audit.offer-timeout-ms:5}")
+    private long offerTimeoutMs;
+    
+    private AuditRingBuffer<Change> buffer;
+    
+    private Thread flusher;
+    
+    private volatile boolean running;
+    
+    private Counter accepted;
+    
+    private Counter backpressured;
+    
+    private Counter dropped;
+    
+    private Counter writeFailed;
+    
+    @PostConstruct
+    void init() {
+        buffer = new AuditRingBuffer<>(bufferCapacity);
+        accepted = meterRegistry.counter("peerly.audit.events", "result", "accepted");
+        backpressured = meterRegistry.counter("peerly.audit.events", "result", "backpressured");
+        dropped = meterRegistry.counter("peerly.audit.events", "result", "dropped");
+        writeFailed = meterRegistry.counter("peerly.audit.events", "result", "write_failed");
+        Gauge.builder("peerly.audit.buffer.size", buffer, AuditRingBuffer::size).register(meterRegistry);
+        Gauge.builder("peerly.audit.buffer.capacity", buffer, AuditRingBuffer::capacity).register(meterRegistry);
+        if (enabled) {
+            running = true;
+            flusher = Thread.ofPlatform().name("audit-flusher").daemon().start(this::runFlusher);
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    /**
+     * Queue a committed change for the audit log; never throws and never blocks longer than
+     * the offer timeout
+     * @param change Change to record
+     */
+    public void record(Change change) {
+        if (!running) {
+            return;
+        }
+        if (!buffer.offer(change)) {
+            backpressured.increment();
+            LockSupport.unpark(flusher);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+            boolean offered = false;
+            while (!offered && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                offered = buffer.offer(change);
+            }
+            if (!offered) {
+                dropped.increment();
+                return;
+            }
+        }
+        accepted.increment();
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+    
+    /**
+     * Record status transitions made by bulk SQL, which Hibernate listeners do not see
+     * @param entityType Entity type
+     * @param ids IDs that transitioned
+     * @param before Previous status
+     * @param after New status
+     */
+    public void recordStatusChanges(String entityType, Collection<Long> ids, String before, String after) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : ids) {
+            record(new Change(entityType, id, Change.UPDATE, Map.of("status", new String[]{before, after}),
+                    Change.SYSTEM, now));
+        }
+    }
+    
+    /**
+     * Get a page of audit entries
+     * @param entityType Entity type
+     * @param entityId Entity ID, or null for every entity of the type
+     * @param from Start of the period (inclusive), or null
+     * @param to End of the period (exclusive), or null
+     * @param cursor ID of the last entry already seen, or null for the first page
+     * @param limit Page size
+     * @return Entries newest first, with the next cursor
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPage getLog(String entityType, Long entityId, LocalDateTime from, LocalDateTime to,
+                               Long cursor, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        LocalDateTime periodFrom = from == null ? MIN_TIME : from;
+        LocalDateTime periodTo = to == null ? MAX_TIME : to;
+        LocalDateTime cursorTime = MAX_TIME;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null) {
+            AuditLogEntry after = auditLogRepository.findById(cursor)
+                    .filter(entry -> entry.getEntityType().equals(entityType))
+                    .orElseThrow(() -> new RuntimeException("Invalid cursor: " + cursor));
+            cursorTime = after.getChangedAt();
+            cursorId = after.getId();
+        }
+        List<AuditLogEntry> items = entityId == null
+                ? auditLogRepository.findTypePage(entityType, periodFrom, periodTo, cursorTime, cursorId, page)
+                : auditLogRepository.findEntityPage(entityType, entityId, periodFrom, periodTo, cursorTime, cursorId, page);
+        Long nextCursor = items.size() < page.getPageSize() ? null : items.get(items.size() - 1).getId();
+        return new AuditLogPage(items, nextCursor);
+    }
+    
+    private void runFlusher() {
+        List<Change> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            if (!stopping && buffer.size() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+    
+    private void write(List<Change> batch) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, change) -> {
+                    ps.setString(1, change.entityType());
+                    ps.setLong(2, change.entityId());
+                    ps.setString(3, change.action());
+                    ps.setString(4, toJson(change.changes()));
+                    ps.setString(5, change.actor());
+                    ps.setTimestamp(6, Timestamp.valueOf(change.changedAt()));
+                });
+                meterRegistry.timer("peerly.audit.flush").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    writeFailed.increment(batch.size());
+                    log.error("Dropping {} audit log entries after {} failed writes", batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("Audit log write failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(attempt));
+            }
+        }
+    }
+    
+    private String toJson(Map<String, String[]> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            return "{}";
+        }
+    }
+    
+    /**
+     * A committed entity change on its way to audit_log
+     * @param changes Field -> [before, after], rendered as strings
+     */
+    public record Change(String entityType, Long entityId, String action, Map<String, String[]> changes,
+                         String actor, LocalDateTime changedAt) {
+    
+        public static final String INSERT = "INSERT";
+        public static final String UPDATE = "UPDATE";
+        public static final String DELETE = "DELETE";
+        public static final String SYSTEM = "system";
+    }
+}
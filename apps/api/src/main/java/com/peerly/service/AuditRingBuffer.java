@@ -0,0 +1,92 @@
+package com.peerly.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring buffer.
+ * Each slot carries a sequence number: a producer claims a slot with one compare-and-set on
+ * the tail and publishes it by advancing the slot's sequence, the consumer frees it by moving
+ * the sequence one lap ahead. offer() never blocks; it fails when the buffer is full.
+ * @param <E> Element type
+ */
+public class AuditRingBuffer<E> {
+    
+    private final AtomicReferenceArray<E> slots;
+    
+    private final AtomicLongArray sequences;
+    
+    private final int mask;
+    
+    private final AtomicLong tail = new AtomicLong();
+    
+    // Only the consumer writes head; volatile so size() can read it from any thread
+    private volatile long head;
+    
+    /**
+     * @param capacity Slots, rounded up to a power of two
+     */
+    public AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Add an element if there is room
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (lag < 0) {
+                return false;
+            }
+            // lag > 0: another producer claimed this position first, reload the tail
+        }
+    }
+    
+    /**
+     * Move up to max published elements into a list; consumer thread only
+     * @return Number of elements drained
+     */
+    public int drainTo(List<E> target, int max) {
+        int drained = 0;
+        long position = head;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break; // Empty, or the producer of this slot has not published yet
+            }
+            target.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+    
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity(), tail.get() - head));
+    }
+    
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,178 @@
+package com.peerly.service;
+
+import com.peerly.config.ReplicaConsistency;
+import com.peerly.dto.SessionSummary;
+import com.peerly.dto.SubjectSummary;
+import com.peerly.dto.UserSummary;
+import com.peerly.entity.Session;
+import com.peerly.entity.Subject;
+import com.peerly.entity.User;
+import com.peerly.repository.SessionRepository;
+import com.peerly.repository.SubjectRepository;
+import com.peerly.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-ID lookups behind the batch read endpoints.
+ * Each lookup runs findAllById in IN-list chunks inside a read-only transaction and goes
+ * through a RequestCoalescer, so concurrent requests for overlapping IDs share one query.
+ * A request carrying a consistency token (or held to the primary) loads on its own: a shared
+ * load may have read a replica that has not caught up with that request's writes.
+ * Results are DTOs because the same instance may be handed to several requests.
+ */
+@Service
+public class BatchLookupService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SessionRepository sessionRepository;
+    
+    @Autowired
+    private SessionHistoryService sessionHistoryService;
+    
+    @Autowired
+    private SubjectRepository subjectRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ObjectProvider<ReplicaConsistency> replicaConsistency;
+    
+    @Value("${peerly.batch.max-ids:500}")
+    private int maxIds;
+    
+    @Value("${peerly.batch.chunk-size:100}")
+    private int chunkSize;
+    
+    private TransactionTemplate readTransaction;
+    
+    private RequestCoalescer<UserSummary> users;
+    
+    private RequestCoalescer<SessionSummary> sessions;
+    
+    private RequestCoalescer<SubjectSummary> subjects;
+    
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        users = new RequestCoalescer<>("users", chunkSize, this::loadUsers, meterRegistry);
+        sessions = new RequestCoalescer<>("sessions", chunkSize, this::loadSessions, meterRegistry);
+        subjects = new RequestCoalescer<>("subjects", chunkSize, this::loadSubjects, meterRegistry);
+    }
+    
+    /**
+     * Get users by ID
+     * @param ids User IDs
+     * @return Users found, in request order
+     */
+    public List<UserSummary> getUsers(List<Long> ids) {
+        return new ArrayList<>(load(users, ids).values());
+    }
+    
+    /**
+     * Get sessions by ID, live or archived
+     * @param ids Session IDs
+     * @return Sessions found, in request order
+     */
+    public List<SessionSummary> getSessions(List<Long> ids) {
+        return new ArrayList<>(load(sessions, ids).values());
+    }
+    
+    /**
+     * Get subjects by ID
+     * @param ids Subject IDs
+     * @return Subjects found, in request order
+     */
+    public List<SubjectSummary> getSubjects(List<Long> ids) {
+        return new ArrayList<>(load(subjects, ids).values());
+    }
+    
+    private <V> Map<Long, V> load(RequestCoalescer<V> coalescer, List<Long> ids) {
+        Collection<Long> valid = validate(ids);
+        ReplicaConsistency consistency = replicaConsistency.getIfAvailable();
+        if (consistency != null && consistency.capture().constrained()) {
+            return coalescer.loadAlone(valid);
+        }
+        return coalescer.load(valid);
+    }
+    
+    private Collection<Long> validate(List<Long> ids) {
+        Set<Long> distinct = new HashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > maxIds) {
+            throw new RuntimeException("At most " + maxIds + " IDs can be requested at once");
+        }
+        return ids.stream().filter(id -> id != null).toList();
+    }
+    
+    private Map<Long, UserSummary> loadUsers(List<Long> ids) {
+        return readTransaction.execute(status -> {
+            Map<Long, UserSummary> found = new HashMap<>();
+            for (User user : userRepository.findAllById(ids)) {
+                found.put(user.getId(), new UserSummary(user.getId(), user.getName(), user.getRole().name(),
+                        user.getGrade(), user.getHourlyRate(), user.getExperienceYears(), user.getIsActive()));
+            }
+            return found;
+        });
+    }
+    
+    private Map<Long, SessionSummary> loadSessions(List<Long> ids) {
+        return readTransaction.execute(status -> {
+            Map<Long, SessionSummary> found = new HashMap<>();
+            for (Session session : sessionRepository.findAllById(ids)) {
+                found.put(session.getId(), toSummary(session));
+            }
+            // Finished sessions may have moved to session_history under the same ID
+            List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                for (Session session : sessionHistoryService.findAllById(missing)) {
+                    found.put(session.getId(), toSummary(session));
+                }
+            }
+            return found;
+        });
+    }
+    
+    private Map<Long, SubjectSummary> loadSubjects(List<Long> ids) {
+        return readTransaction.execute(status -> {
+            Map<Long, SubjectSummary> found = new HashMap<>();
+            for (Subject subject : subjectRepository.findAllById(ids)) {
+                found.put(subject.getId(), new SubjectSummary(subject.getId(), subject.getName(),
+                        subject.getDescription(), subject.getIsActive()));
+            }
+            return found;
+        });
+    }
+    
+    private SessionSummary toSummary(Session session) {
+        User tutor = session.getTutor();
+        User student = session.getStudent();
+        return new SessionSummary(session.getId(),
+                tutor == null ? null : tutor.getId(), tutor == null ? null : tutor.getName(),
+                student == null ? null : student.getId(), student == null ? null : student.getName(),
+                session.getSessionDateTime(), session.getDurationMinutes(), session.getSubject(),
+                session.getStatus().name(), session.getSupercoinsAmount());
+    }
+}
@@ -0,0 +1,179 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming export of users, catalog and sessions as CSV or NDJSON.
+ * Rows are read with a cursor (fetch size inside a read-only transaction) and written
+ * straight to the response, so memory use does not grow with table size.
+ */
+@Service
+public class BulkExportService {
+    
+    private static final String USERS_SQL =
+            "SELECT id, name, email, phone, bio, role, hourly_rate, experience_years, grade, supercoins, is_active, created_at " +
+            "FROM users ORDER BY id";
+    
+    private static final String SUBJECTS_SQL =
+            "SELECT id, name, description, is_active FROM subjects ORDER BY id";
+    
+    private static final String SUBTOPICS_SQL =
+            "SELECT st.id, s.name AS subject, st.name, st.description, st.is_active " +
+            "FROM subtopics st JOIN subjects s ON s.id = st.subject_id ORDER BY st.id";
+    
+    // Active and archived sessions in one stream
+    private static final String SESSIONS_SQL =
+            "SELECT id, tutor_id, student_id, session_date_time, duration_minutes, subject, status, supercoins_amount, " +
+            "supercoins_processed, created_at FROM sessions " +
+            "UNION ALL " +
+            "SELECT id, tutor_id, student_id, session_date_time, duration_minutes, subject, status, supercoins_amount, " +
+            "supercoins_processed, created_at FROM session_history " +
+            "ORDER BY id";
+    
+    private final JdbcTemplate streamingJdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public BulkExportService(DataSource dataSource, @Value("${peerly.bulk.export-fetch-size:1000}") int fetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+    
+    /**
+     * Export all users
+     * @param output Response stream
+     * @param csv true for CSV with a header row, false for NDJSON
+     */
+    public void exportUsers(OutputStream output, boolean csv) {
+        export(USERS_SQL, output, csv);
+    }
+    
+    /**
+     * Export all subjects
+     * @param output Response stream
+     * @param csv true for CSV with a header row, false for NDJSON
+     */
+    public void exportSubjects(OutputStream output, boolean csv) {
+        export(SUBJECTS_SQL, output, csv);
+    }
+    
+    /**
+     * Export all subtopics with their subject name
+     * @param output Response stream
+     * @param csv true for CSV with a header row, false for NDJSON
+     */
+    public void exportSubtopics(OutputStream output, boolean csv) {
+        export(SUBTOPICS_SQL, output, csv);
+    }
+    
+    /**
+     * Export all sessions, including those moved to session history
+     * @param output Response stream
+     * @param csv true for CSV with a header row, false for NDJSON
+     */
+    public void exportSessions(OutputStream output, boolean csv) {
+        export(SESSIONS_SQL, output, csv);
+    }
+    
+    private void export(String sql, OutputStream output, boolean csv) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        
+        // PostgreSQL only honours the fetch size (server-side cursor) inside a transaction
+        transactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(sql, new RowCallbackHandler() {
+            private String[] columns;
+            
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                if (columns == null) {
+                    columns = columnNames(rs.getMetaData());
+                    if (csv) {
+                        write(writer, CsvSupport.formatLine((Object[]) columns));
+                    }
+                }
+                Object[] values = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = rs.getObject(i + 1);
+                    values[i] = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+                }
+                write(writer, csv ? CsvSupport.formatLine(values) : toJsonLine(columns, values));
+            }
+        }));
+        
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private String toJsonLine(String[] columns, Object[] values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            row.put(columns[i], values[i]);
+        }
+        try {
+            return objectMapper.writeValueAsString(row) + "\n";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String[] columnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = toCamelCase(metaData.getColumnLabel(i + 1));
+        }
+        return columns;
+    }
+    
+    // Match the import column names (hourly_rate -> hourlyRate)
+    private static String toCamelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+    
+    private static void write(Writer writer, String line) {
+        try {
+            writer.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
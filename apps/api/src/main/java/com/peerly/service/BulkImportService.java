@@ -0,0 +1,341 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.BulkImportCompletedEvent;
+import com.peerly.dto.BulkImportResult;
+import com.peerly.dto.EntityChangedEvent;
+import com.peerly.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming bulk import of users, subjects and subtopics from CSV or NDJSON.
+ * Rows are read incrementally and processed in batches: uniqueness is checked with one
+ * set-based query per batch and valid rows are written with a single JDBC batch insert,
+ * each batch in its own transaction. Invalid rows are reported without failing the import.
+ */
+@Service
+public class BulkImportService {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${peerly.bulk.batch-size:1000}")
+    private int batchSize;
+    
+    /**
+     * Import users. Columns: name, email, phone, bio, role, hourlyRate, experienceYears, grade, supercoins
+     * @param input Request body
+     * @param csv true for CSV with a header row, false for NDJSON
+     * @return Import summary with per-row errors
+     */
+    public BulkImportResult importUsers(InputStream input, boolean csv) {
+        return importRows(input, csv, EntityChangedEvent.USER, this::importUserBatch);
+    }
+    
+    /**
+     * Import subjects. Columns: name, description
+     * @param input Request body
+     * @param csv true for CSV with a header row, false for NDJSON
+     * @return Import summary with per-row errors
+     */
+    public BulkImportResult importSubjects(InputStream input, boolean csv) {
+        return importRows(input, csv, EntityChangedEvent.SUBJECT, this::importSubjectBatch);
+    }
+    
+    /**
+     * Import subtopics. Columns: subject (subject name), name, description
+     * @param input Request body
+     * @param csv true for CSV with a header row, false for NDJSON
+     * @return Import summary with per-row errors
+     */
+    public BulkImportResult importSubtopics(InputStream input, boolean csv) {
+        return importRows(input, csv, EntityChangedEvent.SUBTOPIC, this::importSubtopicBatch);
+    }
+    
+    private BulkImportResult importRows(InputStream input, boolean csv, String entityType, BatchImporter importer) {
+        long start = System.currentTimeMillis();
+        BulkImportResult result = new BulkImportResult();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Row> batch = new ArrayList<>(batchSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long rowNumber = 0;
+            String line;
+            while ((line = csv ? CsvSupport.readRecord(reader) : reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = CsvSupport.parseLine(line).stream().map(String::trim).toList();
+                    continue;
+                }
+                rowNumber++;
+                result.setTotalRows(rowNumber);
+                try {
+                    batch.add(new Row(rowNumber, csv ? csvRow(header, line) : jsonRow(line)));
+                } catch (RuntimeException e) {
+                    result.addError(rowNumber, "Unparseable row: " + e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    flush(batch, importer, result, transactionTemplate);
+                }
+            }
+            flush(batch, importer, result, transactionTemplate);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        if (result.getImported() > 0) {
+            // Rows went in through JDBC, so in-memory read models must reload
+            eventPublisher.publishEvent(new BulkImportCompletedEvent(entityType, result.getImported()));
+        }
+        return result;
+    }
+    
+    private void flush(List<Row> batch, BatchImporter importer, BulkImportResult result, TransactionTemplate transactionTemplate) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Integer imported = transactionTemplate.execute(status -> importer.importBatch(batch, result));
+            result.setImported(result.getImported() + (imported == null ? 0 : imported));
+        } catch (RuntimeException e) {
+            for (Row row : batch) {
+                result.addError(row.number(), "Batch insert failed: " + e.getMessage());
+            }
+        }
+        batch.clear();
+    }
+    
+    private int importUserBatch(List<Row> batch, BulkImportResult result) {
+        Map<String, Row> byEmail = new LinkedHashMap<>();
+        for (Row row : batch) {
+            String email = row.get("email");
+            if (row.get("name") == null || email == null) {
+                result.addError(row.number(), "name and email are required");
+            } else if (!email.contains("@")) {
+                result.addError(row.number(), "Invalid email: " + email);
+            } else if (byEmail.containsKey(email)) {
+                result.addError(row.number(), "Duplicate email in file: " + email);
+            } else {
+                byEmail.put(email, row);
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return 0;
+        }
+        
+        Set<String> existing = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", byEmail.keySet()), String.class));
+        
+        List<Object[]> inserts = new ArrayList<>();
+        List<Row> inserted = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Row row : byEmail.values()) {
+            if (existing.contains(row.get("email"))) {
+                result.addError(row.number(), "User with email '" + row.get("email") + "' already exists");
+                continue;
+            }
+            try {
+                User.UserRole role = row.get("role") == null
+                        ? User.UserRole.STUDENT
+                        : User.UserRole.valueOf(row.get("role").toUpperCase(Locale.ROOT));
+                Long supercoins = row.get("supercoins") == null ? 0L : Long.valueOf(row.get("supercoins"));
+                if (supercoins < 0) {
+                    throw new IllegalArgumentException("supercoins cannot be negative");
+                }
+                inserts.add(new Object[]{
+                        row.get("name"), row.get("email"), row.get("phone"), row.get("bio"), role.name(),
+                        row.get("hourlyRate") == null ? null : Double.valueOf(row.get("hourlyRate")),
+                        row.get("experienceYears") == null ? null : Integer.valueOf(row.get("experienceYears")),
+                        row.get("grade"), supercoins, now, now
+                });
+                inserted.add(row);
+            } catch (IllegalArgumentException e) {
+                result.addError(row.number(), "Invalid value: " + e.getMessage());
+            }
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO users (name, email, phone, bio, role, hourly_rate, experience_years, grade, supercoins, " +
+                "is_active, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true, ?, ?, 0) " +
+                "ON CONFLICT (email) DO NOTHING", inserts);
+        return countInserted(counts, inserted, result, "User email already exists");
+    }
+    
+    private int importSubjectBatch(List<Row> batch, BulkImportResult result) {
+        Map<String, Row> byName = new LinkedHashMap<>();
+        for (Row row : batch) {
+            String name = row.get("name");
+            if (name == null) {
+                result.addError(row.number(), "name is required");
+            } else if (byName.containsKey(name.toLowerCase(Locale.ROOT))) {
+                result.addError(row.number(), "Duplicate subject in file: " + name);
+            } else {
+                byName.put(name.toLowerCase(Locale.ROOT), row);
+            }
+        }
+        if (byName.isEmpty()) {
+            return 0;
+        }
+        
+        Set<String> existing = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT LOWER(name) FROM subjects WHERE LOWER(name) IN (:names)",
+                new MapSqlParameterSource("names", byName.keySet()), String.class));
+        
+        List<Object[]> inserts = new ArrayList<>();
+        List<Row> inserted = new ArrayList<>();
+        for (Map.Entry<String, Row> entry : byName.entrySet()) {
+            Row row = entry.getValue();
+            if (existing.contains(entry.getKey())) {
+                result.addError(row.number(), "Subject with name '" + row.get("name") + "' already exists");
+                continue;
+            }
+            inserts.add(new Object[]{row.get("name"), row.get("description")});
+            inserted.add(row);
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO subjects (name, description, is_active, version) VALUES (?, ?, true, 0) " +
+                "ON CONFLICT (name) DO NOTHING", inserts);
+        return countInserted(counts, inserted, result, "Subject already exists");
+    }
+    
+    private int importSubtopicBatch(List<Row> batch, BulkImportResult result) {
+        Set<String> subjectNames = new HashSet<>();
+        for (Row row : batch) {
+            if (row.get("subject") != null) {
+                subjectNames.add(row.get("subject").toLowerCase(Locale.ROOT));
+            }
+        }
+        Map<String, Long> subjectIds = new HashMap<>();
+        Set<String> existing = new HashSet<>();
+        if (!subjectNames.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, LOWER(name) AS name FROM subjects WHERE LOWER(name) IN (:names)",
+                    new MapSqlParameterSource("names", subjectNames),
+                    rs -> {
+                        subjectIds.put(rs.getString("name"), rs.getLong("id"));
+                    });
+        }
+        if (!subjectIds.isEmpty()) {
+            namedJdbcTemplate.query("SELECT subject_id, LOWER(name) AS name FROM subtopics WHERE subject_id IN (:ids)",
+                    new MapSqlParameterSource("ids", subjectIds.values()),
+                    rs -> {
+                        existing.add(rs.getLong("subject_id") + "/" + rs.getString("name"));
+                    });
+        }
+        
+        List<Object[]> inserts = new ArrayList<>();
+        List<Row> inserted = new ArrayList<>();
+        for (Row row : batch) {
+            if (row.get("subject") == null || row.get("name") == null) {
+                result.addError(row.number(), "subject and name are required");
+                continue;
+            }
+            Long subjectId = subjectIds.get(row.get("subject").toLowerCase(Locale.ROOT));
+            if (subjectId == null) {
+                result.addError(row.number(), "Subject not found: " + row.get("subject"));
+                continue;
+            }
+            // Also rejects duplicates within the file
+            if (!existing.add(subjectId + "/" + row.get("name").toLowerCase(Locale.ROOT))) {
+                result.addError(row.number(), "Subtopic '" + row.get("name") + "' already exists for subject '" + row.get("subject") + "'");
+                continue;
+            }
+            inserts.add(new Object[]{row.get("name"), row.get("description"), subjectId});
+            inserted.add(row);
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO subtopics (name, description, is_active, subject_id, version) VALUES (?, ?, true, ?, 0)", inserts);
+        return countInserted(counts, inserted, result, "Subtopic already exists");
+    }
+    
+    private int countInserted(int[] counts, List<Row> rows, BulkImportResult result, String conflictMessage) {
+        int inserted = 0;
+        for (int i = 0; i < counts.length; i++) {
+            // Rewritten batches report SUCCESS_NO_INFO instead of a row count
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+            } else {
+                result.addError(rows.get(i).number(), conflictMessage);
+            }
+        }
+        return inserted;
+    }
+    
+    private Map<String, String> csvRow(List<String> header, String line) {
+        List<String> fields = CsvSupport.parseLine(line);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            row.put(header.get(i), fields.get(i));
+        }
+        return row;
+    }
+    
+    private Map<String, String> jsonRow(String line) {
+        try {
+            Map<String, Object> json = objectMapper.readValue(line, new TypeReference<>() {});
+            Map<String, String> row = new HashMap<>();
+            json.forEach((key, value) -> row.put(key, value == null ? null : value.toString()));
+            return row;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+    
+    private record Row(long number, Map<String, String> values) {
+        String get(String column) {
+            String value = values.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface BatchImporter {
+        int importBatch(List<Row> batch, BulkImportResult result);
+    }
+}
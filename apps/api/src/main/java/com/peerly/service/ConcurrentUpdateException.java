@@ -0,0 +1,11 @@
+package com.peerly.service;
+
+/**
+ * Thrown when a write loses to a concurrent update, either because the client sent
+ * a stale version or because conflict retries were exhausted.
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
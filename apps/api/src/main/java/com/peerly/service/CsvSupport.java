@@ -0,0 +1,99 @@
+package com.peerly.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV helpers for the bulk import/export endpoints.
+ */
+final class CsvSupport {
+    
+    // Bounds the damage of an unbalanced quote, which would otherwise swallow the rest of the file
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    
+    private CsvSupport() {
+    }
+    
+    /**
+     * Read one CSV record, joining physical lines while a quoted field is still open,
+     * so exported fields containing newlines (bio, notes) read back intact
+     * @return Record without its trailing line break, or null at the end of input
+     */
+    static String readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null || quoteCount(line) % 2 == 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        long quotes = quoteCount(line);
+        while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            quotes += quoteCount(line);
+            if (record.length() > MAX_RECORD_LENGTH) {
+                throw new IOException("CSV record longer than " + MAX_RECORD_LENGTH + " characters, is a quote unbalanced?");
+            }
+        }
+        return record.toString();
+    }
+    
+    /**
+     * Split one CSV record into fields (quoted fields may contain commas, doubled quotes and newlines)
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /**
+     * Render one CSV line, quoting fields that need it
+     */
+    static String formatLine(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.append('\n').toString();
+    }
+    
+    private static long quoteCount(String line) {
+        return line.chars().filter(c -> c == '"').count();
+    }
+}
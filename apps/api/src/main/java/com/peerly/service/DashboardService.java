@@ -0,0 +1,260 @@
+package com.peerly.service;
+
+import com.peerly.config.ReplicaConsistency;
+import com.peerly.dto.DashboardSnapshot;
+import com.peerly.dto.DomainEvent;
+import com.peerly.entity.Session;
+import com.peerly.entity.User;
+import com.peerly.repository.MessageRepository;
+import com.peerly.repository.SessionRepository;
+import com.peerly.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Materialized per-user dashboard: balance, unread messages, upcoming sessions and pending requests.
+ * A snapshot is built from the database on first read and afterwards patched in place by
+ * session and message events. The balance is read through on every request, since the write that
+ * changed it may have been handled by another instance.
+ * Events arrive at least once and possibly before or after a rebuild that already saw them, so
+ * every patch sets state rather than adding to it: the unread message count is re-counted.
+ */
+@Service
+public class DashboardService {
+    
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+    
+    private static final Comparator<DashboardSnapshot.UpcomingSession> SOONEST_FIRST =
+            Comparator.comparing(DashboardSnapshot.UpcomingSession::getSessionDateTime);
+    
+    @Autowired
+    private DashboardStore dashboardStore;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SessionRepository sessionRepository;
+    
+    @Autowired
+    private MessageRepository messageRepository;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Present only when replica routing is enabled
+    @Autowired
+    private ObjectProvider<ReplicaConsistency> replicaConsistency;
+    
+    @Value("${peerly.dashboard.ttl:PT1H}")
+    private Duration ttl;
+    
+    private TransactionTemplate readTransaction;
+    
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Get the dashboard of a user
+     * @param userId User ID
+     * @return Snapshot, or empty if the user does not exist
+     */
+    public Optional<DashboardSnapshot> getDashboard(Long userId) {
+        Optional<DashboardSnapshot> stored = dashboardStore.find(userId);
+        DashboardSnapshot snapshot;
+        if (stored.isPresent()) {
+            meterRegistry.counter("peerly.dashboard.reads", "result", "hit").increment();
+            snapshot = stored.get().copy();
+        } else {
+            meterRegistry.counter("peerly.dashboard.reads", "result", "miss").increment();
+            snapshot = rebuild(userId);
+            if (snapshot == null) {
+                return Optional.empty();
+            }
+            snapshot = snapshot.copy();
+        }
+    
+        // Sessions that started since the last update are no longer upcoming
+        LocalDateTime now = LocalDateTime.now();
+        snapshot.getUpcomingSessions().removeIf(session -> !session.getSessionDateTime().isAfter(now));
+        // Read through rather than patched from events, which another instance may have handled
+        List<Long> balance = jdbcTemplate.queryForList("SELECT supercoins FROM users WHERE id = ?", Long.class, userId);
+        if (balance.isEmpty()) {
+            invalidate(userId);
+            return Optional.empty();
+        }
+        snapshot.setSupercoins(balance.get(0));
+        snapshot.setPendingRequests(countPendingRequests(snapshot));
+        snapshot.setUnreadNotifications(notificationService.getUnreadCount(userId));
+        return Optional.of(snapshot);
+    }
+    
+    /**
+     * Apply a session or message event to the snapshots of the users involved
+     * @param event Domain event from the outbox relay
+     */
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        switch (event.getEventType()) {
+            case DomainEvent.SESSION_BOOKED, DomainEvent.SESSION_ACCEPTED -> {
+                update(event.getLong("tutorId"), snapshot -> upsertSession(snapshot, event, true));
+                update(event.getLong("studentId"), snapshot -> upsertSession(snapshot, event, false));
+            }
+            case DomainEvent.SESSION_REJECTED, DomainEvent.SESSION_CANCELLED, DomainEvent.SESSION_EXPIRED,
+                 DomainEvent.SESSION_COMPLETED -> {
+                Long sessionId = event.getLong("sessionId");
+                update(event.getLong("tutorId"), snapshot -> removeSession(snapshot, sessionId));
+                update(event.getLong("studentId"), snapshot -> removeSession(snapshot, sessionId));
+            }
+            case DomainEvent.MESSAGE_SENT, DomainEvent.MESSAGE_READ -> update(event.getLong("receiverId"),
+                    snapshot -> snapshot.setUnreadMessages(messageRepository.countByReceiverIdAndIsReadFalse(snapshot.getUserId())));
+            default -> {
+            }
+        }
+    }
+    
+    /**
+     * Drop a snapshot so the next read rebuilds it from the database
+     * @param userId User ID
+     */
+    public void invalidate(Long userId) {
+        dashboardStore.remove(userId);
+    }
+    
+    private void update(Long userId, Consumer<DashboardSnapshot> change) {
+        if (userId == null) {
+            return;
+        }
+        // Compare-and-set against the stored version, since other instances may patch the same snapshot
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Optional<DashboardSnapshot> stored = dashboardStore.find(userId);
+            if (stored.isEmpty()) {
+                // Built lazily on next read; removing retires a rebuild that loaded before this event
+                dashboardStore.remove(userId);
+                return;
+            }
+            DashboardSnapshot snapshot = stored.get().copy();
+            long expectedVersion = snapshot.getVersion();
+            change.accept(snapshot);
+            snapshot.setVersion(expectedVersion + 1);
+            snapshot.setUpdatedAt(LocalDateTime.now());
+            if (dashboardStore.replace(snapshot, expectedVersion, ttl)) {
+                meterRegistry.counter("peerly.dashboard.updates", "result", "applied").increment();
+                return;
+            }
+        }
+        // Still contended: drop it and let the next read rebuild
+        dashboardStore.remove(userId);
+        meterRegistry.counter("peerly.dashboard.updates", "result", "conflict").increment();
+    }
+    
+    private DashboardSnapshot rebuild(Long userId) {
+        long generation = dashboardStore.generation(userId);
+        // Stored for up to the TTL and patched from there, so it must not start from a lagging replica
+        Supplier<DashboardSnapshot> read = () -> readTransaction.execute(status -> load(userId));
+        ReplicaConsistency consistency = replicaConsistency.getIfAvailable();
+        DashboardSnapshot snapshot = consistency == null ? read.get() : consistency.onPrimary(read);
+        if (snapshot == null) {
+            return null;
+        }
+        // Versions keep rising across rebuilds, so an update computed on a dropped snapshot cannot land on this one
+        snapshot.setVersion(generation);
+        dashboardStore.saveIfGeneration(snapshot, generation, ttl);
+        return snapshot;
+    }
+    
+    private DashboardSnapshot load(Long userId) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return null;
+        }
+        User user = userOpt.get();
+        LocalDateTime now = LocalDateTime.now();
+    
+        List<DashboardSnapshot.UpcomingSession> upcoming = new ArrayList<>();
+        for (Session session : sessionRepository.findUpcomingSessionsByTutor(user, now)) {
+            upcoming.add(toUpcoming(session, true));
+        }
+        for (Session session : sessionRepository.findUpcomingSessionsByStudent(user, now)) {
+            upcoming.add(toUpcoming(session, false));
+        }
+        upcoming.sort(SOONEST_FIRST);
+    
+        DashboardSnapshot snapshot = new DashboardSnapshot();
+        snapshot.setUserId(userId);
+        snapshot.setSupercoins(user.getSupercoins());
+        snapshot.setUnreadMessages(messageRepository.countByReceiverIdAndIsReadFalse(userId));
+        snapshot.setUpcomingSessions(upcoming);
+        snapshot.setPendingRequests(countPendingRequests(snapshot));
+        snapshot.setUpdatedAt(now);
+        return snapshot;
+    }
+    
+    private void upsertSession(DashboardSnapshot snapshot, DomainEvent event, boolean asTutor) {
+        Long sessionId = event.getLong("sessionId");
+        LocalDateTime sessionDateTime = LocalDateTime.parse(event.getString("sessionDateTime"));
+        snapshot.getUpcomingSessions().removeIf(session -> session.getSessionId().equals(sessionId));
+        if (!sessionDateTime.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        snapshot.getUpcomingSessions().add(new DashboardSnapshot.UpcomingSession(
+                sessionId,
+                asTutor ? "TUTOR" : "STUDENT",
+                event.getLong(asTutor ? "studentId" : "tutorId"),
+                event.getString(asTutor ? "studentName" : "tutorName"),
+                sessionDateTime,
+                event.getLong("durationMinutes") == null ? null : event.getLong("durationMinutes").intValue(),
+                event.getString("subject"),
+                event.getString("status")));
+        snapshot.getUpcomingSessions().sort(SOONEST_FIRST);
+        snapshot.setPendingRequests(countPendingRequests(snapshot));
+    }
+    
+    private void removeSession(DashboardSnapshot snapshot, Long sessionId) {
+        snapshot.getUpcomingSessions().removeIf(session -> session.getSessionId().equals(sessionId));
+        snapshot.setPendingRequests(countPendingRequests(snapshot));
+    }
+    
+    private DashboardSnapshot.UpcomingSession toUpcoming(Session session, boolean asTutor) {
+        User counterpart = asTutor ? session.getStudent() : session.getTutor();
+        return new DashboardSnapshot.UpcomingSession(session.getId(), asTutor ? "TUTOR" : "STUDENT",
+                counterpart.getId(), counterpart.getName(), session.getSessionDateTime(),
+                session.getDurationMinutes(), session.getSubject(), session.getStatus().name());
+    }
+    
+    private int countPendingRequests(DashboardSnapshot snapshot) {
+        return (int) snapshot.getUpcomingSessions().stream()
+                .filter(session -> "TUTOR".equals(session.getRole())
+                        && Session.SessionStatus.PENDING.name().equals(session.getStatus()))
+                .count();
+    }
+}
@@ -0,0 +1,52 @@
+package com.peerly.service;
+
+import com.peerly.dto.DashboardSnapshot;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Storage tier for materialized dashboard snapshots. Writes are conditional so that API
+ * instances sharing a store cannot overwrite each other's updates.
+ */
+public interface DashboardStore {
+    
+    /**
+     * Find the snapshot of a user
+     * @param userId User ID
+     * @return Optional snapshot
+     */
+    Optional<DashboardSnapshot> find(Long userId);
+    
+    /**
+     * Current generation of a user's snapshot; it moves on every replace and remove
+     * @param userId User ID
+     * @return Generation, 0 if none was recorded
+     */
+    long generation(Long userId);
+    
+    /**
+     * Store a snapshot rebuilt from the database, unless it was replaced or removed since the
+     * rebuild read the generation, in which case the rebuild may have missed that change
+     * @param snapshot Snapshot to store; never mutated afterwards
+     * @param generation Generation read before loading the snapshot
+     * @param ttl How long the snapshot is kept without updates
+     * @return Whether the snapshot was stored
+     */
+    boolean saveIfGeneration(DashboardSnapshot snapshot, long generation, Duration ttl);
+    
+    /**
+     * Replace the snapshot of a user if the stored one still has the expected version
+     * @param snapshot Updated snapshot; never mutated afterwards
+     * @param expectedVersion Version of the snapshot the update was applied to
+     * @param ttl How long the snapshot is kept without updates
+     * @return Whether the snapshot was replaced; false if it changed or disappeared meanwhile
+     */
+    boolean replace(DashboardSnapshot snapshot, long expectedVersion, Duration ttl);
+    
+    /**
+     * Drop the snapshot of a user so the next read rebuilds it, retiring rebuilds in flight
+     * @param userId User ID
+     */
+    void remove(Long userId);
+}
@@ -0,0 +1,169 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.IdempotentResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates retried write requests carrying an Idempotency-Key header.
+ * The first request for a key runs normally; repeats replay its cached response
+ * instead of being processed again.
+ */
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    
+    @Autowired
+    private InMemoryIdempotencyStore localStore;
+    
+    @Autowired(required = false)
+    private RedisIdempotencyStore sharedStore;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${peerly.idempotency.ttl:PT24H}")
+    private Duration ttl;
+    
+    @Value("${peerly.idempotency.in-flight-ttl:PT30S}")
+    private Duration inFlightTtl;
+    
+    /**
+     * Run a request at most once per idempotency key
+     * @param scope Endpoint the key belongs to
+     * @param idempotencyKey Client supplied key, or null to skip deduplication
+     * @param requestSignature Canonical form of the request, used to reject key reuse with a different payload
+     * @param action Request handler
+     * @return Original response, or the cached response for a repeat
+     */
+    public ResponseEntity<?> execute(String scope, String idempotencyKey, String requestSignature,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        
+        String key = scope + ":" + idempotencyKey.trim();
+        String fingerprint = DigestUtils.md5DigestAsHex(requestSignature.getBytes(StandardCharsets.UTF_8));
+        
+        Optional<IdempotentResponse> cached = find(key);
+        if (cached.isPresent()) {
+            return replay(cached.get(), fingerprint);
+        }
+        
+        if (!reserve(key)) {
+            // Another request with the same key may have just finished
+            return find(key)
+                    .<ResponseEntity<?>>map(response -> replay(response, fingerprint))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body("A request with this Idempotency-Key is already being processed"));
+        }
+        
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+        
+        // Only successful outcomes are replayed; failures stay retryable
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(key);
+            return response;
+        }
+        
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response.getBody());
+            store(key, new IdempotentResponse(response.getStatusCode().value(), fingerprint, body));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not cache response for idempotency key {}: {}", key, e.getMessage());
+            release(key);
+        }
+        return response;
+    }
+    
+    private ResponseEntity<?> replay(IdempotentResponse cached, String fingerprint) {
+        if (!cached.getFingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body("Idempotency-Key was already used for a different request");
+        }
+        return ResponseEntity.status(cached.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(cached.getBody());
+    }
+    
+    private Optional<IdempotentResponse> find(String key) {
+        Optional<IdempotentResponse> cached = localStore.find(key);
+        if (cached.isPresent() || sharedStore == null) {
+            return cached;
+        }
+        try {
+            cached = sharedStore.find(key);
+            cached.ifPresent(response -> localStore.complete(key, response, ttl));
+            return cached;
+        } catch (RuntimeException e) {
+            log.warn("Shared idempotency store unavailable: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private boolean reserve(String key) {
+        if (!localStore.tryReserve(key, inFlightTtl)) {
+            return false;
+        }
+        if (sharedStore == null) {
+            return true;
+        }
+        try {
+            if (sharedStore.tryReserve(key, inFlightTtl)) {
+                return true;
+            }
+            localStore.release(key);
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("Shared idempotency store unavailable, deduplicating locally: {}", e.getMessage());
+            return true;
+        }
+    }
+    
+    private void store(String key, IdempotentResponse response) {
+        localStore.complete(key, response, ttl);
+        if (sharedStore != null) {
+            try {
+                sharedStore.complete(key, response, ttl);
+            } catch (RuntimeException e) {
+                log.warn("Shared idempotency store unavailable: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void release(String key) {
+        localStore.release(key);
+        if (sharedStore != null) {
+            try {
+                sharedStore.release(key);
+            } catch (RuntimeException e) {
+                log.warn("Shared idempotency store unavailable: {}", e.getMessage());
+            }
+        }
+    }
+}
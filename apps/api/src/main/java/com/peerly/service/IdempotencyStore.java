@@ -0,0 +1,43 @@
+package com.peerly.service;
+
+import com.peerly.dto.IdempotentResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Storage tier for Idempotency-Key deduplication.
+ * Keys are reserved while the original request is running and replaced by the
+ * cached response once it completes.
+ */
+public interface IdempotencyStore {
+    
+    /**
+     * Find the completed response stored for a key
+     * @param key Scoped idempotency key
+     * @return Optional cached response
+     */
+    Optional<IdempotentResponse> find(String key);
+    
+    /**
+     * Reserve a key for an in-flight request
+     * @param key Scoped idempotency key
+     * @param ttl How long the reservation is held if never completed
+     * @return true if this caller now owns the key
+     */
+    boolean tryReserve(String key, Duration ttl);
+    
+    /**
+     * Store the completed response for a key and drop its reservation
+     * @param key Scoped idempotency key
+     * @param response Response to replay for repeats
+     * @param ttl How long the response is replayed
+     */
+    void complete(String key, IdempotentResponse response, Duration ttl);
+    
+    /**
+     * Drop the reservation for a key so the request can be retried
+     * @param key Scoped idempotency key
+     */
+    void release(String key);
+}
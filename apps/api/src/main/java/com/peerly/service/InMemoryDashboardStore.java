@@ -0,0 +1,119 @@
+package com.peerly.service;
+
+import com.peerly.dto.DashboardSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, TTL-evicted dashboard store local to this API instance.
+ */
+@Component
+@ConditionalOnProperty(name = "peerly.dashboard.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryDashboardStore implements DashboardStore {
+    
+    private static final int GENERATION_STRIPES = 1024;
+    
+    private final int maxEntries;
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Striped, so unrelated users can retire each other's rebuilds; they are simply redone on the next read
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    
+    public InMemoryDashboardStore(@Value("${peerly.dashboard.max-entries:50000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    @Override
+    public Optional<DashboardSnapshot> find(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.snapshot);
+    }
+    
+    @Override
+    public long generation(Long userId) {
+        return generations.get(stripe(userId));
+    }
+    
+    @Override
+    public boolean saveIfGeneration(DashboardSnapshot snapshot, long generation, Duration ttl) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries && !entries.containsKey(snapshot.getUserId())) {
+            evict(now);
+        }
+        boolean[] saved = new boolean[1];
+        // Generations move only inside compute on the same key, so the check and the put are atomic
+        entries.compute(snapshot.getUserId(), (userId, current) -> {
+            if (generations.get(stripe(userId)) != generation) {
+                return current;
+            }
+            saved[0] = true;
+            return new Entry(snapshot, now + ttl.toMillis());
+        });
+        return saved[0];
+    }
+    
+    @Override
+    public boolean replace(DashboardSnapshot snapshot, long expectedVersion, Duration ttl) {
+        long now = System.currentTimeMillis();
+        boolean[] replaced = new boolean[1];
+        entries.compute(snapshot.getUserId(), (userId, current) -> {
+            if (current == null || current.isExpired(now) || current.snapshot.getVersion() != expectedVersion) {
+                return current;
+            }
+            generations.incrementAndGet(stripe(userId));
+            replaced[0] = true;
+            return new Entry(snapshot, now + ttl.toMillis());
+        });
+        return replaced[0];
+    }
+    
+    @Override
+    public void remove(Long userId) {
+        entries.compute(userId, (id, current) -> {
+            generations.incrementAndGet(stripe(id));
+            return null;
+        });
+    }
+    
+    /**
+     * Remove expired snapshots so memory is returned without waiting for size-based eviction
+     */
+    @Scheduled(fixedDelayString = "${peerly.dashboard.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+    
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        // Still full: drop arbitrary snapshots down to 90% of capacity, they are rebuilt on demand
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > maxEntries * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (GENERATION_STRIPES - 1));
+    }
+    
+    private record Entry(DashboardSnapshot snapshot, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.peerly.service;
+
+import com.peerly.dto.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicted idempotency store local to this API instance.
+ * Once the maximum size is reached the oldest keys are evicted first.
+ */
+@Component
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    
+    private final int maxEntries;
+    
+    private final Map<String, Entry> entries;
+    
+    public InMemoryIdempotencyStore(@Value("${peerly.idempotency.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > InMemoryIdempotencyStore.this.maxEntries;
+            }
+        };
+    }
+    
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(entry.response);
+        }
+    }
+    
+    @Override
+    public boolean tryReserve(String key, Duration ttl) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                return false;
+            }
+            entries.put(key, new Entry(null, now + ttl.toMillis()));
+            return true;
+        }
+    }
+    
+    @Override
+    public void complete(String key, IdempotentResponse response, Duration ttl) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response, System.currentTimeMillis() + ttl.toMillis()));
+        }
+    }
+    
+    @Override
+    public void release(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.response == null) {
+                entries.remove(key);
+            }
+        }
+    }
+    
+    /**
+     * Remove expired keys so memory is returned without waiting for size-based eviction
+     */
+    @Scheduled(fixedDelayString = "${peerly.idempotency.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+    
+    private record Entry(IdempotentResponse response, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
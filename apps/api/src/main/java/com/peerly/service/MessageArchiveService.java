@@ -0,0 +1,136 @@
+package com.peerly.service;
+
+import com.peerly.entity.ArchivedMessage;
+import com.peerly.entity.Message;
+import com.peerly.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the messages table small: read messages older than the hot window are moved,
+ * compressed, into messages_archive. Unread messages stay in the hot table whatever their
+ * age, so unread lists, counts and mark-as-read never have to look in the archive.
+ * Conversation paging reads the archive only once the page reaches past the hot window.
+ */
+@Service
+public class MessageArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MessageArchiveService.class);
+    
+    @Autowired
+    private MessageRepository messageRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${peerly.messages.archive.hot-window-days:90}")
+    private int hotWindowDays;
+    
+    @Value("${peerly.messages.archive.batch-size:1000}")
+    private int batchSize;
+    
+    /**
+     * Start of the hot window: every archived message is older than this
+     * @return Current hot window start
+     */
+    public LocalDateTime hotWindowStart() {
+        return LocalDateTime.now().minusDays(hotWindowDays);
+    }
+    
+    /**
+     * Move read messages older than the hot window into the archive, one batch per transaction
+     * @return Number of messages archived
+     */
+    @Scheduled(cron = "${peerly.messages.archive.cron:0 0 4 * * *}")
+    public int archiveOldMessages() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = hotWindowStart();
+        int total = 0;
+        int moved;
+        do {
+            Integer count = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            moved = count == null ? 0 : count;
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Archived {} read messages older than {}", total, cutoff);
+        }
+        return total;
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Message> batch = messageRepository.findByIsReadTrueAndTimestampBeforeOrderByIdAsc(cutoff, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO messages_archive (id, sender_id, receiver_id, content, timestamp, is_read) " +
+                "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING",
+                batch, batch.size(), (ps, message) -> {
+                    ps.setLong(1, message.getId());
+                    ps.setLong(2, message.getSenderId());
+                    ps.setLong(3, message.getReceiverId());
+                    ps.setBytes(4, compress(message.getContent()));
+                    ps.setTimestamp(5, Timestamp.valueOf(message.getTimestamp()));
+                    ps.setBoolean(6, message.isRead());
+                });
+        messageRepository.deleteAllByIdInBatch(batch.stream().map(Message::getId).toList());
+        return batch.size();
+    }
+    
+    /**
+     * Rebuild a message from its archived form
+     * @param archived Archived message
+     * @return Detached message with decompressed content
+     */
+    public Message toMessage(ArchivedMessage archived) {
+        Message message = new Message();
+        message.setId(archived.getId());
+        message.setSenderId(archived.getSenderId());
+        message.setReceiverId(archived.getReceiverId());
+        message.setContent(decompress(archived.getContent()));
+        message.setTimestamp(archived.getTimestamp());
+        message.setRead(archived.isRead());
+        return message;
+    }
+    
+    static byte[] compress(String content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    static String decompress(byte[] content) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
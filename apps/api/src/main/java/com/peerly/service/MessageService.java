@@ -1,24 +1,48 @@
 package com.peerly.service;
 
+import com.peerly.dto.ConversationPage;
+import com.peerly.dto.DomainEvent;
+import com.peerly.entity.ArchivedMessage;
 import com.peerly.entity.Message;
+import com.peerly.repository.ArchivedMessageRepository;
 import com.peerly.repository.MessageRepository;
 import com.peerly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class MessageService {
     
+    private static final int PREVIEW_LENGTH = 100;
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private MessageRepository messageRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ArchivedMessageRepository archivedMessageRepository;
+    
+    @Autowired
+    private MessageArchiveService messageArchiveService;
+    
     /**
      * Send a message from one user to another
      * @param senderId Sender's user ID
@@ -26,6 +50,7 @@ public class MessageService {
      * @param content Message content
      * @return Sent message
      */
+    @Transactional
     public Message sendMessage(Long senderId, Long receiverId, String content) {
         // Validate that both users exist
         if (!userRepository.findById(Long.valueOf(senderId)).isPresent()) {
@@ -49,18 +74,66 @@ public class MessageService {
         message.setTimestamp(LocalDateTime.now());
         message.setRead(false);
         
-        return messageRepository.save(message);
+        Message savedMessage = messageRepository.save(message);
+        
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("messageId", savedMessage.getId());
+        payload.put("senderId", senderId);
+        payload.put("receiverId", receiverId);
+        payload.put("preview", savedMessage.getContent().length() > PREVIEW_LENGTH
+                ? savedMessage.getContent().substring(0, PREVIEW_LENGTH) + "..."
+                : savedMessage.getContent());
+        outboxService.record(DomainEvent.MESSAGE, savedMessage.getId(), DomainEvent.MESSAGE_SENT, payload);
+        
+        return savedMessage;
     }
     
     /**
-     * Get conversation between two users
+     * Get conversation between two users (hot window only; page with a cursor for older history)
      * @param user1Id First user ID
      * @param user2Id Second user ID
      * @return List of messages in chronological order
      */
+    @Transactional(readOnly = true)
     public List<Message> getConversation(Long user1Id, Long user2Id) {
         return messageRepository.findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByTimestampAsc(user1Id, user2Id,user2Id,user1Id);
     }
+    
+    /**
+     * Get a page of a conversation, older than a (timestamp, id) cursor.
+     * Served from the hot table; the archive is only read once the page reaches past the hot window,
+     * and then merged with the hot rows. Archived messages keep their IDs, so the same cursor works in both tables.
+     * @param user1Id First user ID
+     * @param user2Id Second user ID
+     * @param before Only messages older than this (null for the latest page)
+     * @param beforeId ID of the cursor message, so messages at the same timestamp are split by ID (null for none)
+     * @param limit Page size
+     * @return Messages in chronological order and the cursor for the next older page
+     */
+    @Transactional(readOnly = true)
+    public ConversationPage getConversation(Long user1Id, Long user2Id, LocalDateTime before, Long beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime cursor = before == null ? LocalDateTime.now().plusDays(1) : before;
+        // A bare timestamp keeps its old meaning: strictly older messages only
+        long cursorId = before == null || beforeId == null ? 0L : beforeId;
+        
+        List<Message> page = new ArrayList<>(messageRepository.findConversationBefore(user1Id, user2Id, cursor, cursorId,
+                PageRequest.of(0, pageSize)));
+        
+        // Page reaches past the hot window: archived messages interleave with the old unread ones still hot
+        if (page.size() < pageSize || page.get(page.size() - 1).getTimestamp().isBefore(messageArchiveService.hotWindowStart())) {
+            archivedMessageRepository.findConversationBefore(user1Id, user2Id, cursor, cursorId, PageRequest.of(0, pageSize))
+                    .forEach(archived -> page.add(messageArchiveService.toMessage(archived)));
+            page.sort(Comparator.comparing(Message::getTimestamp).thenComparing(Message::getId).reversed());
+            if (page.size() > pageSize) {
+                page.subList(pageSize, page.size()).clear();
+            }
+        }
+        
+        Message oldest = page.size() < pageSize ? null : page.get(page.size() - 1);
+        Collections.reverse(page);
+        return new ConversationPage(page, oldest == null ? null : oldest.getTimestamp(), oldest == null ? null : oldest.getId());
+    }
 
     
     /**
@@ -68,6 +141,7 @@ public class MessageService {
      * @param receiverId Receiver's user ID
      * @return List of unread messages
      */
+    @Transactional(readOnly = true)
     public List<Message> getUnreadMessages(Long receiverId) {
         return messageRepository.findByReceiverIdAndIsReadFalse(receiverId);
     }
@@ -78,6 +152,7 @@ public class MessageService {
      * @param messageId Message ID
      * @return Updated message
      */
+    @Transactional
     public Message markMessageAsRead(Long messageId) {
         Optional<Message> messageOpt = messageRepository.findById(messageId);
         if (messageOpt.isEmpty()) {
@@ -85,9 +160,19 @@ public class MessageService {
         }
         
         Message message = messageOpt.get();
+        if (message.isRead()) {
+            return message;
+        }
         message.setRead(true);
+        Message savedMessage = messageRepository.save(message);
+        
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("messageId", savedMessage.getId());
+        payload.put("senderId", savedMessage.getSenderId());
+        payload.put("receiverId", savedMessage.getReceiverId());
+        outboxService.record(DomainEvent.MESSAGE, savedMessage.getId(), DomainEvent.MESSAGE_READ, payload);
         
-        return messageRepository.save(message);
+        return savedMessage;
     }
 
 
@@ -97,16 +182,37 @@ public class MessageService {
      * @param messageId Message ID
      * @return Optional message
      */
+    @Transactional(readOnly = true)
     public Optional<Message> getMessageById(Long messageId) {
-        return messageRepository.findById(messageId);
+        Optional<Message> message = messageRepository.findById(messageId);
+        if (message.isPresent()) {
+            return message;
+        }
+        return archivedMessageRepository.findById(messageId).map(messageArchiveService::toMessage);
     }
 
+    @Transactional(readOnly = true)
     public List<Message> getMessagesSentByUser(Long senderId) {
 
-        return messageRepository.findBySenderIdOrderByTimestampDesc(senderId);
+        return withArchived(messageRepository.findBySenderIdOrderByTimestampDesc(senderId),
+                archivedMessageRepository.findBySenderIdOrderByTimestampDesc(senderId));
     }
 
+    @Transactional(readOnly = true)
     public List<Message> getMessagesReceivedByUser(Long receiverId) {
-        return messageRepository.findByReceiverIdOrderByTimestampDesc(receiverId);
+        return withArchived(messageRepository.findByReceiverIdOrderByTimestampDesc(receiverId),
+                archivedMessageRepository.findByReceiverIdOrderByTimestampDesc(receiverId));
+    }
+    
+    // Hot and archived messages newest first; old unread messages are still hot, so the two interleave
+    private List<Message> withArchived(List<Message> hot, List<ArchivedMessage> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Message> messages = new ArrayList<>(hot.size() + archived.size());
+        messages.addAll(hot);
+        archived.forEach(message -> messages.add(messageArchiveService.toMessage(message)));
+        messages.sort(Comparator.comparing(Message::getTimestamp).reversed());
+        return messages;
     }
 }
@@ -0,0 +1,284 @@
+package com.peerly.service;
+
+import com.peerly.dto.DomainEvent;
+import com.peerly.dto.NotificationFeed;
+import com.peerly.entity.Notification;
+import com.peerly.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materializes per-user notifications from session and message events.
+ * Events are turned into notifications on the relay thread and handed to a bounded
+ * queue; a small worker pool drains it and inserts notifications in batches.
+ * Events arrive at least once, out of ID order and on every instance, so duplicates are
+ * dropped by the unique (source event, user) index rather than tracked here. A batch that
+ * fails to insert is retried with backoff, then row by row so one bad row cannot sink the rest.
+ */
+@Service
+public class NotificationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, user_id, type, title, body, reference_type, reference_id, source_event_id, " +
+            "is_read, created_at) VALUES ";
+    
+    private static final String INSERT_ROW = "(nextval('notifications_seq'), ?, ?, ?, ?, ?, ?, ?, false, ?)";
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private UnreadCounterMap unreadCounters;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.notifications.workers:2}")
+    private int workers;
+    
+    @Value("${peerly.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${peerly.notifications.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${peerly.notifications.max-attempts:8}")
+    private int maxAttempts;
+    
+    private BlockingQueue<Notification> queue;
+    
+    private ExecutorService workerPool;
+    
+    private volatile boolean running;
+    
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("peerly.notifications.queue.size", queue, BlockingQueue::size);
+        
+        running = true;
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "notification-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::drainLoop);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workerPool.shutdown();
+        workerPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Turn a domain event into notifications for the affected users
+     * @param event Event delivered by the outbox relay
+     */
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        for (Notification notification : toNotifications(event)) {
+            try {
+                // Blocks the relay when writers fall behind instead of dropping notifications
+                queue.put(notification);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while queueing notification");
+            }
+        }
+    }
+    
+    /**
+     * Get a page of a user's notifications, newest first
+     * @param userId User ID
+     * @param cursor ID of the last notification already seen, or null for the first page
+     * @param limit Page size
+     * @return Notifications, next cursor and unread count
+     */
+    public NotificationFeed getFeed(Long userId, Long cursor, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<Notification> items = cursor == null
+                ? notificationRepository.findByUserIdOrderByIdDesc(userId, page)
+                : notificationRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, cursor, page);
+        Long nextCursor = items.size() < page.getPageSize() ? null : items.get(items.size() - 1).getId();
+        return new NotificationFeed(items, nextCursor, unreadCounters.get(userId));
+    }
+    
+    /**
+     * Get the unread notification count for a user
+     * @param userId User ID
+     * @return Unread count
+     */
+    public long getUnreadCount(Long userId) {
+        return unreadCounters.get(userId);
+    }
+    
+    /**
+     * Mark a notification as read
+     * @param notificationId Notification ID
+     * @param userId Owner of the notification
+     */
+    public void markAsRead(Long notificationId, Long userId) {
+        if (notificationRepository.markRead(notificationId, userId) == 1) {
+            unreadCounters.add(userId, -1);
+        }
+    }
+    
+    /**
+     * Mark all of a user's notifications as read
+     * @param userId User ID
+     * @return Number of notifications marked
+     */
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllRead(userId);
+        unreadCounters.add(userId, -updated);
+        return updated;
+    }
+    
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void writeWithRetry(List<Notification> batch) throws InterruptedException {
+        long backoffMs = 100;
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                meterRegistry.counter("peerly.notifications.retried").increment(batch.size());
+                log.warn("Failed to insert {} notifications (attempt {}), retrying: {}", batch.size(), attempt, e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, 5000);
+            }
+        }
+        for (Notification notification : batch) {
+            try {
+                writeBatch(List.of(notification));
+            } catch (RuntimeException e) {
+                meterRegistry.counter("peerly.notifications.failed").increment();
+                log.error("Failed to insert notification for user {} from event {}", notification.getUserId(),
+                        notification.getSourceEventId(), e);
+            }
+        }
+    }
+    
+    // One multi-row statement; RETURNING tells which rows were new rather than redelivered
+    private void writeBatch(List<Notification> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL);
+        List<Object> args = new ArrayList<>(batch.size() * 8);
+        for (int i = 0; i < batch.size(); i++) {
+            Notification n = batch.get(i);
+            sql.append(i == 0 ? "" : ", ").append(INSERT_ROW);
+            args.add(n.getUserId());
+            args.add(n.getType());
+            args.add(n.getTitle());
+            args.add(n.getBody());
+            args.add(n.getReferenceType());
+            args.add(n.getReferenceId());
+            args.add(n.getSourceEventId());
+            args.add(n.getCreatedAt());
+        }
+        sql.append(" ON CONFLICT (source_event_id, user_id) DO NOTHING RETURNING user_id");
+        List<Long> inserted = jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+        for (Long userId : inserted) {
+            unreadCounters.add(userId, 1);
+        }
+        meterRegistry.counter("peerly.notifications.inserted").increment(inserted.size());
+        meterRegistry.counter("peerly.notifications.duplicates").increment(batch.size() - inserted.size());
+    }
+    
+    private List<Notification> toNotifications(DomainEvent event) {
+        List<Notification> notifications = new ArrayList<>();
+        String subject = event.getString("subject") == null ? "your session" : event.getString("subject");
+        switch (event.getEventType()) {
+            case DomainEvent.SESSION_BOOKED -> notifications.add(notification(event, event.getLong("tutorId"),
+                    "New session request", "A student requested " + subject + " on " + event.getString("sessionDateTime")));
+            case DomainEvent.SESSION_ACCEPTED -> notifications.add(notification(event, event.getLong("studentId"),
+                    "Session confirmed", "Your tutor confirmed " + subject + " on " + event.getString("sessionDateTime")));
+            case DomainEvent.SESSION_REJECTED -> notifications.add(notification(event, event.getLong("studentId"),
+                    "Session request declined", "Your request for " + subject + " was declined"));
+            case DomainEvent.SESSION_CANCELLED -> notifications.add(notification(event, event.getLong("tutorId"),
+                    "Session cancelled", "The student cancelled " + subject + " on " + event.getString("sessionDateTime")));
+            case DomainEvent.SESSION_EXPIRED -> notifications.add(notification(event, event.getLong("studentId"),
+                    "Session request expired", "Your tutor did not respond to " + subject + " in time"));
+            case DomainEvent.SESSION_COMPLETED -> {
+                notifications.add(notification(event, event.getLong("studentId"),
+                        "Rate your session", "How was " + subject + "? Leave a review for your tutor"));
+                notifications.add(notification(event, event.getLong("tutorId"),
+                        "Session completed", subject + " was marked as completed"));
+            }
+            case DomainEvent.SESSION_SETTLED -> {
+                Long amount = event.getLong("supercoinsAmount");
+                if (amount != null && amount > 0) {
+                    notifications.add(notification(event, event.getLong("tutorId"),
+                            "Supercoins received", "You earned " + amount + " supercoins for " + subject));
+                }
+            }
+            case DomainEvent.MESSAGE_SENT -> notifications.add(notification(event, event.getLong("receiverId"),
+                    "New message", event.getString("preview")));
+            default -> {
+            }
+        }
+        notifications.removeIf(notification -> notification.getUserId() == null);
+        return notifications;
+    }
+    
+    private Notification notification(DomainEvent event, Long userId, String title, String body) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setType(event.getEventType());
+        notification.setTitle(title);
+        notification.setBody(body);
+        notification.setReferenceType(event.getAggregateType());
+        notification.setReferenceId(event.getAggregateId());
+        notification.setSourceEventId(event.getId());
+        notification.setRead(false);
+        notification.setCreatedAt(LocalDateTime.now());
+        return notification;
+    }
+}
@@ -0,0 +1,108 @@
+package com.peerly.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-write operations in their own transaction and retries them with
+ * bounded exponential backoff when an optimistic lock conflict is detected.
+ *
+ * Metrics:
+ *  peerly.optimistic.writes    - attempted writes per operation
+ *  peerly.optimistic.conflicts - version conflicts per operation (lost updates prevented)
+ *  peerly.optimistic.exhausted - operations that gave up after the last retry
+ *  peerly.optimistic.stale     - writes rejected because the client sent an outdated version
+ */
+@Component
+public class OptimisticRetryExecutor {
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final SecondLevelCacheService secondLevelCache;
+    
+    @Value("${peerly.optimistic-retry.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${peerly.optimistic-retry.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+    
+    @Value("${peerly.optimistic-retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+    
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   SecondLevelCacheService secondLevelCache) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.secondLevelCache = secondLevelCache;
+    }
+    
+    /**
+     * Execute a write, retrying on optimistic lock conflicts
+     * @param operation Operation name used for metrics and error messages
+     * @param work Read-modify-write to run; it must re-read the entities it changes
+     * @return Result of the successful attempt
+     * @throws ConcurrentUpdateException if every attempt conflicted
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        // Inside an outer transaction the conflict only surfaces at its commit, so retrying here cannot help
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            meterRegistry.counter("peerly.optimistic.writes", "operation", operation).increment();
+            return work.get();
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            meterRegistry.counter("peerly.optimistic.writes", "operation", operation).increment();
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("peerly.optimistic.conflicts", "operation", operation).increment();
+                if (e instanceof ObjectOptimisticLockingFailureException stale) {
+                    // The conflicting version may have come from the second-level cache (written by another instance)
+                    secondLevelCache.evictEntity(stale.getPersistentClassName(), stale.getIdentifier());
+                }
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("peerly.optimistic.exhausted", "operation", operation).increment();
+                    throw new ConcurrentUpdateException("Concurrent update conflict on " + operation
+                            + " after " + attempt + " attempts, please retry");
+                }
+                backoff(attempt);
+            }
+        }
+    }
+    
+    /**
+     * Reject a write whose client-supplied version no longer matches the stored one
+     * @param operation Operation name used for metrics
+     * @param expectedVersion Version the client last read, or null if not supplied
+     * @param currentVersion Version currently stored
+     */
+    public void checkVersion(String operation, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            meterRegistry.counter("peerly.optimistic.stale", "operation", operation).increment();
+            throw new ConcurrentUpdateException("Resource was modified by someone else (version "
+                    + currentVersion + ", you sent " + expectedVersion + "), reload and try again");
+        }
+    }
+    
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update");
+        }
+    }
+}
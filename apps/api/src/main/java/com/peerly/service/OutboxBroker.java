@@ -0,0 +1,17 @@
+package com.peerly.service;
+
+import com.peerly.dto.DomainEvent;
+
+/**
+ * External message broker the outbox relay publishes events to. Every instance subscribes and
+ * hands received events to its in-process listeners, so in-memory consumers (dashboard, profile
+ * cache, lifecycle scheduler, tutor directory) see events relayed by any instance.
+ */
+public interface OutboxBroker {
+    
+    /**
+     * Publish an event to every instance; throwing leaves the event in the outbox for the next relay run
+     * @param event Event to publish
+     */
+    void publish(DomainEvent event);
+}
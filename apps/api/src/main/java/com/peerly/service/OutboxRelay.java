@@ -0,0 +1,117 @@
+package com.peerly.service;
+
+import com.peerly.dto.DomainEvent;
+import com.peerly.entity.OutboxEvent;
+import com.peerly.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers committed outbox events to in-process {@code @EventListener}s of {@link DomainEvent}.
+ * Each run claims a batch with FOR UPDATE SKIP LOCKED, taking only the oldest undelivered event of
+ * each aggregate, so relays can run on every instance without publishing an event twice or
+ * overtaking an earlier event of the same aggregate. With an {@link OutboxBroker} the event is
+ * published to the broker, which fans it out to the listeners of every instance (this one
+ * included); without one it goes to this instance's listeners only, which is enough for a single
+ * instance. Delivery is at-least-once, so listeners must tolerate duplicates.
+ */
+@Component
+@ConditionalOnProperty(name = "peerly.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired(required = false)
+    private OutboxBroker broker;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.outbox.relay.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${peerly.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+    
+    // Holds the claimed rows' locks until they are marked published
+    private TransactionTemplate claimTransaction;
+    
+    // Listeners run outside the claim transaction, as they did before claiming existed
+    private TransactionTemplate listenerTransaction;
+    
+    @PostConstruct
+    void init() {
+        claimTransaction = new TransactionTemplate(transactionManager);
+        listenerTransaction = new TransactionTemplate(transactionManager);
+        listenerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+    
+    /**
+     * Deliver the next batch of pending events
+     */
+    @Scheduled(fixedDelayString = "${peerly.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        claimTransaction.executeWithoutResult(status -> relayBatch());
+    }
+    
+    private void relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.claimNextBatch(batchSize);
+        List<Long> delivered = new ArrayList<>();
+        
+        for (OutboxEvent row : batch) {
+            try {
+                DomainEvent event = outboxService.toDomainEvent(row);
+                if (broker != null) {
+                    broker.publish(event);
+                } else {
+                    listenerTransaction.executeWithoutResult(status -> eventPublisher.publishEvent(event));
+                }
+                delivered.add(row.getId());
+                meterRegistry.counter("peerly.outbox.published", "type", row.getEventType()).increment();
+            } catch (RuntimeException e) {
+                meterRegistry.counter("peerly.outbox.failed", "type", row.getEventType()).increment();
+                if (row.getAttempts() + 1 >= maxAttempts) {
+                    // Give up so one poison event cannot block its aggregate; it stays replayable
+                    log.error("Dead-lettering outbox event {} ({}) after {} attempts", row.getId(), row.getEventType(), maxAttempts, e);
+                    meterRegistry.counter("peerly.outbox.dead_lettered", "type", row.getEventType()).increment();
+                    delivered.add(row.getId());
+                } else {
+                    // Later events of the same aggregate are not claimed until this one is delivered
+                    log.warn("Delivery of outbox event {} failed, will retry: {}", row.getId(), e.getMessage());
+                    outboxEventRepository.incrementAttempts(row.getId());
+                }
+            }
+        }
+        
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.markPublished(delivered, LocalDateTime.now());
+        }
+    }
+}
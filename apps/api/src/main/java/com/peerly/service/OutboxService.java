@@ -0,0 +1,122 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.DomainEvent;
+import com.peerly.entity.OutboxEvent;
+import com.peerly.entity.Session;
+import com.peerly.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox: events are written in the same transaction as the state
+ * change they describe and delivered afterwards by {@link OutboxRelay}.
+ */
+@Service
+public class OutboxService {
+    
+    private static final int MAX_REPLAY_LIMIT = 1000;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Record an event; must be called inside the transaction that performs the change
+     * @param aggregateType Aggregate type, e.g. SESSION
+     * @param aggregateId Aggregate ID
+     * @param eventType Event type
+     * @param payload Event payload
+     * @return Stored outbox event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setCreatedAt(LocalDateTime.now());
+        event.setAttempts(0);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize event payload: " + e.getMessage());
+        }
+        return outboxEventRepository.save(event);
+    }
+    
+    /**
+     * Record a session lifecycle event with a snapshot of the session
+     * @param session Session after the transition
+     * @param eventType Event type
+     * @return Stored outbox event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent recordSessionEvent(Session session, String eventType) {
+        return record(DomainEvent.SESSION, session.getId(), eventType, sessionPayload(session));
+    }
+    
+    /**
+     * Replay events after a cursor.
+     * Events are ordered by inserting transaction, then ID, and only transactions older than every
+     * one still running are returned, so an event whose ID commits late is never skipped.
+     * @param afterId Last event ID the consumer has processed (0 to start from the beginning)
+     * @param aggregateType Optional aggregate type filter
+     * @param limit Maximum number of events
+     * @return Events in replay order; the last ID is the next cursor
+     */
+    public List<DomainEvent> replay(Long afterId, String aggregateType, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_REPLAY_LIMIT));
+        long cursorId = afterId == null ? 0L : afterId;
+        long cursorTransactionId = 0L;
+        if (cursorId > 0) {
+            cursorTransactionId = outboxEventRepository.findTransactionIdById(cursorId)
+                    .orElseThrow(() -> new RuntimeException("Unknown event cursor: " + afterId));
+        }
+        List<OutboxEvent> events = aggregateType == null
+                ? outboxEventRepository.findReplayPage(cursorTransactionId, cursorId, size)
+                : outboxEventRepository.findReplayPage(aggregateType, cursorTransactionId, cursorId, size);
+        return events.stream().map(this::toDomainEvent).toList();
+    }
+    
+    /**
+     * Convert a stored outbox row to the event handed to consumers
+     * @param event Outbox row
+     * @return Domain event
+     */
+    public DomainEvent toDomainEvent(OutboxEvent event) {
+        try {
+            Map<String, Object> payload = objectMapper.readValue(event.getPayload(), new TypeReference<>() {});
+            return new DomainEvent(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                    event.getEventType(), payload, event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupt payload for outbox event " + event.getId() + ": " + e.getMessage());
+        }
+    }
+    
+    private Map<String, Object> sessionPayload(Session session) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sessionId", session.getId());
+        payload.put("tutorId", session.getTutor().getId());
+        payload.put("studentId", session.getStudent().getId());
+        payload.put("tutorName", session.getTutor().getName());
+        payload.put("studentName", session.getStudent().getName());
+        payload.put("status", session.getStatus().name());
+        payload.put("sessionDateTime", session.getSessionDateTime().toString());
+        payload.put("durationMinutes", session.getDurationMinutes());
+        payload.put("subject", session.getSubject());
+        payload.put("supercoinsAmount", session.getSupercoinsAmount());
+        return payload;
+    }
+}
@@ -0,0 +1,655 @@
+package com.peerly.service;
+
+import com.peerly.dto.TutorRecommendation;
+import com.peerly.entity.User;
+import com.peerly.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Item-item collaborative filtering for tutor matching.
+ * Students and tutors form a sparse weighted interaction matrix (sessions, reviews) held in
+ * primitive CSR arrays. The nightly batch computes cosine similarity between tutors in parallel,
+ * keeps the top neighbours of each tutor, scores every student against them (plus a bonus for
+ * tutors teaching the student's subjects) and publishes the top N per student to an off-heap
+ * {@link RecommendationStore}. A daily incremental run rescores only the students with new
+ * activity against the existing similarity model.
+ */
+@Service
+public class RecommendationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+    
+    // Interaction strength per student-tutor pair, summed over sessions and reviews
+    private static final String INTERACTIONS_SQL =
+            "SELECT student_id, tutor_id, SUM(weight) AS weight FROM (" +
+            " SELECT student_id, tutor_id, CASE status WHEN 'COMPLETED' THEN 3.0 WHEN 'CONFIRMED' THEN 2.0 ELSE 1.0 END AS weight" +
+            " FROM sessions WHERE status IN ('PENDING', 'CONFIRMED', 'COMPLETED') %1$s" +
+            " UNION ALL" +
+            " SELECT student_id, tutor_id, 3.0 FROM session_history WHERE status = 'COMPLETED' %1$s" +
+            " UNION ALL" +
+            " SELECT reviewer_id, reviewee_id, rating - 3.0 FROM reviews WHERE is_active = true %2$s" +
+            ") interactions GROUP BY student_id, tutor_id HAVING SUM(weight) > 0 " +
+            "ORDER BY student_id, tutor_id";
+    
+    private static final String STUDENT_SUBJECTS_SQL =
+            "SELECT us.user_id, us.subject_id FROM user_subjects us JOIN users u ON u.id = us.user_id " +
+            "WHERE u.role IN ('STUDENT', 'BOTH') AND u.is_active = true %s ORDER BY us.user_id";
+    
+    private static final String TUTOR_SUBJECTS_SQL =
+            "SELECT u.id, us.subject_id FROM users u LEFT JOIN user_subjects us ON us.user_id = u.id " +
+            "WHERE u.role IN ('TUTOR', 'BOTH') AND u.is_active = true ORDER BY u.id";
+    
+    private static final String CHANGED_STUDENTS_SQL =
+            "SELECT student_id FROM sessions WHERE created_at > :since OR updated_at > :since " +
+            "UNION SELECT reviewer_id FROM reviews WHERE created_at > :since OR updated_at > :since";
+    
+    private static final int ID_CHUNK = 1000;
+    
+    private static final int POPULAR_TUTORS = 100;
+    
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    
+    private final ForkJoinPool pool;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.recommendations.top-n:20}")
+    private int topN;
+    
+    @Value("${peerly.recommendations.neighbours:50}")
+    private int neighbours;
+    
+    @Value("${peerly.recommendations.subject-weight:1.0}")
+    private float subjectWeight;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    private TransactionTemplate readTransaction;
+    
+    private volatile Model model;
+    
+    private volatile RecommendationStore store;
+    
+    public RecommendationService(DataSource dataSource,
+                                 @Value("${peerly.recommendations.fetch-size:5000}") int fetchSize,
+                                 @Value("${peerly.recommendations.parallelism:0}") int parallelism) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        meterRegistry.gauge("peerly.recommendations.offheap.bytes", this,
+                service -> service.store == null ? 0 : service.store.offHeapBytes());
+        meterRegistry.gauge("peerly.recommendations.students", this,
+                service -> service.store == null ? 0 : service.store.size());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Get tutor recommendations for a student; falls back to the most popular tutors
+     * @param studentId Student ID
+     * @param limit Maximum number of recommendations
+     * @return Recommended tutors, best match first
+     */
+    public List<TutorRecommendation> getRecommendations(Long studentId, int limit) {
+        RecommendationStore currentStore = store;
+        Model currentModel = model;
+        if (currentStore == null || currentModel == null) {
+            return List.of();
+        }
+    
+        int n = Math.max(1, Math.min(limit, currentStore.slotsPerStudent()));
+        long[] tutorIds = new long[n];
+        float[] scores = new float[n];
+        int count = currentStore.get(studentId, tutorIds, scores);
+        if (count <= 0) {
+            count = 0;
+            for (int i = 0; i < currentModel.popular().length && count < n; i++) {
+                long tutorId = currentModel.tutorIds()[currentModel.popular()[i]];
+                if (tutorId != studentId) {
+                    tutorIds[count] = tutorId;
+                    scores[count++] = 0f;
+                }
+            }
+        }
+    
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(tutorIds[i]);
+        }
+        Map<Long, User> tutors = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    
+        List<TutorRecommendation> recommendations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User tutor = tutors.get(tutorIds[i]);
+            if (tutor != null && Boolean.TRUE.equals(tutor.getIsActive())) {
+                recommendations.add(new TutorRecommendation(tutor.getId(), tutor.getName(), tutor.getHourlyRate(),
+                        tutor.getExperienceYears(), scores[i]));
+            }
+        }
+        return recommendations;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofPlatform().name("recommendations-bootstrap").daemon().start(this::rebuildAll);
+    }
+    
+    /**
+     * Full rebuild: reload all interactions, recompute tutor similarity and every student's top N
+     */
+    @Scheduled(cron = "${peerly.recommendations.full-cron:0 0 2 * * *}")
+    public void rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime startedAt = LocalDateTime.now();
+    
+            Interactions interactions = loadInteractions(null);
+            Map<Long, long[]> studentSubjects = loadStudentSubjects(null);
+            Model next = buildModel(interactions, startedAt);
+    
+            long[] studentIds = LongStream.concat(Arrays.stream(interactions.studentIds),
+                            studentSubjects.keySet().stream().mapToLong(Long::longValue))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            RecommendationStore nextStore = RecommendationStore.allocate(studentIds, topN);
+    
+            runParallel(studentIds.length, () -> new Scratch(next.tutorIds().length, topN), (scratch, index) -> {
+                long studentId = studentIds[index];
+                score(next, interactions, studentId, studentSubjects.get(studentId), scratch);
+                nextStore.put(index, scratch.topIds, scratch.topScores, scratch.topCount);
+            });
+    
+            model = next;
+            store = nextStore;
+            meterRegistry.timer("peerly.recommendations.build", "mode", "full")
+                    .record(Duration.ofMillis(System.currentTimeMillis() - start));
+            log.info("Recommendations rebuilt for {} students over {} tutors in {} ms",
+                    studentIds.length, next.tutorIds().length, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Recommendation rebuild failed, keeping the previous model", e);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Incremental update: rescore students with sessions or reviews since the last run
+     * against the current similarity model. New tutors are picked up by the next full rebuild.
+     */
+    @Scheduled(cron = "${peerly.recommendations.incremental-cron:0 0 13 * * *}")
+    public void updateIncremental() {
+        Model current = model;
+        RecommendationStore currentStore = store;
+        if (current == null || currentStore == null) {
+            rebuildAll();
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime startedAt = LocalDateTime.now();
+    
+            List<Long> changed = readTransaction.execute(status -> streamingJdbcTemplate.queryForList(CHANGED_STUDENTS_SQL,
+                    new MapSqlParameterSource("since", Timestamp.valueOf(current.builtAt())), Long.class));
+            if (changed == null || changed.isEmpty()) {
+                model = current.withBuiltAt(startedAt);
+                return;
+            }
+    
+            Interactions interactions = loadInteractions(changed);
+            Map<Long, long[]> studentSubjects = loadStudentSubjects(changed);
+            long[] changedIds = changed.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+            Scratch scratch = new Scratch(current.tutorIds().length, topN);
+    
+            store = RecommendationStore.merge(currentStore, changedIds, (nextStore, index, studentId) -> {
+                score(current, interactions, studentId, studentSubjects.get(studentId), scratch);
+                nextStore.put(index, scratch.topIds, scratch.topScores, scratch.topCount);
+            });
+            model = current.withBuiltAt(startedAt);
+            meterRegistry.timer("peerly.recommendations.build", "mode", "incremental")
+                    .record(Duration.ofMillis(System.currentTimeMillis() - start));
+            log.info("Recommendations updated for {} students in {} ms", changedIds.length, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Incremental recommendation update failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private Model buildModel(Interactions interactions, LocalDateTime builtAt) {
+        // Active tutor catalog; a tutor's dense index is its position in the sorted ID array
+        LongList tutorList = new LongList();
+        Map<Long, LongList> subjectTutors = new HashMap<>();
+        readTransaction.executeWithoutResult(status -> streamingJdbcTemplate.getJdbcTemplate().query(TUTOR_SUBJECTS_SQL, rs -> {
+            long tutorId = rs.getLong(1);
+            if (tutorList.size() == 0 || tutorList.last() != tutorId) {
+                tutorList.add(tutorId);
+            }
+            long subjectId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                subjectTutors.computeIfAbsent(subjectId, id -> new LongList()).add(tutorId);
+            }
+        }));
+        long[] tutorIds = tutorList.toArray();
+        int tutors = tutorIds.length;
+    
+        Map<Long, int[]> tutorsBySubject = new HashMap<>();
+        subjectTutors.forEach((subjectId, ids) -> tutorsBySubject.put(subjectId,
+                Arrays.stream(ids.toArray()).mapToInt(id -> Arrays.binarySearch(tutorIds, id)).toArray()));
+    
+        // Column view (tutor -> students) of the interaction matrix, restricted to active tutors
+        int entries = interactions.tutorIds().length;
+        int[] entryTutor = new int[entries];
+        int[] columnStart = new int[tutors + 1];
+        for (int k = 0; k < entries; k++) {
+            entryTutor[k] = Arrays.binarySearch(tutorIds, interactions.tutorIds()[k]);
+            if (entryTutor[k] >= 0) {
+                columnStart[entryTutor[k] + 1]++;
+            }
+        }
+        for (int t = 0; t < tutors; t++) {
+            columnStart[t + 1] += columnStart[t];
+        }
+        int[] columnRow = new int[columnStart[tutors]];
+        float[] columnWeight = new float[columnStart[tutors]];
+        int[] fill = Arrays.copyOf(columnStart, tutors);
+        float[] norm = new float[tutors];
+        float[] mass = new float[tutors];
+        int[] rowStart = interactions.rowStart();
+        for (int row = 0; row < interactions.studentIds().length; row++) {
+            for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                int t = entryTutor[k];
+                if (t >= 0) {
+                    float w = interactions.weights()[k];
+                    columnRow[fill[t]] = row;
+                    columnWeight[fill[t]++] = w;
+                    norm[t] += w * w;
+                    mass[t] += w;
+                }
+            }
+        }
+        for (int t = 0; t < tutors; t++) {
+            norm[t] = (float) Math.sqrt(norm[t]);
+        }
+    
+        // Cosine similarity to every tutor sharing a student, keeping the top neighbours
+        int[] neighbourCount = new int[tutors];
+        int[] neighbourIdx = new int[tutors * neighbours];
+        float[] neighbourSim = new float[tutors * neighbours];
+        runParallel(tutors, () -> new Scratch(tutors, neighbours), (scratch, a) -> {
+            scratch.clear();
+            for (int c = columnStart[a]; c < columnStart[a + 1]; c++) {
+                int row = columnRow[c];
+                float wa = columnWeight[c];
+                for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                    int b = entryTutor[k];
+                    if (b >= 0 && b != a) {
+                        scratch.add(b, wa * interactions.weights()[k]);
+                    }
+                }
+            }
+            for (int i = 0; i < scratch.touchedCount; i++) {
+                int b = scratch.touched[i];
+                scratch.offer(b, scratch.acc[b] / (norm[a] * norm[b]));
+            }
+            neighbourCount[a] = scratch.drain(neighbourIdx, neighbourSim, a * neighbours);
+        });
+    
+        int[] popular = IntStream.range(0, tutors).boxed()
+                .sorted((x, y) -> Float.compare(mass[y], mass[x]))
+                .limit(POPULAR_TUTORS)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return new Model(tutorIds, neighbours, neighbourCount, neighbourIdx, neighbourSim, tutorsBySubject, popular, builtAt);
+    }
+    
+    private void score(Model model, Interactions interactions, long studentId, long[] subjects, Scratch scratch) {
+        scratch.clear();
+        int row = Arrays.binarySearch(interactions.studentIds(), studentId);
+        int stride = model.neighbours();
+        if (row >= 0) {
+            for (int k = interactions.rowStart()[row]; k < interactions.rowStart()[row + 1]; k++) {
+                int t = Arrays.binarySearch(model.tutorIds(), interactions.tutorIds()[k]);
+                if (t < 0) {
+                    continue;
+                }
+                float w = interactions.weights()[k];
+                for (int j = 0; j < model.neighbourCount()[t]; j++) {
+                    scratch.add(model.neighbourIdx()[t * stride + j], w * model.neighbourSim()[t * stride + j]);
+                }
+            }
+        }
+        if (subjects != null && subjects.length > 0) {
+            float bonus = subjectWeight / subjects.length;
+            for (long subjectId : subjects) {
+                int[] teaching = model.tutorsBySubject().get(subjectId);
+                if (teaching != null) {
+                    for (int t : teaching) {
+                        scratch.add(t, bonus);
+                    }
+                }
+            }
+        }
+    
+        // Never recommend tutors the student already works with, or the student themself
+        if (row >= 0) {
+            for (int k = interactions.rowStart()[row]; k < interactions.rowStart()[row + 1]; k++) {
+                scratch.exclude(Arrays.binarySearch(model.tutorIds(), interactions.tutorIds()[k]));
+            }
+        }
+        scratch.exclude(Arrays.binarySearch(model.tutorIds(), studentId));
+    
+        for (int i = 0; i < scratch.touchedCount; i++) {
+            int t = scratch.touched[i];
+            if (scratch.acc[t] > 0) {
+                scratch.offer(t, scratch.acc[t]);
+            }
+        }
+        scratch.topCount = scratch.drain(scratch.topIdx, scratch.topScores, 0);
+        for (int i = 0; i < scratch.topCount; i++) {
+            scratch.topIds[i] = model.tutorIds()[scratch.topIdx[i]];
+        }
+    }
+    
+    private Interactions loadInteractions(List<Long> studentIds) {
+        LongList students = new LongList();
+        IntList rowStart = new IntList();
+        LongList tutors = new LongList();
+        FloatList weights = new FloatList();
+        RowCallbackHandler handler = rs -> {
+            long studentId = rs.getLong(1);
+            if (students.size() == 0 || students.last() != studentId) {
+                students.add(studentId);
+                rowStart.add(tutors.size());
+            }
+            tutors.add(rs.getLong(2));
+            weights.add(rs.getFloat(3));
+        };
+    
+        readTransaction.executeWithoutResult(status -> {
+            if (studentIds == null) {
+                streamingJdbcTemplate.getJdbcTemplate().query(String.format(INTERACTIONS_SQL, "", ""), handler);
+            } else {
+                String sql = String.format(INTERACTIONS_SQL, "AND student_id IN (:ids)", "AND reviewer_id IN (:ids)");
+                for (List<Long> chunk : sortedChunks(studentIds)) {
+                    streamingJdbcTemplate.query(sql, new MapSqlParameterSource("ids", chunk), handler);
+                }
+            }
+        });
+        rowStart.add(tutors.size());
+        return new Interactions(students.toArray(), rowStart.toArray(), tutors.toArray(), weights.toArray());
+    }
+    
+    private Map<Long, long[]> loadStudentSubjects(List<Long> studentIds) {
+        Map<Long, LongList> subjects = new HashMap<>();
+        RowCallbackHandler handler = rs ->
+                subjects.computeIfAbsent(rs.getLong(1), id -> new LongList()).add(rs.getLong(2));
+    
+        readTransaction.executeWithoutResult(status -> {
+            if (studentIds == null) {
+                streamingJdbcTemplate.getJdbcTemplate().query(String.format(STUDENT_SUBJECTS_SQL, ""), handler);
+            } else {
+                String sql = String.format(STUDENT_SUBJECTS_SQL, "AND us.user_id IN (:ids)");
+                for (List<Long> chunk : sortedChunks(studentIds)) {
+                    streamingJdbcTemplate.query(sql, new MapSqlParameterSource("ids", chunk), handler);
+                }
+            }
+        });
+    
+        Map<Long, long[]> result = new HashMap<>(subjects.size() * 2);
+        subjects.forEach((studentId, ids) -> result.put(studentId, ids.toArray()));
+        return result;
+    }
+    
+    private static List<List<Long>> sortedChunks(List<Long> ids) {
+        List<Long> sorted = ids.stream().distinct().sorted().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i += ID_CHUNK) {
+            chunks.add(sorted.subList(i, Math.min(sorted.size(), i + ID_CHUNK)));
+        }
+        return chunks;
+    }
+    
+    private void runParallel(int n, Supplier<Scratch> scratchFactory, ScratchTask task) {
+        ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(scratchFactory);
+        try {
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> task.run(scratches.get(), i))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Recommendation batch interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Recommendation batch failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ScratchTask {
+        void run(Scratch scratch, int index);
+    }
+    
+    // CSR interaction matrix: row i holds entries rowStart[i] until rowStart[i + 1]
+    private record Interactions(long[] studentIds, int[] rowStart, long[] tutorIds, float[] weights) {
+    }
+    
+    // Tutor neighbours are stored with a fixed stride of `neighbours` entries per tutor
+    private record Model(long[] tutorIds, int neighbours, int[] neighbourCount, int[] neighbourIdx, float[] neighbourSim,
+                         Map<Long, int[]> tutorsBySubject, int[] popular, LocalDateTime builtAt) {
+        Model withBuiltAt(LocalDateTime time) {
+            return new Model(tutorIds, neighbours, neighbourCount, neighbourIdx, neighbourSim, tutorsBySubject, popular, time);
+        }
+    }
+    
+    /**
+     * Per-thread working memory: a dense score accumulator with a touched list for cheap
+     * resets, and a bounded min-heap for top-K selection.
+     */
+    private static final class Scratch {
+        final float[] acc;
+        final int[] touched;
+        int touchedCount;
+        final int[] heapIdx;
+        final float[] heapScore;
+        int heapSize;
+        final int[] topIdx;
+        final long[] topIds;
+        final float[] topScores;
+        int topCount;
+    
+        Scratch(int tutors, int capacity) {
+            acc = new float[tutors];
+            touched = new int[tutors];
+            heapIdx = new int[capacity];
+            heapScore = new float[capacity];
+            topIdx = new int[capacity];
+            topIds = new long[capacity];
+            topScores = new float[capacity];
+        }
+    
+        void clear() {
+            for (int i = 0; i < touchedCount; i++) {
+                acc[touched[i]] = 0f;
+            }
+            touchedCount = 0;
+            heapSize = 0;
+            topCount = 0;
+        }
+    
+        // Contributions are always positive, so zero means "not touched yet"
+        void add(int t, float value) {
+            if (acc[t] == 0f) {
+                touched[touchedCount++] = t;
+            }
+            acc[t] += value;
+        }
+    
+        void exclude(int t) {
+            if (t >= 0 && acc[t] > 0f) {
+                acc[t] = -1f;
+            }
+        }
+    
+        void offer(int idx, float score) {
+            if (heapSize < heapIdx.length) {
+                int i = heapSize++;
+                while (i > 0 && heapScore[(i - 1) / 2] > score) {
+                    heapIdx[i] = heapIdx[(i - 1) / 2];
+                    heapScore[i] = heapScore[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heapIdx[i] = idx;
+                heapScore[i] = score;
+            } else if (heapIdx.length > 0 && score > heapScore[0]) {
+                siftDown(idx, score);
+            }
+        }
+    
+        // Empties the heap into out, best first; returns the number of entries
+        int drain(int[] outIdx, float[] outScore, int offset) {
+            int n = heapSize;
+            for (int i = n - 1; i >= 0; i--) {
+                outIdx[offset + i] = heapIdx[0];
+                outScore[offset + i] = heapScore[0];
+                heapSize--;
+                if (heapSize > 0) {
+                    siftDown(heapIdx[heapSize], heapScore[heapSize]);
+                }
+            }
+            return n;
+        }
+    
+        private void siftDown(int idx, float score) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapScore[child + 1] < heapScore[child]) {
+                    child++;
+                }
+                if (heapScore[child] >= score) {
+                    break;
+                }
+                heapIdx[i] = heapIdx[child];
+                heapScore[i] = heapScore[child];
+                i = child;
+            }
+            heapIdx[i] = idx;
+            heapScore[i] = score;
+        }
+    }
+    
+    private static final class LongList {
+        private long[] values = new long[256];
+        private int size;
+    
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    
+        long last() {
+            return values[size - 1];
+        }
+    
+        int size() {
+            return size;
+        }
+    
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+    
+    private static final class IntList {
+        private int[] values = new int[256];
+        private int size;
+    
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+    
+    private static final class FloatList {
+        private float[] values = new float[256];
+        private int size;
+    
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    
+        float[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.peerly.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable-once-published, off-heap table of top-N tutor recommendations per student.
+ * An open-addressing hash table maps a student ID to a fixed-width record, so a lookup is
+ * one probe sequence plus one record read and the scores never touch the Java heap.
+ * Records are written by index from the batch threads (disjoint regions, absolute puts)
+ * before the store is published.
+ */
+final class RecommendationStore {
+    
+    private static final int TABLE_ENTRY_BYTES = Long.BYTES + Integer.BYTES; // student ID, record index
+    private static final int ITEM_BYTES = Long.BYTES + Float.BYTES; // tutor ID, score
+    
+    private final long[] studentIds; // Record index -> student ID
+    private final int slotsPerStudent;
+    private final int recordBytes;
+    private final int mask;
+    private final ByteBuffer table;
+    private final ByteBuffer records;
+    
+    private RecommendationStore(long[] studentIds, int slotsPerStudent) {
+        this.studentIds = studentIds;
+        this.slotsPerStudent = slotsPerStudent;
+        this.recordBytes = Integer.BYTES + slotsPerStudent * ITEM_BYTES;
+    
+        // Power-of-two capacity at a load factor of at most 0.5
+        int capacity = Integer.highestOneBit(Math.max(2, studentIds.length) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.table = ByteBuffer.allocateDirect(capacity * TABLE_ENTRY_BYTES);
+        this.records = ByteBuffer.allocateDirect(Math.max(1, studentIds.length) * recordBytes);
+    
+        for (int index = 0; index < studentIds.length; index++) {
+            int slot = slot(studentIds[index]);
+            while (table.getLong(slot * TABLE_ENTRY_BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.putLong(slot * TABLE_ENTRY_BYTES, studentIds[index]);
+            table.putInt(slot * TABLE_ENTRY_BYTES + Long.BYTES, index);
+        }
+    }
+    
+    /**
+     * Allocate an empty store for a fixed set of students
+     * @param studentIds Distinct, positive student IDs; position is the record index
+     * @param slotsPerStudent Maximum recommendations kept per student
+     */
+    static RecommendationStore allocate(long[] studentIds, int slotsPerStudent) {
+        return new RecommendationStore(studentIds, slotsPerStudent);
+    }
+    
+    /**
+     * New store with the given students' records replaced and all other records copied over
+     * @param previous Store to start from
+     * @param changedIds Students whose records are replaced (may include students not in previous)
+     * @param writer Writes the replaced records; called with the new store, record index and ID of each changed student
+     */
+    static RecommendationStore merge(RecommendationStore previous, long[] changedIds, RecordWriter writer) {
+        long[] merged = new long[previous.studentIds.length + changedIds.length];
+        System.arraycopy(previous.studentIds, 0, merged, 0, previous.studentIds.length);
+        int size = previous.studentIds.length;
+        for (long id : changedIds) {
+            if (previous.indexOf(id) < 0) {
+                merged[size++] = id;
+            }
+        }
+        RecommendationStore next = new RecommendationStore(Arrays.copyOf(merged, size), previous.slotsPerStudent);
+    
+        // Unchanged prefix keeps its record index, so records copy over in one block
+        ByteBuffer source = previous.records.duplicate();
+        source.position(0).limit(previous.studentIds.length * previous.recordBytes);
+        next.records.duplicate().put(source);
+        for (long id : changedIds) {
+            writer.write(next, next.indexOf(id), id);
+        }
+        return next;
+    }
+    
+    /**
+     * Write the recommendations of one student
+     * @param index Record index of the student
+     * @param tutorIds Tutor IDs, best first
+     * @param scores Matching scores
+     * @param count Number of valid entries (truncated to the slot count)
+     */
+    void put(int index, long[] tutorIds, float[] scores, int count) {
+        int n = Math.min(count, slotsPerStudent);
+        int base = index * recordBytes;
+        records.putInt(base, n);
+        for (int i = 0; i < n; i++) {
+            int offset = base + Integer.BYTES + i * ITEM_BYTES;
+            records.putLong(offset, tutorIds[i]);
+            records.putFloat(offset + Long.BYTES, scores[i]);
+        }
+    }
+    
+    /**
+     * Read the recommendations of a student
+     * @param studentId Student ID
+     * @param tutorIds Receives tutor IDs, best first
+     * @param scores Receives matching scores
+     * @return Number of entries written, or -1 if the student has no record
+     */
+    int get(long studentId, long[] tutorIds, float[] scores) {
+        int index = indexOf(studentId);
+        if (index < 0) {
+            return -1;
+        }
+        int base = index * recordBytes;
+        int n = Math.min(records.getInt(base), Math.min(tutorIds.length, scores.length));
+        for (int i = 0; i < n; i++) {
+            int offset = base + Integer.BYTES + i * ITEM_BYTES;
+            tutorIds[i] = records.getLong(offset);
+            scores[i] = records.getFloat(offset + Long.BYTES);
+        }
+        return n;
+    }
+    
+    int indexOf(long studentId) {
+        int slot = slot(studentId);
+        long key;
+        while ((key = table.getLong(slot * TABLE_ENTRY_BYTES)) != 0) {
+            if (key == studentId) {
+                return table.getInt(slot * TABLE_ENTRY_BYTES + Long.BYTES);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    int size() {
+        return studentIds.length;
+    }
+    
+    int slotsPerStudent() {
+        return slotsPerStudent;
+    }
+    
+    long offHeapBytes() {
+        return (long) table.capacity() + records.capacity();
+    }
+    
+    private int slot(long studentId) {
+        long h = studentId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    @FunctionalInterface
+    interface RecordWriter {
+        void write(RecommendationStore store, int index, long studentId);
+    }
+}
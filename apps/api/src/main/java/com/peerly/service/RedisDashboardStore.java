@@ -0,0 +1,122 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.DashboardSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shared dashboard store so every API instance serves the same snapshot. Conditional writes
+ * run as Lua scripts, so each check and write is atomic across instances; a per-user
+ * generation key, bumped by every replace and remove, lets a rebuild detect a racing change.
+ * Enabled with peerly.dashboard.redis.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "peerly.dashboard.redis.enabled", havingValue = "true")
+public class RedisDashboardStore implements DashboardStore {
+    
+    private static final String PREFIX = "peerly:dash:";
+    private static final String GENERATION_PREFIX = "peerly:dash:gen:";
+    
+    // KEYS: snapshot, generation; ARGV: expected generation, snapshot JSON, TTL in ms
+    private static final RedisScript<Long> SAVE_IF_GENERATION = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+    
+    // KEYS: snapshot, generation; ARGV: expected version, snapshot JSON, TTL in ms, generation TTL in ms
+    private static final RedisScript<Long> REPLACE = RedisScript.of("""
+            local current = redis.call('GET', KEYS[1])
+            if not current or cjson.decode(current)['version'] ~= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            return 1
+            """, Long.class);
+    
+    // KEYS: snapshot, generation; ARGV: generation TTL in ms
+    private static final RedisScript<Long> REMOVE = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${peerly.dashboard.ttl:PT1H}")
+    private Duration ttl;
+    
+    @Override
+    public Optional<DashboardSnapshot> find(Long userId) {
+        String json = redisTemplate.opsForValue().get(PREFIX + userId);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, DashboardSnapshot.class));
+        } catch (JsonProcessingException e) {
+            remove(userId);
+            return Optional.empty();
+        }
+    }
+    
+    @Override
+    public long generation(Long userId) {
+        String generation = redisTemplate.opsForValue().get(GENERATION_PREFIX + userId);
+        return generation == null ? 0 : Long.parseLong(generation);
+    }
+    
+    @Override
+    public boolean saveIfGeneration(DashboardSnapshot snapshot, long generation, Duration ttl) {
+        return run(SAVE_IF_GENERATION, snapshot.getUserId(),
+                String.valueOf(generation), toJson(snapshot), String.valueOf(ttl.toMillis()));
+    }
+    
+    @Override
+    public boolean replace(DashboardSnapshot snapshot, long expectedVersion, Duration ttl) {
+        return run(REPLACE, snapshot.getUserId(), String.valueOf(expectedVersion), toJson(snapshot),
+                String.valueOf(ttl.toMillis()), String.valueOf(generationTtl().toMillis()));
+    }
+    
+    @Override
+    public void remove(Long userId) {
+        run(REMOVE, userId, String.valueOf(generationTtl().toMillis()));
+    }
+    
+    private boolean run(RedisScript<Long> script, Long userId, String... args) {
+        Long result = redisTemplate.execute(script, List.of(PREFIX + userId, GENERATION_PREFIX + userId), (Object[]) args);
+        return result != null && result == 1;
+    }
+    
+    // Outlives the snapshot, so a generation cannot reset to a value a rebuild in flight has already read
+    private Duration generationTtl() {
+        return ttl.multipliedBy(2);
+    }
+    
+    private String toJson(DashboardSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to store dashboard snapshot: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.BulkImportCompletedEvent;
+import com.peerly.dto.EntityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Fans committed entity changes and bulk imports out to the other API instances through a
+ * Redis pub/sub channel, where they are re-published in-process with remote set. Read models
+ * kept in memory (tutor directory, profile cache, dashboard balances, response cache, the
+ * second-level cache) then refresh on every instance, not only the one that took the write.
+ * Delivery is best-effort: an instance that misses a message catches up at its next reload or
+ * cache expiry. Enabled together with the outbox broker (peerly.outbox.broker.redis.enabled).
+ *
+ * Metrics:
+ *  peerly.entity_changes.broadcast - sent / received / failed
+ */
+@Component
+@ConditionalOnProperty(name = "peerly.outbox.broker.redis.enabled", havingValue = "true")
+public class RedisEntityChangeBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(RedisEntityChangeBroadcaster.class);
+    
+    private static final String ENTITY = "ENTITY";
+    private static final String BULK_IMPORT = "BULK_IMPORT";
+    
+    // Lets an instance ignore its own messages, which it has already handled in-process
+    private final String origin = UUID.randomUUID().toString();
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.outbox.broker.redis.entity-channel:peerly.entity-changes}")
+    private String channel;
+    
+    private RedisMessageListenerContainer container;
+    
+    @PostConstruct
+    void subscribe() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> dispatch(message), new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+    
+    @PreDestroy
+    void unsubscribe() throws Exception {
+        container.destroy();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!event.isRemote()) {
+            send(new Change(origin, ENTITY, event.getEntityType(), event.getEntityId(), event.getOwnerId(), 0));
+        }
+    }
+    
+    @EventListener
+    public void onBulkImport(BulkImportCompletedEvent event) {
+        if (!event.isRemote()) {
+            send(new Change(origin, BULK_IMPORT, event.getEntityType(), null, null, event.getImported()));
+        }
+    }
+    
+    // Runs after the commit, so a failure can only be logged; the write itself stands
+    private void send(Change change) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(change));
+            meterRegistry.counter("peerly.entity_changes.broadcast", "result", "sent").increment();
+        } catch (JsonProcessingException | RuntimeException e) {
+            meterRegistry.counter("peerly.entity_changes.broadcast", "result", "failed").increment();
+            log.warn("Failed to broadcast {} change {}: {}", change.entityType(), change.entityId(), e.getMessage());
+        }
+    }
+    
+    private void dispatch(Message message) {
+        Change change;
+        try {
+            change = objectMapper.readValue(message.getBody(), Change.class);
+        } catch (IOException e) {
+            log.error("Dropping unreadable entity change from {}: {}", channel, e.getMessage());
+            return;
+        }
+        if (origin.equals(change.origin())) {
+            return;
+        }
+        meterRegistry.counter("peerly.entity_changes.broadcast", "result", "received").increment();
+        try {
+            if (BULK_IMPORT.equals(change.kind())) {
+                eventPublisher.publishEvent(new BulkImportCompletedEvent(change.entityType(), change.imported(), true));
+            } else {
+                eventPublisher.publishEvent(new EntityChangedEvent(change.entityType(), change.entityId(), change.ownerId(), true));
+            }
+        } catch (RuntimeException e) {
+            log.error("Listener failed on remote {} change {}", change.entityType(), change.entityId(), e);
+        }
+    }
+    
+    private record Change(String origin, String kind, String entityType, Long entityId, Long ownerId, long imported) {
+    }
+}
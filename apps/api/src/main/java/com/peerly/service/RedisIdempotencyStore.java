@@ -0,0 +1,66 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Shared idempotency tier so retries that land on another API instance are still deduplicated.
+ * Enabled with peerly.idempotency.redis.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "peerly.idempotency.redis.enabled", havingValue = "true")
+public class RedisIdempotencyStore implements IdempotencyStore {
+    
+    private static final String RESPONSE_PREFIX = "peerly:idem:resp:";
+    private static final String LOCK_PREFIX = "peerly:idem:lock:";
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        String json = redisTemplate.opsForValue().get(RESPONSE_PREFIX + key);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, IdempotentResponse.class));
+        } catch (JsonProcessingException e) {
+            redisTemplate.delete(RESPONSE_PREFIX + key);
+            return Optional.empty();
+        }
+    }
+    
+    @Override
+    public boolean tryReserve(String key, Duration ttl) {
+        Boolean reserved = redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + key, "1", ttl);
+        return Boolean.TRUE.equals(reserved);
+    }
+    
+    @Override
+    public void complete(String key, IdempotentResponse response, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(RESPONSE_PREFIX + key, objectMapper.writeValueAsString(response), ttl);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to store idempotent response: " + e.getMessage());
+        } finally {
+            redisTemplate.delete(LOCK_PREFIX + key);
+        }
+    }
+    
+    @Override
+    public void release(String key) {
+        redisTemplate.delete(LOCK_PREFIX + key);
+    }
+}
@@ -0,0 +1,95 @@
+package com.peerly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peerly.dto.DomainEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Publishes outbox events to a Redis pub/sub channel and hands every event received on it to
+ * this instance's in-process listeners.
+ * Enabled with peerly.outbox.broker.redis.enabled=true; needed whenever more than one instance runs.
+ */
+@Component
+@ConditionalOnProperty(name = "peerly.outbox.broker.redis.enabled", havingValue = "true")
+public class RedisOutboxBroker implements OutboxBroker {
+    
+    private static final Logger log = LoggerFactory.getLogger(RedisOutboxBroker.class);
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.outbox.broker.redis.channel:peerly.events}")
+    private String channel;
+    
+    private RedisMessageListenerContainer container;
+    
+    @PostConstruct
+    void subscribe() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> dispatch(message), new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+    
+    @PreDestroy
+    void unsubscribe() throws Exception {
+        container.destroy();
+    }
+    
+    @Override
+    public void publish(DomainEvent event) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize event " + event.getId() + ": " + e.getMessage());
+        }
+    }
+    
+    // The event is already marked published, so a failing listener is logged rather than retried
+    private void dispatch(Message message) {
+        DomainEvent event;
+        try {
+            event = objectMapper.readValue(message.getBody(), DomainEvent.class);
+        } catch (IOException e) {
+            meterRegistry.counter("peerly.outbox.dispatch_failed").increment();
+            log.error("Dropping unreadable event from {}: {}", channel, e.getMessage());
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("peerly.outbox.dispatch_failed").increment();
+            log.error("Listener failed on event {} ({})", event.getId(), event.getEventType(), e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.peerly.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent lookups of the same IDs into one query.
+ * Each caller registers a future for every ID nobody is loading yet and loads exactly those
+ * (in IN-list sized chunks); IDs already in flight are awaited instead of queried again.
+ * A caller loads its own IDs before waiting on anyone else's, so callers cannot wait on each other in a cycle.
+ * Nothing is cached once a load finishes. Callers that must not see another caller's load
+ * (e.g. one that read a replica behind their consistency token) use loadAlone().
+ * @param <V> Loaded value; shared between callers, so it must be immutable or a copy
+ */
+public class RequestCoalescer<V> {
+    
+    private final Map<Long, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    private final Function<List<Long>, Map<Long, V>> loader;
+    
+    private final int chunkSize;
+    
+    private final Counter queriedIds;
+    
+    private final Counter coalescedIds;
+    
+    /**
+     * @param name Metric tag identifying the lookup
+     * @param chunkSize Maximum IDs per query
+     * @param loader Loads a chunk of IDs; missing IDs are simply absent from the result
+     * @param meterRegistry Registry for the queried/coalesced ID counters
+     */
+    public RequestCoalescer(String name, int chunkSize, Function<List<Long>, Map<Long, V>> loader, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.chunkSize = chunkSize;
+        this.queriedIds = meterRegistry.counter("peerly.batch.ids", "lookup", name, "result", "queried");
+        this.coalescedIds = meterRegistry.counter("peerly.batch.ids", "lookup", name, "result", "coalesced");
+    }
+    
+    /**
+     * Load values by ID without sharing: neither waits on loads in flight nor lets others wait on this one
+     * @param ids IDs to load; duplicates are ignored
+     * @return Found values keyed by ID, in request order
+     */
+    public Map<Long, V> loadAlone(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, V> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            found.putAll(loader.apply(chunk));
+            queriedIds.increment(chunk.size());
+        }
+        Map<Long, V> result = new LinkedHashMap<>();
+        for (Long id : distinct) {
+            V value = found.get(id);
+            if (value != null) {
+                result.put(id, value);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Load values by ID
+     * @param ids IDs to load; duplicates are ignored
+     * @return Found values keyed by ID, in request order
+     */
+    public Map<Long, V> load(Collection<Long> ids) {
+        Map<Long, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        List<Long> owned = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(id, mine);
+            if (existing == null) {
+                owned.add(id);
+                futures.put(id, mine);
+            } else {
+                coalescedIds.increment();
+                futures.put(id, existing);
+            }
+        }
+    
+        try {
+            for (int from = 0; from < owned.size(); from += chunkSize) {
+                List<Long> chunk = owned.subList(from, Math.min(from + chunkSize, owned.size()));
+                Map<Long, V> found = loader.apply(chunk);
+                queriedIds.increment(chunk.size());
+                for (Long id : chunk) {
+                    futures.get(id).complete(found.get(id));
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            for (Long id : owned) {
+                futures.get(id).completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            for (Long id : owned) {
+                inFlight.remove(id, futures.get(id));
+            }
+        }
+    
+        Map<Long, V> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, CompletableFuture<V>> entry : futures.entrySet()) {
+            V value;
+            try {
+                value = entry.getValue().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            if (value != null) {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package com.peerly.service;
+
+import com.peerly.dto.BulkImportCompletedEvent;
+import com.peerly.dto.EntityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version fingerprints of whole tables, used as the basis of HTTP ETags.
+ * A fingerprint combines the row count, the highest ID (IDs are never reused, so any insert
+ * moves it) and the sum of the optimistic-lock versions (every JPA update bumps one), so it
+ * changes with every insert, update and delete. Fingerprints are cached briefly and dropped
+ * as soon as a local write to the table commits; writes made on other instances or outside
+ * JPA are picked up when the cached value expires.
+ */
+@Service
+public class ResourceVersionService {
+    
+    public static final String USERS = "users";
+    public static final String SUBJECTS = "subjects";
+    public static final String SUBTOPICS = "subtopics";
+    public static final String REVIEWS = "reviews";
+    
+    private static final Map<String, String> TABLES_BY_ENTITY_TYPE = Map.of(
+            EntityChangedEvent.USER, USERS,
+            EntityChangedEvent.SUBJECT, SUBJECTS,
+            EntityChangedEvent.SUBTOPIC, SUBTOPICS,
+            EntityChangedEvent.REVIEW, REVIEWS);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.http.etag.fingerprint-ttl:PT2S}")
+    private Duration fingerprintTtl;
+    
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+    
+    // Bumped on every invalidation so a fingerprint computed before a commit is not cached after it
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    
+    /**
+     * Get the current version fingerprint of a table
+     * @param table One of the table constants
+     * @return Fingerprint that changes whenever a row of the table is inserted, updated or deleted
+     */
+    public String fingerprint(String table) {
+        if (!TABLES_BY_ENTITY_TYPE.containsValue(table)) {
+            throw new IllegalArgumentException("No version fingerprint for table: " + table);
+        }
+        long now = System.currentTimeMillis();
+        Fingerprint cached = fingerprints.get(table);
+        if (cached != null && cached.expiresAt() > now) {
+            meterRegistry.counter("peerly.etag.fingerprints", "result", "hit").increment();
+            return cached.value();
+        }
+        meterRegistry.counter("peerly.etag.fingerprints", "result", "miss").increment();
+    
+        AtomicLong generation = generations.computeIfAbsent(table, t -> new AtomicLong());
+        long before = generation.get();
+        String value = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) || '.' || COALESCE(MAX(id), 0) || '.' || COALESCE(SUM(version), 0) FROM " + table,
+                String.class);
+        Fingerprint loaded = new Fingerprint(value, now + fingerprintTtl.toMillis());
+        fingerprints.compute(table, (t, current) -> generation.get() == before ? loaded : current);
+        return value;
+    }
+    
+    /**
+     * Get the table an entity change affects
+     * @param entityType EntityChangedEvent entity type
+     * @return Table constant, or null if the entity type has no fingerprint
+     */
+    public static String tableOf(String entityType) {
+        return TABLES_BY_ENTITY_TYPE.get(entityType);
+    }
+    
+    /**
+     * Drop the cached fingerprint of a table after a committed write
+     * @param event Entity change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(tableOf(event.getEntityType()));
+    }
+    
+    @EventListener
+    public void onBulkImport(BulkImportCompletedEvent event) {
+        invalidate(tableOf(event.getEntityType()));
+    }
+    
+    private void invalidate(String table) {
+        if (table == null) {
+            return;
+        }
+        generations.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+        fingerprints.remove(table);
+    }
+    
+    private record Fingerprint(String value, long expiresAt) {
+    }
+}
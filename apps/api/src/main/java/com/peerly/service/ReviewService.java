@@ -6,6 +6,7 @@ import com.peerly.repository.ReviewRepository;
 import com.peerly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +21,9 @@ public class ReviewService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+    
 
     
     /**
@@ -27,6 +31,7 @@ public class ReviewService {
      * @param id Review ID
      * @return Optional review
      */
+    @Transactional(readOnly = true)
     public Optional<Review> getReviewById(Long id) {
         return reviewRepository.findById(id);
     }
@@ -87,27 +92,30 @@ public class ReviewService {
      * @return Updated review
      */
     public Review updateReview(Long id, Review reviewDetails) {
-        Review review = reviewRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
-        
         // Validate rating
         if (reviewDetails.getRating() != null && (reviewDetails.getRating() < 1 || reviewDetails.getRating() > 5)) {
             throw new RuntimeException("Rating must be between 1 and 5");
         }
         
-        if (reviewDetails.getRating() != null) {
-            review.setRating(reviewDetails.getRating());
-        }
-        if (reviewDetails.getComment() != null) {
-            review.setComment(reviewDetails.getComment());
-        }
-        if (reviewDetails.getSubject() != null) {
-            review.setSubject(reviewDetails.getSubject());
-        }
-        
-        review.setUpdatedAt(LocalDateTime.now());
-        
-        return reviewRepository.save(review);
+        return retryExecutor.execute("review.update", () -> {
+            Review review = reviewRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
+            retryExecutor.checkVersion("review.update", reviewDetails.getVersion(), review.getVersion());
+            
+            if (reviewDetails.getRating() != null) {
+                review.setRating(reviewDetails.getRating());
+            }
+            if (reviewDetails.getComment() != null) {
+                review.setComment(reviewDetails.getComment());
+            }
+            if (reviewDetails.getSubject() != null) {
+                review.setSubject(reviewDetails.getSubject());
+            }
+            
+            review.setUpdatedAt(LocalDateTime.now());
+            
+            return reviewRepository.save(review);
+        });
     }
     
     /**
@@ -116,13 +124,15 @@ public class ReviewService {
      * @return Updated review
      */
     public Review deleteReview(Long id) {
-        Review review = reviewRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
-        
-        review.setIsActive(false);
-        review.setUpdatedAt(LocalDateTime.now());
-        
-        return reviewRepository.save(review);
+        return retryExecutor.execute("review.delete", () -> {
+            Review review = reviewRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
+            
+            review.setIsActive(false);
+            review.setUpdatedAt(LocalDateTime.now());
+            
+            return reviewRepository.save(review);
+        });
     }
     
     /**
@@ -130,22 +140,27 @@ public class ReviewService {
      * @param userId User ID
      * @return List of high-rated reviews
      */
+    @Transactional(readOnly = true)
     public List<Review> getHighRatedReviewsForUser(Long userId) {
         return reviewRepository.findReviewsAboveRating(userId, 4);
     }
 
+    @Transactional(readOnly = true)
     public List<Review> getReviewsForTutor(Long tutorId) {
         return reviewRepository.findByRevieweeId(tutorId);
     }
 
+    @Transactional(readOnly = true)
     public List<Review> getReviewsByStudent(Long studentId) {
         return reviewRepository.findByReviewerId(studentId);
     }
 
+    @Transactional(readOnly = true)
     public Double getAverageRatingForTutor(Long tutorId) {
         return reviewRepository.findAverageRatingByTutorId(tutorId);
     }
 
+    @Transactional(readOnly = true)
     public Long getReviewCountForTutor(Long tutorId) {
         return reviewRepository.countByTutorId(tutorId);
     }
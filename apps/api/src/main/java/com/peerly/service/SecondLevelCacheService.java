@@ -0,0 +1,148 @@
+package com.peerly.service;
+
+import com.peerly.dto.BulkImportCompletedEvent;
+import com.peerly.dto.EntityChangedEvent;
+import com.peerly.entity.Subject;
+import com.peerly.entity.Subtopic;
+import com.peerly.entity.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Housekeeping and metrics for the Hibernate second-level cache (regions in ehcache.xml).
+ * Writes through JPA keep the cache current on this instance; writes that bypass Hibernate
+ * (JDBC bulk imports) are evicted here, and an entity that failed an optimistic version check
+ * is dropped so the retry reads the current row instead of the same stale cached copy.
+ *
+ * Metrics per region:
+ *  peerly.cache.l2.requests  - hits, misses and puts
+ *  peerly.cache.l2.hit.ratio - hits / (hits + misses) since startup
+ *  peerly.cache.l2.entries   - entries held in memory
+ */
+@Service
+public class SecondLevelCacheService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheService.class);
+    
+    public static final String CATALOG_QUERIES = "catalog-queries";
+    
+    private static final List<String> REGIONS = List.of(
+            "subjects", "subject-subtopics", "subtopics", "user-subjects", CATALOG_QUERIES);
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private SessionFactory sessionFactory;
+    
+    @PostConstruct
+    void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            log.warn("Hibernate statistics are disabled, second-level cache metrics will stay at zero");
+        }
+        for (String region : REGIONS) {
+            registerCounter(statistics, region, "hit", CacheRegionStatistics::getHitCount);
+            registerCounter(statistics, region, "miss", CacheRegionStatistics::getMissCount);
+            registerCounter(statistics, region, "put", CacheRegionStatistics::getPutCount);
+            Gauge.builder("peerly.cache.l2.hit.ratio", statistics, s -> hitRatio(regionStatistics(s, region)))
+                    .tag("region", region)
+                    .register(meterRegistry);
+            Gauge.builder("peerly.cache.l2.entries", statistics, s -> {
+                        CacheRegionStatistics stats = regionStatistics(s, region);
+                        return stats == null ? 0 : stats.getElementCountInMemory();
+                    })
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Drop one entity from the cache, e.g. after its cached version lost an optimistic lock check
+     * @param entityName Entity class name
+     * @param id Entity ID
+     */
+    public void evictEntity(String entityName, Object id) {
+        if (entityName == null || id == null) {
+            return;
+        }
+        try {
+            sessionFactory.getCache().evictEntityData(entityName, id);
+        } catch (RuntimeException e) {
+            log.debug("Could not evict {}#{} from the second-level cache: {}", entityName, id, e.getMessage());
+        }
+    }
+    
+    /**
+     * Evict everything a bulk import may have changed behind Hibernate's back
+     * @param event Bulk import that wrote with JDBC
+     */
+    @EventListener
+    public void onBulkImport(BulkImportCompletedEvent event) {
+        Cache cache = sessionFactory.getCache();
+        switch (event.getEntityType()) {
+            case EntityChangedEvent.USER -> cache.evictCollectionData(User.class.getName() + ".subjects");
+            case EntityChangedEvent.SUBJECT -> {
+                cache.evictEntityData(Subject.class);
+                cache.evictCollectionData(User.class.getName() + ".subjects");
+            }
+            case EntityChangedEvent.SUBTOPIC -> {
+                cache.evictEntityData(Subtopic.class);
+                cache.evictCollectionData(Subject.class.getName() + ".subtopics");
+            }
+            default -> {
+                return;
+            }
+        }
+        cache.evictQueryRegion(CATALOG_QUERIES);
+        cache.evictDefaultQueryRegion();
+    }
+    
+    private void registerCounter(Statistics statistics, String region, String result,
+                                 ToDoubleFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder("peerly.cache.l2.requests", statistics, s -> {
+                    CacheRegionStatistics stats = regionStatistics(s, region);
+                    return stats == null ? 0 : count.applyAsDouble(stats);
+                })
+                .tag("region", region)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    // Query result regions only exist once a query has used them
+    private static CacheRegionStatistics regionStatistics(Statistics statistics, String region) {
+        try {
+            return CATALOG_QUERIES.equals(region)
+                    ? statistics.getQueryRegionStatistics(region)
+                    : statistics.getCacheRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static double hitRatio(CacheRegionStatistics stats) {
+        if (stats == null) {
+            return 0;
+        }
+        long lookups = stats.getHitCount() + stats.getMissCount();
+        return lookups == 0 ? 0 : (double) stats.getHitCount() / lookups;
+    }
+}
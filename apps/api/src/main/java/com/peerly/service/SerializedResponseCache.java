@@ -0,0 +1,223 @@
+package com.peerly.service;
+
+import com.peerly.dto.BulkImportCompletedEvent;
+import com.peerly.dto.EntityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON bodies of @ConditionalGet(cacheBody = true) handlers, kept as UTF-8 bytes plus
+ * a gzipped copy and written straight to the servlet output stream.
+ * An entry is only served under the ETag it was built with, so writes on any instance retire it
+ * as soon as the table fingerprints move; local commits also drop the entries of the tables they
+ * touched right away. Memory is bounded by a byte budget, evicting the least recently served
+ * entries first.
+ *
+ * Metrics:
+ *  peerly.response.cache.requests - hit / miss
+ *  peerly.response.cache.bytes    - bytes held, both variants
+ */
+@Service
+public class SerializedResponseCache {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.http.response-cache.max-size:64MB}")
+    private DataSize maxSize;
+    
+    @Value("${peerly.http.response-cache.gzip-min-size:2KB}")
+    private DataSize gzipMinSize;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Bumped on every invalidation so a body built before a commit is not stored after it
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    
+    private final AtomicLong bytes = new AtomicLong();
+    
+    private Counter hits;
+    
+    private Counter misses;
+    
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("peerly.response.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("peerly.response.cache.requests", "result", "miss");
+        Gauge.builder("peerly.response.cache.bytes", bytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Get a cached body
+     * @param key Request key (path and query string)
+     * @param version ETag the current response would carry
+     * @return Entry built under the same ETag, or null
+     */
+    public Entry get(String key, String version) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.version().equals(version)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.lastServed().set(System.nanoTime());
+        return entry;
+    }
+    
+    /**
+     * Snapshot of the tables' invalidation counters, taken before the handler reads them
+     * @param tables Tables the response is built from
+     * @return Stamp to pass to put
+     */
+    public long stamp(String[] tables) {
+        // Counters only grow, so the sum is unchanged exactly when none of them moved
+        long stamp = 0;
+        for (String table : tables) {
+            stamp += generation(table).get();
+        }
+        return stamp;
+    }
+    
+    /**
+     * Cache a freshly serialized body
+     * @param key Request key (path and query string)
+     * @param version ETag the body was built under
+     * @param tables Tables the body was built from
+     * @param stamp Result of stamp(tables) taken before the handler ran
+     * @param json Serialized body
+     * @return Entry to write; only cached if none of the tables changed in the meantime
+     */
+    public Entry put(String key, String version, String[] tables, long stamp, byte[] json) {
+        byte[] gzip = json.length >= gzipMinSize.toBytes() ? gzip(json) : null;
+        Entry entry = new Entry(version, Set.of(tables), json, gzip, new AtomicLong(System.nanoTime()));
+        if (entry.size() > maxSize.toBytes() / 4) {
+            return entry;
+        }
+        
+        Entry previous = entries.put(key, entry);
+        bytes.addAndGet(entry.size() - (previous == null ? 0 : previous.size()));
+        if (stamp(tables) != stamp) {
+            // A commit invalidated these tables while the body was being built
+            remove(key, entry);
+        }
+        if (bytes.get() > maxSize.toBytes()) {
+            evictLeastRecentlyServed();
+        }
+        return entry;
+    }
+    
+    /**
+     * Write an entry as the response body, gzipped if the client accepts it
+     * @param entry Cached entry
+     * @param request Current request
+     * @param response Current response; status and caching headers are already set
+     */
+    public void write(Entry entry, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = entry.json();
+        if (entry.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            body = entry.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(ResourceVersionService.tableOf(event.getEntityType()));
+    }
+    
+    @EventListener
+    public void onBulkImport(BulkImportCompletedEvent event) {
+        invalidate(ResourceVersionService.tableOf(event.getEntityType()));
+    }
+    
+    private void invalidate(String table) {
+        if (table == null) {
+            return;
+        }
+        generation(table).incrementAndGet();
+        entries.forEach((key, entry) -> {
+            if (entry.tables().contains(table)) {
+                remove(key, entry);
+            }
+        });
+    }
+    
+    private void evictLeastRecentlyServed() {
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastServed().get()))
+                .takeWhile(e -> bytes.get() > maxSize.toBytes() * 3 / 4)
+                .forEach(e -> remove(e.getKey(), e.getValue()));
+    }
+    
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            bytes.addAndGet(-entry.size());
+        }
+    }
+    
+    private AtomicLong generation(String table) {
+        return generations.computeIfAbsent(table, t -> new AtomicLong());
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Cached body; version is the ETag it was built under
+     */
+    public record Entry(String version, Set<String> tables, byte[] json, byte[] gzip, AtomicLong lastServed) {
+        
+        long size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
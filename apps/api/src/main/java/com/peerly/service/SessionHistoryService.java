@@ -0,0 +1,180 @@
+package com.peerly.service;
+
+import com.peerly.entity.Session;
+import com.peerly.entity.SessionHistory;
+import com.peerly.entity.User;
+import com.peerly.repository.SessionHistoryRepository;
+import com.peerly.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the sessions table limited to live and recently finished sessions.
+ * Finished sessions (settled COMPLETED, CANCELLED, EXPIRED) older than the retention
+ * period are moved to session_history, keyed by month of sessionDateTime, so booking-path
+ * queries never scan the platform's full history.
+ */
+@Service
+public class SessionHistoryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SessionHistoryService.class);
+    
+    private static final String MOVE_SQL =
+            "WITH moved AS (" +
+            "  DELETE FROM sessions WHERE id IN (" +
+            "    SELECT id FROM sessions " +
+            "    WHERE status IN ('COMPLETED', 'CANCELLED', 'EXPIRED') " +
+            "      AND (status <> 'COMPLETED' OR supercoins_processed = true) " +
+            "      AND session_date_time < ? " +
+            "    ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "  RETURNING *) " +
+            "INSERT INTO session_history (id, history_month, tutor_id, student_id, session_date_time, duration_minutes, " +
+            "  subject, notes, status, supercoins_amount, supercoins_processed, created_at, updated_at, archived_at) " +
+            "SELECT id, CAST(EXTRACT(YEAR FROM session_date_time) * 100 + EXTRACT(MONTH FROM session_date_time) AS INTEGER), " +
+            "  tutor_id, student_id, session_date_time, duration_minutes, subject, notes, status, supercoins_amount, " +
+            "  supercoins_processed, created_at, updated_at, now() FROM moved";
+    
+    @Autowired
+    private SessionHistoryRepository sessionHistoryRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${peerly.sessions.history.retention-days:30}")
+    private int retentionDays;
+    
+    @Value("${peerly.sessions.history.batch-size:1000}")
+    private int batchSize;
+    
+    /**
+     * Move finished sessions out of the active table, one batch per statement
+     * @return Number of sessions moved
+     */
+    @Scheduled(cron = "${peerly.sessions.history.cron:0 15 4 * * *}")
+    public int moveFinishedSessions() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int total = 0;
+        int moved;
+        do {
+            moved = jdbcTemplate.update(MOVE_SQL, cutoff, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Moved {} finished sessions to session_history", total);
+        }
+        return total;
+    }
+    
+    public Optional<Session> findById(Long sessionId) {
+        return sessionHistoryRepository.findById(sessionId).map(history -> toSessions(List.of(history)).get(0));
+    }
+    
+    public List<Session> findByTutorId(Long tutorId) {
+        return toSessions(sessionHistoryRepository.findByTutorIdOrderBySessionDateTimeDesc(tutorId));
+    }
+    
+    public List<Session> findByStudentId(Long studentId) {
+        return toSessions(sessionHistoryRepository.findByStudentIdOrderBySessionDateTimeDesc(studentId));
+    }
+    
+    /**
+     * Get a tutor's history for a range of months, reading only those partitions
+     * @param tutorId Tutor ID
+     * @param from First month (inclusive)
+     * @param to Last month (inclusive)
+     * @return Sessions, newest first
+     */
+    public List<Session> findByTutorIdBetween(Long tutorId, YearMonth from, YearMonth to) {
+        return toSessions(sessionHistoryRepository.findByTutorIdAndHistoryMonthBetweenOrderBySessionDateTimeDesc(
+                tutorId, monthKey(from), monthKey(to)));
+    }
+    
+    /**
+     * Get a student's history for a range of months, reading only those partitions
+     * @param studentId Student ID
+     * @param from First month (inclusive)
+     * @param to Last month (inclusive)
+     * @return Sessions, newest first
+     */
+    public List<Session> findByStudentIdBetween(Long studentId, YearMonth from, YearMonth to) {
+        return toSessions(sessionHistoryRepository.findByStudentIdAndHistoryMonthBetweenOrderBySessionDateTimeDesc(
+                studentId, monthKey(from), monthKey(to)));
+    }
+    
+    public List<Session> findAllById(Collection<Long> sessionIds) {
+        return toSessions(sessionHistoryRepository.findAllById(sessionIds));
+    }
+    
+    public List<Session> findAll() {
+        return toSessions(sessionHistoryRepository.findAll());
+    }
+    
+    public List<Session> searchByTutorName(String tutorName) {
+        return toSessions(sessionHistoryRepository.findByTutorNameContainingIgnoreCase(tutorName));
+    }
+    
+    public List<Session> searchBySubject(String subject) {
+        return toSessions(sessionHistoryRepository.findBySubjectContainingIgnoreCase(subject));
+    }
+    
+    public List<Session> search(String searchTerm) {
+        return toSessions(sessionHistoryRepository.findByTutorNameOrSubjectContainingIgnoreCase(searchTerm));
+    }
+    
+    private int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+    
+    /**
+     * Rebuild detached Session objects so history rows have the same shape as live sessions
+     */
+    private List<Session> toSessions(List<SessionHistory> history) {
+        if (history.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (SessionHistory row : history) {
+            userIds.add(row.getTutorId());
+            userIds.add(row.getStudentId());
+        }
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        return history.stream().map(row -> {
+            Session session = new Session();
+            session.setId(row.getId());
+            session.setTutor(users.get(row.getTutorId()));
+            session.setStudent(users.get(row.getStudentId()));
+            session.setSessionDateTime(row.getSessionDateTime());
+            session.setDurationMinutes(row.getDurationMinutes());
+            session.setSubject(row.getSubject());
+            session.setNotes(row.getNotes());
+            session.setStatus(row.getStatus());
+            session.setSupercoinsAmount(row.getSupercoinsAmount());
+            session.setSupercoinsProcessed(row.getSupercoinsProcessed());
+            session.setCreatedAt(row.getCreatedAt());
+            session.setUpdatedAt(row.getUpdatedAt());
+            return session;
+        }).toList();
+    }
+}
@@ -0,0 +1,257 @@
+package com.peerly.service;
+
+import com.peerly.dto.DomainEvent;
+import com.peerly.entity.Session;
+import com.peerly.repository.SessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves sessions through time-driven transitions without tutor action:
+ *  PENDING   -> EXPIRED   once the start time passes without an answer
+ *  CONFIRMED -> COMPLETED once the session has ended (plus a grace period), then settles supercoins
+ *
+ * Deadlines sit in a hierarchical timing wheel fed by session events; due sessions are
+ * transitioned in chunks with bulk UPDATEs guarded by status, so duplicates are harmless.
+ * A periodic database sweep catches anything the wheel missed (e.g. events seen by another instance).
+ */
+@Service
+@ConditionalOnProperty(name = "peerly.sessions.lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class SessionLifecycleScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(SessionLifecycleScheduler.class);
+    
+    @Autowired
+    private SessionRepository sessionRepository;
+    
+    @Autowired
+    private SessionService sessionService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private SupercoinEscrowService escrowService;
+    
+    @Autowired
+    private TeachingStatsService teachingStatsService;
+    
+    @Autowired
+    private AuditLogService auditLogService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.sessions.lifecycle.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${peerly.sessions.lifecycle.completion-grace-minutes:15}")
+    private long completionGraceMinutes;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final TimingWheel<Deadline> wheel;
+    
+    private final Map<Long, TimingWheel.Entry<Deadline>> scheduled = new ConcurrentHashMap<>();
+    
+    private final Set<Long> dueExpiries = ConcurrentHashMap.newKeySet();
+    
+    private final Set<Long> dueCompletions = ConcurrentHashMap.newKeySet();
+    
+    public SessionLifecycleScheduler(PlatformTransactionManager transactionManager,
+                                     @Value("${peerly.sessions.lifecycle.tick-ms:1000}") long tickMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new TimingWheel<>(tickMs, 60, System.currentTimeMillis());
+    }
+    
+    /**
+     * Load deadlines of all live sessions
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prime() {
+        for (SessionRepository.SessionTiming timing : sessionRepository.findTimingsByStatus(Session.SessionStatus.PENDING)) {
+            scheduleExpiry(timing.getId(), timing.getSessionDateTime());
+        }
+        for (SessionRepository.SessionTiming timing : sessionRepository.findTimingsByStatus(Session.SessionStatus.CONFIRMED)) {
+            scheduleCompletion(timing.getId(), timing.getSessionDateTime(), timing.getDurationMinutes());
+        }
+        log.info("Session lifecycle scheduler primed with {} deadlines", scheduled.size());
+    }
+    
+    /**
+     * Track deadlines as sessions move through their lifecycle
+     * @param event Event delivered by the outbox relay
+     */
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!DomainEvent.SESSION.equals(event.getAggregateType())) {
+            return;
+        }
+        Long sessionId = event.getAggregateId();
+        switch (event.getEventType()) {
+            case DomainEvent.SESSION_BOOKED ->
+                    scheduleExpiry(sessionId, LocalDateTime.parse(event.getString("sessionDateTime")));
+            case DomainEvent.SESSION_ACCEPTED ->
+                    scheduleCompletion(sessionId, LocalDateTime.parse(event.getString("sessionDateTime")),
+                            event.getLong("durationMinutes").intValue());
+            case DomainEvent.SESSION_REJECTED, DomainEvent.SESSION_CANCELLED, DomainEvent.SESSION_EXPIRED,
+                 DomainEvent.SESSION_COMPLETED ->
+                    cancel(sessionId);
+            default -> {
+            }
+        }
+    }
+    
+    /**
+     * Advance the wheel and transition everything that became due
+     */
+    @Scheduled(fixedDelayString = "${peerly.sessions.lifecycle.tick-ms:1000}")
+    public void tick() {
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), deadline -> {
+                scheduled.remove(deadline.sessionId());
+                (deadline.completion() ? dueCompletions : dueExpiries).add(deadline.sessionId());
+            });
+        }
+        flushDue();
+    }
+    
+    /**
+     * Safety net: pick up overdue sessions straight from the database
+     */
+    @Scheduled(fixedDelayString = "${peerly.sessions.lifecycle.sweep-interval-ms:300000}", initialDelay = 60000)
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        dueExpiries.addAll(sessionRepository.findOverduePendingIds(now));
+        dueCompletions.addAll(sessionRepository.findEndedConfirmedIds(now.minusMinutes(completionGraceMinutes)));
+        flushDue();
+    }
+    
+    private void flushDue() {
+        for (List<Long> chunk : drainInChunks(dueExpiries)) {
+            List<Long> expired = transition(chunk, DomainEvent.SESSION_EXPIRED, ids -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> changed = sessionRepository.expirePendingSessions(ids, now);
+                escrowService.releaseAll(changed);
+                return changed;
+            });
+            auditLogService.recordStatusChanges(DomainEvent.SESSION, expired, "PENDING", "EXPIRED");
+            meterRegistry.counter("peerly.sessions.auto_expired").increment(expired.size());
+        }
+        
+        for (List<Long> chunk : drainInChunks(dueCompletions)) {
+            List<Long> completed = transition(chunk, DomainEvent.SESSION_COMPLETED, ids -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> changed = sessionRepository.completeEndedSessions(ids, now.minusMinutes(completionGraceMinutes), now);
+                if (!changed.isEmpty()) {
+                    teachingStatsService.recordCompleted(sessionRepository.findAllById(changed));
+                }
+                return changed;
+            });
+            auditLogService.recordStatusChanges(DomainEvent.SESSION, completed, "CONFIRMED", "COMPLETED");
+            meterRegistry.counter("peerly.sessions.auto_completed").increment(completed.size());
+            
+            // Hand completed sessions to settlement, each in its own transaction
+            for (Long sessionId : completed) {
+                try {
+                    sessionService.processSessionSupercoins(sessionId);
+                } catch (RuntimeException e) {
+                    meterRegistry.counter("peerly.sessions.settlement_failed").increment();
+                    log.warn("Settlement of auto-completed session {} failed: {}", sessionId, e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private List<Long> transition(List<Long> ids, String eventType, BulkUpdate update) {
+        try {
+            List<Long> transitioned = transactionTemplate.execute(status -> {
+                List<Long> changed = update.apply(ids);
+                if (!changed.isEmpty()) {
+                    for (Session session : sessionRepository.findAllById(changed)) {
+                        outboxService.recordSessionEvent(session, eventType);
+                    }
+                }
+                return changed;
+            });
+            return transitioned == null ? Collections.emptyList() : transitioned;
+        } catch (RuntimeException e) {
+            log.error("Bulk {} of {} sessions failed, the sweep will retry them", eventType, ids.size(), e);
+            return Collections.emptyList();
+        }
+    }
+    
+    private List<List<Long>> drainInChunks(Set<Long> due) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(batchSize);
+        for (Long id : due) {
+            if (due.remove(id)) {
+                chunk.add(id);
+                if (chunk.size() == batchSize) {
+                    chunks.add(chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+    
+    private void scheduleExpiry(Long sessionId, LocalDateTime sessionDateTime) {
+        schedule(new Deadline(sessionId, false), sessionDateTime);
+    }
+    
+    private void scheduleCompletion(Long sessionId, LocalDateTime sessionDateTime, Integer durationMinutes) {
+        LocalDateTime end = sessionDateTime.plusMinutes(durationMinutes == null ? 0 : durationMinutes);
+        schedule(new Deadline(sessionId, true), end.plusMinutes(completionGraceMinutes));
+    }
+    
+    private void schedule(Deadline deadline, LocalDateTime dueAt) {
+        long dueMs = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            cancel(deadline.sessionId());
+            TimingWheel.Entry<Deadline> entry = wheel.schedule(dueMs, deadline);
+            if (entry == null) {
+                (deadline.completion() ? dueCompletions : dueExpiries).add(deadline.sessionId());
+            } else {
+                scheduled.put(deadline.sessionId(), entry);
+            }
+        }
+    }
+    
+    private void cancel(Long sessionId) {
+        TimingWheel.Entry<Deadline> previous = scheduled.remove(sessionId);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+    
+    private record Deadline(Long sessionId, boolean completion) {
+    }
+    
+    @FunctionalInterface
+    private interface BulkUpdate {
+        List<Long> apply(List<Long> ids);
+    }
+}
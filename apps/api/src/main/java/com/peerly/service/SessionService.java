@@ -1,14 +1,19 @@
 package com.peerly.service;
 
+import com.peerly.dto.DomainEvent;
 import com.peerly.dto.SessionBookingRequest;
 import com.peerly.entity.Session;
 import com.peerly.entity.User;
+import com.peerly.entity.WalletTransaction;
 import com.peerly.repository.SessionRepository;
 import com.peerly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,24 @@ public class SessionService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private SessionHistoryService sessionHistoryService;
+    
+    @Autowired
+    private SupercoinEscrowService escrowService;
+    
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+    
+    @Autowired
+    private TeachingStatsService teachingStatsService;
+    
     /**
      * Book a session with a tutor
      * @param request Session booking request
@@ -28,77 +51,85 @@ public class SessionService {
      * @throws RuntimeException if booking fails
      */
     public Session bookSession(SessionBookingRequest request) {
-        // Validate tutor exists and is active
-        Optional<User> tutorOpt = userRepository.findById(request.getTutorId());
-        if (tutorOpt.isEmpty()) {
-            throw new RuntimeException("Tutor not found with ID: " + request.getTutorId());
-        }
+        // Retried on conflict: the escrow hold bumps the student's version so concurrent bookings cannot overspend
+        return retryExecutor.execute("session.book", () -> {
+            // Validate tutor exists and is active
+            Optional<User> tutorOpt = userRepository.findById(request.getTutorId());
+            if (tutorOpt.isEmpty()) {
+                throw new RuntimeException("Tutor not found with ID: " + request.getTutorId());
+            }
         
-        User tutor = tutorOpt.get();
-        if (!tutor.getIsActive()) {
-            throw new RuntimeException("Tutor is not available for booking");
-        }
+            User tutor = tutorOpt.get();
+            if (!tutor.getIsActive()) {
+                throw new RuntimeException("Tutor is not available for booking");
+            }
         
-        // Validate that the user can act as a tutor
-        if (!tutor.isTutor()) {
-            throw new RuntimeException("User is not registered as a tutor");
-        }
+            // Validate that the user can act as a tutor
+            if (!tutor.isTutor()) {
+                throw new RuntimeException("User is not registered as a tutor");
+            }
         
-        // Validate student exists and is active
-        Optional<User> studentOpt = userRepository.findById(request.getStudentId());
-        if (studentOpt.isEmpty()) {
-            throw new RuntimeException("Student not found with ID: " + request.getStudentId());
-        }
+            // Validate student exists and is active
+            Optional<User> studentOpt = userRepository.findById(request.getStudentId());
+            if (studentOpt.isEmpty()) {
+                throw new RuntimeException("Student not found with ID: " + request.getStudentId());
+            }
         
-        User student = studentOpt.get();
-        if (!student.getIsActive()) {
-            throw new RuntimeException("Student account is not active");
-        }
+            User student = studentOpt.get();
+            if (!student.getIsActive()) {
+                throw new RuntimeException("Student account is not active");
+            }
         
-        // Validate that the user can act as a student
-        if (!student.isStudent()) {
-            throw new RuntimeException("User is not registered as a student");
-        }
+            // Validate that the user can act as a student
+            if (!student.isStudent()) {
+                throw new RuntimeException("User is not registered as a student");
+            }
         
-        // Validate session time is in the future
-        if (request.getSessionDateTime().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Session time must be in the future");
-        }
+            // Validate session time is in the future
+            if (request.getSessionDateTime().isBefore(LocalDateTime.now())) {
+                throw new RuntimeException("Session time must be in the future");
+            }
         
-        // Check if tutor is available at the requested time
-        LocalDateTime endTime = request.getSessionDateTime().plusMinutes(request.getDurationMinutes());
-        Long conflictCount = sessionRepository.countConflictingSessions(
-            tutor,
-            request.getSessionDateTime(),
-            endTime
-        );
+            // Check if tutor is available at the requested time
+            LocalDateTime endTime = request.getSessionDateTime().plusMinutes(request.getDurationMinutes());
+            Long conflictCount = sessionRepository.countConflictingSessions(
+                tutor.getId(),
+                request.getSessionDateTime(),
+                endTime
+            );
 
-        if (conflictCount > 0) {
-            throw new RuntimeException("Tutor is not available at the requested time");
-        }
+            if (conflictCount > 0) {
+                throw new RuntimeException("Tutor is not available at the requested time");
+            }
+        
+            // Create and save the session
+            Session session = new Session();
+            session.setTutor(tutor);
+            session.setStudent(student);
+            session.setSessionDateTime(request.getSessionDateTime());
+            session.setDurationMinutes(request.getDurationMinutes());
+            session.setSubject(request.getSubject());
+            session.setNotes(request.getNotes());
+            session.setStatus(Session.SessionStatus.PENDING);
+            session.setSupercoinsAmount(request.getSupercoinsAmount());
+            session.setSupercoinsProcessed(false);
+            session.setCreatedAt(LocalDateTime.now());
         
-        // Create and save the session
-        Session session = new Session();
-        session.setTutor(tutor);
-        session.setStudent(student);
-        session.setSessionDateTime(request.getSessionDateTime());
-        session.setDurationMinutes(request.getDurationMinutes());
-        session.setSubject(request.getSubject());
-        session.setNotes(request.getNotes());
-        session.setStatus(Session.SessionStatus.PENDING);
-        session.setSupercoinsAmount(request.getSupercoinsAmount());
-        session.setSupercoinsProcessed(false);
-        session.setCreatedAt(LocalDateTime.now());
-        
-        return sessionRepository.save(session);
+            Session savedSession = sessionRepository.save(session);
+            // Reserve the student's supercoins now rather than finding out at settlement
+            escrowService.place(savedSession);
+            outboxService.recordSessionEvent(savedSession, DomainEvent.SESSION_BOOKED);
+            return savedSession;
+        });
     }
     
     /**
-     * Get all sessions
+     * Get all sessions, live and archived
      * @return List of all sessions
      */
+    @Transactional(readOnly = true)
     public List<Session> getAllSessions() {
-        return sessionRepository.findAll();
+        return withHistory(sessionRepository.findAll(), sessionHistoryService.findAll());
     }
     
     /**
@@ -106,12 +137,14 @@ public class SessionService {
      * @param studentId Student's ID
      * @return List of sessions for the student
      */
+    @Transactional(readOnly = true)
     public List<Session> getSessionsByStudentId(Long studentId) {
         Optional<User> studentOpt = userRepository.findById(studentId);
         if (studentOpt.isEmpty()) {
             throw new RuntimeException("Student not found with ID: " + studentId);
         }
-        return sessionRepository.findByStudent(studentOpt.get());
+        return withHistory(sessionRepository.findByStudent(studentOpt.get()),
+                sessionHistoryService.findByStudentId(studentId));
     }
     
     /**
@@ -119,12 +152,14 @@ public class SessionService {
      * @param tutorId Tutor's ID
      * @return List of sessions for the tutor
      */
+    @Transactional(readOnly = true)
     public List<Session> getSessionsByTutorId(Long tutorId) {
         Optional<User> tutorOpt = userRepository.findById(tutorId);
         if (tutorOpt.isEmpty()) {
             throw new RuntimeException("Tutor not found with ID: " + tutorId);
         }
-        return sessionRepository.findByTutor(tutorOpt.get());
+        return withHistory(sessionRepository.findByTutor(tutorOpt.get()),
+                sessionHistoryService.findByTutorId(tutorId));
     }
     
     /**
@@ -132,6 +167,7 @@ public class SessionService {
      * @param tutorId Tutor's ID
      * @return List of upcoming sessions
      */
+    @Transactional(readOnly = true)
     public List<Session> getUpcomingSessionsByTutorId(Long tutorId) {
         Optional<User> tutorOpt = userRepository.findById(tutorId);
         if (tutorOpt.isEmpty()) {
@@ -145,6 +181,7 @@ public class SessionService {
      * @param studentId Student's ID
      * @return List of upcoming sessions
      */
+    @Transactional(readOnly = true)
     public List<Session> getUpcomingSessionsByStudentId(Long studentId) {
         Optional<User> studentOpt = userRepository.findById(studentId);
         if (studentOpt.isEmpty()) {
@@ -158,8 +195,34 @@ public class SessionService {
      * @param sessionId Session ID
      * @return Optional session
      */
+    @Transactional(readOnly = true)
     public Optional<Session> getSessionById(Long sessionId) {
-        return sessionRepository.findById(sessionId);
+        Optional<Session> session = sessionRepository.findById(sessionId);
+        return session.isPresent() ? session : sessionHistoryService.findById(sessionId);
+    }
+    
+    /**
+     * Get archived sessions of a tutor for a range of months
+     * @param tutorId Tutor's ID
+     * @param from First month (inclusive)
+     * @param to Last month (inclusive)
+     * @return Archived sessions, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Session> getSessionHistoryByTutorId(Long tutorId, YearMonth from, YearMonth to) {
+        return sessionHistoryService.findByTutorIdBetween(tutorId, from, to);
+    }
+    
+    /**
+     * Get archived sessions of a student for a range of months
+     * @param studentId Student's ID
+     * @param from First month (inclusive)
+     * @param to Last month (inclusive)
+     * @return Archived sessions, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Session> getSessionHistoryByStudentId(Long studentId, YearMonth from, YearMonth to) {
+        return sessionHistoryService.findByStudentIdBetween(studentId, from, to);
     }
     
     /**
@@ -167,11 +230,13 @@ public class SessionService {
      * @param tutorName Name of the tutor to search for
      * @return List of sessions matching the tutor name
      */
+    @Transactional(readOnly = true)
     public List<Session> searchSessionsByTutorName(String tutorName) {
         if (tutorName == null || tutorName.trim().isEmpty()) {
             throw new RuntimeException("Tutor name cannot be empty");
         }
-        return sessionRepository.findByTutorNameContainingIgnoreCase(tutorName.trim());
+        return withHistory(sessionRepository.findByTutorNameContainingIgnoreCase(tutorName.trim()),
+                sessionHistoryService.searchByTutorName(tutorName.trim()));
     }
     
     /**
@@ -179,11 +244,13 @@ public class SessionService {
      * @param subject Subject or topic to search for
      * @return List of sessions matching the subject
      */
+    @Transactional(readOnly = true)
     public List<Session> searchSessionsBySubject(String subject) {
         if (subject == null || subject.trim().isEmpty()) {
             throw new RuntimeException("Subject cannot be empty");
         }
-        return sessionRepository.findBySubjectContainingIgnoreCase(subject.trim());
+        return withHistory(sessionRepository.findBySubjectContainingIgnoreCase(subject.trim()),
+                sessionHistoryService.searchBySubject(subject.trim()));
     }
     
     /**
@@ -191,11 +258,13 @@ public class SessionService {
      * @param searchTerm Search term to match against tutor name or subject
      * @return List of sessions matching the search term
      */
+    @Transactional(readOnly = true)
     public List<Session> searchSessions(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             throw new RuntimeException("Search term cannot be empty");
         }
-        return sessionRepository.findByTutorNameOrSubjectContainingIgnoreCase(searchTerm.trim());
+        return withHistory(sessionRepository.findByTutorNameOrSubjectContainingIgnoreCase(searchTerm.trim()),
+                sessionHistoryService.search(searchTerm.trim()));
     }
     
     /**
@@ -205,33 +274,37 @@ public class SessionService {
      * @return Updated session with CONFIRMED status
      */
     public Session acceptSessionRequest(Long sessionId, Long tutorId) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isEmpty()) {
-            throw new RuntimeException("Session not found with ID: " + sessionId);
-        }
+        return retryExecutor.execute("session.accept", () -> {
+            Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
+            if (sessionOpt.isEmpty()) {
+                throw new RuntimeException("Session not found with ID: " + sessionId);
+            }
         
-        Session session = sessionOpt.get();
+            Session session = sessionOpt.get();
         
-        // Check if the requesting user is the tutor for this session
-        if (!session.getTutor().getId().equals(tutorId)) {
-            throw new RuntimeException("You are not authorized to accept this session");
-        }
+            // Check if the requesting user is the tutor for this session
+            if (!session.getTutor().getId().equals(tutorId)) {
+                throw new RuntimeException("You are not authorized to accept this session");
+            }
         
-        // Check if session is in PENDING status
-        if (session.getStatus() != Session.SessionStatus.PENDING) {
-            throw new RuntimeException("Only pending sessions can be accepted. Current status: " + session.getStatus());
-        }
+            // Check if session is in PENDING status
+            if (session.getStatus() != Session.SessionStatus.PENDING) {
+                throw new RuntimeException("Only pending sessions can be accepted. Current status: " + session.getStatus());
+            }
         
-        // Validate session time is still in the future
-        if (session.getSessionDateTime().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Cannot accept a session that is in the past");
-        }
+            // Validate session time is still in the future
+            if (session.getSessionDateTime().isBefore(LocalDateTime.now())) {
+                throw new RuntimeException("Cannot accept a session that is in the past");
+            }
         
-        // Update status to CONFIRMED
-        session.setStatus(Session.SessionStatus.CONFIRMED);
-        session.setUpdatedAt(LocalDateTime.now());
+            // Update status to CONFIRMED
+            session.setStatus(Session.SessionStatus.CONFIRMED);
+            session.setUpdatedAt(LocalDateTime.now());
         
-        return sessionRepository.save(session);
+            Session savedSession = sessionRepository.save(session);
+            outboxService.recordSessionEvent(savedSession, DomainEvent.SESSION_ACCEPTED);
+            return savedSession;
+        });
     }
     
     /**
@@ -241,28 +314,76 @@ public class SessionService {
      * @return Updated session with CANCELLED status
      */
     public Session rejectSessionRequest(Long sessionId, Long tutorId) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isEmpty()) {
-            throw new RuntimeException("Session not found with ID: " + sessionId);
-        }
+        return retryExecutor.execute("session.reject", () -> {
+            Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
+            if (sessionOpt.isEmpty()) {
+                throw new RuntimeException("Session not found with ID: " + sessionId);
+            }
         
-        Session session = sessionOpt.get();
+            Session session = sessionOpt.get();
         
-        // Check if the requesting user is the tutor for this session
-        if (!session.getTutor().getId().equals(tutorId)) {
-            throw new RuntimeException("You are not authorized to reject this session");
-        }
+            // Check if the requesting user is the tutor for this session
+            if (!session.getTutor().getId().equals(tutorId)) {
+                throw new RuntimeException("You are not authorized to reject this session");
+            }
         
-        // Check if session is in PENDING status
-        if (session.getStatus() != Session.SessionStatus.PENDING) {
-            throw new RuntimeException("Only pending sessions can be rejected. Current status: " + session.getStatus());
-        }
+            // Check if session is in PENDING status
+            if (session.getStatus() != Session.SessionStatus.PENDING) {
+                throw new RuntimeException("Only pending sessions can be rejected. Current status: " + session.getStatus());
+            }
+        
+            // Update status to CANCELLED
+            session.setStatus(Session.SessionStatus.CANCELLED);
+            session.setUpdatedAt(LocalDateTime.now());
+            escrowService.release(sessionId);
+            teachingStatsService.recordCancelled(session);
+        
+            Session savedSession = sessionRepository.save(session);
+            outboxService.recordSessionEvent(savedSession, DomainEvent.SESSION_REJECTED);
+            return savedSession;
+        });
+    }
+    
+    /**
+     * Cancel a pending or confirmed session before it starts (for students)
+     * @param sessionId Session ID to cancel
+     * @param studentId Student ID for validation
+     * @return Updated session with CANCELLED status
+     */
+    public Session cancelSession(Long sessionId, Long studentId) {
+        return retryExecutor.execute("session.cancel", () -> {
+            Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
+            if (sessionOpt.isEmpty()) {
+                throw new RuntimeException("Session not found with ID: " + sessionId);
+            }
+        
+            Session session = sessionOpt.get();
+        
+            // Check if the requesting user is the student for this session
+            if (!session.getStudent().getId().equals(studentId)) {
+                throw new RuntimeException("You are not authorized to cancel this session");
+            }
         
-        // Update status to CANCELLED
-        session.setStatus(Session.SessionStatus.CANCELLED);
-        session.setUpdatedAt(LocalDateTime.now());
+            // Check if session is still PENDING or CONFIRMED
+            if (session.getStatus() != Session.SessionStatus.PENDING && session.getStatus() != Session.SessionStatus.CONFIRMED) {
+                throw new RuntimeException("Only pending or confirmed sessions can be cancelled. Current status: " + session.getStatus());
+            }
+        
+            // Validate session has not started
+            if (!session.getSessionDateTime().isAfter(LocalDateTime.now())) {
+                throw new RuntimeException("Cannot cancel a session that has already started");
+            }
         
-        return sessionRepository.save(session);
+            // Update status to CANCELLED and give the held supercoins back
+            session.setStatus(Session.SessionStatus.CANCELLED);
+            session.setUpdatedAt(LocalDateTime.now());
+            escrowService.release(sessionId);
+            teachingStatsService.recordCancelled(session);
+        
+            Session savedSession = sessionRepository.save(session);
+            outboxService.recordSessionEvent(savedSession, DomainEvent.SESSION_CANCELLED);
+            return savedSession;
+        });
     }
     
     /**
@@ -270,6 +391,7 @@ public class SessionService {
      * @param tutorId Tutor's ID
      * @return List of pending sessions for the tutor
      */
+    @Transactional(readOnly = true)
     public List<Session> getPendingSessionsForTutor(Long tutorId) {
         Optional<User> tutorOpt = userRepository.findById(tutorId);
         if (tutorOpt.isEmpty()) {
@@ -285,28 +407,33 @@ public class SessionService {
      * @return Updated session
      */
     public Session completeSession(Long sessionId, Long tutorId) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isEmpty()) {
-            throw new RuntimeException("Session not found with ID: " + sessionId);
-        }
+        return retryExecutor.execute("session.complete", () -> {
+            Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
+            if (sessionOpt.isEmpty()) {
+                throw new RuntimeException("Session not found with ID: " + sessionId);
+            }
         
-        Session session = sessionOpt.get();
+            Session session = sessionOpt.get();
         
-        // Check if the requesting user is the tutor for this session
-        if (!session.getTutor().getId().equals(tutorId)) {
-            throw new RuntimeException("You are not authorized to complete this session");
-        }
+            // Check if the requesting user is the tutor for this session
+            if (!session.getTutor().getId().equals(tutorId)) {
+                throw new RuntimeException("You are not authorized to complete this session");
+            }
         
-        // Check if session is in CONFIRMED status
-        if (session.getStatus() != Session.SessionStatus.CONFIRMED) {
-            throw new RuntimeException("Only confirmed sessions can be completed. Current status: " + session.getStatus());
-        }
+            // Check if session is in CONFIRMED status
+            if (session.getStatus() != Session.SessionStatus.CONFIRMED) {
+                throw new RuntimeException("Only confirmed sessions can be completed. Current status: " + session.getStatus());
+            }
         
-        // Update status to COMPLETED
-        session.setStatus(Session.SessionStatus.COMPLETED);
-        session.setUpdatedAt(LocalDateTime.now());
+            // Update status to COMPLETED
+            session.setStatus(Session.SessionStatus.COMPLETED);
+            session.setUpdatedAt(LocalDateTime.now());
+            teachingStatsService.recordCompleted(List.of(session));
         
-        return sessionRepository.save(session);
+            Session savedSession = sessionRepository.save(session);
+            outboxService.recordSessionEvent(savedSession, DomainEvent.SESSION_COMPLETED);
+            return savedSession;
+        });
     }
     
     /**
@@ -315,47 +442,60 @@ public class SessionService {
      * @return Updated session with supercoins processed
      */
     public Session processSessionSupercoins(Long sessionId) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isEmpty()) {
-            throw new RuntimeException("Session not found with ID: " + sessionId);
-        }
+        return retryExecutor.execute("session.settle", () -> {
+            Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
+            if (sessionOpt.isEmpty()) {
+                throw new RuntimeException("Session not found with ID: " + sessionId);
+            }
         
-        Session session = sessionOpt.get();
+            Session session = sessionOpt.get();
         
-        // Check if session is completed and not already processed
-        if (session.getStatus() != Session.SessionStatus.COMPLETED) {
-            throw new RuntimeException("Only completed sessions can have supercoins processed");
-        }
+            // Check if session is completed and not already processed
+            if (session.getStatus() != Session.SessionStatus.COMPLETED) {
+                throw new RuntimeException("Only completed sessions can have supercoins processed");
+            }
+            if (Boolean.TRUE.equals(session.getSupercoinsProcessed())) {
+                return session;
+            }
         
-        // Transfer supercoins from student to tutor
-        User student = session.getStudent();
-        User tutor = session.getTutor();
-        Long amount = session.getSupercoinsAmount();
+            // Transfer supercoins from student to tutor
+            User student = session.getStudent();
+            User tutor = session.getTutor();
+            Long amount = session.getSupercoinsAmount();
         
-        if (amount != null && amount > 0) {
-            // Check if student has enough supercoins
-            if (student.getSupercoins() < amount) {
-                throw new RuntimeException("Student does not have enough supercoins for this session");
-            }
+            if (amount != null && amount > 0) {
+                // Check if student has enough supercoins
+                if (student.getSupercoins() < amount) {
+                    throw new RuntimeException("Student does not have enough supercoins for this session");
+                }
             
-            // Transfer supercoins
-            try {
-                student.debitSupercoins(amount);
-            } catch (User.InsufficientSupercoinsException e) {
-                throw new RuntimeException(e);
-            }
-            tutor.creditSupercoins(amount);
+                // Transfer supercoins
+                try {
+                    student.debitSupercoins(amount);
+                } catch (User.InsufficientSupercoinsException e) {
+                    throw new RuntimeException(e);
+                }
+                tutor.creditSupercoins(amount);
+                escrowService.capture(session);
+                walletLedgerService.record(student, WalletTransaction.TransactionType.SESSION_PAYMENT, -amount,
+                        tutor.getId(), session.getId());
+                walletLedgerService.record(tutor, WalletTransaction.TransactionType.SESSION_EARNING, amount,
+                        student.getId(), session.getId());
+                teachingStatsService.recordSettled(session);
             
-            // Save updated users
-            userRepository.save(student);
-            userRepository.save(tutor);
-        }
+                // Save updated users
+                userRepository.save(student);
+                userRepository.save(tutor);
+            }
         
-        // Mark session as processed
-        session.setSupercoinsProcessed(true);
-        session.setUpdatedAt(LocalDateTime.now());
+            // Mark session as processed
+            session.setSupercoinsProcessed(true);
+            session.setUpdatedAt(LocalDateTime.now());
         
-        return sessionRepository.save(session);
+            Session savedSession = sessionRepository.save(session);
+            outboxService.recordSessionEvent(savedSession, DomainEvent.SESSION_SETTLED);
+            return savedSession;
+        });
     }
     
     /**
@@ -365,4 +505,14 @@ public class SessionService {
     public List<Session> getSessionsNeedingSupercoinsProcessing() {
         return sessionRepository.findSessionsNeedingSupercoinsProcessing();
     }
+    
+    private List<Session> withHistory(List<Session> active, List<Session> history) {
+        if (history.isEmpty()) {
+            return active;
+        }
+        List<Session> all = new ArrayList<>(active.size() + history.size());
+        all.addAll(active);
+        all.addAll(history);
+        return all;
+    }
 }
@@ -4,8 +4,10 @@ import com.peerly.entity.Subject;
 import com.peerly.entity.Subtopic;
 import com.peerly.repository.SubjectRepository;
 import com.peerly.repository.SubtopicRepository;
+import com.peerly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,10 +21,17 @@ public class SubjectService {
     @Autowired
     private SubtopicRepository subtopicRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+    
     /**
      * Get all active subjects
      * @return List of active subjects
      */
+    @Transactional(readOnly = true)
     public List<Subject> getAllActiveSubjects() {
         return subjectRepository.findByIsActiveTrue();
     }
@@ -32,6 +41,7 @@ public class SubjectService {
      * @param id Subject ID
      * @return Optional subject
      */
+    @Transactional(readOnly = true)
     public Optional<Subject> getSubjectById(Long id) {
         return subjectRepository.findById(id);
     }
@@ -41,6 +51,7 @@ public class SubjectService {
      * @param name Subject name
      * @return Optional subject
      */
+    @Transactional(readOnly = true)
     public Optional<Subject> getSubjectByName(String name) {
         return subjectRepository.findByNameIgnoreCase(name);
     }
@@ -50,6 +61,7 @@ public class SubjectService {
      * @param name Search term for subject name
      * @return List of matching subjects
      */
+    @Transactional(readOnly = true)
     public List<Subject> searchSubjectsByName(String name) {
         return subjectRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(name);
     }
@@ -59,8 +71,14 @@ public class SubjectService {
      * @param tutorId Tutor ID
      * @return List of subjects taught by the tutor
      */
+    @Transactional(readOnly = true)
     public List<Subject> getSubjectsByTutorId(Long tutorId) {
-        return subjectRepository.findByTutorId(tutorId);
+        // Walks the cached user and subject collection instead of querying, see SubjectRepository.findByTutorId
+        return userRepository.findById(tutorId)
+                .map(tutor -> tutor.getSubjects().stream()
+                        .filter(subject -> Boolean.TRUE.equals(subject.getIsActive()))
+                        .toList())
+                .orElse(List.of());
     }
     
     /**
@@ -84,14 +102,17 @@ public class SubjectService {
      * @return Updated subject
      */
     public Subject updateSubject(Long id, Subject subjectDetails) {
-        Subject subject = subjectRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Subject not found with ID: " + id));
-        
-        subject.setName(subjectDetails.getName());
-        subject.setDescription(subjectDetails.getDescription());
-        subject.setIsActive(subjectDetails.getIsActive());
-        
-        return subjectRepository.save(subject);
+        return retryExecutor.execute("subject.update", () -> {
+            Subject subject = subjectRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Subject not found with ID: " + id));
+            retryExecutor.checkVersion("subject.update", subjectDetails.getVersion(), subject.getVersion());
+            
+            subject.setName(subjectDetails.getName());
+            subject.setDescription(subjectDetails.getDescription());
+            subject.setIsActive(subjectDetails.getIsActive());
+            
+            return subjectRepository.save(subject);
+        });
     }
     
     /**
@@ -99,6 +120,7 @@ public class SubjectService {
      * @param subjectId Subject ID
      * @return List of subtopics
      */
+    @Transactional(readOnly = true)
     public List<Subtopic> getSubtopicsBySubjectId(Long subjectId) {
         return subtopicRepository.findBySubjectIdAndIsActiveTrue(subjectId);
     }
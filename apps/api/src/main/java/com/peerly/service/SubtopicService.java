@@ -4,8 +4,10 @@ import com.peerly.entity.Subject;
 import com.peerly.entity.Subtopic;
 import com.peerly.repository.SubjectRepository;
 import com.peerly.repository.SubtopicRepository;
+import com.peerly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,10 +21,17 @@ public class SubtopicService {
     @Autowired
     private SubjectRepository subjectRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+    
     /**
      * Get all active subtopics
      * @return List of active subtopics
      */
+    @Transactional(readOnly = true)
     public List<Subtopic> getAllActiveSubtopics() {
         return subtopicRepository.findByIsActiveTrue();
     }
@@ -32,6 +41,7 @@ public class SubtopicService {
      * @param id Subtopic ID
      * @return Optional subtopic
      */
+    @Transactional(readOnly = true)
     public Optional<Subtopic> getSubtopicById(Long id) {
         return subtopicRepository.findById(id);
     }
@@ -41,6 +51,7 @@ public class SubtopicService {
      * @param subject Subject entity
      * @return List of subtopics for the subject
      */
+    @Transactional(readOnly = true)
     public List<Subtopic> getSubtopicsBySubject(Subject subject) {
         return subtopicRepository.findBySubjectAndIsActiveTrue(subject);
     }
@@ -50,6 +61,7 @@ public class SubtopicService {
      * @param subjectId Subject ID
      * @return List of subtopics for the subject
      */
+    @Transactional(readOnly = true)
     public List<Subtopic> getSubtopicsBySubjectId(Long subjectId) {
         return subtopicRepository.findBySubjectIdAndIsActiveTrue(subjectId);
     }
@@ -59,6 +71,7 @@ public class SubtopicService {
      * @param name Search term for subtopic name
      * @return List of matching subtopics
      */
+    @Transactional(readOnly = true)
     public List<Subtopic> searchSubtopicsByName(String name) {
         return subtopicRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(name);
     }
@@ -68,8 +81,15 @@ public class SubtopicService {
      * @param tutorId Tutor ID
      * @return List of subtopics available to the tutor
      */
+    @Transactional(readOnly = true)
     public List<Subtopic> getSubtopicsByTutorId(Long tutorId) {
-        return subtopicRepository.findByTutorId(tutorId);
+        // Walks the cached user, subject and subtopic collections instead of querying
+        return userRepository.findById(tutorId)
+                .map(tutor -> tutor.getSubjects().stream()
+                        .flatMap(subject -> subject.getSubtopics().stream())
+                        .filter(subtopic -> Boolean.TRUE.equals(subtopic.getIsActive()))
+                        .toList())
+                .orElse(List.of());
     }
     
     /**
@@ -103,13 +123,16 @@ public class SubtopicService {
      * @return Updated subtopic
      */
     public Subtopic updateSubtopic(Long id, Subtopic subtopicDetails) {
-        Subtopic subtopic = subtopicRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Subtopic not found with ID: " + id));
-        
-        subtopic.setName(subtopicDetails.getName());
-        subtopic.setDescription(subtopicDetails.getDescription());
-        subtopic.setIsActive(subtopicDetails.getIsActive());
-        
-        return subtopicRepository.save(subtopic);
+        return retryExecutor.execute("subtopic.update", () -> {
+            Subtopic subtopic = subtopicRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Subtopic not found with ID: " + id));
+            retryExecutor.checkVersion("subtopic.update", subtopicDetails.getVersion(), subtopic.getVersion());
+            
+            subtopic.setName(subtopicDetails.getName());
+            subtopic.setDescription(subtopicDetails.getDescription());
+            subtopic.setIsActive(subtopicDetails.getIsActive());
+            
+            return subtopicRepository.save(subtopic);
+        });
     }
 }
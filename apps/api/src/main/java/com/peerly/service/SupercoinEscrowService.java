@@ -0,0 +1,275 @@
+package com.peerly.service;
+
+import com.peerly.entity.Session;
+import com.peerly.entity.SupercoinHold;
+import com.peerly.entity.User;
+import com.peerly.repository.SupercoinHoldRepository;
+import com.peerly.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrow for session payments: supercoins are held when a session is booked, released when it
+ * is rejected, cancelled or expires, and captured when it is settled. Stale holds (sessions that
+ * were never settled) expire after the session end plus peerly.escrow.hold-grace.
+ * Available balance is the user's balance minus their holds. Reads come from a SupercoinHoldIndex
+ * instead of summing the holds table. Writes that spend supercoins (placing a hold, debits,
+ * transfers) also check the committed holds in the table and bump the user's version, so a
+ * concurrent write for the same user on any instance conflicts at commit and is retried by
+ * OptimisticRetryExecutor; the index alone only sees other instances' holds after a reconcile.
+ *
+ * Metrics:
+ *  peerly.escrow.holds  - placed / rejected / captured / released / expired
+ *  peerly.escrow.active - holds in the in-memory index
+ */
+@Service
+public class SupercoinEscrowService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SupercoinEscrowService.class);
+    
+    @Autowired
+    private SupercoinHoldRepository holdRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.escrow.hold-grace:PT24H}")
+    private Duration holdGrace;
+    
+    @Value("${peerly.escrow.sweep-batch-size:200}")
+    private int sweepBatchSize;
+    
+    private final SupercoinHoldIndex index = new SupercoinHoldIndex();
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    void init() {
+        // Read-write on purpose: the reconcile snapshot must come from the primary, not a lagging replica
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("peerly.escrow.active", index, SupercoinHoldIndex::size).register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void prime() {
+        reconcile();
+    }
+    
+    /**
+     * Hold the supercoins of a newly booked session
+     * @param session Saved session with student and supercoinsAmount set
+     * @return Created hold, or null if the session costs nothing
+     * @throws RuntimeException if the student's available balance does not cover the amount
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public SupercoinHold place(Session session) {
+        Long amount = session.getSupercoinsAmount();
+        if (amount == null || amount <= 0) {
+            return null;
+        }
+        User student = session.getStudent();
+        Long sessionId = session.getId();
+        // Fast path: rejects without a query when holds known to this instance already cover the balance
+        if (!index.tryHold(sessionId, student.getId(), amount, student.getSupercoins())) {
+            meterRegistry.counter("peerly.escrow.holds", "result", "rejected").increment();
+            throw new RuntimeException("Insufficient available supercoins. Available: "
+                    + (student.getSupercoins() - index.heldBy(student.getId())) + ", Required: " + amount);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    index.committed(sessionId);
+                } else {
+                    index.remove(sessionId);
+                }
+            }
+        });
+    
+        long available = lockedAvailableBalance(student);
+        if (available < amount) {
+            meterRegistry.counter("peerly.escrow.holds", "result", "rejected").increment();
+            throw new RuntimeException("Insufficient available supercoins. Available: " + available + ", Required: " + amount);
+        }
+    
+        SupercoinHold hold = new SupercoinHold();
+        hold.setSessionId(sessionId);
+        hold.setUserId(student.getId());
+        hold.setAmount(amount);
+        hold.setStatus(SupercoinHold.HoldStatus.HELD);
+        hold.setExpiresAt(session.getSessionDateTime().plusMinutes(session.getDurationMinutes()).plus(holdGrace));
+        hold.setCreatedAt(LocalDateTime.now());
+        SupercoinHold saved = holdRepository.save(hold);
+        meterRegistry.counter("peerly.escrow.holds", "result", "placed").increment();
+        return saved;
+    }
+    
+    /**
+     * Release the hold of a rejected or cancelled session
+     * @param sessionId Session ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long sessionId) {
+        releaseAll(List.of(sessionId));
+    }
+    
+    /**
+     * Release the holds of several sessions (e.g. a batch of expired requests)
+     * @param sessionIds Session IDs; sessions without an active hold are skipped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseAll(Collection<Long> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        for (SupercoinHold hold : holdRepository.findBySessionIdInAndStatus(sessionIds, SupercoinHold.HoldStatus.HELD)) {
+            resolve(hold, SupercoinHold.HoldStatus.RELEASED);
+        }
+    }
+    
+    /**
+     * Capture the hold of a session being settled; the caller moves the supercoins
+     * @param session Session being settled
+     * @return Whether the session had an active hold
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean capture(Session session) {
+        return holdRepository.findBySessionId(session.getId())
+                .filter(hold -> hold.getStatus() == SupercoinHold.HoldStatus.HELD)
+                .map(hold -> {
+                    resolve(hold, SupercoinHold.HoldStatus.CAPTURED);
+                    return true;
+                })
+                .orElse(false);
+    }
+    
+    /**
+     * Get the supercoins a user can spend right now
+     * @param user User
+     * @return Balance minus supercoins held for booked sessions
+     */
+    public long getAvailableBalance(User user) {
+        return user.getSupercoins() - index.heldBy(user.getId());
+    }
+    
+    /**
+     * Get the supercoins held for a user's booked sessions
+     * @param userId User ID
+     * @return Sum of active holds
+     */
+    public long getHeld(Long userId) {
+        return index.heldBy(userId);
+    }
+    
+    /**
+     * Reject spending that would dip into supercoins held for booked sessions
+     * @param user Managed user about to be debited
+     * @param amount Amount to debit
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void requireAvailable(User user, long amount) {
+        long available = lockedAvailableBalance(user);
+        if (available < amount) {
+            throw new RuntimeException("Insufficient available supercoins. Available: " + available
+                    + " (" + (user.getSupercoins() - available) + " held for booked sessions), Required: " + amount);
+        }
+    }
+    
+    /**
+     * Expire holds of sessions that were never settled
+     */
+    @Scheduled(fixedDelayString = "${peerly.escrow.sweep-interval-ms:60000}")
+    public void expireStale() {
+        try {
+            Integer expired = transactionTemplate.execute(status -> {
+                List<SupercoinHold> stale = holdRepository.findByStatusAndExpiresAtBefore(
+                        SupercoinHold.HoldStatus.HELD, LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+                for (SupercoinHold hold : stale) {
+                    resolve(hold, SupercoinHold.HoldStatus.EXPIRED);
+                }
+                return stale.size();
+            });
+            if (expired != null && expired > 0) {
+                log.info("Expired {} stale supercoin holds", expired);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Supercoin hold expiry sweep failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Pick up holds placed or resolved by other instances
+     */
+    @Scheduled(fixedDelayString = "${peerly.escrow.reconcile-interval-ms:30000}", initialDelayString = "${peerly.escrow.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        long snapshotStarted = System.nanoTime();
+        Map<Long, SupercoinHoldIndex.Hold> active = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (SupercoinHold hold : holdRepository.findByStatus(SupercoinHold.HoldStatus.HELD)) {
+                    active.put(hold.getSessionId(), new SupercoinHoldIndex.Hold(hold.getUserId(), hold.getAmount(), snapshotStarted));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile supercoin holds: {}", e.getMessage());
+            return;
+        }
+        index.reconcile(active, snapshotStarted);
+    }
+    
+    // Committed holds from the table, made exact by bumping the user's version: a concurrent hold or
+    // debit for the same user commits first and this transaction fails its version check, or the reverse
+    private long lockedAvailableBalance(User user) {
+        entityManager.lock(user, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        return user.getSupercoins() - holdRepository.sumAmountByUserIdAndStatus(user.getId(), SupercoinHold.HoldStatus.HELD);
+    }
+    
+    private void resolve(SupercoinHold hold, SupercoinHold.HoldStatus status) {
+        hold.setStatus(status);
+        hold.setResolvedAt(LocalDateTime.now());
+        holdRepository.save(hold);
+        meterRegistry.counter("peerly.escrow.holds", "result", status.name().toLowerCase()).increment();
+        Long sessionId = hold.getSessionId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index.remove(sessionId);
+            }
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.peerly.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of active supercoin holds: a running held total per user plus the holds
+ * themselves, keyed by session ID. Reserving is a compare-and-set on the user's total, so
+ * concurrent bookings by the same student cannot both spend the same supercoins, without a
+ * row lock or a query over the holds table.
+ *
+ * Holds placed on this instance enter the index before their transaction commits and leave it
+ * if it rolls back. Holds placed or resolved on other instances arrive through reconcile(),
+ * which never drops a hold that is still uncommitted here nor re-adds one resolved here after
+ * the snapshot was read.
+ */
+public class SupercoinHoldIndex {
+    
+    private final Map<Long, AtomicLong> heldByUser = new ConcurrentHashMap<>();
+    
+    private final Map<Long, Hold> holdsBySession = new ConcurrentHashMap<>();
+    
+    // Session ID -> nanoTime its hold was resolved here, until the next reconcile
+    private final Map<Long, Long> resolved = new ConcurrentHashMap<>();
+    
+    /**
+     * Reserve supercoins if the user's unreserved balance covers them
+     * @param sessionId Session the hold is for
+     * @param userId User whose supercoins are held
+     * @param amount Amount to hold
+     * @param balance User's current balance
+     * @return Whether the hold was placed; false if the balance minus existing holds is too small
+     */
+    public boolean tryHold(Long sessionId, Long userId, long amount, long balance) {
+        AtomicLong held = heldByUser.computeIfAbsent(userId, id -> new AtomicLong());
+        long current;
+        do {
+            current = held.get();
+            if (balance - current < amount) {
+                return false;
+            }
+        } while (!held.compareAndSet(current, current + amount));
+    
+        Hold previous = holdsBySession.put(sessionId, new Hold(userId, amount, null));
+        if (previous != null) {
+            total(previous.userId()).addAndGet(-previous.amount());
+        }
+        return true;
+    }
+    
+    /**
+     * Mark a hold placed by tryHold as committed
+     * @param sessionId Session ID
+     */
+    public void committed(Long sessionId) {
+        long now = System.nanoTime();
+        holdsBySession.computeIfPresent(sessionId, (id, hold) -> new Hold(hold.userId(), hold.amount(), now));
+    }
+    
+    /**
+     * Remove a hold (captured, released, expired, or rolled back)
+     * @param sessionId Session ID
+     */
+    public void remove(Long sessionId) {
+        resolved.put(sessionId, System.nanoTime());
+        Hold hold = holdsBySession.remove(sessionId);
+        if (hold != null) {
+            total(hold.userId()).addAndGet(-hold.amount());
+        }
+    }
+    
+    /**
+     * Get the supercoins currently held for a user
+     * @param userId User ID
+     * @return Sum of active holds
+     */
+    public long heldBy(Long userId) {
+        AtomicLong held = heldByUser.get(userId);
+        return held == null ? 0 : held.get();
+    }
+    
+    /**
+     * Bring the index in line with the holds table, picking up holds placed or resolved elsewhere
+     * @param active Holds in HELD status keyed by session ID, read after snapshotStartedNanos
+     * @param snapshotStartedNanos System.nanoTime() taken before the holds were read
+     */
+    public void reconcile(Map<Long, Hold> active, long snapshotStartedNanos) {
+        for (Map.Entry<Long, Hold> entry : active.entrySet()) {
+            Long sessionId = entry.getKey();
+            Long resolvedAt = resolved.get(sessionId);
+            if (resolvedAt != null && resolvedAt - snapshotStartedNanos >= 0) {
+                // Resolved here while the snapshot was being read; the snapshot is behind
+                continue;
+            }
+            Hold hold = entry.getValue();
+            if (holdsBySession.putIfAbsent(sessionId, hold) == null) {
+                total(hold.userId()).addAndGet(hold.amount());
+            }
+        }
+        holdsBySession.forEach((sessionId, hold) -> {
+            // Only holds committed before the snapshot started are known to be resolved when missing from it
+            boolean inSnapshot = hold.committedAt() != null && hold.committedAt() - snapshotStartedNanos < 0;
+            if (inSnapshot && !active.containsKey(sessionId) && holdsBySession.remove(sessionId, hold)) {
+                total(hold.userId()).addAndGet(-hold.amount());
+            }
+        });
+        resolved.values().removeIf(resolvedAt -> resolvedAt - snapshotStartedNanos < 0);
+    }
+    
+    public int size() {
+        return holdsBySession.size();
+    }
+    
+    private AtomicLong total(Long userId) {
+        return heldByUser.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+    
+    /**
+     * Active hold; committedAt (System.nanoTime()) is null while the placing transaction is still open
+     */
+    public record Hold(Long userId, long amount, Long committedAt) {
+    }
+}
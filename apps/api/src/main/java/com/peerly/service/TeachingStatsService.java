@@ -0,0 +1,216 @@
+package com.peerly.service;
+
+import com.peerly.dto.TeachingStats;
+import com.peerly.entity.Session;
+import com.peerly.entity.TutorStatsBucket;
+import com.peerly.repository.TutorStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teaching statistics rollups (tutor_stats): sessions completed and cancelled, minutes taught
+ * and supercoins earned per tutor and day/week/month of the session date.
+ * Rollups are updated in the same transaction as the session change (completion, settlement,
+ * rejection, cancellation), so they never count a change that rolled back. A nightly job
+ * rebuilds the recent buckets from sessions and session_history to repair any drift.
+ */
+@Service
+public class TeachingStatsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TeachingStatsService.class);
+    
+    private static final String DELETE_SQL =
+            "DELETE FROM tutor_stats WHERE (granularity IN ('DAY', 'WEEK') AND bucket_start >= ?) " +
+            "OR (granularity = 'MONTH' AND bucket_start >= ?)";
+    
+    // Same bucketing as TutorStatsRepository.addDeltas; month buckets only from the first whole month
+    private static final String REBUILD_SQL =
+            "WITH src AS (" +
+            "  SELECT tutor_id, CAST(session_date_time AS DATE) AS day, status, duration_minutes, " +
+            "    supercoins_amount, supercoins_processed FROM sessions " +
+            "  WHERE status IN ('COMPLETED', 'CANCELLED') AND session_date_time >= ? " +
+            "  UNION ALL " +
+            "  SELECT tutor_id, CAST(session_date_time AS DATE), status, duration_minutes, " +
+            "    supercoins_amount, supercoins_processed FROM session_history " +
+            "  WHERE status IN ('COMPLETED', 'CANCELLED') AND session_date_time >= ?" +
+            "), buckets AS (" +
+            "  SELECT tutor_id, 'DAY' AS granularity, day AS bucket_start, status, duration_minutes, " +
+            "    supercoins_amount, supercoins_processed FROM src " +
+            "  UNION ALL SELECT tutor_id, 'WEEK', CAST(date_trunc('week', day) AS DATE), status, duration_minutes, " +
+            "    supercoins_amount, supercoins_processed FROM src " +
+            "  UNION ALL SELECT tutor_id, 'MONTH', CAST(date_trunc('month', day) AS DATE), status, duration_minutes, " +
+            "    supercoins_amount, supercoins_processed FROM src WHERE day >= ?" +
+            ") " +
+            "INSERT INTO tutor_stats (tutor_id, granularity, bucket_start, sessions_completed, sessions_cancelled, " +
+            "  minutes_taught, supercoins_earned, updated_at) " +
+            "SELECT tutor_id, granularity, bucket_start, " +
+            "  COUNT(*) FILTER (WHERE status = 'COMPLETED'), " +
+            "  COUNT(*) FILTER (WHERE status = 'CANCELLED'), " +
+            "  COALESCE(SUM(duration_minutes) FILTER (WHERE status = 'COMPLETED'), 0), " +
+            "  COALESCE(SUM(supercoins_amount) FILTER (WHERE status = 'COMPLETED' AND supercoins_processed = true), 0), " +
+            "  now() FROM buckets GROUP BY tutor_id, granularity, bucket_start";
+    
+    @Autowired
+    private TutorStatsRepository tutorStatsRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.teaching-stats.reconcile-days:35}")
+    private int reconcileDays;
+    
+    @Value("${peerly.teaching-stats.max-buckets:400}")
+    private int maxBuckets;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Count completed sessions and their minutes; must run in the completing transaction
+     * @param sessions Sessions that just became COMPLETED
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompleted(Collection<Session> sessions) {
+        for (Session session : sessions) {
+            long minutes = session.getDurationMinutes() == null ? 0 : session.getDurationMinutes();
+            add(session, 1, 0, minutes, 0);
+        }
+    }
+    
+    /**
+     * Count supercoins earned by a settled session; must run in the settling transaction
+     * @param session Session whose supercoins were just transferred to the tutor
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSettled(Session session) {
+        Long amount = session.getSupercoinsAmount();
+        if (amount != null && amount > 0) {
+            add(session, 0, 0, 0, amount);
+        }
+    }
+    
+    /**
+     * Count a rejected or cancelled session; must run in the cancelling transaction
+     * @param session Session that just became CANCELLED
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCancelled(Session session) {
+        add(session, 0, 1, 0, 0);
+    }
+    
+    private void add(Session session, long completed, long cancelled, long minutes, long earned) {
+        tutorStatsRepository.addDeltas(session.getTutor().getId(), session.getSessionDateTime().toLocalDate(),
+                completed, cancelled, minutes, earned);
+    }
+    
+    /**
+     * Get a tutor's statistics per bucket
+     * @param tutorId Tutor ID
+     * @param granularity Bucket size
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @return Buckets overlapping the range, oldest first, with totals
+     */
+    @Transactional(readOnly = true)
+    public TeachingStats getStats(Long tutorId, TutorStatsBucket.Granularity granularity, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        LocalDate first = bucketStart(granularity, from);
+        long buckets = switch (granularity) {
+            case DAY -> ChronoUnit.DAYS.between(first, to) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(first, to) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(first, to) + 1;
+        };
+        if (buckets > maxBuckets) {
+            throw new RuntimeException("At most " + maxBuckets + " " + granularity.name().toLowerCase()
+                    + " buckets can be requested at once");
+        }
+    
+        List<TeachingStats.Bucket> result = new ArrayList<>();
+        long completed = 0;
+        long cancelled = 0;
+        long minutes = 0;
+        long earned = 0;
+        for (TutorStatsBucket bucket : tutorStatsRepository
+                .findByTutorIdAndGranularityAndBucketStartBetweenOrderByBucketStart(tutorId, granularity, first, to)) {
+            result.add(toBucket(bucket.getBucketStart(), bucket.getSessionsCompleted(), bucket.getSessionsCancelled(),
+                    bucket.getMinutesTaught(), bucket.getSupercoinsEarned()));
+            completed += bucket.getSessionsCompleted();
+            cancelled += bucket.getSessionsCancelled();
+            minutes += bucket.getMinutesTaught();
+            earned += bucket.getSupercoinsEarned();
+        }
+        return new TeachingStats(tutorId, granularity.name(), first, to, result,
+                toBucket(null, completed, cancelled, minutes, earned));
+    }
+    
+    /**
+     * Rebuild the buckets of the last reconcile-days (widened to whole weeks and months)
+     * from sessions and session_history
+     * @return Number of buckets written
+     */
+    @Scheduled(cron = "${peerly.teaching-stats.reconcile-cron:0 45 4 * * *}")
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        LocalDate monthStart = LocalDate.now().minusDays(reconcileDays).withDayOfMonth(1);
+        LocalDate weekStart = monthStart.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        Timestamp since = Timestamp.valueOf(weekStart.atStartOfDay());
+        Integer written = transactionTemplate.execute(status -> {
+            // Blocks incremental updates until commit: a change that committed before the lock is in
+            // the rebuild, one that commits after it adds its delta on top of the rebuilt rows
+            jdbcTemplate.execute("LOCK TABLE tutor_stats IN SHARE ROW EXCLUSIVE MODE");
+            jdbcTemplate.update(DELETE_SQL, weekStart, monthStart);
+            return jdbcTemplate.update(REBUILD_SQL, since, since, monthStart);
+        });
+        meterRegistry.timer("peerly.teaching_stats.reconcile").record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+        log.info("Rebuilt {} teaching stats buckets since {}", written, weekStart);
+        return written == null ? 0 : written;
+    }
+    
+    private static LocalDate bucketStart(TutorStatsBucket.Granularity granularity, LocalDate day) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+    
+    private static TeachingStats.Bucket toBucket(LocalDate bucketStart, long completed, long cancelled, long minutes,
+                                                 long earned) {
+        long decided = completed + cancelled;
+        return new TeachingStats.Bucket(bucketStart, completed, cancelled, minutes / 60.0, earned,
+                decided == 0 ? 0.0 : (double) cancelled / decided);
+    }
+}
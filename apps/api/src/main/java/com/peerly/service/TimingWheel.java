@@ -0,0 +1,129 @@
+package com.peerly.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with a time-ordered queue of buckets.
+ * Scheduling is O(1); only buckets whose time has come are touched when the clock
+ * advances, and entries far in the future live in coarser overflow wheels until they
+ * cascade down. Not thread-safe: callers serialize access.
+ *
+ * @param <T> Payload type
+ */
+public class TimingWheel<T> {
+    
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final Bucket<T>[] buckets;
+    private final PriorityQueue<Bucket<T>> queue;
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+    
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this(tickMs, wheelSize, startMs, new PriorityQueue<>((a, b) -> Long.compare(a.expiration, b.expiration)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private TimingWheel(long tickMs, int wheelSize, long startMs, PriorityQueue<Bucket<T>> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+    }
+    
+    /**
+     * Schedule a payload
+     * @param expirationMs Epoch millis at which the payload is due
+     * @param payload Payload
+     * @return Handle that can cancel the entry, or null if it is already due
+     */
+    public Entry<T> schedule(long expirationMs, T payload) {
+        Entry<T> entry = new Entry<>(expirationMs, payload);
+        return add(entry) ? entry : null;
+    }
+    
+    /**
+     * Advance the clock and hand every due, non-cancelled payload to the sink
+     * @param nowMs Current epoch millis
+     * @param sink Receiver of due payloads
+     */
+    public void advance(long nowMs, Consumer<T> sink) {
+        Bucket<T> bucket;
+        while ((bucket = queue.peek()) != null && bucket.expiration <= nowMs) {
+            queue.poll();
+            advanceClock(bucket.expiration);
+            for (Entry<T> entry : bucket.drain()) {
+                // Entries from overflow wheels cascade into finer wheels; due ones fall through
+                if (!entry.cancelled && !add(entry)) {
+                    sink.accept(entry.payload);
+                }
+            }
+        }
+    }
+    
+    private boolean add(Entry<T> entry) {
+        if (entry.expirationMs < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.expirationMs < currentTime + interval) {
+            long virtualId = entry.expirationMs / tickMs;
+            Bucket<T> bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.entries.add(entry);
+            // A bucket is queued once per rotation, when its expiration changes
+            if (bucket.expiration != virtualId * tickMs) {
+                bucket.expiration = virtualId * tickMs;
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime, queue);
+        }
+        return overflowWheel.add(entry);
+    }
+    
+    private void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTime);
+            }
+        }
+    }
+    
+    public static final class Entry<T> {
+        private final long expirationMs;
+        private final T payload;
+        private volatile boolean cancelled;
+        
+        private Entry(long expirationMs, T payload) {
+            this.expirationMs = expirationMs;
+            this.payload = payload;
+        }
+        
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+    
+    private static final class Bucket<T> {
+        private final List<Entry<T>> entries = new ArrayList<>();
+        private long expiration = -1;
+        
+        private List<Entry<T>> drain() {
+            List<Entry<T>> drained = new ArrayList<>(entries);
+            entries.clear();
+            expiration = -1;
+            return drained;
+        }
+    }
+}
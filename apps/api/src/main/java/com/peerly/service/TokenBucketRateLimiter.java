@@ -0,0 +1,82 @@
+package com.peerly.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by client (and endpoint), kept in a lock-free map.
+ * Each bucket is one AtomicLong holding its theoretical arrival time (GCRA): a request is
+ * admitted while that time is no more than the burst ahead of the clock, and admitting it
+ * pushes the time forward by one refill interval. This behaves like a token bucket of the
+ * same capacity and refill rate, updated with a single CAS and no refill thread.
+ */
+@Service
+public class TokenBucketRateLimiter {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        meterRegistry.gaugeMapSize("peerly.ratelimit.buckets", List.of(), buckets);
+    }
+    
+    /**
+     * Take one token from a bucket
+     * @param key Bucket key
+     * @param limit Capacity and refill rate of the bucket
+     * @return 0 if admitted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, Limit limit) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long next = start + limit.intervalNanos();
+            long wait = next - now - limit.burstNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Drop buckets that have refilled completely; a fresh bucket behaves identically
+     */
+    @Scheduled(fixedDelayString = "${peerly.rate-limit.sweep-interval-ms:60000}")
+    public void evictFull() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+    
+    /**
+     * Bucket capacity and refill rate
+     * @param capacity Maximum burst
+     * @param refillPerSecond Tokens added per second
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+    
+        long intervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        }
+    
+        long burstNanos() {
+            return intervalNanos() * capacity;
+        }
+    }
+}
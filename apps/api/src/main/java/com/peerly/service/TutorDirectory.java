@@ -0,0 +1,758 @@
+package com.peerly.service;
+
+import com.peerly.dto.BulkImportCompletedEvent;
+import com.peerly.dto.EntityChangedEvent;
+import com.peerly.dto.TutorBrowseResult;
+import com.peerly.dto.TutorSearchCriteria;
+import com.peerly.dto.TutorSearchResult;
+import com.peerly.dto.TutorSummary;
+import com.peerly.entity.User;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * In-memory directory of tutors for multi-filter search and faceted browse without loading User entities.
+ * Tutor attributes are held column-wise in primitive arrays indexed by a dense row number.
+ * Every facet is pre-aggregated as roaring bitmaps of rows (one per subject, one per rate,
+ * experience and rating band, plus tutor, active and multi-subject rows), so a query is a
+ * handful of bitmap intersections and a facet count is an intersection cardinality.
+ * Kept in sync from committed user, review and catalog writes, on other instances as well through
+ * RedisEntityChangeBroadcaster; bulk imports trigger a full reload.
+ * Writes applied while a reload is reading the database are remembered and re-applied to the
+ * reloaded columns, since the reload may have read those rows before the write committed.
+ */
+@Service
+public class TutorDirectory {
+    
+    private static final Logger log = LoggerFactory.getLogger(TutorDirectory.class);
+    
+    private static final int MAX_LIMIT = 500;
+    
+    private static final String TUTORS_SQL =
+            "SELECT id, name, role, hourly_rate, experience_years, is_active FROM users " +
+            "WHERE role IN ('TUTOR', 'BOTH') %s ORDER BY id";
+    
+    private static final String TUTOR_SUBJECTS_SQL =
+            "SELECT us.user_id, us.subject_id FROM user_subjects us JOIN users u ON u.id = us.user_id " +
+            "WHERE u.role IN ('TUTOR', 'BOTH') ORDER BY us.user_id, us.subject_id";
+    
+    private static final String RATINGS_SQL =
+            "SELECT reviewee_id, AVG(rating), COUNT(*) FROM reviews %s GROUP BY reviewee_id";
+    
+    // Same overlap rule as SessionRepository.countConflictingSessions, for every tutor at once
+    private static final String BUSY_TUTORS_SQL =
+            "SELECT DISTINCT s.tutor_id FROM sessions s WHERE s.status IN ('PENDING', 'CONFIRMED') " +
+            "AND s.session_date_time <= ? " +
+            "AND s.session_date_time + s.duration_minutes * INTERVAL '1 minute' >= ?";
+    
+    // Facet values with the most matches first
+    private static final Comparator<TutorBrowseResult.FacetCount> BY_COUNT =
+            Comparator.comparingLong(TutorBrowseResult.FacetCount::getCount).reversed()
+                    .thenComparing(TutorBrowseResult.FacetCount::getLabel, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private volatile Columns columns;
+    
+    // Refreshes seen since the running reload started reading; null when no reload runs. Written under the write lock
+    private volatile PendingRefreshes pending;
+    
+    /**
+     * Search tutors
+     * @param criteria Filters, sort order and limit
+     * @return Matching tutors and the total number of matches
+     */
+    public TutorSearchResult search(TutorSearchCriteria criteria) {
+        ensureLoaded();
+        List<Long> busyTutorIds = findBusyTutorIds(criteria);
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            RoaringBitmap matches = new Filters(c, criteria, busyTutorIds).matches();
+            int limit = Math.max(1, Math.min(criteria.getLimit(), MAX_LIMIT));
+            return new TutorSearchResult(matches.getCardinality(), page(c, matches, criteria.getSort(), 0, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Browse tutors with facet counts
+     * @param criteria Filters, sort order, page and page size
+     * @return One page of matching tutors and the counts for every facet
+     */
+    public TutorBrowseResult browse(TutorSearchCriteria criteria) {
+        ensureLoaded();
+        List<Long> busyTutorIds = findBusyTutorIds(criteria);
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            Filters filters = new Filters(c, criteria, busyTutorIds);
+            RoaringBitmap matches = filters.matches();
+            int size = Math.max(1, Math.min(criteria.getLimit(), MAX_LIMIT));
+            int page = Math.max(0, criteria.getPage());
+    
+            // Subjects and subtopics narrow the result, so their counts are "matches if added";
+            // range and availability counts ignore their own filter so other values stay selectable
+            Map<String, List<TutorBrowseResult.FacetCount>> facets = new LinkedHashMap<>();
+            facets.put(TutorBrowseResult.FACET_SUBJECT, subjectCounts(c, matches));
+            facets.put(TutorBrowseResult.FACET_SUBTOPIC, subtopicCounts(c, matches));
+            facets.put(TutorBrowseResult.FACET_HOURLY_RATE, c.rateBands.counts(
+                    intersect(filters.base, filters.subjects, filters.subtopics, filters.experience, filters.rating, filters.availability)));
+            facets.put(TutorBrowseResult.FACET_EXPERIENCE, c.experienceBands.counts(
+                    intersect(filters.base, filters.subjects, filters.subtopics, filters.rate, filters.rating, filters.availability)));
+            facets.put(TutorBrowseResult.FACET_RATING, c.ratingBands.counts(
+                    intersect(filters.base, filters.subjects, filters.subtopics, filters.rate, filters.experience, filters.availability)));
+            facets.put(TutorBrowseResult.FACET_AVAILABILITY, availabilityCounts(c,
+                    intersect(filters.base, filters.subjects, filters.subtopics, filters.rate, filters.experience, filters.rating)));
+    
+            List<TutorSummary> tutors = page(c, matches, criteria.getSort(), (long) page * size, size);
+            return new TutorBrowseResult(matches.getCardinality(), page, size, tutors, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Reload the whole directory from the database
+     */
+    @Scheduled(cron = "${peerly.directory.reload-cron:0 45 3 * * *}")
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        setPending(new PendingRefreshes());
+        Columns next;
+        try {
+            next = loadColumns();
+        } catch (RuntimeException e) {
+            setPending(null);
+            throw e;
+        }
+    
+        PendingRefreshes missed;
+        lock.writeLock().lock();
+        try {
+            columns = next;
+            missed = pending;
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        missed.users.forEach(this::refreshUser);
+        missed.ratings.forEach(this::refreshRating);
+        if (missed.catalog) {
+            refreshCatalog();
+        }
+        log.info("Tutor directory loaded {} tutors in {} ms ({} refreshes re-applied)", next.size,
+                System.currentTimeMillis() - start, missed.users.size() + missed.ratings.size() + (missed.catalog ? 1 : 0));
+    }
+    
+    private Columns loadColumns() {
+        Columns next = new Columns();
+        jdbcTemplate.query(String.format(TUTORS_SQL, ""), rs -> {
+            next.upsert(rs.getLong(1), rs.getString(2), User.UserRole.valueOf(rs.getString(3)),
+                    (Double) rs.getObject(4), (Integer) rs.getObject(5), (Boolean) rs.getObject(6));
+        });
+        Map<Long, List<Long>> subjects = new HashMap<>();
+        jdbcTemplate.query(TUTOR_SUBJECTS_SQL, rs -> {
+            subjects.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+        });
+        subjects.forEach(next::setSubjects);
+        jdbcTemplate.query(String.format(RATINGS_SQL, ""), rs -> {
+            next.setRating(rs.getLong(1), rs.getDouble(2), rs.getInt(3));
+        });
+        next.catalog = loadCatalog();
+        return next;
+    }
+    
+    private void setPending(PendingRefreshes refreshes) {
+        lock.writeLock().lock();
+        try {
+            pending = refreshes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        ensureLoaded();
+    }
+    
+    /**
+     * Apply a committed user, review or catalog write to the directory
+     * @param event Entity change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (columns == null && pending == null) {
+            return;
+        }
+        switch (event.getEntityType()) {
+            case EntityChangedEvent.USER -> refreshUser(event.getOwnerId());
+            case EntityChangedEvent.REVIEW -> refreshRating(event.getOwnerId());
+            case EntityChangedEvent.SUBJECT, EntityChangedEvent.SUBTOPIC -> refreshCatalog();
+            default -> {
+            }
+        }
+    }
+    
+    @EventListener
+    public void onBulkImport(BulkImportCompletedEvent event) {
+        switch (event.getEntityType()) {
+            case EntityChangedEvent.USER -> reload();
+            case EntityChangedEvent.SUBJECT, EntityChangedEvent.SUBTOPIC -> {
+                if (columns != null || pending != null) {
+                    refreshCatalog();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+    
+    private void refreshUser(Long userId) {
+        List<Object[]> user = jdbcTemplate.query(String.format(TUTORS_SQL, "AND id = ?"),
+                (rs, i) -> new Object[]{rs.getString(2), User.UserRole.valueOf(rs.getString(3)),
+                        rs.getObject(4), rs.getObject(5), rs.getObject(6)}, userId);
+        List<Long> subjects = jdbcTemplate.queryForList("SELECT subject_id FROM user_subjects WHERE user_id = ?", Long.class, userId);
+    
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.users.add(userId);
+            }
+            if (columns == null) {
+                // First load still reading; re-applied once it finishes
+                return;
+            }
+            if (user.isEmpty()) {
+                // No longer a tutor (or deleted)
+                columns.remove(userId);
+            } else {
+                Object[] row = user.get(0);
+                columns.upsert(userId, (String) row[0], (User.UserRole) row[1], (Double) row[2], (Integer) row[3], (Boolean) row[4]);
+                columns.setSubjects(userId, subjects);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void refreshRating(Long tutorId) {
+        List<Object[]> rating = jdbcTemplate.query(String.format(RATINGS_SQL, "WHERE reviewee_id = ?"),
+                (rs, i) -> new Object[]{rs.getDouble(2), rs.getInt(3)}, tutorId);
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.ratings.add(tutorId);
+            }
+            if (columns == null) {
+                return;
+            }
+            if (rating.isEmpty()) {
+                columns.setRating(tutorId, Double.NaN, 0);
+            } else {
+                columns.setRating(tutorId, (Double) rating.get(0)[0], (Integer) rating.get(0)[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void refreshCatalog() {
+        Catalog catalog = loadCatalog();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.catalog = true;
+            }
+            if (columns == null) {
+                return;
+            }
+            columns.catalog = catalog;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private Catalog loadCatalog() {
+        Map<Long, String> subjectNames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM subjects WHERE is_active = true", rs -> {
+            subjectNames.put(rs.getLong(1), rs.getString(2));
+        });
+        Map<Long, SubtopicEntry> subtopics = new HashMap<>();
+        jdbcTemplate.query("SELECT id, subject_id, name FROM subtopics WHERE is_active = true", rs -> {
+            subtopics.put(rs.getLong(1), new SubtopicEntry(rs.getLong(2), rs.getString(3)));
+        });
+        return new Catalog(subjectNames, subtopics);
+    }
+    
+    private List<Long> findBusyTutorIds(TutorSearchCriteria criteria) {
+        if (criteria.getAvailableAt() == null) {
+            return List.of();
+        }
+        Timestamp start = Timestamp.valueOf(criteria.getAvailableAt());
+        Timestamp end = Timestamp.valueOf(criteria.getAvailableAt().plusMinutes(Math.max(1, criteria.getDurationMinutes())));
+        return jdbcTemplate.queryForList(BUSY_TUTORS_SQL, Long.class, end, start);
+    }
+    
+    private void ensureLoaded() {
+        if (columns == null) {
+            synchronized (this) {
+                if (columns == null) {
+                    reload();
+                }
+            }
+        }
+    }
+    
+    private static List<TutorSummary> page(Columns c, RoaringBitmap matches, String sort, long offset, int size) {
+        return Arrays.stream(matches.toArray()).boxed()
+                .sorted((a, b) -> compare(c, sort, a, b))
+                .skip(offset)
+                .limit(size)
+                .map(c::summary)
+                .toList();
+    }
+    
+    private static List<TutorBrowseResult.FacetCount> subjectCounts(Columns c, RoaringBitmap matches) {
+        List<TutorBrowseResult.FacetCount> counts = new ArrayList<>();
+        c.catalog.subjectNames().forEach((subjectId, name) -> {
+            RoaringBitmap teaching = c.subjectRows.get(subjectId);
+            long count = teaching == null ? 0 : RoaringBitmap.andCardinality(matches, teaching);
+            if (count > 0) {
+                counts.add(new TutorBrowseResult.FacetCount(String.valueOf(subjectId), name, count));
+            }
+        });
+        counts.sort(BY_COUNT);
+        return counts;
+    }
+    
+    private static List<TutorBrowseResult.FacetCount> subtopicCounts(Columns c, RoaringBitmap matches) {
+        // Tutors teach every subtopic of their subjects, so a subtopic shares its subject's rows
+        Map<Long, Long> subjectCounts = new HashMap<>();
+        List<TutorBrowseResult.FacetCount> counts = new ArrayList<>();
+        c.catalog.subtopics().forEach((subtopicId, subtopic) -> {
+            long count = subjectCounts.computeIfAbsent(subtopic.subjectId(), subjectId -> {
+                RoaringBitmap teaching = c.subjectRows.get(subjectId);
+                return teaching == null ? 0L : RoaringBitmap.andCardinality(matches, teaching);
+            });
+            if (count > 0) {
+                counts.add(new TutorBrowseResult.FacetCount(String.valueOf(subtopicId), subtopic.name(), count));
+            }
+        });
+        counts.sort(BY_COUNT);
+        return counts;
+    }
+    
+    private static List<TutorBrowseResult.FacetCount> availabilityCounts(Columns c, RoaringBitmap rows) {
+        long active = RoaringBitmap.andCardinality(rows, c.active);
+        return List.of(
+                new TutorBrowseResult.FacetCount("active", "Available for booking", active),
+                new TutorBrowseResult.FacetCount("inactive", "Not available", rows.getCardinality() - active));
+    }
+    
+    /**
+     * AND of the given bitmaps; null means "not filtered" and is skipped
+     */
+    private static RoaringBitmap intersect(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base;
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result = RoaringBitmap.and(result, filter);
+            }
+        }
+        return result;
+    }
+    
+    private static int compare(Columns c, String sort, int a, int b) {
+        int result = switch (sort == null ? TutorSearchCriteria.SORT_RATING : sort) {
+            // NaN (unset) sorts last in every order
+            case TutorSearchCriteria.SORT_RATE -> Float.compare(nanLast(c.hourlyRates[a], false), nanLast(c.hourlyRates[b], false));
+            case TutorSearchCriteria.SORT_EXPERIENCE -> Integer.compare(c.experienceYears[b], c.experienceYears[a]);
+            default -> Float.compare(nanLast(c.ratings[b], true), nanLast(c.ratings[a], true));
+        };
+        return result != 0 ? result : Long.compare(c.ids[a], c.ids[b]);
+    }
+    
+    private static float nanLast(float value, boolean descending) {
+        if (Float.isNaN(value)) {
+            return descending ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        }
+        return value;
+    }
+    
+    /**
+     * One bitmap per filter in the criteria, null where the filter is not applied
+     */
+    private static final class Filters {
+    
+        final RoaringBitmap base;
+        final RoaringBitmap subjects;
+        final RoaringBitmap subtopics;
+        final RoaringBitmap rate;
+        final RoaringBitmap experience;
+        final RoaringBitmap rating;
+        final RoaringBitmap availability;
+    
+        Filters(Columns c, TutorSearchCriteria criteria, List<Long> busyTutorIds) {
+            RoaringBitmap tutors = criteria.isMultipleSubjects() ? RoaringBitmap.and(c.tutors, c.multipleSubjects) : c.tutors;
+            if (!busyTutorIds.isEmpty()) {
+                RoaringBitmap busy = new RoaringBitmap();
+                for (Long tutorId : busyTutorIds) {
+                    int row = c.rowsById.get(tutorId);
+                    if (row >= 0) {
+                        busy.add(row);
+                    }
+                }
+                tutors = RoaringBitmap.andNot(tutors, busy);
+            }
+            base = tutors;
+            subjects = teachingAll(c, criteria.getSubjectIds());
+            subtopics = criteria.getSubtopicIds() == null ? null : teachingAll(c, criteria.getSubtopicIds().stream()
+                    .map(subtopicId -> {
+                        SubtopicEntry subtopic = c.catalog.subtopics().get(subtopicId);
+                        return subtopic == null ? -1L : subtopic.subjectId();
+                    })
+                    .distinct()
+                    .toList());
+            rate = c.rateBands.range(row -> c.hourlyRates[row], criteria.getMinRate(), criteria.getMaxRate());
+            experience = c.experienceBands.range(row -> c.experienceYears[row],
+                    criteria.getMinExperience() == null ? null : criteria.getMinExperience().doubleValue(),
+                    criteria.getMaxExperience() == null ? null : criteria.getMaxExperience().doubleValue());
+            rating = c.ratingBands.range(row -> c.ratings[row], criteria.getMinRating(), null);
+            availability = criteria.isActiveOnly() ? c.active : null;
+        }
+    
+        RoaringBitmap matches() {
+            return intersect(base, subjects, subtopics, rate, experience, rating, availability);
+        }
+    
+        private static RoaringBitmap teachingAll(Columns c, List<Long> subjectIds) {
+            if (subjectIds == null || subjectIds.isEmpty()) {
+                return null;
+            }
+            RoaringBitmap result = null;
+            for (Long subjectId : subjectIds) {
+                RoaringBitmap teaching = c.subjectRows.get(subjectId);
+                if (teaching == null) {
+                    return new RoaringBitmap();
+                }
+                result = result == null ? teaching : RoaringBitmap.and(result, teaching);
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Pre-aggregated range facet: a bitmap of rows per band [edges[i], edges[i + 1]), the last band open-ended.
+     * Values below the first edge (including unset values) belong to no band.
+     */
+    static final class RangeFacet {
+    
+        private final double[] edges;
+        private final RoaringBitmap[] bands;
+    
+        RangeFacet(double... edges) {
+            this.edges = edges;
+            this.bands = new RoaringBitmap[edges.length];
+            for (int i = 0; i < edges.length; i++) {
+                bands[i] = new RoaringBitmap();
+            }
+        }
+    
+        void move(int row, double oldValue, double newValue) {
+            int from = bandOf(oldValue);
+            int to = bandOf(newValue);
+            if (from == to) {
+                return;
+            }
+            if (from >= 0) {
+                bands[from].remove(row);
+            }
+            if (to >= 0) {
+                bands[to].add(row);
+            }
+        }
+    
+        /**
+         * Rows with a value in [min, max]: whole bands inside the range are OR-ed in,
+         * only the rows of the (at most two) partially covered bands are checked
+         * @return Matching rows, or null if neither bound is given
+         */
+        RoaringBitmap range(IntToDoubleFunction value, Double min, Double max) {
+            if (min == null && max == null) {
+                return null;
+            }
+            double low = min == null ? Double.NEGATIVE_INFINITY : min;
+            double high = max == null ? Double.POSITIVE_INFINITY : max;
+            RoaringBitmap result = new RoaringBitmap();
+            for (int i = 0; i < edges.length; i++) {
+                double bandLow = edges[i];
+                double bandHigh = i + 1 < edges.length ? edges[i + 1] : Double.POSITIVE_INFINITY;
+                if (bandHigh <= low || bandLow > high) {
+                    continue;
+                }
+                if (bandLow >= low && bandHigh <= high) {
+                    result.or(bands[i]);
+                    continue;
+                }
+                IntIterator it = bands[i].getIntIterator();
+                while (it.hasNext()) {
+                    int row = it.next();
+                    double v = value.applyAsDouble(row);
+                    if (v >= low && v <= high) {
+                        result.add(row);
+                    }
+                }
+            }
+            return result;
+        }
+    
+        List<TutorBrowseResult.FacetCount> counts(RoaringBitmap rows) {
+            List<TutorBrowseResult.FacetCount> counts = new ArrayList<>(edges.length);
+            for (int i = 0; i < edges.length; i++) {
+                String label = i + 1 < edges.length ? format(edges[i]) + "-" + format(edges[i + 1]) : format(edges[i]) + "+";
+                counts.add(new TutorBrowseResult.FacetCount(label, label, RoaringBitmap.andCardinality(rows, bands[i])));
+            }
+            return counts;
+        }
+    
+        private int bandOf(double value) {
+            if (Double.isNaN(value) || value < edges[0]) {
+                return -1;
+            }
+            int band = edges.length - 1;
+            while (value < edges[band]) {
+                band--;
+            }
+            return band;
+        }
+    
+        private static String format(double edge) {
+            return edge == Math.rint(edge) ? String.valueOf((long) edge) : String.valueOf(edge);
+        }
+    }
+    
+    private record SubtopicEntry(long subjectId, String name) {
+    }
+    
+    private record Catalog(Map<Long, String> subjectNames, Map<Long, SubtopicEntry> subtopics) {
+    }
+    
+    private static final class PendingRefreshes {
+    
+        private final Set<Long> users = new HashSet<>();
+        private final Set<Long> ratings = new HashSet<>();
+        private boolean catalog;
+    }
+    
+    /**
+     * Struct-of-arrays tutor table with its facet bitmaps. Rows are never reused; a removed tutor only leaves the bitmaps.
+     */
+    static final class Columns {
+    
+        private static final long[] NO_SUBJECTS = new long[0];
+    
+        long[] ids = new long[1024];
+        String[] names = new String[1024];
+        byte[] roles = new byte[1024];
+        float[] hourlyRates = new float[1024]; // NaN when unset
+        int[] experienceYears = new int[1024]; // -1 when unset
+        float[] ratings = new float[1024]; // NaN without reviews
+        int[] reviewCounts = new int[1024];
+        long[][] subjects = new long[1024][];
+        int size;
+    
+        final LongIntMap rowsById = new LongIntMap();
+        final RoaringBitmap tutors = new RoaringBitmap();
+        final RoaringBitmap active = new RoaringBitmap();
+        final RoaringBitmap multipleSubjects = new RoaringBitmap();
+        final Map<Long, RoaringBitmap> subjectRows = new HashMap<>();
+        final RangeFacet rateBands = new RangeFacet(0, 15, 25, 40, 60, 100);
+        final RangeFacet experienceBands = new RangeFacet(0, 2, 5, 10, 20);
+        final RangeFacet ratingBands = new RangeFacet(1, 2, 3, 4, 4.5);
+        Catalog catalog = new Catalog(Map.of(), Map.of());
+    
+        void upsert(long id, String name, User.UserRole role, Double hourlyRate, Integer experience, Boolean isActive) {
+            int row = rowsById.get(id);
+            if (row < 0) {
+                row = size++;
+                ensureCapacity(size);
+                rowsById.put(id, row);
+                ids[row] = id;
+                hourlyRates[row] = Float.NaN;
+                experienceYears[row] = -1;
+                ratings[row] = Float.NaN;
+                subjects[row] = NO_SUBJECTS;
+            }
+            float rate = hourlyRate == null ? Float.NaN : hourlyRate.floatValue();
+            int years = experience == null ? -1 : experience;
+            rateBands.move(row, hourlyRates[row], rate);
+            experienceBands.move(row, experienceYears[row], years);
+            names[row] = name;
+            roles[row] = (byte) role.ordinal();
+            hourlyRates[row] = rate;
+            experienceYears[row] = years;
+            tutors.add(row);
+            if (Boolean.FALSE.equals(isActive)) {
+                active.remove(row);
+            } else {
+                active.add(row);
+            }
+        }
+    
+        void remove(long id) {
+            int row = rowsById.get(id);
+            if (row >= 0) {
+                tutors.remove(row);
+                active.remove(row);
+                setSubjects(id, List.of());
+                rateBands.move(row, hourlyRates[row], Double.NaN);
+                experienceBands.move(row, experienceYears[row], Double.NaN);
+                ratingBands.move(row, ratings[row], Double.NaN);
+            }
+        }
+    
+        void setSubjects(long id, List<Long> subjectIds) {
+            int row = rowsById.get(id);
+            if (row < 0) {
+                return;
+            }
+            for (long subjectId : subjects[row]) {
+                RoaringBitmap teaching = subjectRows.get(subjectId);
+                if (teaching != null) {
+                    teaching.remove(row);
+                }
+            }
+            long[] next = subjectIds.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+            for (long subjectId : next) {
+                subjectRows.computeIfAbsent(subjectId, s -> new RoaringBitmap()).add(row);
+            }
+            subjects[row] = next;
+            if (next.length > 1) {
+                multipleSubjects.add(row);
+            } else {
+                multipleSubjects.remove(row);
+            }
+        }
+    
+        void setRating(long id, double averageRating, int reviewCount) {
+            int row = rowsById.get(id);
+            if (row >= 0) {
+                ratingBands.move(row, ratings[row], averageRating);
+                ratings[row] = (float) averageRating;
+                reviewCounts[row] = reviewCount;
+            }
+        }
+    
+        TutorSummary summary(int row) {
+            List<Long> subjectIds = new ArrayList<>(subjects[row].length);
+            for (long subjectId : subjects[row]) {
+                subjectIds.add(subjectId);
+            }
+            return new TutorSummary(ids[row], names[row], User.UserRole.values()[roles[row]].name(),
+                    Float.isNaN(hourlyRates[row]) ? null : (double) hourlyRates[row],
+                    experienceYears[row] < 0 ? null : experienceYears[row],
+                    Float.isNaN(ratings[row]) ? null : (double) ratings[row],
+                    reviewCounts[row], active.contains(row), subjectIds);
+        }
+    
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int length = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, length);
+            names = Arrays.copyOf(names, length);
+            roles = Arrays.copyOf(roles, length);
+            hourlyRates = Arrays.copyOf(hourlyRates, length);
+            experienceYears = Arrays.copyOf(experienceYears, length);
+            ratings = Arrays.copyOf(ratings, length);
+            reviewCounts = Arrays.copyOf(reviewCounts, length);
+            subjects = Arrays.copyOf(subjects, length);
+        }
+    }
+    
+    /**
+     * Open-addressing long -> int map (no boxing); keys are positive user IDs, 0 marks an empty slot.
+     */
+    static final class LongIntMap {
+    
+        private long[] keys = new long[2048];
+        private int[] values = new int[2048];
+        private int size;
+    
+        int get(long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+    
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.peerly.service;
+
+import com.peerly.config.ReplicaConsistency;
+import com.peerly.dto.DomainEvent;
+import com.peerly.dto.EntityChangedEvent;
+import com.peerly.dto.TutorProfile;
+import com.peerly.entity.Review;
+import com.peerly.entity.Session;
+import com.peerly.entity.User;
+import com.peerly.repository.ReviewRepository;
+import com.peerly.repository.SessionHistoryRepository;
+import com.peerly.repository.SessionRepository;
+import com.peerly.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Builds the tutor profile aggregate in a single request.
+ * The user, catalog, review and session reads run concurrently on virtual threads, each in
+ * its own read-only transaction. Composed profiles are cached per user and invalidated by
+ * the entity and session events that can change them; since a cached profile outlives the
+ * request, its reads go to the primary rather than a possibly lagging replica.
+ */
+@Service
+public class TutorProfileService {
+    
+    // Generation stripes guard against caching a profile that was loaded before an invalidation
+    private static final int GENERATION_STRIPES = 1024;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SubjectService subjectService;
+    
+    @Autowired
+    private SubtopicService subtopicService;
+    
+    @Autowired
+    private ReviewRepository reviewRepository;
+    
+    @Autowired
+    private SessionRepository sessionRepository;
+    
+    @Autowired
+    private SessionHistoryRepository sessionHistoryRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ObjectProvider<ReplicaConsistency> replicaConsistency;
+    
+    @Value("${peerly.profile.cache-ttl:PT10M}")
+    private Duration cacheTtl;
+    
+    @Value("${peerly.profile.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    @Value("${peerly.profile.timeout-ms:3000}")
+    private long timeoutMs;
+    
+    @Value("${peerly.profile.recent-reviews:20}")
+    private int recentReviews;
+    
+    @Value("${peerly.profile.upcoming-sessions:10}")
+    private int upcomingSessions;
+    
+    private final Map<Long, CachedProfile> cache = new ConcurrentHashMap<>();
+    
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private TransactionTemplate readTransaction;
+    
+    private Counter hits;
+    
+    private Counter misses;
+    
+    private Counter invalidations;
+    
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        hits = meterRegistry.counter("peerly.profile.cache", "result", "hit");
+        misses = meterRegistry.counter("peerly.profile.cache", "result", "miss");
+        invalidations = meterRegistry.counter("peerly.profile.cache.invalidations");
+        meterRegistry.gaugeMapSize("peerly.profile.cache.size", List.of(), cache);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Get the composed profile of a user
+     * @param userId User ID
+     * @return Profile, or empty if the user does not exist
+     */
+    public Optional<TutorProfile> getProfile(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedProfile cached = cache.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return Optional.of(cached.profile);
+        }
+        misses.increment();
+    
+        long generation = generations.get(stripe(userId));
+        CachedProfile loaded = load(userId);
+        if (loaded == null) {
+            return Optional.empty();
+        }
+    
+        if (cache.size() >= cacheMaxEntries) {
+            evict(now);
+        }
+        // Only publish if nothing touching this user was invalidated while we were loading
+        cache.compute(userId, (id, current) -> generations.get(stripe(id)) == generation ? loaded : current);
+        return Optional.of(loaded.profile);
+    }
+    
+    /**
+     * Invalidate profiles affected by a committed user, review or catalog change
+     * @param event Entity change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        switch (event.getEntityType()) {
+            case EntityChangedEvent.USER -> {
+                invalidate(event.getOwnerId());
+                // The user's name also appears in reviews shown on other profiles
+                invalidateWhere(cached -> cached.reviewerIds.contains(event.getOwnerId()));
+            }
+            case EntityChangedEvent.REVIEW -> invalidate(event.getOwnerId());
+            case EntityChangedEvent.SUBJECT, EntityChangedEvent.SUBTOPIC ->
+                    invalidateWhere(cached -> cached.subjectIds.contains(event.getOwnerId()));
+            default -> {
+            }
+        }
+    }
+    
+    /**
+     * Invalidate the tutor's profile when one of their sessions changes state
+     * @param event Domain event from the outbox relay
+     */
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (DomainEvent.SESSION.equals(event.getAggregateType())) {
+            Long tutorId = event.getLong("tutorId");
+            if (tutorId != null) {
+                invalidate(tutorId);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${peerly.profile.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt <= now);
+    }
+    
+    private CachedProfile load(Long userId) {
+        // The reads run on executor threads, where the request's consistency state is not bound
+        ReplicaConsistency consistency = replicaConsistency.getIfAvailable();
+        ReadScope scope = new ReadScope(consistency, consistency == null ? null : consistency.capture().withPrimary());
+        CompletableFuture<User> user = read(scope, () -> userRepository.findById(userId).orElse(null));
+        CompletableFuture<List<TutorProfile.SubjectSummary>> subjects = read(scope, () -> subjectService.getSubjectsByTutorId(userId).stream()
+                .map(subject -> new TutorProfile.SubjectSummary(subject.getId(), subject.getName(), subject.getDescription()))
+                .toList());
+        CompletableFuture<List<TutorProfile.SubtopicSummary>> subtopics = read(scope, () -> subtopicService.getSubtopicsByTutorId(userId).stream()
+                .map(subtopic -> new TutorProfile.SubtopicSummary(subtopic.getId(), subtopic.getSubject().getId(), subtopic.getName()))
+                .toList());
+        CompletableFuture<Double> averageRating = read(scope, () -> reviewRepository.findAverageRatingByTutorId(userId));
+        CompletableFuture<Long> reviewCount = read(scope, () -> reviewRepository.countByTutorId(userId));
+        CompletableFuture<List<Review>> reviews = read(scope, () -> reviewRepository.findRecentByTutorId(userId, PageRequest.of(0, recentReviews)));
+        CompletableFuture<Map<String, Long>> sessionCounts = read(scope, () -> countSessions(userId));
+        CompletableFuture<List<TutorProfile.SessionSummary>> upcoming = read(scope, () -> sessionRepository
+                .findUpcomingByTutorId(userId, LocalDateTime.now(), PageRequest.of(0, upcomingSessions)).stream()
+                .map(this::toSessionSummary)
+                .toList());
+    
+        CompletableFuture<?>[] reads = {user, subjects, subtopics, averageRating, reviewCount, reviews, sessionCounts, upcoming};
+        try {
+            CompletableFuture.allOf(reads).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            for (CompletableFuture<?> read : reads) {
+                read.cancel(true);
+            }
+            throw new RuntimeException("Timed out loading profile for user ID: " + userId);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to load profile for user ID: " + userId + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted loading profile for user ID: " + userId);
+        }
+    
+        User found = user.join();
+        if (found == null) {
+            return null;
+        }
+    
+        Set<Long> reviewerIds = new HashSet<>();
+        List<TutorProfile.ReviewSummary> recent = reviews.join().stream()
+                .map(review -> {
+                    reviewerIds.add(review.getReviewer().getId());
+                    return new TutorProfile.ReviewSummary(review.getId(), review.getReviewer().getId(),
+                            review.getReviewer().getName(), review.getRating(), review.getComment(),
+                            review.getSubject(), review.getCreatedAt());
+                })
+                .toList();
+    
+        Set<Long> subjectIds = new HashSet<>();
+        subjects.join().forEach(subject -> subjectIds.add(subject.getId()));
+    
+        TutorProfile profile = new TutorProfile(
+                found.getId(), found.getName(), found.getBio(), found.getRole().name(), found.getHourlyRate(),
+                found.getExperienceYears(), found.getIsActive(), found.getCreatedAt(),
+                subjects.join(), subtopics.join(),
+                averageRating.join(), reviewCount.join(), recent,
+                sessionCounts.join(), upcoming.join(),
+                LocalDateTime.now());
+        return new CachedProfile(profile, System.currentTimeMillis() + cacheTtl.toMillis(), subjectIds, reviewerIds);
+    }
+    
+    private <T> CompletableFuture<T> read(ReadScope scope, Supplier<T> query) {
+        Supplier<T> transaction = () -> readTransaction.execute(status -> query.get());
+        if (scope.consistency() == null) {
+            return CompletableFuture.supplyAsync(transaction, executor);
+        }
+        return CompletableFuture.supplyAsync(() -> scope.consistency().callWith(scope.requirement(), transaction), executor);
+    }
+    
+    private Map<String, Long> countSessions(Long tutorId) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : sessionRepository.countByTutorIdGroupByStatus(tutorId)) {
+            counts.merge(((Session.SessionStatus) row[0]).name(), (Long) row[1], Long::sum);
+        }
+        for (Object[] row : sessionHistoryRepository.countByTutorIdGroupByStatus(tutorId)) {
+            counts.merge(((Session.SessionStatus) row[0]).name(), (Long) row[1], Long::sum);
+        }
+        return counts;
+    }
+    
+    private TutorProfile.SessionSummary toSessionSummary(Session session) {
+        return new TutorProfile.SessionSummary(session.getId(), session.getSessionDateTime(),
+                session.getDurationMinutes(), session.getSubject(), session.getStatus().name());
+    }
+    
+    private void invalidate(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        if (cache.remove(userId) != null) {
+            invalidations.increment();
+        }
+    }
+    
+    private void invalidateWhere(Predicate<CachedProfile> affected) {
+        for (Map.Entry<Long, CachedProfile> entry : cache.entrySet()) {
+            if (affected.test(entry.getValue())) {
+                invalidate(entry.getKey());
+            }
+        }
+    }
+    
+    private void evict(long now) {
+        cache.values().removeIf(cached -> cached.expiresAt <= now);
+        // Still full: drop arbitrary entries down to 90% of capacity
+        Iterator<Long> keys = cache.keySet().iterator();
+        while (cache.size() > cacheMaxEntries * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (GENERATION_STRIPES - 1));
+    }
+    
+    private record ReadScope(ReplicaConsistency consistency, ReplicaConsistency.Requirement requirement) {
+    }
+    
+    private record CachedProfile(TutorProfile profile, long expiresAt, Set<Long> subjectIds, Set<Long> reviewerIds) {
+    }
+}
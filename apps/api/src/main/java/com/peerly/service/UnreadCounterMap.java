@@ -0,0 +1,129 @@
+package com.peerly.service;
+
+import com.peerly.entity.NotificationCounter;
+import com.peerly.repository.NotificationCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user unread notification counters.
+ * Increments and decrements land in striped {@link LongAdder}s and are flushed to
+ * notification_counters periodically, so hot users never contend on a counter row.
+ * Every instance writes the same counters (each inserts the notifications it wins), so the
+ * persisted value is only trusted for peerly.notifications.counter-ttl-ms before it is re-read;
+ * another instance's change shows up within that TTL plus its flush interval.
+ */
+@Component
+public class UnreadCounterMap {
+    
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounterMap.class);
+    
+    // Generation stripes guard against caching a persisted value read before a flush committed
+    private static final int GENERATION_STRIPES = 1024;
+    
+    @Autowired
+    private NotificationCounterRepository counterRepository;
+    
+    @Value("${peerly.notifications.counter-ttl-ms:5000}")
+    private long ttlMs;
+    
+    // Deltas not yet written to the database
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    
+    // Deltas taken by a flush whose write has not committed yet
+    private final Map<Long, LongAdder> flushing = new ConcurrentHashMap<>();
+    
+    // Persisted value per user, as of the time it was read
+    private final Map<Long, Persisted> persisted = new ConcurrentHashMap<>();
+    
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    
+    public void add(Long userId, long delta) {
+        if (delta != 0) {
+            pending.computeIfAbsent(userId, id -> new LongAdder()).add(delta);
+        }
+    }
+    
+    /**
+     * Get the unread count for a user
+     * @param userId User ID
+     * @return Persisted count plus deltas this instance has not written yet
+     */
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        long generation = generations.get(stripe(userId));
+        Persisted base = persisted.get(userId);
+        if (base == null || base.generation() != generation || now - base.readAt() >= ttlMs) {
+            long count = counterRepository.findById(userId).map(NotificationCounter::getUnreadCount).orElse(0L);
+            base = new Persisted(count, now, generation);
+            // A read that raced a flush is stored under the old generation and re-read on the next call
+            persisted.put(userId, base);
+        }
+        return Math.max(0, base.count() + sum(pending, userId) + sum(flushing, userId));
+    }
+    
+    /**
+     * Write pending deltas to notification_counters
+     */
+    @Scheduled(fixedDelayString = "${peerly.notifications.counter-flush-interval-ms:2000}")
+    public void flush() {
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long userId = entry.getKey();
+            long delta = entry.getValue().sum();
+            if (delta == 0) {
+                continue;
+            }
+            LongAdder inFlight = flushing.computeIfAbsent(userId, id -> new LongAdder());
+            inFlight.add(delta);
+            entry.getValue().add(-delta);
+            try {
+                counterRepository.addDelta(userId, delta);
+                // The cached persisted value no longer includes everything written
+                generations.incrementAndGet(stripe(userId));
+                persisted.remove(userId);
+            } catch (RuntimeException e) {
+                // Put the delta back and try again on the next flush
+                entry.getValue().add(delta);
+                log.warn("Failed to flush unread counter for user {}: {}", userId, e.getMessage());
+            } finally {
+                inFlight.add(-delta);
+            }
+        }
+        long expired = System.currentTimeMillis() - ttlMs;
+        persisted.values().removeIf(base -> base.readAt() < expired);
+    }
+    
+    /**
+     * Rebuild counters from the notifications table to repair any drift (e.g. deltas lost in a crash)
+     */
+    @Scheduled(cron = "${peerly.notifications.counter-reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        flush();
+        counterRepository.reconcileAll();
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        persisted.clear();
+    }
+    
+    private static long sum(Map<Long, LongAdder> deltas, Long userId) {
+        LongAdder delta = deltas.get(userId);
+        return delta == null ? 0 : delta.sum();
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (GENERATION_STRIPES - 1));
+    }
+    
+    private record Persisted(long count, long readAt, long generation) {
+    }
+}
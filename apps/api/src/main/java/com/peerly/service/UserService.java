@@ -1,9 +1,11 @@
 package com.peerly.service;
 
 import com.peerly.entity.User;
+import com.peerly.entity.WalletTransaction;
 import com.peerly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,10 +17,20 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+    
+    @Autowired
+    private SupercoinEscrowService escrowService;
+    
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+    
     /**
      * Get all active users
      * @return List of active users
      */
+    @Transactional(readOnly = true)
     public List<User> getAllActiveUsers() {
         return userRepository.findByIsActiveTrue();
     }
@@ -28,6 +40,7 @@ public class UserService {
      * @param id User ID
      * @return Optional user
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -37,6 +50,7 @@ public class UserService {
      * @param email User email
      * @return Optional user
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -45,6 +59,7 @@ public class UserService {
      * Get all active tutors
      * @return List of active tutors
      */
+    @Transactional(readOnly = true)
     public List<User> getAllActiveTutors() {
         return userRepository.findActiveTutors();
     }
@@ -53,6 +68,7 @@ public class UserService {
      * Get all active students
      * @return List of active students
      */
+    @Transactional(readOnly = true)
     public List<User> getAllActiveStudents() {
         return userRepository.findActiveStudents();
     }
@@ -62,6 +78,7 @@ public class UserService {
      * @param name Search term for user name
      * @return List of matching users
      */
+    @Transactional(readOnly = true)
     public List<User> searchUsersByName(String name) {
         return userRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(name);
     }
@@ -71,6 +88,7 @@ public class UserService {
      * @param subject Subject name
      * @return List of tutors teaching the subject
      */
+    @Transactional(readOnly = true)
     public List<User> getTutorsBySubject(String subject) {
         return userRepository.findTutorsBySubjectNameContainingIgnoreCase(subject);
     }
@@ -80,6 +98,7 @@ public class UserService {
      * @param subjectId Subject ID
      * @return List of tutors teaching the subject
      */
+    @Transactional(readOnly = true)
     public List<User> getTutorsBySubjectId(Long subjectId) {
         return userRepository.findTutorsBySubjectId(subjectId);
     }
@@ -88,6 +107,7 @@ public class UserService {
      * Get tutors ordered by experience
      * @return List of tutors ordered by experience years
      */
+    @Transactional(readOnly = true)
     public List<User> getTutorsOrderedByExperience() {
         return userRepository.findActiveTutorsOrderedByExperience();
     }
@@ -97,6 +117,7 @@ public class UserService {
      * @param grade Student grade
      * @return List of students in the grade
      */
+    @Transactional(readOnly = true)
     public List<User> getStudentsByGrade(String grade) {
         return userRepository.findByGradeAndIsActiveTrue(grade);
     }
@@ -106,6 +127,7 @@ public class UserService {
      * @param minSupercoins Minimum supercoins threshold
      * @return List of users with supercoins above threshold
      */
+    @Transactional(readOnly = true)
     public List<User> getUsersWithSupercoinsAbove(Long minSupercoins) {
         return userRepository.findUsersWithSupercoinsAbove(minSupercoins);
     }
@@ -114,6 +136,7 @@ public class UserService {
      * Get users who have given reviews
      * @return List of users with reviews given
      */
+    @Transactional(readOnly = true)
     public List<User> getUsersWithReviewsGiven() {
         return userRepository.findUsersWithReviewsGiven();
     }
@@ -122,6 +145,7 @@ public class UserService {
      * Get users who have received reviews
      * @return List of users with reviews received
      */
+    @Transactional(readOnly = true)
     public List<User> getUsersWithReviewsReceived() {
         return userRepository.findUsersWithReviewsReceived();
     }
@@ -156,20 +180,23 @@ public class UserService {
      * @return Updated user
      */
     public User updateUser(Long id, User userDetails) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
-        
-        user.setName(userDetails.getName());
-        user.setPhone(userDetails.getPhone());
-        user.setBio(userDetails.getBio());
-        user.setRole(userDetails.getRole());
-        user.setHourlyRate(userDetails.getHourlyRate());
-        user.setExperienceYears(userDetails.getExperienceYears());
-        user.setGrade(userDetails.getGrade());
-        user.setIsActive(userDetails.getIsActive());
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        return userRepository.save(user);
+        return retryExecutor.execute("user.update", () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+            retryExecutor.checkVersion("user.update", userDetails.getVersion(), user.getVersion());
+            
+            user.setName(userDetails.getName());
+            user.setPhone(userDetails.getPhone());
+            user.setBio(userDetails.getBio());
+            user.setRole(userDetails.getRole());
+            user.setHourlyRate(userDetails.getHourlyRate());
+            user.setExperienceYears(userDetails.getExperienceYears());
+            user.setGrade(userDetails.getGrade());
+            user.setIsActive(userDetails.getIsActive());
+            user.setUpdatedAt(LocalDateTime.now());
+            
+            return userRepository.save(user);
+        });
     }
     
     /**
@@ -179,17 +206,20 @@ public class UserService {
      * @return Updated user
      */
     public User creditSupercoins(Long userId, Long amount) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-        
         if (amount <= 0) {
             throw new RuntimeException("Credit amount must be positive");
         }
         
-        user.creditSupercoins(amount);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        return userRepository.save(user);
+        return retryExecutor.execute("user.supercoins.credit", () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+            
+            user.creditSupercoins(amount);
+            user.setUpdatedAt(LocalDateTime.now());
+            walletLedgerService.record(user, WalletTransaction.TransactionType.CREDIT, amount, null, null);
+            
+            return userRepository.save(user);
+        });
     }
     
     /**
@@ -199,20 +229,24 @@ public class UserService {
      * @return Updated user
      */
     public User debitSupercoins(Long userId, Long amount) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-        
         if (amount <= 0) {
             throw new RuntimeException("Debit amount must be positive");
         }
         
-        try {
-            user.debitSupercoins(amount);
-            user.setUpdatedAt(LocalDateTime.now());
-            return userRepository.save(user);
-        } catch (User.InsufficientSupercoinsException e) {
-            throw new RuntimeException(e.getMessage());
-        }
+        return retryExecutor.execute("user.supercoins.debit", () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+            
+            escrowService.requireAvailable(user, amount);
+            try {
+                user.debitSupercoins(amount);
+                user.setUpdatedAt(LocalDateTime.now());
+                walletLedgerService.record(user, WalletTransaction.TransactionType.DEBIT, -amount, null, null);
+                return userRepository.save(user);
+            } catch (User.InsufficientSupercoinsException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+        });
     }
     
     /**
@@ -223,30 +257,35 @@ public class UserService {
      * @return Array containing [fromUser, toUser] after transfer
      */
     public User[] transferSupercoins(Long fromUserId, Long toUserId, Long amount) {
-        User fromUser = userRepository.findById(fromUserId)
-                .orElseThrow(() -> new RuntimeException("Source user not found with ID: " + fromUserId));
-        
-        User toUser = userRepository.findById(toUserId)
-                .orElseThrow(() -> new RuntimeException("Destination user not found with ID: " + toUserId));
-        
         if (amount <= 0) {
             throw new RuntimeException("Transfer amount must be positive");
         }
         
-        try {
-            fromUser.debitSupercoins(amount);
-            toUser.creditSupercoins(amount);
-            
-            fromUser.setUpdatedAt(LocalDateTime.now());
-            toUser.setUpdatedAt(LocalDateTime.now());
+        return retryExecutor.execute("user.supercoins.transfer", () -> {
+            User fromUser = userRepository.findById(fromUserId)
+                    .orElseThrow(() -> new RuntimeException("Source user not found with ID: " + fromUserId));
             
-            User updatedFromUser = userRepository.save(fromUser);
-            User updatedToUser = userRepository.save(toUser);
+            User toUser = userRepository.findById(toUserId)
+                    .orElseThrow(() -> new RuntimeException("Destination user not found with ID: " + toUserId));
             
-            return new User[]{updatedFromUser, updatedToUser};
-        } catch (User.InsufficientSupercoinsException e) {
-            throw new RuntimeException(e.getMessage());
-        }
+            escrowService.requireAvailable(fromUser, amount);
+            try {
+                fromUser.debitSupercoins(amount);
+                toUser.creditSupercoins(amount);
+                
+                fromUser.setUpdatedAt(LocalDateTime.now());
+                toUser.setUpdatedAt(LocalDateTime.now());
+                walletLedgerService.record(fromUser, WalletTransaction.TransactionType.TRANSFER_OUT, -amount, toUserId, null);
+                walletLedgerService.record(toUser, WalletTransaction.TransactionType.TRANSFER_IN, amount, fromUserId, null);
+                
+                User updatedFromUser = userRepository.save(fromUser);
+                User updatedToUser = userRepository.save(toUser);
+                
+                return new User[]{updatedFromUser, updatedToUser};
+            } catch (User.InsufficientSupercoinsException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+        });
     }
     
     /**
@@ -255,12 +294,14 @@ public class UserService {
      * @return Updated user
      */
     public User deactivateUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
-        
-        user.setIsActive(false);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        return userRepository.save(user);
+        return retryExecutor.execute("user.deactivate", () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+            
+            user.setIsActive(false);
+            user.setUpdatedAt(LocalDateTime.now());
+            
+            return userRepository.save(user);
+        });
     }
 }
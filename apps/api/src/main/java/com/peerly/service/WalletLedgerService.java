@@ -0,0 +1,137 @@
+package com.peerly.service;
+
+import com.peerly.dto.WalletHistoryPage;
+import com.peerly.entity.User;
+import com.peerly.entity.WalletStatement;
+import com.peerly.entity.WalletTransaction;
+import com.peerly.repository.UserRepository;
+import com.peerly.repository.WalletStatementRepository;
+import com.peerly.repository.WalletTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only record of supercoin balance changes, written in the same transaction as the
+ * change itself. Writes to one user's wallet are serialized by the user row's optimistic lock,
+ * so per user the (createdAt, id) order is the order the changes committed and each
+ * transaction's balanceAfter continues from the one before it.
+ */
+@Service
+public class WalletLedgerService {
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 1, 1, 0, 0);
+    
+    @Autowired
+    private WalletTransactionRepository transactionRepository;
+    
+    @Autowired
+    private WalletStatementRepository statementRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * Record a balance change; must be called inside the transaction that changes the balance,
+     * after the change has been applied to the user
+     * @param user User whose balance changed
+     * @param type Transaction type
+     * @param amount Signed amount: positive for credits, negative for debits
+     * @param counterpartyId Other user of a transfer or session payment, or null
+     * @param sessionId Settled session, or null
+     * @return Stored transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public WalletTransaction record(User user, WalletTransaction.TransactionType type, long amount,
+                                    Long counterpartyId, Long sessionId) {
+        WalletTransaction transaction = new WalletTransaction();
+        transaction.setUserId(user.getId());
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        transaction.setBalanceAfter(user.getSupercoins());
+        transaction.setCounterpartyId(counterpartyId);
+        transaction.setSessionId(sessionId);
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transactionRepository.save(transaction);
+    }
+    
+    /**
+     * Get a page of a user's wallet history
+     * @param userId User ID
+     * @param cursor ID of the last transaction already seen, or null for the first page
+     * @param types Transaction types to include, or null/empty for all
+     * @param from Start of the period (inclusive), or null
+     * @param to End of the period (exclusive), or null
+     * @param limit Page size
+     * @return Transactions newest first, with the next cursor
+     */
+    @Transactional(readOnly = true)
+    public WalletHistoryPage getHistory(Long userId, Long cursor, Collection<WalletTransaction.TransactionType> types,
+                                        LocalDateTime from, LocalDateTime to, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        Collection<WalletTransaction.TransactionType> typeFilter = types == null || types.isEmpty()
+                ? EnumSet.allOf(WalletTransaction.TransactionType.class) : types;
+        LocalDateTime periodFrom = from == null ? MIN_TIME : from;
+        LocalDateTime periodTo = to == null ? MAX_TIME : to;
+    
+        List<WalletTransaction> items;
+        if (cursor == null) {
+            items = transactionRepository.findPage(userId, typeFilter, periodFrom, periodTo, page);
+        } else {
+            WalletTransaction after = transactionRepository.findById(cursor)
+                    .filter(transaction -> transaction.getUserId().equals(userId))
+                    .orElseThrow(() -> new RuntimeException("Invalid cursor: " + cursor));
+            items = transactionRepository.findPageAfter(userId, typeFilter, periodFrom, periodTo,
+                    after.getCreatedAt(), after.getId(), page);
+        }
+        Long nextCursor = items.size() < page.getPageSize() ? null : items.get(items.size() - 1).getId();
+        return new WalletHistoryPage(items, nextCursor);
+    }
+    
+    /**
+     * Get a user's balance at a past instant
+     * @param userId User ID
+     * @param at Instant
+     * @return Balance at that instant, or empty if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getBalanceAt(Long userId, LocalDateTime at) {
+        Optional<WalletTransaction> latest =
+                transactionRepository.findFirstByUserIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(userId, at);
+        if (latest.isPresent()) {
+            return Optional.of(latest.get().getBalanceAfter());
+        }
+        // Before the first recorded transaction the balance was whatever that transaction started from
+        Optional<WalletTransaction> first = transactionRepository.findFirstByUserIdOrderByCreatedAtAscIdAsc(userId);
+        if (first.isPresent()) {
+            return Optional.of(first.get().getBalanceAfter() - first.get().getAmount());
+        }
+        return userRepository.findById(userId).map(User::getSupercoins);
+    }
+    
+    /**
+     * Get a user's monthly statements for a range of months
+     * @param userId User ID
+     * @param from First month (inclusive)
+     * @param to Last month (inclusive)
+     * @return Statements, newest first; months without transactions have none
+     */
+    @Transactional(readOnly = true)
+    public List<WalletStatement> getStatements(Long userId, YearMonth from, YearMonth to) {
+        return statementRepository.findByUserIdAndStatementMonthBetweenOrderByStatementMonthDesc(
+                userId, WalletStatementService.monthKey(from), WalletStatementService.monthKey(to));
+    }
+}
@@ -0,0 +1,155 @@
+package com.peerly.service;
+
+import com.peerly.repository.WalletStatementRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Builds monthly wallet statements from wallet_transactions.
+ * Each month is split into user ID ranges that are aggregated and upserted in parallel, one
+ * INSERT ... SELECT per range, so no transaction rows travel to the application. Upserts make
+ * a rerun (or a second instance running the same month) harmless. Every run rebuilds the
+ * previous month and catches up on any month after the newest statement.
+ */
+@Service
+public class WalletStatementService {
+    
+    private static final Logger log = LoggerFactory.getLogger(WalletStatementService.class);
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO wallet_statements (user_id, statement_month, opening_balance, closing_balance, " +
+            "  total_credits, total_debits, transaction_count, generated_at) " +
+            "SELECT user_id, ?, " +
+            "  (ARRAY_AGG(balance_after - amount ORDER BY created_at, id))[1], " +
+            "  (ARRAY_AGG(balance_after ORDER BY created_at DESC, id DESC))[1], " +
+            "  COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0), " +
+            "  COALESCE(-SUM(amount) FILTER (WHERE amount < 0), 0), " +
+            "  COUNT(*), now() " +
+            "FROM wallet_transactions " +
+            "WHERE created_at >= ? AND created_at < ? AND user_id >= ? AND user_id <= ? " +
+            "GROUP BY user_id " +
+            "ON CONFLICT (user_id, statement_month) DO UPDATE SET " +
+            "  opening_balance = EXCLUDED.opening_balance, closing_balance = EXCLUDED.closing_balance, " +
+            "  total_credits = EXCLUDED.total_credits, total_debits = EXCLUDED.total_debits, " +
+            "  transaction_count = EXCLUDED.transaction_count, generated_at = EXCLUDED.generated_at";
+    
+    private static final String USER_RANGE_SQL =
+            "SELECT MIN(user_id) AS min_id, MAX(user_id) AS max_id FROM wallet_transactions " +
+            "WHERE created_at >= ? AND created_at < ?";
+    
+    private final ExecutorService executor;
+    
+    private final int parallelism;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private WalletStatementRepository statementRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${peerly.wallet.statements.ranges-per-thread:4}")
+    private int rangesPerThread;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public WalletStatementService(@Value("${peerly.wallet.statements.parallelism:4}") int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.executor = Executors.newFixedThreadPool(this.parallelism, Thread.ofPlatform().name("wallet-statements-", 0).factory());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Build statements for the previous month and any month since the newest statement
+     */
+    @Scheduled(cron = "${peerly.wallet.statements.cron:0 30 3 * * *}")
+    public void generatePending() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            YearMonth last = YearMonth.now().minusMonths(1);
+            Integer newest = statementRepository.findMaxStatementMonth();
+            YearMonth first = newest == null ? last : YearMonth.of(newest / 100, newest % 100).plusMonths(1);
+            if (first.isAfter(last)) {
+                first = last;
+            }
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                generate(month);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Build (or rebuild) every user's statement for one month
+     * @param month Month
+     * @return Number of statements written
+     */
+    public int generate(YearMonth month) {
+        long start = System.currentTimeMillis();
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Map<String, Object> range = jdbcTemplate.queryForMap(USER_RANGE_SQL, from, to);
+        if (range.get("min_id") == null) {
+            return 0;
+        }
+        long minId = ((Number) range.get("min_id")).longValue();
+        long maxId = ((Number) range.get("max_id")).longValue();
+    
+        int key = monthKey(month);
+        long step = Math.max(1, (maxId - minId + 1) / ((long) parallelism * rangesPerThread) + 1);
+        List<Future<Integer>> ranges = new ArrayList<>();
+        for (long lo = minId; lo <= maxId; lo += step) {
+            long rangeFrom = lo;
+            long rangeTo = Math.min(maxId, lo + step - 1);
+            ranges.add(executor.submit(() -> jdbcTemplate.update(UPSERT_SQL, key, from, to, rangeFrom, rangeTo)));
+        }
+    
+        int written = 0;
+        try {
+            for (Future<Integer> future : ranges) {
+                written += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while building wallet statements for " + month);
+        } catch (ExecutionException e) {
+            ranges.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Failed to build wallet statements for " + month + ": " + e.getCause().getMessage());
+        }
+        meterRegistry.counter("peerly.wallet.statements.generated").increment(written);
+        log.info("Built {} wallet statements for {} in {} ranges ({} ms)",
+                written, month, ranges.size(), System.currentTimeMillis() - start);
+        return written;
+    }
+    
+    static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+}
@@ -0,0 +1,142 @@
+package com.peerly.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new AuditRingBuffer<Integer>(2).capacity()).isEqualTo(2);
+        assertThat(new AuditRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer<Integer>(9).capacity()).isEqualTo(16);
+    }
+
+    @Test
+    void offerFailsExactlyWhenFull() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(8);
+        for (int i = 0; i < 8; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.size()).isEqualTo(8);
+        assertThat(buffer.offer(8)).isFalse();
+        assertThat(buffer.size()).isEqualTo(8);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        for (int i = 8; i < 11; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(11)).isFalse();
+
+        drained.clear();
+        assertThat(buffer.drainTo(drained, Integer.MAX_VALUE)).isEqualTo(8);
+        assertThat(drained).containsExactly(3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.drainTo(drained, Integer.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+        int producers = 8;
+        int perProducer = 200_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int value = first; value < first + perProducer; value++) {
+                    while (!buffer.offer(value)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        int total = producers * perProducer;
+        BitSet seen = new BitSet(total);
+        int[] lastByProducer = new int[producers];
+        Arrays.fill(lastByProducer, -1);
+        List<Integer> batch = new ArrayList<>();
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        start.countDown();
+        while (received < total && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 256);
+            for (Integer value : batch) {
+                assertThat(value).isNotNull();
+                assertThat(seen.get(value)).as("duplicate %d", value).isFalse();
+                seen.set(value);
+                // Each producer's elements come out in the order it offered them
+                int producer = value / perProducer;
+                assertThat(value).isGreaterThan(lastByProducer[producer]);
+                lastByProducer[producer] = value;
+            }
+            received += batch.size();
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(received).isEqualTo(total);
+        assertThat(seen.cardinality()).isEqualTo(total);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.drainTo(batch, Integer.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void concurrentProducersFillAFullBufferExactlyToCapacity() throws Exception {
+        int producers = 8;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1000);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * 1000;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int value = first; value < first + 1000; value++) {
+                    if (buffer.offer(value)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // With no consumer, offers succeed until every slot is taken and fail after that
+        assertThat(accepted.get()).isEqualTo(buffer.capacity());
+        assertThat(buffer.size()).isEqualTo(buffer.capacity());
+        assertThat(buffer.offer(-1)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, Integer.MAX_VALUE)).isEqualTo(buffer.capacity());
+        assertThat(drained).doesNotHaveDuplicates();
+        assertThat(buffer.offer(-1)).isTrue();
+    }
+}
@@ -0,0 +1,205 @@
+package com.peerly.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SupercoinHoldIndexTest {
+
+    private static final Long STUDENT = 1L;
+
+    private final SupercoinHoldIndex index = new SupercoinHoldIndex();
+
+    @Test
+    void holdsUpToTheBalance() {
+        assertThat(index.tryHold(10L, STUDENT, 60, 100)).isTrue();
+        assertThat(index.tryHold(11L, STUDENT, 50, 100)).isFalse();
+        assertThat(index.tryHold(12L, STUDENT, 40, 100)).isTrue();
+        assertThat(index.heldBy(STUDENT)).isEqualTo(100);
+    }
+
+    @Test
+    void removeReleasesTheAmountOnce() {
+        index.tryHold(10L, STUDENT, 60, 100);
+        index.remove(10L);
+        index.remove(10L);
+        assertThat(index.heldBy(STUDENT)).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void holdingTheSameSessionAgainReplacesTheHold() {
+        index.tryHold(10L, STUDENT, 30, 100);
+        index.tryHold(10L, STUDENT, 30, 100);
+        assertThat(index.heldBy(STUDENT)).isEqualTo(30);
+    }
+
+    @Test
+    void concurrentHoldsNeverExceedTheBalance() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger placed = new AtomicInteger();
+        AtomicLong sessionIds = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (index.tryHold(sessionIds.incrementAndGet(), STUDENT, 7, 1000)) {
+                        placed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(placed.get()).isEqualTo(1000 / 7);
+        assertThat(index.heldBy(STUDENT)).isEqualTo(placed.get() * 7L);
+        assertThat(index.size()).isEqualTo(placed.get());
+    }
+
+    @Test
+    void reconcileAddsHoldsPlacedElsewhere() {
+        long snapshotStarted = System.nanoTime();
+        index.reconcile(Map.of(20L, new SupercoinHoldIndex.Hold(STUDENT, 40, snapshotStarted)), snapshotStarted);
+
+        assertThat(index.heldBy(STUDENT)).isEqualTo(40);
+        assertThat(index.tryHold(21L, STUDENT, 70, 100)).isFalse();
+    }
+
+    @Test
+    void reconcileDoesNotReaddAHoldResolvedHereDuringTheSnapshot() {
+        index.tryHold(10L, STUDENT, 40, 100);
+        index.committed(10L);
+        long snapshotStarted = System.nanoTime();
+        // The snapshot still shows the hold as HELD, but it was captured here after the read began
+        index.remove(10L);
+
+        index.reconcile(Map.of(10L, new SupercoinHoldIndex.Hold(STUDENT, 40, snapshotStarted)), snapshotStarted);
+
+        assertThat(index.heldBy(STUDENT)).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void reconcileForgetsResolutionsOlderThanTheSnapshot() throws Exception {
+        index.tryHold(10L, STUDENT, 40, 100);
+        index.remove(10L);
+        Thread.sleep(1);
+        long snapshotStarted = System.nanoTime();
+        index.reconcile(Map.of(), snapshotStarted);
+        Thread.sleep(1);
+
+        // The resolution is older than the first snapshot, so a later snapshot showing the hold wins
+        long nextSnapshot = System.nanoTime();
+        index.reconcile(Map.of(10L, new SupercoinHoldIndex.Hold(STUDENT, 40, nextSnapshot)), nextSnapshot);
+        assertThat(index.heldBy(STUDENT)).isEqualTo(40);
+    }
+
+    @Test
+    void reconcileKeepsUncommittedHolds() {
+        index.tryHold(10L, STUDENT, 40, 100);
+
+        index.reconcile(Map.of(), System.nanoTime());
+
+        assertThat(index.heldBy(STUDENT)).isEqualTo(40);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileKeepsHoldsCommittedAfterTheSnapshotStarted() throws Exception {
+        long snapshotStarted = System.nanoTime();
+        Thread.sleep(1);
+        index.tryHold(10L, STUDENT, 40, 100);
+        index.committed(10L);
+
+        index.reconcile(Map.of(), snapshotStarted);
+
+        assertThat(index.heldBy(STUDENT)).isEqualTo(40);
+    }
+
+    @Test
+    void reconcileDropsCommittedHoldsResolvedElsewhere() throws Exception {
+        index.tryHold(10L, STUDENT, 40, 100);
+        index.committed(10L);
+        Thread.sleep(1);
+        long snapshotStarted = System.nanoTime();
+
+        index.reconcile(Map.of(), snapshotStarted);
+
+        assertThat(index.heldBy(STUDENT)).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void totalsStayConsistentWhileReconcileRacesHoldsAndRemovals() throws Exception {
+        int workers = 8;
+        int sessionsPerWorker = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(workers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        Map<Long, SupercoinHoldIndex.Hold> remote = new HashMap<>();
+        for (long sessionId = 1_000_000; sessionId < 1_000_050; sessionId++) {
+            remote.put(sessionId, new SupercoinHoldIndex.Hold(STUDENT, 3, 0L));
+        }
+
+        Future<?> reconciler = pool.submit(() -> {
+            start.await();
+            while (!done.get()) {
+                long snapshotStarted = System.nanoTime();
+                index.reconcile(remote, snapshotStarted);
+            }
+            return null;
+        });
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            long firstSession = (long) w * sessionsPerWorker;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (long sessionId = firstSession; sessionId < firstSession + sessionsPerWorker; sessionId++) {
+                    if (index.tryHold(sessionId, STUDENT, 3, Long.MAX_VALUE / 2)) {
+                        if (sessionId % 3 == 0) {
+                            index.remove(sessionId); // Rolled back
+                        } else {
+                            index.committed(sessionId);
+                            if (sessionId % 3 == 1) {
+                                index.remove(sessionId); // Released
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        done.set(true);
+        reconciler.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Every hold still in the index is counted exactly once in the total
+        assertThat(index.heldBy(STUDENT)).isEqualTo(index.size() * 3L);
+    }
+}
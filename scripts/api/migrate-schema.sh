@@ -0,0 +1,26 @@
+#!/bin/bash
+
+# Apply entity schema changes (Hibernate ddl-auto=update, then the migrations in
+# com.peerly.config.SchemaMigrations) once, outside the serving path.
+# Instances started with the fast-start Spring profile do not touch the schema, so run this
+# against the database before rolling them out. The context exits as soon as it has refreshed,
+# before the web server or any scheduled job starts.
+#
+# Usage: scripts/api/migrate-schema.sh [jar]   (database from SPRING_DATASOURCE_* or application.yml)
+
+set -euo pipefail
+
+API_DIR="$(cd "$(dirname "$0")/../../apps/api" && pwd)"
+JAR="${1:-$API_DIR/target/peerly-api.jar}"
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR not found, build it with: (cd apps/api && mvn -Pfast-start -Dcds.skip=true package)"
+    exit 1
+fi
+
+echo "🗄️  Updating schema with $JAR..."
+java -Dspring.context.exit=onRefresh \
+     -Dspring.main.web-application-type=none \
+     -Dspring.jpa.hibernate.ddl-auto=update \
+     -jar "$JAR"
+echo "✅ Schema is up to date"
@@ -0,0 +1,103 @@
+#!/bin/bash
+
+# Startup benchmark: time from process launch to the first successful API request.
+# Each variant is started RUNS times against the same database; the first request is a real
+# read (it has to reach the database), not just the health endpoint.
+#
+# Usage: scripts/api/startup-benchmark.sh [variant...]
+#   jar      fast-start jar, plain JIT start
+#   aot      + Spring AOT bean definitions
+#   aot-cds  + AOT + AppCDS archive (target/peerly-api.jsa)
+#   native   GraalVM native executable (target/peerlearn, from mvn -Pnative native:compile)
+# Defaults to jar, aot and aot-cds. Environment:
+#   RUNS (5), PORT (18080), PROBE_PATH (/api/api/subjects: the /api context path plus the route),
+#   TIMEOUT_SECONDS (120), plus SPRING_DATASOURCE_*
+
+set -uo pipefail
+
+API_DIR="$(cd "$(dirname "$0")/../../apps/api" && pwd)"
+TARGET="$API_DIR/target"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-18080}"
+PROBE_PATH="${PROBE_PATH:-/api/api/subjects}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+VARIANTS=("$@")
+if [ ${#VARIANTS[@]} -eq 0 ]; then
+    VARIANTS=(jar aot aot-cds)
+fi
+
+SPRING_ARGS=(--server.port="$PORT" --spring.profiles.active=fast-start)
+
+command_for() {
+    case "$1" in
+        jar)     echo "java -jar $TARGET/peerly-api.jar" ;;
+        aot)     echo "java -Dspring.aot.enabled=true -jar $TARGET/peerly-api.jar" ;;
+        aot-cds) echo "java -XX:SharedArchiveFile=$TARGET/peerly-api.jsa -Dspring.aot.enabled=true -jar $TARGET/peerly-api.jar" ;;
+        native)  echo "$TARGET/peerlearn" ;;
+        *)       return 1 ;;
+    esac
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints the milliseconds until PROBE_PATH answered 2xx, or "timeout"
+measure() {
+    local log="$1"; shift
+    local start pid elapsed
+    start=$(now_ms)
+    "$@" "${SPRING_ARGS[@]}" > "$log" 2>&1 &
+    pid=$!
+    while true; do
+        if curl -sf -o /dev/null "http://localhost:$PORT$PROBE_PATH"; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null || [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            elapsed="timeout"
+            break
+        fi
+        sleep 0.02
+    done
+    kill "$pid" 2>/dev/null
+    wait "$pid" 2>/dev/null
+    echo "$elapsed"
+}
+
+if curl -sf -o /dev/null "http://localhost:$PORT$PROBE_PATH"; then
+    echo "❌ Something is already answering on port $PORT"
+    exit 1
+fi
+
+printf "%-10s %8s %8s %8s  %s\n" "variant" "min_ms" "median" "max_ms" "runs"
+for variant in "${VARIANTS[@]}"; do
+    if ! cmd=$(command_for "$variant"); then
+        echo "❌ Unknown variant: $variant"
+        exit 1
+    fi
+    binary=${cmd%% *}
+    [ "$variant" = "native" ] || binary="$TARGET/peerly-api.jar"
+    if [ ! -e "$binary" ]; then
+        printf "%-10s %s\n" "$variant" "skipped ($binary not built)"
+        continue
+    fi
+
+    times=()
+    for run in $(seq 1 "$RUNS"); do
+        # shellcheck disable=SC2086
+        result=$(measure "$TARGET/startup-$variant-$run.log" $cmd)
+        if [ "$result" = "timeout" ]; then
+            echo "❌ $variant run $run did not answer within ${TIMEOUT_SECONDS}s, see $TARGET/startup-$variant-$run.log"
+            continue
+        fi
+        times+=("$result")
+    done
+    if [ ${#times[@]} -eq 0 ]; then
+        continue
+    fi
+
+    sorted=($(printf "%s\n" "${times[@]}" | sort -n))
+    count=${#sorted[@]}
+    printf "%-10s %8s %8s %8s  %s\n" "$variant" "${sorted[0]}" "${sorted[$(( count / 2 ))]}" "${sorted[$(( count - 1 ))]}" "$count"
+done
@@ -0,0 +1,12 @@
+#!/bin/sh
+# Clone the primary on first start and follow it as a hot standby
+set -e
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  until pg_isready -h postgres -U "$POSTGRES_USER"; do
+    sleep 1
+  done
+  PGPASSWORD="$POSTGRES_PASSWORD" pg_basebackup -h postgres -U "$POSTGRES_USER" -D "$PGDATA" -R -X stream
+  chown -R postgres:postgres "$PGDATA"
+  chmod 700 "$PGDATA"
+fi
+exec su-exec postgres postgres